@@ -19,6 +19,7 @@ import com.pg85.otg.generator.ChunkBuffer;
 import com.pg85.otg.generator.biome.BiomeModeManager;
 import com.pg85.otg.generator.resource.Resource;
 import com.pg85.otg.logging.Logger;
+import com.pg85.otg.logging.PerformanceStats;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
@@ -76,6 +77,7 @@ public abstract class OTGEngine
         pluginConfig = new PluginConfig(FileSettingsReader.read("PluginConfig", pluginConfigFile));
         FileSettingsWriter.writeToFile(pluginConfig.getSettingsAsMap(), pluginConfigFile, pluginConfig.settingsMode);
         logger.setLevel(pluginConfig.getLogLevel().getLevel());
+        PerformanceStats.configure(pluginConfig.performanceStats, pluginConfig.performanceStatsLogInterval);
 
         File globalObjectsDir = new File(getOTGRootFolder(), PluginStandardValues.BO_DirectoryName);
         if(!globalObjectsDir.exists())
@@ -8,6 +8,7 @@ import com.pg85.otg.customobjects.bofunctions.EntityFunction;
 import com.pg85.otg.customobjects.structures.CustomStructureCache;
 import com.pg85.otg.exception.BiomeNotFoundException;
 import com.pg85.otg.generator.ObjectSpawner;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.generator.biome.BiomeGenerator;
 import com.pg85.otg.network.ConfigProvider;
 import com.pg85.otg.util.ChunkCoordinate;
@@ -197,6 +198,14 @@ public interface LocalWorld
      */
     public void endPopulation();
 
+    /**
+     * Creates the block access for resources for the population of the
+     * given chunk, see {@link PopulationWindow}.
+     * @param populatingChunk The chunk being populated.
+     * @return The window.
+     */
+    public PopulationWindow createPopulationWindow(ChunkCoordinate populatingChunk);
+
     // Blocks
     
     public LocalMaterialData getMaterial(int x, int y, int z, boolean allowOutsidePopulatingArea);
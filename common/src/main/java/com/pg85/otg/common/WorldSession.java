@@ -1,7 +1,9 @@
 package com.pg85.otg.common;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import com.pg85.otg.customobjects.bo3.BO3;
 import com.pg85.otg.customobjects.bo4.BO4;
@@ -76,16 +78,14 @@ public abstract class WorldSession
 
 			if(worldInfoChunk != null)
     		{
-    			for(ModDataFunction<?> modData : worldInfoChunk.modDataManager.modData)
+    			// modData for all branches of the structure is stored, only get the modData in this chunk
+    			for(ModDataFunction<?> modData : worldInfoChunk.modDataManager.modData.getForChunk(chunkCoord))
     			{
-    				if(ChunkCoordinate.fromBlockCoords(modData.x, modData.z).equals(chunkCoord)) // modData for all branches of the structure is stored, make sure the modData is in this chunk
+    				if(!result.containsKey(modData.modId))
     				{
-	    				if(!result.containsKey(modData.modId))
-	    				{
-	    					result.put(modData.modId, new ArrayList<ModDataFunction<?>>());
-	    				}
-    					result.get(modData.modId).add(modData);
+    					result.put(modData.modId, new ArrayList<ModDataFunction<?>>());
     				}
+    				result.get(modData.modId).add(modData);
     			}
 	    		bFound = true;
 			}
@@ -100,9 +100,14 @@ public abstract class WorldSession
     	return result;
     }
 
-    public ArrayList<SpawnerFunction<?>> getSpawnersForChunk(ChunkCoordinate chunkCoord)
+    /**
+     * Gets the spawners in the given chunk.
+     * @return An immutable list of the spawners, or null if the chunk
+     *         hasn't been populated yet.
+     */
+    public List<SpawnerFunction<?>> getSpawnersForChunk(ChunkCoordinate chunkCoord)
     {
-    	ArrayList<SpawnerFunction<?>> result = new ArrayList<SpawnerFunction<?>>();
+    	List<SpawnerFunction<?>> result = Collections.emptyList();
     	boolean bFound = false;
 		if(world.getStructureCache().worldInfoChunks.containsKey(chunkCoord))
 		{
@@ -110,13 +115,8 @@ public abstract class WorldSession
 
 			if(worldInfoChunk != null)
     		{
-    			for(SpawnerFunction<?> spawnerData : worldInfoChunk.spawnerManager.spawnerData)
-    			{
-    				if(ChunkCoordinate.fromBlockCoords(spawnerData.x, spawnerData.z).equals(chunkCoord)) // spawnerData for all branches of the structure is stored, make sure the modData is in this chunk
-    				{
-    					result.add(spawnerData);
-    				}
-    			}
+				// spawnerData for all branches of the structure is stored, only get the spawners in this chunk
+				result = worldInfoChunk.spawnerManager.spawnerData.getForChunk(chunkCoord);
     		}
     		bFound = true;
 		}
@@ -130,9 +130,14 @@ public abstract class WorldSession
     	return result;
     }
 
-    public ArrayList<ParticleFunction<?>> getParticlesForChunk(ChunkCoordinate chunkCoord)
+    /**
+     * Gets the particles in the given chunk.
+     * @return An immutable list of the particles, or null if the chunk
+     *         hasn't been populated yet.
+     */
+    public List<ParticleFunction<?>> getParticlesForChunk(ChunkCoordinate chunkCoord)
     {
-    	ArrayList<ParticleFunction<?>> result = new ArrayList<ParticleFunction<?>>();
+    	List<ParticleFunction<?>> result = Collections.emptyList();
     	boolean bFound = false;
 		if(world.getStructureCache().worldInfoChunks.containsKey(chunkCoord))
 		{
@@ -140,13 +145,8 @@ public abstract class WorldSession
 
     		if(worldInfoChunk != null)
     		{
-    			for(ParticleFunction<?> particleData : worldInfoChunk.particlesManager.particleData)
-    			{
-    				if(ChunkCoordinate.fromBlockCoords(particleData.x, particleData.z).equals(chunkCoord)) // paticleData for all branches of the structure is stored, make sure the modData is in this chunk
-    				{
-    					result.add(particleData);
-    				}
-    			}
+    			// particleData for all branches of the structure is stored, only get the particles in this chunk
+    			result = worldInfoChunk.particlesManager.particleData.getForChunk(chunkCoord);
     		}
     		bFound = true;
     	}
@@ -163,7 +163,7 @@ public abstract class WorldSession
     public void removeParticles(ChunkCoordinate chunkCoord, ParticleFunction<?> particle)
     {
 		CustomStructure customObject = world.getStructureCache().worldInfoChunks.get(chunkCoord);
-		if(customObject != null && customObject.particlesManager.particleData.contains(particle))
+		if(customObject != null)
 		{
 			customObject.particlesManager.particleData.remove(particle);
 		}
@@ -38,6 +38,21 @@ public final class PluginConfig extends ConfigFile
 	 * Higher values make pre-generation faster but can cause lag and increased memory usage.
 	 */
 	public int pregeneratorMaxChunksPerTick = 1;
+
+	/**
+	 * Spigot only: Tells the server that OTG worlds can generate base terrain for multiple chunks at the same time.
+	 */
+	public boolean parallelChunkGeneration = false;
+
+	/**
+	 * Records how long each stage of chunk generation and population takes, see /otg stats.
+	 */
+	public boolean performanceStats = false;
+
+	/**
+	 * Seconds between writing the performance stats to the log, 0 to never log them.
+	 */
+	public int performanceStatsLogInterval = 0;
     
     public enum LogLevels
     {
@@ -97,6 +112,9 @@ public final class PluginConfig extends ConfigFile
         this.biomeConfigExtension = reader.getSetting(BiomeStandardValues.BIOME_CONFIG_EXTENSION);
         this.spawnLog = reader.getSetting(PluginStandardValues.SPAWN_LOG);
         this.pregeneratorMaxChunksPerTick = reader.getSetting(PluginStandardValues.PREGENERATOR_MAX_CHUNKS_PER_TICK);
+        this.parallelChunkGeneration = reader.getSetting(PluginStandardValues.PARALLEL_CHUNK_GENERATION);
+        this.performanceStats = reader.getSetting(PluginStandardValues.PERFORMANCE_STATS);
+        this.performanceStatsLogInterval = reader.getSetting(PluginStandardValues.PERFORMANCE_STATS_LOG_INTERVAL);
         
         this.developerMode = reader.getSetting(PluginStandardValues.DEVELOPER_MODE);
         this.generateCompressedBO4 = reader.getSetting(PluginStandardValues.GENERATE_COMPRESSED_BO4);
@@ -161,6 +179,21 @@ public final class PluginConfig extends ConfigFile
         writer.putSetting(PluginStandardValues.PREGENERATOR_MAX_CHUNKS_PER_TICK, this.pregeneratorMaxChunksPerTick,
 		        "The number of chunks the pre-generator is allowed to generate for each server tick, shoul be between 1-5.",
 		        "Higher numbers make pre-generation faster but increase memory usage and will cause lag.");
+
+        writer.putSetting(PluginStandardValues.PARALLEL_CHUNK_GENERATION, this.parallelChunkGeneration,
+		        "Spigot only: Lets the server generate the base terrain of multiple chunks at the same time, each thread",
+		        "gets its own terrain generator. Only has an effect on servers that generate chunks on multiple threads.",
+		        "Population (resources, BO3's) is not affected and always happens on the main thread.",
+		        "Defaults to: false");
+
+        writer.putSetting(PluginStandardValues.PERFORMANCE_STATS, this.performanceStats,
+		        "Records how long each stage of chunk generation, population, every resource type and saving/loading",
+		        "structure data takes. Use /otg stats to see the results. Can also be turned on and off with /otg stats on/off.",
+		        "Defaults to: false");
+
+        writer.putSetting(PluginStandardValues.PERFORMANCE_STATS_LOG_INTERVAL, this.performanceStatsLogInterval,
+		        "When PerformanceStats is true, writes the stats to the log every this many seconds. 0 to never log them.",
+		        "Defaults to: 0");
     }
 
     public LogLevels getLogLevel()
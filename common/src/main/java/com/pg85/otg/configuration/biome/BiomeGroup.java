@@ -227,7 +227,7 @@ public final class BiomeGroup extends ConfigFunction<WorldConfig>
     }
 
 	HashMap<Integer, TreeMap<Integer, LocalBiome>> cachedDepthMapOrHigher = new HashMap<Integer, TreeMap<Integer, LocalBiome>>();
-    public SortedMap<Integer, LocalBiome> getDepthMapOrHigher(int depth)
+    public synchronized SortedMap<Integer, LocalBiome> getDepthMapOrHigher(int depth)
     {    	
     	TreeMap<Integer, LocalBiome> map = cachedDepthMapOrHigher.get(new Integer(depth));
     	if(map != null)
@@ -252,7 +252,7 @@ public final class BiomeGroup extends ConfigFunction<WorldConfig>
     }
 
     HashMap<Integer, TreeMap<Integer, LocalBiome>> cachedDepthMaps = new HashMap<Integer, TreeMap<Integer, LocalBiome>>();
-    SortedMap<Integer, LocalBiome> getDepthMap(int depth)
+    synchronized SortedMap<Integer, LocalBiome> getDepthMap(int depth)
     {
     	TreeMap<Integer, LocalBiome> map = cachedDepthMaps.get(new Integer(depth));
     	if(map != null)
@@ -113,7 +113,7 @@ public final class BiomeGroupManager
 
     // TODO: Turn into array?
     HashMap<Integer, TreeMap<Integer, BiomeGroup>> cachedGroupDepthMaps = new HashMap<Integer, TreeMap<Integer, BiomeGroup>>();
-    public SortedMap<Integer, BiomeGroup> getGroupDepthMap(int depth)
+    public synchronized SortedMap<Integer, BiomeGroup> getGroupDepthMap(int depth)
     {
     	TreeMap<Integer, BiomeGroup> map = cachedGroupDepthMaps.get(new Integer(depth));
     	if(map != null)
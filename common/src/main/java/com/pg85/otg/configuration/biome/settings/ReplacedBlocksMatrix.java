@@ -6,15 +6,28 @@ import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.helpers.StringHelper;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 
 public class ReplacedBlocksMatrix
 {
     private static final String NO_REPLACE = "None";
 
+    /**
+     * Compiled instructions that are in use, by their instructions. A
+     * compiled array takes up {@link PluginStandardValues#SUPPORTED_BLOCK_IDS}
+     * references, so biomes with the same instructions share one array,
+     * also across worlds and dimensions using the same preset. Entries are
+     * dropped once no matrix uses their array anymore.
+     */
+    private static final HashMap<SharedTableKey, SharedTable> SharedTables = new HashMap<SharedTableKey, SharedTable>();
+    private static final ReferenceQueue<LocalMaterialData[][]> ReleasedTables = new ReferenceQueue<LocalMaterialData[][]>();
+
     public static class ReplacedBlocksInstruction
     {
         private final LocalMaterialData from;
@@ -98,6 +111,32 @@ public class ReplacedBlocksMatrix
         {
             return maxHeight;
         }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof ReplacedBlocksInstruction))
+            {
+                return false;
+            }
+            ReplacedBlocksInstruction other = (ReplacedBlocksInstruction) obj;
+            return this.minHeight == other.minHeight && this.maxHeight == other.maxHeight
+                    && this.from.equals(other.from) && this.to.equals(other.to);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = this.from.hashCode();
+            result = 31 * result + this.to.hashCode();
+            result = 31 * result + this.minHeight;
+            result = 31 * result + this.maxHeight;
+            return result;
+        }
     }
 
     /**
@@ -186,7 +225,38 @@ public class ReplacedBlocksMatrix
             return;
         }
 
-        this.compiledInstructions = new LocalMaterialData[PluginStandardValues.SUPPORTED_BLOCK_IDS][];
+        this.compiledInstructions = getSharedTable(this.instructions, this.maxHeight);
+    }
+
+    private static LocalMaterialData[][] getSharedTable(List<ReplacedBlocksInstruction> instructions, int maxHeight)
+    {
+        SharedTableKey key = new SharedTableKey(instructions, maxHeight);
+        synchronized (SharedTables)
+        {
+            // Remove the entries of arrays that are no longer used
+            SharedTable released;
+            while ((released = (SharedTable) ReleasedTables.poll()) != null)
+            {
+                if (SharedTables.get(released.key) == released)
+                {
+                    SharedTables.remove(released.key);
+                }
+            }
+
+            SharedTable sharedTable = SharedTables.get(key);
+            LocalMaterialData[][] compiledInstructions = sharedTable == null ? null : sharedTable.get();
+            if (compiledInstructions == null)
+            {
+                compiledInstructions = compile(instructions, maxHeight);
+                SharedTables.put(key, new SharedTable(key, compiledInstructions));
+            }
+            return compiledInstructions;
+        }
+    }
+
+    private static LocalMaterialData[][] compile(List<ReplacedBlocksInstruction> instructions, int maxAllowedY)
+    {
+        LocalMaterialData[][] compiledInstructions = new LocalMaterialData[PluginStandardValues.SUPPORTED_BLOCK_IDS][];
         for (ReplacedBlocksInstruction instruction : instructions)
         {
             int fromBlockId = instruction.getFrom().getBlockId();
@@ -196,13 +266,14 @@ public class ReplacedBlocksMatrix
 
             if (compiledInstructions[fromBlockId] == null)
             {
-                compiledInstructions[fromBlockId] = new LocalMaterialData[this.maxHeight + 1];
+                compiledInstructions[fromBlockId] = new LocalMaterialData[maxAllowedY + 1];
             }
             for (int y = minHeight; y <= maxHeight; y++)
             {
                 compiledInstructions[fromBlockId][y] = toBlock;
             }
         }
+        return compiledInstructions;
     }
 
     public String toString()
@@ -249,4 +320,44 @@ public class ReplacedBlocksMatrix
             throw new AssertionError(e);
         }
     }
+
+    private static final class SharedTableKey
+    {
+        private final List<ReplacedBlocksInstruction> instructions;
+        private final int maxHeight;
+
+        private SharedTableKey(List<ReplacedBlocksInstruction> instructions, int maxHeight)
+        {
+            this.instructions = instructions;
+            this.maxHeight = maxHeight;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof SharedTableKey))
+            {
+                return false;
+            }
+            SharedTableKey other = (SharedTableKey) obj;
+            return this.maxHeight == other.maxHeight && this.instructions.equals(other.instructions);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * this.instructions.hashCode() + this.maxHeight;
+        }
+    }
+
+    private static final class SharedTable extends WeakReference<LocalMaterialData[][]>
+    {
+        private final SharedTableKey key;
+
+        private SharedTable(SharedTableKey key, LocalMaterialData[][] compiledInstructions)
+        {
+            super(compiledInstructions, ReleasedTables);
+            this.key = key;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.pg85.otg.OTG;
 import com.pg85.otg.configuration.customobjects.CustomObjectConfigFunction;
 import com.pg85.otg.configuration.customobjects.CustomObjectResourcesManager;
 import com.pg85.otg.configuration.settingType.Setting;
+import com.pg85.otg.customobjects.bo3.BO3Loader;
 import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.util.helpers.InheritanceHelper;
@@ -107,6 +108,15 @@ public class FileSettingsReaderOTGPlus implements SettingsReaderOTGPlus
 
     @Override
     public <T> List<CustomObjectConfigFunction<T>> getConfigFunctions(T holder, boolean useFallback)
+    {
+        // Start loading the NBT files of this object in the background, the
+        // functions below wait for them. NBT names are resolved next to the
+        // file of the holder, so those of inherited functions aren't included.
+        BO3Loader.preloadMetadata(getReferencedNbtFiles(), this.file);
+        return readConfigFunctions(holder, useFallback);
+    }
+
+    private <T> List<CustomObjectConfigFunction<T>> readConfigFunctions(T holder, boolean useFallback)
     {
         List<CustomObjectConfigFunction<T>> result = new ArrayList<CustomObjectConfigFunction<T>>(configFunctions.size());
         CustomObjectResourcesManager manager = OTG.getCustomObjectResourcesManager();
@@ -132,12 +142,45 @@ public class FileSettingsReaderOTGPlus implements SettingsReaderOTGPlus
         // Add inherited functions
         if (useFallback && fallback != null)
         {
-            return InheritanceHelper.mergeListsCustomObject(result, fallback.getConfigFunctions(holder, true));
+            List<CustomObjectConfigFunction<T>> inherited = fallback instanceof FileSettingsReaderOTGPlus ? ((FileSettingsReaderOTGPlus) fallback).readConfigFunctions(holder, true) : fallback.getConfigFunctions(holder, true);
+            return InheritanceHelper.mergeListsCustomObject(result, inherited);
         }
 
         return result;
     }
 
+    /**
+     * Gets the names of the NBT files used by the config functions of this
+     * reader.
+     */
+    private Set<String> getReferencedNbtFiles()
+    {
+        Set<String> nbtFiles = new HashSet<String>();
+        for (StringOnLine configFunctionLine : configFunctions)
+        {
+            String configFunctionString = configFunctionLine.string;
+            // Only parse the few lines that can reference an NBT file
+            if (configFunctionString.indexOf(".nbt") == -1)
+            {
+                continue;
+            }
+            int bracketIndex = configFunctionString.indexOf('(');
+            if (bracketIndex == -1)
+            {
+                continue;
+            }
+            String parameters = configFunctionString.substring(bracketIndex + 1, configFunctionString.length() - 1);
+            for (String arg : StringHelper.readCommaSeperatedString(parameters))
+            {
+                if (arg.endsWith(".nbt"))
+                {
+                    nbtFiles.add(arg);
+                }
+            }
+        }
+        return nbtFiles;
+    }
+
     @Override
     public File getFile()
     {
@@ -6,8 +6,11 @@ import com.pg85.otg.logging.LogMarker;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -59,33 +62,34 @@ public final class FileSettingsWriter
     }
 
     /**
-     * Writes the settings map to the file.
+     * Writes the settings map to the file. The file is left untouched if it
+     * already has the same content.
      * @param settingsMap The settings map.
      * @throws IOException If an IO error occurs.
      */
     private void write(SettingsMap settingsMap) throws IOException
     {
-        BufferedWriter writer = null;
-        try
+        StringWriter content = new StringWriter();
+        BufferedWriter writer = new BufferedWriter(content);
+        for (RawSettingValue entry : settingsMap.getRawSettings())
+        {
+            writeEntry(writer, entry);
+        }
+        writer.flush();
+
+        // Same encoding as a FileWriter
+        byte[] bytes = content.toString().getBytes(Charset.defaultCharset());
+        if (file.isFile() && file.length() == bytes.length && Arrays.equals(Files.readAllBytes(file.toPath()), bytes))
         {
-            File directory = file.getParentFile();
-            if (!directory.exists() && !directory.mkdirs())
-            {
-                throw new IOException("Could not create directory '" + file.getParentFile() + "'");
-            }
+            return;
+        }
 
-            writer = new BufferedWriter(new FileWriter(file));
-            for (RawSettingValue entry : settingsMap.getRawSettings())
-            {
-                writeEntry(writer, entry);
-            }
-        } finally
+        File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs())
         {
-            if (writer != null)
-            {
-                writer.close();
-            }
+            throw new IOException("Could not create directory '" + file.getParentFile() + "'");
         }
+        Files.write(file.toPath(), bytes);
     }
 
     private void writeEntry(BufferedWriter writer, RawSettingValue value) throws IOException
@@ -16,11 +16,12 @@ public class PluginStandardValues extends Settings
     public static final String BiomeConfigDirectoryName = "GlobalBiomes";
     public static final String BO_DirectoryName = "GlobalObjects";
     public static final String PresetsDirectoryName = "worlds";
+    public static final String ClientCacheDirectoryName = "ClientCache";
     
     // Network
     
     public static final String ChannelName = "OpenTerrainGenerator";
-    public static final int ProtocolVersion = 6;
+    public static final int ProtocolVersion = 8;
     
     // Plugin Defaults
     
@@ -31,6 +32,9 @@ public class PluginStandardValues extends Settings
     public static final Setting<Boolean> DEVELOPER_MODE = booleanSetting("DeveloperMode", false);
     public static final Setting<Boolean> GENERATE_COMPRESSED_BO4 = booleanSetting("GenerateCompressedBO4", false);    
     public static final Setting<Integer> PREGENERATOR_MAX_CHUNKS_PER_TICK = intSetting("PregeneratorMaxChunksPerTick", 2, 1, 5);
+    public static final Setting<Boolean> PARALLEL_CHUNK_GENERATION = booleanSetting("ParallelChunkGeneration", false);
+    public static final Setting<Boolean> PERFORMANCE_STATS = booleanSetting("PerformanceStats", false);
+    public static final Setting<Integer> PERFORMANCE_STATS_LOG_INTERVAL = intSetting("PerformanceStatsLogInterval", 0, 0, Integer.MAX_VALUE);
 	public static final String MOD_ID = "openterraingenerator";
 
 	/**
@@ -14,6 +14,10 @@ import java.util.Map.Entry;
  * Represents a collection of custom objects. Those objects can be loaded from
  * a directory, or can be loaded manually and then added to this collection.
  *
+ * <p>Objects are looked up while the biome configs of a preset are read on
+ * multiple threads (for example by Sapling resources), so indexing the
+ * object folders and loading objects happens while holding the lock on this
+ * collection.</p>
  */
 public class CustomObjectCollection
 {
@@ -127,7 +131,7 @@ public class CustomObjectCollection
      * same name (case insensitive) already exists, nothing happens.
      * @param object The object to add to the list of loaded objects.
      */
-    void addLoadedGlobalObject(CustomObject object)
+    synchronized void addLoadedGlobalObject(CustomObject object)
     {
         String lowerCaseName = object.getName().toLowerCase();
         if (!objectsByNameGlobalObjects.containsKey(lowerCaseName))
@@ -137,7 +141,7 @@ public class CustomObjectCollection
         }
     }
 
-    void reloadCustomObjectFiles()
+    synchronized void reloadCustomObjectFiles()
     {
         objectsGlobalObjects.clear();
         objectsByNameGlobalObjects.clear();
@@ -151,7 +155,7 @@ public class CustomObjectCollection
         customObjectFilesPerWorld.clear();
     }
 
-    public ArrayList<BO4> getAllBO4sForWorld(String worldName)
+    public synchronized ArrayList<BO4> getAllBO4sForWorld(String worldName)
     {
     	ArrayList<BO4> allBO4s = new ArrayList<BO4>();
     	
@@ -183,7 +187,7 @@ public class CustomObjectCollection
      * @param name Name of the object.
      * @return The object, or null if not found.
      */
-    public CustomObject getObjectByName(String name, String worldName)
+    public synchronized CustomObject getObjectByName(String name, String worldName)
     {
     	worldName = OTG.getEngine().getPresetName(worldName);
     	//OTG.log(LogMarker.INFO, "getObjectByName " + worldName != null ? worldName : "");
@@ -20,17 +20,35 @@ import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.util.bo3.NamedBinaryTag;
 
 import java.io.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 public class BO3Loader implements CustomObjectLoader
 {
 
 	// TOOD: Update this
-    /** A list of already loaded meta Tags. The path is the key, a NBT Tag is
-     * the value.
+    /** A list of already loaded meta Tags. The path is the key, the loading
+     * of the NBT Tag is the value, which is either done already, being done
+     * by a preloading thread or not started yet.
      */
-    private static Map<String, NamedBinaryTag> LoadedTags = new HashMap<String, NamedBinaryTag>();
+    private static final ConcurrentHashMap<String, FutureTask<NamedBinaryTag>> LoadedTags = new ConcurrentHashMap<String, FutureTask<NamedBinaryTag>>();
+    /** Loaded meta Tags by the SHA-256 digest of their file, so that copies
+     * of the same NBT file in different folders share a single Tag.
+     */
+    private static final ConcurrentHashMap<FileDigest, NamedBinaryTag> LoadedTagsByDigest = new ConcurrentHashMap<FileDigest, NamedBinaryTag>();
+    /** Threads that preload the NBT files referenced by an object, created
+     * when first needed and stopped on shutdown.
+     */
+    private static ExecutorService PreloadExecutor;
 
     public BO3Loader()
     {
@@ -72,29 +90,91 @@ public class BO3Loader implements CustomObjectLoader
     {
         String path = bo3Folder.getParent() + File.separator + name;
 
-        if (LoadedTags.containsKey(path))
+        // Load it here, unless it's already loaded or being preloaded, in
+        // which case this waits for it
+        FutureTask<NamedBinaryTag> loading = getMetadataLoading(path);
+        loading.run();
+        try
+        {
+            return loading.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e)
+        {
+            // Throw the exception of the preloading thread as if it happened here
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Starts loading the NBT files referenced by an object on multiple
+     * threads, so that {@link #loadMetadata(String, File)} finds them
+     * already loaded. Does not wait for the loading to finish. Only the
+     * given names are read, files in the folder that no object references
+     * are never loaded.
+     * @param names The NBT file names, as used in the object.
+     * @param file  The file of the object.
+     */
+    public static void preloadMetadata(Collection<String> names, File file)
+    {
+        if (names.size() < 2)
+        {
+            // Nothing to gain over loading it on the current thread
+            return;
+        }
+        ExecutorService executor = getPreloadExecutor();
+        for (String name : names)
         {
-            // Found a cached one
-            return LoadedTags.get(path);
+            executor.execute(getMetadataLoading(file.getParent() + File.separator + name));
         }
+    }
 
-        NamedBinaryTag tag = loadTileEntityFromNBT(path);
-        registerMetadata(path, tag);
-        return tag;
+    private static synchronized ExecutorService getPreloadExecutor()
+    {
+        if (PreloadExecutor == null)
+        {
+            PreloadExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()), runnable ->
+            {
+                Thread thread = new Thread(runnable, "OTG NBT loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return PreloadExecutor;
+    }
+
+    private static FutureTask<NamedBinaryTag> getMetadataLoading(String path)
+    {
+        FutureTask<NamedBinaryTag> loading = LoadedTags.get(path);
+        if (loading == null)
+        {
+            FutureTask<NamedBinaryTag> newLoading = new FutureTask<NamedBinaryTag>(() -> loadTileEntityFromNBT(path));
+            loading = LoadedTags.putIfAbsent(path, newLoading);
+            if (loading == null)
+            {
+                loading = newLoading;
+            }
+        }
+        return loading;
     }
 
     private static NamedBinaryTag loadTileEntityFromNBT(String path)
     {
         // Load from file
-        NamedBinaryTag metadata;
-        FileInputStream stream = null;
+        byte[] contents;
         try
         {
             // Read it from a file next to the BO3
-            stream = new FileInputStream(path);
-            // Get the tag
-            metadata = NamedBinaryTag.readFrom(stream, true);
-        } catch (FileNotFoundException e)
+            contents = Files.readAllBytes(new File(path).toPath());
+        } catch (IOException e)
         {
             // File not found
         	if(OTG.getPluginConfig().spawnLog)
@@ -102,18 +182,42 @@ public class BO3Loader implements CustomObjectLoader
         		OTG.log(LogMarker.WARN, "NBT file {} not found", (Object) path);
         	}
             return null;
-        } catch (IOException e)
+        }
+
+        FileDigest fileDigest = new FileDigest(contents);
+        NamedBinaryTag loadedTag = LoadedTagsByDigest.get(fileDigest);
+        if (loadedTag != null)
+        {
+            // Found the same file in another folder
+            return loadedTag;
+        }
+
+        NamedBinaryTag tag = readTileEntityFromNBT(path, contents);
+        if (tag != null)
         {
-            tryToClose(stream);
+            loadedTag = LoadedTagsByDigest.putIfAbsent(fileDigest, tag);
+            if (loadedTag != null)
+            {
+                return loadedTag;
+            }
+        }
+        return tag;
+    }
 
+    private static NamedBinaryTag readTileEntityFromNBT(String path, byte[] contents)
+    {
+        NamedBinaryTag metadata;
+        try
+        {
+            // Get the tag
+            metadata = NamedBinaryTag.readFrom(new ByteArrayInputStream(contents), true);
+        } catch (IOException e)
+        {
             // Not a compressed NBT file, try uncompressed
-            FileInputStream streamForUncompressed = null;
             try
             {
-                // Read it from a file next to the BO3
-                streamForUncompressed = new FileInputStream(path);
                 // Get the tag
-                metadata = NamedBinaryTag.readFrom(streamForUncompressed, false);
+                metadata = NamedBinaryTag.readFrom(new ByteArrayInputStream(contents), false);
             }             
             catch (java.lang.ArrayIndexOutOfBoundsException corruptFile)
             {
@@ -132,13 +236,7 @@ public class BO3Loader implements CustomObjectLoader
 	                OTG.printStackTrace(LogMarker.ERROR, corruptFile);
             	}
                 return null;
-            } finally
-            {
-                tryToClose(streamForUncompressed);
             }
-        } finally
-        {
-            tryToClose(stream);
         }
 
         if(metadata != null)
@@ -169,39 +267,67 @@ public class BO3Loader implements CustomObjectLoader
         return null;
     }
 
-    /**
-     * Caches and returns the provided Meta data
-     * @param pathOnDisk The path of the meta data
-     * @param metadata   The Tag object to be cached
-     * @return the meta data that was cached
-     */
-    private static NamedBinaryTag registerMetadata(String pathOnDisk, NamedBinaryTag metadata)
+    @Override
+    public void onShutdown()
     {
-        // Add it to the cache
-        LoadedTags.put(pathOnDisk, metadata);
-        // Return it
-        return metadata;
+        // Stop the preloading threads first, so that they can't put
+        // entries back into the cache after it is cleaned up
+        synchronized (BO3Loader.class)
+        {
+            if (PreloadExecutor != null)
+            {
+                PreloadExecutor.shutdownNow();
+                try
+                {
+                    PreloadExecutor.awaitTermination(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                PreloadExecutor = null;
+            }
+        }
+
+        // Clean up the cache
+        LoadedTags.clear();
+        LoadedTagsByDigest.clear();
     }
 
-    private static void tryToClose(InputStream stream)
+    /**
+     * The SHA-256 digest of the bytes of a file. Only the digest is kept,
+     * not the bytes themselves.
+     */
+    private static final class FileDigest
     {
-        if (stream != null)
+        private final byte[] digest;
+        private final int hashCode;
+
+        FileDigest(byte[] contents)
         {
             try
             {
-                stream.close();
-            } catch (IOException ignored)
+                this.digest = MessageDigest.getInstance("SHA-256").digest(contents);
+            }
+            catch (NoSuchAlgorithmException e)
             {
-                // Ignore
+                // Every Java platform is required to support SHA-256
+                throw new RuntimeException(e);
             }
+            this.hashCode = Arrays.hashCode(this.digest);
         }
-    }
 
-    @Override
-    public void onShutdown()
-    {
-        // Clean up the cache
-        LoadedTags.clear();
+        @Override
+        public int hashCode()
+        {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return other instanceof FileDigest && this.hashCode == ((FileDigest) other).hashCode && Arrays.equals(this.digest, ((FileDigest) other).digest);
+        }
     }
 
 }
@@ -0,0 +1,160 @@
+package com.pg85.otg.customobjects.structures;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import com.pg85.otg.util.ChunkCoordinate;
+
+/**
+ * Set of structure functions (spawners, particles, mod data) that also keeps
+ * the functions grouped by the chunk they are in.
+ *
+ * <p>A structure stores the functions of all its branches, while most
+ * lookups only need the functions of a single chunk. The grouping is kept
+ * up to date whenever a function is added or removed, so that
+ * {@link #getForChunk(ChunkCoordinate)} is a single map lookup.</p>
+ *
+ * <p>The lists returned by {@link #getForChunk(ChunkCoordinate)} are
+ * immutable; adding or removing a function replaces the list of its chunk,
+ * so a list that is being iterated over is never changed. Like the
+ * {@link HashSet} it wraps, this set is not thread safe.</p>
+ *
+ * @param <T> Type of the functions.
+ */
+public class ChunkIndexedSet<T> extends AbstractSet<T>
+{
+    private final HashSet<T> elements = new HashSet<T>();
+    private final HashMap<ChunkCoordinate, List<T>> elementsByChunk = new HashMap<ChunkCoordinate, List<T>>();
+    private final Function<T, ChunkCoordinate> chunkOfElement;
+
+    /**
+     * Creates an empty set.
+     * @param chunkOfElement Gets the chunk of a function from its
+     *                       coordinates. The coordinates of a function must
+     *                       not change while it is in the set.
+     */
+    public ChunkIndexedSet(Function<T, ChunkCoordinate> chunkOfElement)
+    {
+        this.chunkOfElement = chunkOfElement;
+    }
+
+    /**
+     * Gets all functions in the given chunk.
+     * @param chunkCoord The chunk.
+     * @return An immutable list of the functions, empty if there are none.
+     */
+    public List<T> getForChunk(ChunkCoordinate chunkCoord)
+    {
+        List<T> elementsInChunk = this.elementsByChunk.get(chunkCoord);
+        return elementsInChunk == null ? Collections.<T>emptyList() : elementsInChunk;
+    }
+
+    @Override
+    public boolean add(T element)
+    {
+        if (!this.elements.add(element))
+        {
+            return false;
+        }
+        ChunkCoordinate chunkCoord = this.chunkOfElement.apply(element);
+        List<T> oldElementsInChunk = this.elementsByChunk.get(chunkCoord);
+        List<T> elementsInChunk = oldElementsInChunk == null ? new ArrayList<T>(1) : new ArrayList<T>(oldElementsInChunk);
+        elementsInChunk.add(element);
+        this.elementsByChunk.put(chunkCoord, Collections.unmodifiableList(elementsInChunk));
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean remove(Object element)
+    {
+        if (!this.elements.remove(element))
+        {
+            return false;
+        }
+        removeFromChunk((T) element);
+        return true;
+    }
+
+    private void removeFromChunk(T element)
+    {
+        ChunkCoordinate chunkCoord = this.chunkOfElement.apply(element);
+        List<T> oldElementsInChunk = this.elementsByChunk.get(chunkCoord);
+        if (oldElementsInChunk == null)
+        {
+            return;
+        }
+        List<T> elementsInChunk = new ArrayList<T>(oldElementsInChunk);
+        // Remove the instance itself, functions may be equal to other
+        // functions in the same chunk
+        for (int i = 0; i < elementsInChunk.size(); i++)
+        {
+            if (elementsInChunk.get(i) == element)
+            {
+                elementsInChunk.remove(i);
+                break;
+            }
+        }
+        if (elementsInChunk.isEmpty())
+        {
+            this.elementsByChunk.remove(chunkCoord);
+        } else {
+            this.elementsByChunk.put(chunkCoord, Collections.unmodifiableList(elementsInChunk));
+        }
+    }
+
+    @Override
+    public boolean contains(Object element)
+    {
+        return this.elements.contains(element);
+    }
+
+    @Override
+    public void clear()
+    {
+        this.elements.clear();
+        this.elementsByChunk.clear();
+    }
+
+    @Override
+    public int size()
+    {
+        return this.elements.size();
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        final Iterator<T> iterator = this.elements.iterator();
+        return new Iterator<T>()
+        {
+            private T current;
+
+            @Override
+            public boolean hasNext()
+            {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next()
+            {
+                this.current = iterator.next();
+                return this.current;
+            }
+
+            @Override
+            public void remove()
+            {
+                iterator.remove();
+                removeFromChunk(this.current);
+            }
+        };
+    }
+}
@@ -13,6 +13,7 @@ import com.pg85.otg.customobjects.structures.bo4.BO4CustomStructure;
 import com.pg85.otg.customobjects.structures.bo4.CustomStructurePlotter;
 import com.pg85.otg.generator.resource.CustomStructureGen;
 import com.pg85.otg.logging.LogMarker;
+import com.pg85.otg.logging.PerformanceStats;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.RandomHelper;
 
@@ -54,7 +55,9 @@ public class CustomStructureCache
         this.worldInfoChunks = new HashMap<ChunkCoordinate, CustomStructure>();        
         this.plotter = new CustomStructurePlotter();
         
+        long loadStart = PerformanceStats.start();
         loadStructureCache();
+        PerformanceStats.stop(PerformanceStats.LOAD_STRUCTURES, loadStart);
     }
     
     public CustomStructurePlotter getPlotter()
@@ -181,11 +184,13 @@ public class CustomStructureCache
 			}
 		}
 
+		long saveStart = PerformanceStats.start();
 		if(world.getConfigs().getWorldConfig().isOTGPlus)
 		{
 			compressCache();
 		}
 		saveStructureCache();
+		PerformanceStats.stop(PerformanceStats.SAVE_STRUCTURES, saveStart);
 
 		synchronized(world.getObjectSpawner().lockingObject)
 		{
@@ -318,9 +318,9 @@ public class CustomStructureFileManager
 		    } else {
 		    	structure = new BO3CustomStructure((BO3CustomStructureCoordinate)structureStart);
 		    }
-		    structure.modDataManager.modData = modData;
-		    structure.spawnerManager.spawnerData = spawnerData;
-		    structure.particlesManager.particleData = particleData;
+		    structure.modDataManager.modData.addAll(modData);
+		    structure.spawnerManager.spawnerData.addAll(spawnerData);
+		    structure.particlesManager.particleData.addAll(particleData);
 
 		    structuresFile.put(chunkCoord, structure);
 	    }
@@ -1,14 +1,12 @@
 package com.pg85.otg.customobjects.structures;
 
-import java.util.HashSet;
-
 import com.pg85.otg.customobjects.bofunctions.ModDataFunction;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.bo3.Rotation;
 
 public class ModDataManager
 {
-	public HashSet<ModDataFunction<?>> modData = new HashSet<ModDataFunction<?>>();
+	public final ChunkIndexedSet<ModDataFunction<?>> modData = new ChunkIndexedSet<ModDataFunction<?>>(function -> ChunkCoordinate.fromBlockCoords(function.x, function.z));
 	
 	// TODO: Only used for BO4's, create BO4ModDataManager?
     public void spawnModData(ModDataFunction<?>[] blockDataInObject, CustomStructureCoordinate coordObject, ChunkCoordinate chunkCoordinate)
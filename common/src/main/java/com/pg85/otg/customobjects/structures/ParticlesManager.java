@@ -1,14 +1,12 @@
 package com.pg85.otg.customobjects.structures;
 
-import java.util.HashSet;
-
 import com.pg85.otg.customobjects.bofunctions.ParticleFunction;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.bo3.Rotation;
 
 public class ParticlesManager
 {
-	public HashSet<ParticleFunction<?>> particleData = new HashSet<ParticleFunction<?>>();
+	public final ChunkIndexedSet<ParticleFunction<?>> particleData = new ChunkIndexedSet<ParticleFunction<?>>(function -> ChunkCoordinate.fromBlockCoords(function.x, function.z));
 	
 	// TODO: Only used for BO4's, create BO4ParticlesManager?
     public void spawnParticles(ParticleFunction<?>[] particleDataInObject, CustomStructureCoordinate coordObject, ChunkCoordinate chunkCoordinate)
@@ -1,14 +1,12 @@
 package com.pg85.otg.customobjects.structures;
 
-import java.util.HashSet;
-
 import com.pg85.otg.customobjects.bofunctions.SpawnerFunction;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.bo3.Rotation;
 
 public class SpawnerManager
 {
-	public HashSet<SpawnerFunction<?>> spawnerData = new HashSet<SpawnerFunction<?>>();
+	public final ChunkIndexedSet<SpawnerFunction<?>> spawnerData = new ChunkIndexedSet<SpawnerFunction<?>>(function -> ChunkCoordinate.fromBlockCoords(function.x, function.z));
 	
 	// TODO: Only used for BO4's, create BO4SpawnerManager?
     public void spawnSpawners(SpawnerFunction<?>[] spawnerDataInObject, CustomStructureCoordinate coordObject, ChunkCoordinate chunkCoordinate)
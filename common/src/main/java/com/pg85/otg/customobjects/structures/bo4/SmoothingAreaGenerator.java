@@ -94,21 +94,6 @@ public class SmoothingAreaGenerator
         }
     }
        
-    private class SmoothingAreaLineBlock
-    {
-    	SmoothingAreaBlock block; // 0
-    	boolean goingUp; // 1
-    	boolean goingDown; // 2
-    	boolean isPass2; // 3
-    	
-    	public SmoothingAreaLineBlock(SmoothingAreaBlock block, boolean goingUp, boolean goingDown, boolean isPass2)
-    	{
-        	this.block = block;
-        	this.goingUp = goingUp;
-        	this.goingDown = goingDown;
-        	this.isPass2 = isPass2;	
-    	}
-    }    
     
     void customObjectStructureSpawn(Map<ChunkCoordinate, ArrayList<SmoothingAreaLine>> smoothingAreasToSpawn)
 	{
@@ -367,9 +352,9 @@ public class SmoothingAreaGenerator
                                         xOffset = -1;
                                         CustomStructureCoordinate blockCoords = BO4CustomStructureCoordinate.getRotatedSmoothingCoords(block.x + xOffset + xOffset1, (short)(block.y + yOffset), block.z + zOffset1, objectInChunk.getRotation());
 
-                                        Object[] smoothDirections = rotateSmoothDirections(true, false, false, false, objectInChunk.getRotation());                                       
+                                        int smoothDirections = rotateSmoothDirections(true, false, false, false, objectInChunk.getRotation());                                       
                                         
-                                        smoothToBlocks.add(new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], smoothRadius1));                                       
+                                        smoothToBlocks.add(new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (smoothDirections & SMOOTH_DIRECTION_1) != 0, (smoothDirections & SMOOTH_DIRECTION_2) != 0, (smoothDirections & SMOOTH_DIRECTION_3) != 0, (smoothDirections & SMOOTH_DIRECTION_4) != 0, smoothRadius1));                                       
 
                                         if(!bFoundNeighbour3)
                                         {
@@ -378,7 +363,7 @@ public class SmoothingAreaGenerator
                                             smoothDirections = rotateSmoothDirections(true, false, true, false, objectInChunk.getRotation());
 
                                             //PlotDiagonalLine(smoothToBlocksPerChunk, new Object[]{ bO3InChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], 0,smoothRadius2 });
-                                            plotDiagonalLine(smoothToBlocksPerChunk, new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], smoothRadius1, smoothRadius2), world);
+                                            plotDiagonalLine(smoothToBlocksPerChunk, new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (smoothDirections & SMOOTH_DIRECTION_1) != 0, (smoothDirections & SMOOTH_DIRECTION_2) != 0, (smoothDirections & SMOOTH_DIRECTION_3) != 0, (smoothDirections & SMOOTH_DIRECTION_4) != 0, smoothRadius1, smoothRadius2), world);
                                         }
                                         if(!bFoundNeighbour4)
                                         {
@@ -387,7 +372,7 @@ public class SmoothingAreaGenerator
                                             smoothDirections = rotateSmoothDirections(true, false, false, true, objectInChunk.getRotation());
 
                                             //PlotDiagonalLine(smoothToBlocksPerChunk, new Object[]{ bO3InChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], 0,smoothRadius2 });
-                                            plotDiagonalLine(smoothToBlocksPerChunk, new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], smoothRadius1,smoothRadius2), world);
+                                            plotDiagonalLine(smoothToBlocksPerChunk, new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (smoothDirections & SMOOTH_DIRECTION_1) != 0, (smoothDirections & SMOOTH_DIRECTION_2) != 0, (smoothDirections & SMOOTH_DIRECTION_3) != 0, (smoothDirections & SMOOTH_DIRECTION_4) != 0, smoothRadius1,smoothRadius2), world);
                                         }
                                     }
 
@@ -395,9 +380,9 @@ public class SmoothingAreaGenerator
                                     {
                                         xOffset = 1;
                                         CustomStructureCoordinate blockCoords = BO4CustomStructureCoordinate.getRotatedSmoothingCoords(block.x + xOffset + xOffset1, (short)(block.y + yOffset), block.z + zOffset1, objectInChunk.getRotation());
-                                        Object[] smoothDirections = rotateSmoothDirections(false, true, false, false, objectInChunk.getRotation());
+                                        int smoothDirections = rotateSmoothDirections(false, true, false, false, objectInChunk.getRotation());
 
-                                        smoothToBlocks.add(new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], smoothRadius1));
+                                        smoothToBlocks.add(new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (smoothDirections & SMOOTH_DIRECTION_1) != 0, (smoothDirections & SMOOTH_DIRECTION_2) != 0, (smoothDirections & SMOOTH_DIRECTION_3) != 0, (smoothDirections & SMOOTH_DIRECTION_4) != 0, smoothRadius1));
 
                                         if(!bFoundNeighbour3)
                                         {
@@ -406,7 +391,7 @@ public class SmoothingAreaGenerator
                                             smoothDirections = rotateSmoothDirections(false, true, true, false, objectInChunk.getRotation());
 
                                             //PlotDiagonalLine(smoothToBlocksPerChunk, new Object[]{ bO3InChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], 0, smoothRadius2 });
-                                            plotDiagonalLine(smoothToBlocksPerChunk, new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], smoothRadius1, smoothRadius2), world);
+                                            plotDiagonalLine(smoothToBlocksPerChunk, new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (smoothDirections & SMOOTH_DIRECTION_1) != 0, (smoothDirections & SMOOTH_DIRECTION_2) != 0, (smoothDirections & SMOOTH_DIRECTION_3) != 0, (smoothDirections & SMOOTH_DIRECTION_4) != 0, smoothRadius1, smoothRadius2), world);
                                         }
                                         if(!bFoundNeighbour4)
                                         {
@@ -415,7 +400,7 @@ public class SmoothingAreaGenerator
                                             smoothDirections = rotateSmoothDirections(false, true, false, true, objectInChunk.getRotation());
 
                                             //PlotDiagonalLine(smoothToBlocksPerChunk, new Object[]{ bO3InChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], 0, smoothRadius2 });
-                                            plotDiagonalLine(smoothToBlocksPerChunk, new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], smoothRadius1, smoothRadius2), world);
+                                            plotDiagonalLine(smoothToBlocksPerChunk, new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (smoothDirections & SMOOTH_DIRECTION_1) != 0, (smoothDirections & SMOOTH_DIRECTION_2) != 0, (smoothDirections & SMOOTH_DIRECTION_3) != 0, (smoothDirections & SMOOTH_DIRECTION_4) != 0, smoothRadius1, smoothRadius2), world);
                                         }
                                     }
 
@@ -423,17 +408,17 @@ public class SmoothingAreaGenerator
                                     {
                                         zOffset = -1;
                                         CustomStructureCoordinate blockCoords = BO4CustomStructureCoordinate.getRotatedSmoothingCoords(block.x + xOffset1, (short)(block.y + yOffset), block.z + zOffset + zOffset1, objectInChunk.getRotation());
-                                        Object[] smoothDirections = rotateSmoothDirections(false, false, true, false, objectInChunk.getRotation());
+                                        int smoothDirections = rotateSmoothDirections(false, false, true, false, objectInChunk.getRotation());
 
-                                        smoothToBlocks.add(new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], smoothRadius1));
+                                        smoothToBlocks.add(new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (smoothDirections & SMOOTH_DIRECTION_1) != 0, (smoothDirections & SMOOTH_DIRECTION_2) != 0, (smoothDirections & SMOOTH_DIRECTION_3) != 0, (smoothDirections & SMOOTH_DIRECTION_4) != 0, smoothRadius1));
                                     }
                                     if(!bFoundNeighbour4)
                                     {
                                         zOffset = 1;
                                         CustomStructureCoordinate blockCoords = BO4CustomStructureCoordinate.getRotatedSmoothingCoords(block.x + xOffset1, (short)(block.y + yOffset), block.z + zOffset + zOffset1, objectInChunk.getRotation());
-                                        Object[] smoothDirections = rotateSmoothDirections(false, false, false, true, objectInChunk.getRotation());
+                                        int smoothDirections = rotateSmoothDirections(false, false, false, true, objectInChunk.getRotation());
 
-                                        smoothToBlocks.add(new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (Boolean)smoothDirections[0], (Boolean)smoothDirections[1], (Boolean)smoothDirections[2], (Boolean)smoothDirections[3], smoothRadius1));
+                                        smoothToBlocks.add(new BlockCoordsAndNeighbours(objectInChunk, blockCoords.getX(), blockCoords.getY(), blockCoords.getZ(), (smoothDirections & SMOOTH_DIRECTION_1) != 0, (smoothDirections & SMOOTH_DIRECTION_2) != 0, (smoothDirections & SMOOTH_DIRECTION_3) != 0, (smoothDirections & SMOOTH_DIRECTION_4) != 0, smoothRadius1));
                                     }
                                 }
                 			}
@@ -517,7 +502,16 @@ public class SmoothingAreaGenerator
         return false;
 	}
 	
-    private Object[] rotateSmoothDirections(Boolean smoothDirection1, Boolean smoothDirection2, Boolean smoothDirection3, Boolean smoothDirection4, Rotation rotation)
+    private static final int SMOOTH_DIRECTION_1 = 1;
+    private static final int SMOOTH_DIRECTION_2 = 2;
+    private static final int SMOOTH_DIRECTION_3 = 4;
+    private static final int SMOOTH_DIRECTION_4 = 8;
+
+    /**
+     * Rotates smooth directions, packed as SMOOTH_DIRECTION_1..4 bits so
+     * that no array has to be created for every smoothing anchor.
+     */
+    private int rotateSmoothDirections(boolean smoothDirection1, boolean smoothDirection2, boolean smoothDirection3, boolean smoothDirection4, Rotation rotation)
     {
     	// smoothDirection1 -1x WEST
     	// smoothDirection2 +1x EAST
@@ -525,20 +519,29 @@ public class SmoothingAreaGenerator
     	// smoothDirection4 +1z SOUTH
 		if(rotation == Rotation.NORTH)
 		{
-			return new Object[] { smoothDirection1, smoothDirection2, smoothDirection3, smoothDirection4 };
+			return packSmoothDirections(smoothDirection1, smoothDirection2, smoothDirection3, smoothDirection4);
 		}
 		else if(rotation == Rotation.EAST)
 		{
-			return new Object[] { smoothDirection4, smoothDirection3, smoothDirection1, smoothDirection2 };
+			return packSmoothDirections(smoothDirection4, smoothDirection3, smoothDirection1, smoothDirection2);
 		}
 		else if(rotation == Rotation.SOUTH)
 		{
-			return new Object[] { smoothDirection2, smoothDirection1, smoothDirection4, smoothDirection3 };
+			return packSmoothDirections(smoothDirection2, smoothDirection1, smoothDirection4, smoothDirection3);
 		} else {
-			return new Object[] { smoothDirection3, smoothDirection4, smoothDirection2, smoothDirection1 };
+			return packSmoothDirections(smoothDirection3, smoothDirection4, smoothDirection2, smoothDirection1);
 		}
     }
 
+    private static int packSmoothDirections(boolean smoothDirection1, boolean smoothDirection2, boolean smoothDirection3, boolean smoothDirection4)
+    {
+    	return
+			(smoothDirection1 ? SMOOTH_DIRECTION_1 : 0) |
+			(smoothDirection2 ? SMOOTH_DIRECTION_2 : 0) |
+			(smoothDirection3 ? SMOOTH_DIRECTION_3 : 0) |
+			(smoothDirection4 ? SMOOTH_DIRECTION_4 : 0);
+    }
+
     private boolean isMaterialSmoothingAnchor(BO4BlockFunction blockToCheck, CustomStructureCoordinate bO3ToCheck, CustomStructureCoordinate start)
     {
 		boolean isSmoothAreaAnchor = false;
@@ -1408,7 +1411,7 @@ public class SmoothingAreaGenerator
         if(smoothingAreaInChunk != null && smoothingAreaInChunk.getValue() != null)
         {
             // Merge all smooth areas (lines) so that in one x + z coordinate there can be a maximum of 2 smoothing area blocks, 1 going up and 1 going down (first pass and second pass)
-            ArrayList<SmoothingAreaLineBlock> blocksToSpawn = mergeSmoothingAreas(chunkCoordinate, smoothingAreaInChunk.getValue(), world, start);
+            SmoothingAreaLineBlocks blocksToSpawn = mergeSmoothingAreas(chunkCoordinate, smoothingAreaInChunk.getValue(), world, start);
 
             // blocksToSpawn can be null if a smoothing line's endpoint Y coordinate could not be found. This can happen if
             // the chunk that the endpoint is located in has not yet been spawned. Return false so that the calling method (SpawnForChunk()) knows
@@ -1519,7 +1522,10 @@ public class SmoothingAreaGenerator
             // Declare these here instead of inside for loops to help the GC (good for memory usage)
             // TODO: Find out if this actually makes any noticeable difference, it doesnt exactly
             // make the code any easier to read..
-            SmoothingAreaBlock blockToSpawn;
+            int blockToSpawnX;
+            short blockToSpawnY;
+            int blockToSpawnZ;
+            int column;
             boolean goingUp;
             boolean secondPass;
             LocalMaterialData sourceBlockMaterial;
@@ -1529,38 +1535,47 @@ public class SmoothingAreaGenerator
             boolean bBreak;
             short yStart;
             short yEnd;
-            SmoothingAreaBlock blockToQueueForSpawn = new SmoothingAreaBlock();
+            LocalMaterialData materialToQueueForSpawn;
 
 
-            HashMap<ChunkCoordinate, LocalMaterialData> originalTopBlocks = new HashMap<ChunkCoordinate, LocalMaterialData>();
+            LocalMaterialData[] originalTopBlocks = new LocalMaterialData[blocksToSpawn.getColumnCount()];
+            boolean[] originalTopBlockFound = new boolean[blocksToSpawn.getColumnCount()];
 
             // Spawn blocks
             // For each block in the smoothing area replace blocks above and/or below it
-            for(SmoothingAreaLineBlock blockItemToSpawn : blocksToSpawn)
+            for(int blockIndex = 0; blockIndex < blocksToSpawn.size(); blockIndex++)
             {
-                blockToSpawn = blockItemToSpawn.block;
-                goingUp = blockItemToSpawn.goingUp;
-                secondPass = blockItemToSpawn.isPass2;
-
-                if(blockToSpawn.y > 255)
+                if(blocksToSpawn.isRemoved(blockIndex))
+                {
+                	continue;
+                }
+                blockToSpawnX = blocksToSpawn.getX(blockIndex);
+                blockToSpawnY = blocksToSpawn.getY(blockIndex);
+                blockToSpawnZ = blocksToSpawn.getZ(blockIndex);
+                column = blocksToSpawn.getColumn(blockIndex);
+                goingUp = blocksToSpawn.isGoingUp(blockIndex);
+                secondPass = blocksToSpawn.isPass2(blockIndex);
+
+                if(blockToSpawnY > 255)
                 {
                 	continue; // TODO: prevent this from ever happening!
                 }
 
-            	if(!originalTopBlocks.containsKey(ChunkCoordinate.fromChunkCoords(blockToSpawn.x, blockToSpawn.z)))
+            	if(!originalTopBlockFound[column])
             	{
-        			int highestBlockY = world.getHighestBlockYAt(blockToSpawn.x, blockToSpawn.z, true, true, false, false);
+            		originalTopBlockFound[column] = true;
+        			int highestBlockY = world.getHighestBlockYAt(blockToSpawnX, blockToSpawnZ, true, true, false, false);
         			if(highestBlockY > PluginStandardValues.WORLD_DEPTH)
         			{
-        				originalTopBlocks.put(ChunkCoordinate.fromChunkCoords(blockToSpawn.x, blockToSpawn.z), world.getMaterial(blockToSpawn.x, highestBlockY, blockToSpawn.z, true));
+        				originalTopBlocks[column] = world.getMaterial(blockToSpawnX, highestBlockY, blockToSpawnZ, true);
         			} else {
-        				originalTopBlocks.put(ChunkCoordinate.fromChunkCoords(blockToSpawn.x, blockToSpawn.z), null);
+        				originalTopBlocks[column] = null;
         			}
             	}
 
                 if(isOnBiomeBorder && (!surfaceBlockSet || !groundBlockSet))
                 {
-	                biome = world.getBiome(blockToSpawn.x, blockToSpawn.z);
+	                biome = world.getBiome(blockToSpawnX, blockToSpawnZ);
 	                biomeConfig = biome.getBiomeConfig();
 
 	                if(!surfaceBlockSet)
@@ -1595,7 +1610,7 @@ public class SmoothingAreaGenerator
 					!(biomeConfig.surfaceAndGroundControl instanceof MesaSurfaceGenerator)
         		)
             	{
-        			LocalMaterialData originalSurfaceBlock = originalTopBlocks.get(ChunkCoordinate.fromChunkCoords(blockToSpawn.x, blockToSpawn.z));
+        			LocalMaterialData originalSurfaceBlock = originalTopBlocks[column];
         			if(originalSurfaceBlock == null || originalSurfaceBlock.isLiquid() || originalSurfaceBlock.isAir())
         			{
     	                surfaceBlockMaterial = biomeConfig.surfaceBlock.toDefaultMaterial();
@@ -1616,23 +1631,23 @@ public class SmoothingAreaGenerator
                 // When going down make a hill for the BO3 to stand on
 				if(!goingUp)
 				{
-					yStart = blockToSpawn.y;
+					yStart = blockToSpawnY;
 					yEnd = 0;
 					for(short y = yStart; y > yEnd; y--)
 					{
 						if(y >= 255){ continue;}
 
-						sourceBlockMaterial = world.getMaterial(blockToSpawn.x, y, blockToSpawn.z, true);
+						sourceBlockMaterial = world.getMaterial(blockToSpawnX, y, blockToSpawnZ, true);
 	                    // When going down don't go lower than the highest solid block
-	                    if(sourceBlockMaterial.isSolid() && y < blockToSpawn.y)
+	                    if(sourceBlockMaterial.isSolid() && y < blockToSpawnY)
 	                    {
 	                        // Place the current block but abort spawning after that
 	                        bBreak = true;
 	                    }
 
-	                    if(y == blockToSpawn.y)
+	                    if(y == blockToSpawnY)
 	                    {
-	                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+	                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawnX, y + 1, blockToSpawnZ, true).toDefaultMaterial();
 	                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 	                		{
 	                			materialToSet = surfaceBlockMaterial;
@@ -1642,7 +1657,7 @@ public class SmoothingAreaGenerator
 	                        	blockDataToSet = groundBlockMaterialBlockData;
 	                		}
 	                    }
-	                    else if(y < blockToSpawn.y)
+	                    else if(y < blockToSpawnY)
 	                    {
 	                    	materialToSet = groundBlockMaterial;
 	                    	blockDataToSet = groundBlockMaterialBlockData;
@@ -1652,41 +1667,37 @@ public class SmoothingAreaGenerator
 
 	                    if(materialToSet != null && materialToSet != DefaultMaterial.UNKNOWN_BLOCK)
 	                    {
-	                        blockToQueueForSpawn = new SmoothingAreaBlock();
-	                        blockToQueueForSpawn.x = blockToSpawn.x;
-	                        blockToQueueForSpawn.y = y;
-	                        blockToQueueForSpawn.z = blockToSpawn.z;
-	                        blockToQueueForSpawn.material = MaterialHelper.toLocalMaterialData(materialToSet,blockDataToSet);
+	                        materialToQueueForSpawn = MaterialHelper.toLocalMaterialData(materialToSet,blockDataToSet);
 
 	                        // Apply mesa blocks if needed
 	                        if(
-                        		!blockToQueueForSpawn.material.isAir() &&
-                        		!blockToQueueForSpawn.material.isLiquid() &&
+                        		!materialToQueueForSpawn.isAir() &&
+                        		!materialToQueueForSpawn.isLiquid() &&
                         		biomeConfig.surfaceAndGroundControl != null &&
                 				biomeConfig.surfaceAndGroundControl instanceof MesaSurfaceGenerator &&
                         		(
                     				(
-                						blockToQueueForSpawn.material.toDefaultMaterial().equals(biomeConfig.groundBlock.toDefaultMaterial()) &&
-                						blockToQueueForSpawn.material.getBlockData() == biomeConfig.groundBlock.getBlockData()
+                						materialToQueueForSpawn.toDefaultMaterial().equals(biomeConfig.groundBlock.toDefaultMaterial()) &&
+                						materialToQueueForSpawn.getBlockData() == biomeConfig.groundBlock.getBlockData()
             						)
             						||
             						(
-        								blockToQueueForSpawn.material.toDefaultMaterial().equals(biomeConfig.surfaceBlock.toDefaultMaterial()) &&
-        								blockToQueueForSpawn.material.getBlockData() == biomeConfig.surfaceBlock.getBlockData()
+        								materialToQueueForSpawn.toDefaultMaterial().equals(biomeConfig.surfaceBlock.toDefaultMaterial()) &&
+        								materialToQueueForSpawn.getBlockData() == biomeConfig.surfaceBlock.getBlockData()
     								)
 								)
 							)
 	                        {
-            		        	LocalMaterialData customBlockData = biomeConfig.surfaceAndGroundControl.getCustomBlockData(world, biomeConfig, blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z);
+            		        	LocalMaterialData customBlockData = biomeConfig.surfaceAndGroundControl.getCustomBlockData(world, biomeConfig, blockToSpawnX, y, blockToSpawnZ);
             		        	if(customBlockData != null)
             		        	{
-            		        		blockToQueueForSpawn.material = customBlockData;
+            		        		materialToQueueForSpawn = customBlockData;
             		        	}
-        		        		setBlock(blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z, blockToQueueForSpawn.material, null, world);
+        		        		setBlock(blockToSpawnX, y, blockToSpawnZ, materialToQueueForSpawn, null, world);
 	                        } else {
-	                        	if (!sourceBlockMaterial.toDefaultMaterial().equals(blockToQueueForSpawn.material.toDefaultMaterial()) || sourceBlockMaterial.getBlockData() != blockToQueueForSpawn.material.getBlockData())
+	                        	if (!sourceBlockMaterial.toDefaultMaterial().equals(materialToQueueForSpawn.toDefaultMaterial()) || sourceBlockMaterial.getBlockData() != materialToQueueForSpawn.getBlockData())
 	                        	{
-	                        		setBlock(blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z, blockToQueueForSpawn.material, null, world);
+	                        		setBlock(blockToSpawnX, y, blockToSpawnZ, materialToQueueForSpawn, null, world);
 	                        	}
 	                        }
 	                    } else {
@@ -1710,19 +1721,19 @@ public class SmoothingAreaGenerator
 						continue;
 					}
 
-					yStart = (short) world.getHighestBlockYAt(blockToSpawn.x,blockToSpawn.z, true, true, false, false);
+					yStart = (short) world.getHighestBlockYAt(blockToSpawnX,blockToSpawnZ, true, true, false, false);
 					yEnd = 0;
 					for(short y = yStart; y >= yEnd; y--)
 					{
 						if(y >= 255){ continue;}
 
-						sourceBlockMaterial = world.getMaterial(blockToSpawn.x, y, blockToSpawn.z, true);
+						sourceBlockMaterial = world.getMaterial(blockToSpawnX, y, blockToSpawnZ, true);
 						DefaultMaterial sourceBlockDefaultMaterial = sourceBlockMaterial.toDefaultMaterial();
 
                     	materialToSet = replaceAboveMaterial;
                     	blockDataToSet = replaceAboveMaterialBlockData;
 
-	                    if(y < blockToSpawn.y)
+	                    if(y < blockToSpawnY)
                     	{
 	                    	if(!sourceBlockMaterial.isLiquid() || (secondPass && !((BO4)start.getObject()).getSettings().spawnUnderWater))  // If this is the second pass then the first pass went down and we don't have to make a dam, otherwise we do
 	                    	{
@@ -1733,7 +1744,7 @@ public class SmoothingAreaGenerator
 	                    		materialToSet = replaceAboveMaterial; // Replace liquid with replaceAboveMaterial
 	                    		blockDataToSet = replaceAboveMaterialBlockData;
 	                    	} else {
-	                    		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+	                    		sourceBlockMaterialAbove = world.getMaterial(blockToSpawnX, y + 1, blockToSpawnZ, true).toDefaultMaterial();
 		                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 		                		{
 		                			materialToSet = surfaceBlockMaterial;
@@ -1745,14 +1756,14 @@ public class SmoothingAreaGenerator
 	                    	}
 	                    }
 
-	                    if(y == blockToSpawn.y)
+	                    if(y == blockToSpawnY)
 	                    {
 	                    	if(sourceBlockMaterial.isSolid() || (!secondPass && sourceBlockMaterial.isLiquid() && !((BO4)start.getObject()).getSettings().spawnUnderWater))
 	                    	{
-		                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+		                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawnX, y + 1, blockToSpawnZ, true).toDefaultMaterial();
 		                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 		                		{
-			                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+			                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawnX, y + 1, blockToSpawnZ, true).toDefaultMaterial();
 			                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 			                		{
 			                			materialToSet = surfaceBlockMaterial;
@@ -1774,7 +1785,7 @@ public class SmoothingAreaGenerator
 	                    			// After removing layers of blocks replace the heighest block left with the surfaceBlockMaterial
 	                    			if(!sourceBlockMaterial.isLiquid() && !sourceBlockDefaultMaterial.equals(DefaultMaterial.AIR))
 	                    			{
-	        	                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+	        	                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawnX, y + 1, blockToSpawnZ, true).toDefaultMaterial();
 	        	                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 	        	                		{
 	        	                			materialToSet = DefaultMaterial.AIR; // Make sure that canyons/caves etc aren't covered
@@ -1799,41 +1810,37 @@ public class SmoothingAreaGenerator
 
 	                    if(materialToSet != null && materialToSet != DefaultMaterial.UNKNOWN_BLOCK)
 	                    {
-	                        blockToQueueForSpawn = new SmoothingAreaBlock();
-	                        blockToQueueForSpawn.x = blockToSpawn.x;
-	                        blockToQueueForSpawn.y = y;
-	                        blockToQueueForSpawn.z = blockToSpawn.z;
-	                        blockToQueueForSpawn.material = MaterialHelper.toLocalMaterialData(materialToSet, blockDataToSet);
+	                        materialToQueueForSpawn = MaterialHelper.toLocalMaterialData(materialToSet, blockDataToSet);
 
 	                        // Apply mesa blocks if needed
 	                        if(
-                        		!blockToQueueForSpawn.material.isAir() &&
-                        		!blockToQueueForSpawn.material.isLiquid() &&
+                        		!materialToQueueForSpawn.isAir() &&
+                        		!materialToQueueForSpawn.isLiquid() &&
                         		biomeConfig.surfaceAndGroundControl != null &&
                 				biomeConfig.surfaceAndGroundControl instanceof MesaSurfaceGenerator &&
                         		(
                     				(
-                						blockToQueueForSpawn.material.toDefaultMaterial().equals(biomeConfig.groundBlock.toDefaultMaterial()) &&
-                						blockToQueueForSpawn.material.getBlockData() == biomeConfig.groundBlock.getBlockData()
+                						materialToQueueForSpawn.toDefaultMaterial().equals(biomeConfig.groundBlock.toDefaultMaterial()) &&
+                						materialToQueueForSpawn.getBlockData() == biomeConfig.groundBlock.getBlockData()
             						)
             						||
             						(
-        								blockToQueueForSpawn.material.toDefaultMaterial().equals(biomeConfig.surfaceBlock.toDefaultMaterial()) &&
-        								blockToQueueForSpawn.material.getBlockData() == biomeConfig.surfaceBlock.getBlockData()
+        								materialToQueueForSpawn.toDefaultMaterial().equals(biomeConfig.surfaceBlock.toDefaultMaterial()) &&
+        								materialToQueueForSpawn.getBlockData() == biomeConfig.surfaceBlock.getBlockData()
     								)
 								)
 							)
 	                        {
-            		        	LocalMaterialData customBlockData = biomeConfig.surfaceAndGroundControl.getCustomBlockData(world, biomeConfig, blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z);
+            		        	LocalMaterialData customBlockData = biomeConfig.surfaceAndGroundControl.getCustomBlockData(world, biomeConfig, blockToSpawnX, y, blockToSpawnZ);
             		        	if(customBlockData != null)
             		        	{
-            		        		blockToQueueForSpawn.material = customBlockData;
+            		        		materialToQueueForSpawn = customBlockData;
             		        	}
-        		        		setBlock(blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z, blockToQueueForSpawn.material, null, world);
+        		        		setBlock(blockToSpawnX, y, blockToSpawnZ, materialToQueueForSpawn, null, world);
 	                        } else {
-	                        	if (!sourceBlockMaterial.toDefaultMaterial().equals(blockToQueueForSpawn.material.toDefaultMaterial()) || sourceBlockMaterial.getBlockData() != blockToQueueForSpawn.material.getBlockData())
+	                        	if (!sourceBlockMaterial.toDefaultMaterial().equals(materialToQueueForSpawn.toDefaultMaterial()) || sourceBlockMaterial.getBlockData() != materialToQueueForSpawn.getBlockData())
 	                        	{
-	                        		setBlock(blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z, blockToQueueForSpawn.material, null, world);
+	                        		setBlock(blockToSpawnX, y, blockToSpawnZ, materialToQueueForSpawn, null, world);
 	                        	}
 	                        }
 	                    } else {
@@ -1869,9 +1876,9 @@ public class SmoothingAreaGenerator
 	    world.setBlock(x, y, z, material, metaDataTag, true);
     }
 
-    private ArrayList<SmoothingAreaLineBlock> mergeSmoothingAreas(ChunkCoordinate chunkCoordinate, ArrayList<SmoothingAreaLine> smoothingAreas, LocalWorld world, CustomStructureCoordinate start)
+    private SmoothingAreaLineBlocks mergeSmoothingAreas(ChunkCoordinate chunkCoordinate, ArrayList<SmoothingAreaLine> smoothingAreas, LocalWorld world, CustomStructureCoordinate start)
     {
-        ArrayList<SmoothingAreaLineBlock> blocksToSpawn = new ArrayList<SmoothingAreaLineBlock>();
+        SmoothingAreaLineBlocks blocksToSpawn = new SmoothingAreaLineBlocks();
 
         // Declare these here instead of inside for loops to help the GC (good for memory usage)
         // TODO: Find out if this actually makes any noticeable difference, it doesnt exactly
@@ -1899,12 +1906,11 @@ public class SmoothingAreaGenerator
         int diagonalLineFinalDestinationPointZ;
 
         LocalMaterialData material;
-        boolean dontAdd;
-        SmoothingAreaBlock existingBlock;
         SmoothingAreaBlock endPoint;
         short surfaceBlockHeight;
-        SmoothingAreaBlock filler;
-        ArrayList<SmoothingAreaLineBlock> blocksToRemove;
+        int fillerX;
+        short fillerY;
+        int fillerZ;
 
         LocalMaterialData block = null;
         LocalMaterialData[] blockColumn = null;
@@ -2619,18 +2625,20 @@ public class SmoothingAreaGenerator
 	                        }
 	    	            }
 
-                        filler = new SmoothingAreaBlock();
+                        fillerX = 0;
+                        fillerY = 0;
+                        fillerZ = 0;
                         if(originPointX < finalDestinationPointX)
                         {
-                            filler.x = beginPoint.x + i;
-                            filler.y = surfaceBlockHeight;
-                            filler.z = beginPoint.z;
+                            fillerX = beginPoint.x + i;
+                            fillerY = surfaceBlockHeight;
+                            fillerZ = beginPoint.z;
                         }
                         if(originPointX > finalDestinationPointX)
                         {
-                            filler.x = beginPoint.x - i;
-                            filler.y = surfaceBlockHeight;
-                            filler.z = beginPoint.z;
+                            fillerX = beginPoint.x - i;
+                            fillerY = surfaceBlockHeight;
+                            fillerZ = beginPoint.z;
                         }
 
                         // For each block to spawn find out if it is above or below a smooth-area beginning point
@@ -2649,7 +2657,7 @@ public class SmoothingAreaGenerator
 	                        	int originPointX2 = smoothingBeginAndEndPoints2.originPointX;
 	                        	int originPointZ2 = smoothingBeginAndEndPoints2.originPointZ;
 
-	                            if((originPointX2 != filler.x || originPointZ2 != filler.z) || (originPointX == originPointX2 && originPointZ == originPointZ2))
+	                            if((originPointX2 != fillerX || originPointZ2 != fillerZ) || (originPointX == originPointX2 && originPointZ == originPointZ2))
 	                            {
 	                                continue;
 	                            }
@@ -2667,93 +2675,7 @@ public class SmoothingAreaGenerator
                             break;
                         }
 
-                        blocksToRemove = new ArrayList<SmoothingAreaLineBlock>();
-                        dontAdd = false;
-                        for(SmoothingAreaLineBlock existingBlockItem : blocksToSpawn)
-                        {
-                            existingBlock = existingBlockItem.block;
-
-                            //Don't always override higher blocks when going down, instead do a second pass going up
-                            if (existingBlock.x == filler.x && existingBlock.z == filler.z)
-                            {
-                                // When this block is lower than existingblock and this block is going up and existingblock is going up
-                                if (filler.y < existingBlock.y && goingUp && existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                                // When this block is higher than or equal to existingblock and this block is going up and existingblock is going up
-                                else if (filler.y >= existingBlock.y && goingUp && existingBlockItem.goingUp)
-                                {
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is lower than existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y < existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    // since goingDown does not remove higher blocks allow both blocks
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y > existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y == existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    //Allow both
-                                }
-
-                                // When this block is lower than existingblock and this block is going up and existingblock is not going up
-                                if (filler.y < existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                                {
-                                    //if the other block is higher and smoothing downwards then let it cover (smother) any smooth area below it (namely this one)
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is higher than or equal to existingblock and this block is going up and existingblock is not going up
-                                else if (filler.y >= existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                                {
-                                    // if this block is above another block that is going down and this block is going up then both are allowed
-                                }
-                                // When this block is lower than existingblock and this block is not going up and existingblock is not going up
-                                else if (filler.y < existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                                {
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is not going up
-                                else if (filler.y >= existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                            }
-                        }
-
-                        if(!dontAdd)
-                        {
-                        	/*
-	                        // Use this to debug smoothing areas, this shows origin points!
-	                        if(filler.x == originPointX && filler.z == originPointZ)
-	                        {
-	            	    		try {
-	            					World.setBlock(originPointX, originPointY, originPointZ,MaterialHelper.readMaterial("STONE"), null, true);
-	            				} catch (InvalidConfigException e) {
-	            					// TODO Auto-generated catch block
-	            					e.printStackTrace();
-	            				}
-	                        }
-	                        */
-
-	                        if(blocksToRemove.size() > 0)
-	                        {
-	                            for(SmoothingAreaLineBlock blockToRemove : blocksToRemove)
-	                            {
-	                                blocksToSpawn.remove(blockToRemove);
-	                            }
-	                        }
-
-                            blocksToSpawn.add(new SmoothingAreaLineBlock(filler, goingUp, goingDown, pass2 == 1));
-                        }
+                        blocksToSpawn.merge(fillerX, fillerY, fillerZ, goingUp, goingDown, pass2 == 1);
                     }
                 }
                 if(originPointX == finalDestinationPointX && originPointZ != finalDestinationPointZ)
@@ -2839,18 +2761,20 @@ public class SmoothingAreaGenerator
 	                        }
 	    	            }
 
-                        filler = new SmoothingAreaBlock();
+                        fillerX = 0;
+                        fillerY = 0;
+                        fillerZ = 0;
                         if(originPointZ < finalDestinationPointZ)
                         {
-                            filler.x = beginPoint.x;
-                            filler.y = surfaceBlockHeight;
-                            filler.z = beginPoint.z + i;
+                            fillerX = beginPoint.x;
+                            fillerY = surfaceBlockHeight;
+                            fillerZ = beginPoint.z + i;
                         }
                         if(originPointZ > finalDestinationPointZ)
                         {
-                            filler.x = beginPoint.x;
-                            filler.y = surfaceBlockHeight;
-                            filler.z = beginPoint.z - i;
+                            fillerX = beginPoint.x;
+                            fillerY = surfaceBlockHeight;
+                            fillerZ = beginPoint.z - i;
                         }
 
                         // For each block to spawn find out if it is above or below a smooth-area beginning point
@@ -2871,7 +2795,7 @@ public class SmoothingAreaGenerator
 	                        	int originPointX2 = smoothingBeginAndEndPoints2.originPointX;
 	                        	int originPointZ2 = smoothingBeginAndEndPoints2.originPointZ;
 
-	                            if((originPointX2 != filler.x || originPointZ2 != filler.z) || (originPointX == originPointX2 && originPointZ == originPointZ2))
+	                            if((originPointX2 != fillerX || originPointZ2 != fillerZ) || (originPointX == originPointX2 && originPointZ == originPointZ2))
 	                            {
 	                                continue;
 	                            }
@@ -2889,101 +2813,15 @@ public class SmoothingAreaGenerator
                             break;
                         }
 
-                        dontAdd = false;
-                        blocksToRemove = new ArrayList<SmoothingAreaLineBlock>();
-                        for(SmoothingAreaLineBlock existingBlockItem : blocksToSpawn)
-                        {
-                            existingBlock = existingBlockItem.block;
-                            //Don't always override higher blocks when going down, instead do a second pass going up
-                            if (existingBlock.x == filler.x && existingBlock.z == filler.z)
-                            {
-                                // When this block is lower than existingblock and this block is going up and existingblock is going up
-                                if (filler.y < existingBlock.y && goingUp && existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                                // When this block is higher than or equal to existingblock and this block is going up and existingblock is going up
-                                else if (filler.y >= existingBlock.y && goingUp && existingBlockItem.goingUp)
-                                {
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is lower than existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y < existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    // since goingDown does not remove higher blocks allow both blocks
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y > existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y == existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    //Allow both
-                                }
-
-                                // When this block is lower than existingblock and this block is going up and existingblock is not going up
-                                if (filler.y < existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                                {
-                                    //if the other block is higher and smoothing downwards then let it cover (smother) any smooth area below it (namely this one)
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is higher than or equal to existingblock and this block is going up and existingblock is not going up
-                                else if (filler.y >= existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                                {
-                                    // if this block is above another block that is going down and this block is going up then both are allowed
-                                }
-                                // When this block is lower than existingblock and this block is not going up and existingblock is not going up
-                                else if (filler.y < existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                                {
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is not going up
-                                else if (filler.y >= existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                            }
-                        }
-
-                        if(!dontAdd)
-                        {
-                        	/*
-	                        // Use this to debug smoothing areas, this shows origin points!
-	                        if(filler.x == originPointX && filler.z == originPointZ)
-	                        {
-	            	    		try {
-	            					World.setBlock(originPointX, originPointY, originPointZ,MaterialHelper.readMaterial("STONE"), null, true);
-	            				} catch (InvalidConfigException e) {
-	            					// TODO Auto-generated catch block
-	            					e.printStackTrace();
-	            				}
-	                        }
-                        	*/
-
-	                        if(blocksToRemove.size() > 0)
-	                        {
-	                            for(SmoothingAreaLineBlock blockToRemove : blocksToRemove)
-	                            {
-	                                blocksToSpawn.remove(blockToRemove);
-	                            }
-	                        }
-
-                            blocksToSpawn.add(new SmoothingAreaLineBlock(filler, goingUp, goingDown, pass2 == 1));
-                        }
+                        blocksToSpawn.merge(fillerX, fillerY, fillerZ, goingUp, goingDown, pass2 == 1);
                     }
                 }
 
                 if(originPointX == finalDestinationPointX && originPointZ == finalDestinationPointZ)
                 {
-                    filler = new SmoothingAreaBlock();
-                    filler.x = finalDestinationPointX;
-                    filler.y = finalDestinationPointY;
-                    filler.z = finalDestinationPointZ;
+                    fillerX = finalDestinationPointX;
+                    fillerY = finalDestinationPointY;
+                    fillerZ = finalDestinationPointZ;
 
                     if(!goingUp && !goingDown)
                     {
@@ -3006,7 +2844,7 @@ public class SmoothingAreaGenerator
                         	int originPointX2 = smoothingBeginAndEndPoints2.originPointX;
                         	int originPointZ2 = smoothingBeginAndEndPoints2.originPointZ;
 
-                            if((originPointX2 != filler.x || originPointZ2 != filler.z) || (originPointX == originPointX2 && originPointZ == originPointZ2))
+                            if((originPointX2 != fillerX || originPointZ2 != fillerZ) || (originPointX == originPointX2 && originPointZ == originPointZ2))
                             {
                                 continue;
                             }
@@ -3024,92 +2862,7 @@ public class SmoothingAreaGenerator
                     	break;
                     }
 
-                    dontAdd = false;
-                    blocksToRemove = new ArrayList<SmoothingAreaLineBlock>();
-                    for(SmoothingAreaLineBlock existingBlockItem : blocksToSpawn)
-                    {
-                        existingBlock = existingBlockItem.block;
-                        //Don't always override higher blocks when going down, instead do a second pass going up
-                        if (existingBlock.x == filler.x && existingBlock.z == filler.z)
-                        {
-                            // When this block is lower than existingblock and this block is going up and existingblock is going up
-                            if (filler.y < existingBlock.y && goingUp && existingBlockItem.goingUp)
-                            {
-                                blocksToRemove.add(existingBlockItem);
-                            }
-                            // When this block is higher than or equal to existingblock and this block is going up and existingblock is going up
-                            else if (filler.y >= existingBlock.y && goingUp && existingBlockItem.goingUp)
-                            {
-                                dontAdd = true;
-                                break;
-                            }
-                            // When this block is lower than existingblock and this block is not going up and existingblock is going up
-                            else if (filler.y < existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                            {
-                                // since goingDown does not remove higher blocks allow both blocks
-                            }
-                            // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                            else if (filler.y > existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                            {
-                                blocksToRemove.add(existingBlockItem);
-                            }
-                            // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                            else if (filler.y == existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                            {
-                                //Allow both
-                            }
-
-                            // When this block is lower than existingblock and this block is going up and existingblock is not going up
-                            if (filler.y < existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                            {
-                                //if the other block is higher and smoothing downwards then let it cover (smother) any smooth area below it (namely this one)
-                                dontAdd = true;
-                                break;
-                            }
-                            // When this block is higher than or equal to existingblock and this block is going up and existingblock is not going up
-                            else if (filler.y >= existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                            {
-                                // if this block is above another block that is going down and this block is going up then both are allowed
-                            }
-                            // When this block is lower than existingblock and this block is not going up and existingblock is not going up
-                            else if (filler.y < existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                            {
-                                dontAdd = true;
-                                break;
-                            }
-                            // When this block is higher than or equal to existingblock and this block is not going up and existingblock is not going up
-                            else if (filler.y >= existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                            {
-                                blocksToRemove.add(existingBlockItem);
-                            }
-                        }
-                    }
-
-                    if(!dontAdd)
-                    {
-                    	/*
-                        // Use this to debug smoothing areas, this shows origin points!
-                        if(filler.x == originPointX && filler.z == originPointZ)
-                        {
-            	    		try {
-            					World.setBlock(originPointX, originPointY, originPointZ,MaterialHelper.readMaterial("STONE"), null, true);
-            				} catch (InvalidConfigException e) {
-            					// TODO Auto-generated catch block
-            					e.printStackTrace();
-            				}
-                        }
-                    	*/
-
-                        if(blocksToRemove.size() > 0)
-                        {
-                            for(SmoothingAreaLineBlock blockToRemove : blocksToRemove)
-                            {
-                                blocksToSpawn.remove(blockToRemove);
-                            }
-                        }
-
-                        blocksToSpawn.add(new SmoothingAreaLineBlock(filler, goingUp, goingDown, pass2 == 1));
-                    }
+                    blocksToSpawn.merge(fillerX, fillerY, fillerZ, goingUp, goingDown, pass2 == 1);
                 }
             }
         }
@@ -0,0 +1,228 @@
+package com.pg85.otg.customobjects.structures.bo4;
+
+import java.util.Arrays;
+
+/**
+ * The merged smoothing area blocks of a chunk, stored in packed arrays
+ * instead of as an object per block. Smoothing a large BO4 can produce
+ * tens of thousands of these blocks per chunk.
+ *
+ * <p>Blocks are kept in the order they were added, blocks that are removed
+ * are only marked as removed. The blocks of each x + z column are chained
+ * together, so merging a block only has to look at the blocks in its own
+ * column. Each column also gets an index, so that callers can keep data per
+ * column in a plain array, see {@link #getColumnCount()}.</p>
+ */
+final class SmoothingAreaLineBlocks
+{
+	private static final byte GOING_UP = 1;
+	private static final byte GOING_DOWN = 2;
+	private static final byte PASS_2 = 4;
+	private static final byte REMOVED = 8;
+
+	// Blocks
+	private int size = 0;
+	private int[] blockColumns = new int[256];
+	private short[] blockYs = new short[256];
+	private byte[] blockFlags = new byte[256];
+	private int[] nextBlockInColumn = new int[256];
+
+	// Columns, chained per x & 15, z & 15 bucket
+	private int columnCount = 0;
+	private int[] columnXs = new int[64];
+	private int[] columnZs = new int[64];
+	private int[] firstBlockInColumn = new int[64];
+	private int[] lastBlockInColumn = new int[64];
+	private int[] nextColumnInBucket = new int[64];
+	private final int[] firstColumnInBucket = new int[256];
+
+	private int[] blocksToRemove = new int[16];
+
+	SmoothingAreaLineBlocks()
+	{
+		Arrays.fill(this.firstColumnInBucket, -1);
+	}
+
+	/**
+	 * Adds a block unless a block in the same column overrides it, and
+	 * removes the blocks in the same column that it overrides. Blocks going
+	 * down cover lower blocks, blocks going up are covered by blocks going
+	 * down above them, and of two blocks going up only the lowest is kept.
+	 * @return Whether the block was added.
+	 */
+	boolean merge(int x, short y, int z, boolean goingUp, boolean goingDown, boolean isPass2)
+	{
+		int column = findColumn(x, z);
+		if(column != -1)
+		{
+			int blocksToRemoveCount = 0;
+			for(int block = this.firstBlockInColumn[column]; block != -1; block = this.nextBlockInColumn[block])
+			{
+				byte flags = this.blockFlags[block];
+				if((flags & REMOVED) != 0)
+				{
+					continue;
+				}
+				short existingY = this.blockYs[block];
+				boolean remove;
+				if((flags & GOING_UP) != 0)
+				{
+					if(goingUp)
+					{
+						if(y >= existingY)
+						{
+							return false;
+						}
+						remove = true;
+					} else {
+						// A block going down doesn't remove higher blocks going up
+						remove = y > existingY;
+					}
+				} else {
+					if(y < existingY)
+					{
+						// The higher block smoothing downwards covers this one
+						return false;
+					}
+					remove = !goingUp;
+				}
+				if(remove)
+				{
+					if(blocksToRemoveCount == this.blocksToRemove.length)
+					{
+						this.blocksToRemove = Arrays.copyOf(this.blocksToRemove, blocksToRemoveCount * 2);
+					}
+					this.blocksToRemove[blocksToRemoveCount++] = block;
+				}
+			}
+			for(int i = 0; i < blocksToRemoveCount; i++)
+			{
+				this.blockFlags[this.blocksToRemove[i]] |= REMOVED;
+			}
+		} else {
+			column = addColumn(x, z);
+		}
+		addBlock(column, y, (byte)((goingUp ? GOING_UP : 0) | (goingDown ? GOING_DOWN : 0) | (isPass2 ? PASS_2 : 0)));
+		return true;
+	}
+
+	private int findColumn(int x, int z)
+	{
+		for(int column = this.firstColumnInBucket[getBucket(x, z)]; column != -1; column = this.nextColumnInBucket[column])
+		{
+			if(this.columnXs[column] == x && this.columnZs[column] == z)
+			{
+				return column;
+			}
+		}
+		return -1;
+	}
+
+	private int addColumn(int x, int z)
+	{
+		int column = this.columnCount++;
+		if(column == this.columnXs.length)
+		{
+			int capacity = column * 2;
+			this.columnXs = Arrays.copyOf(this.columnXs, capacity);
+			this.columnZs = Arrays.copyOf(this.columnZs, capacity);
+			this.firstBlockInColumn = Arrays.copyOf(this.firstBlockInColumn, capacity);
+			this.lastBlockInColumn = Arrays.copyOf(this.lastBlockInColumn, capacity);
+			this.nextColumnInBucket = Arrays.copyOf(this.nextColumnInBucket, capacity);
+		}
+		int bucket = getBucket(x, z);
+		this.columnXs[column] = x;
+		this.columnZs[column] = z;
+		this.firstBlockInColumn[column] = -1;
+		this.lastBlockInColumn[column] = -1;
+		this.nextColumnInBucket[column] = this.firstColumnInBucket[bucket];
+		this.firstColumnInBucket[bucket] = column;
+		return column;
+	}
+
+	private void addBlock(int column, short y, byte flags)
+	{
+		int block = this.size++;
+		if(block == this.blockColumns.length)
+		{
+			int capacity = block * 2;
+			this.blockColumns = Arrays.copyOf(this.blockColumns, capacity);
+			this.blockYs = Arrays.copyOf(this.blockYs, capacity);
+			this.blockFlags = Arrays.copyOf(this.blockFlags, capacity);
+			this.nextBlockInColumn = Arrays.copyOf(this.nextBlockInColumn, capacity);
+		}
+		this.blockColumns[block] = column;
+		this.blockYs[block] = y;
+		this.blockFlags[block] = flags;
+		this.nextBlockInColumn[block] = -1;
+		if(this.lastBlockInColumn[column] == -1)
+		{
+			this.firstBlockInColumn[column] = block;
+		} else {
+			this.nextBlockInColumn[this.lastBlockInColumn[column]] = block;
+		}
+		this.lastBlockInColumn[column] = block;
+	}
+
+	private static int getBucket(int x, int z)
+	{
+		return (x & 15) << 4 | (z & 15);
+	}
+
+	/**
+	 * Gets the number of blocks ever added, including removed blocks.
+	 */
+	int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Gets the number of distinct x + z columns, column indices are
+	 * 0 <= column < getColumnCount().
+	 */
+	int getColumnCount()
+	{
+		return this.columnCount;
+	}
+
+	boolean isRemoved(int block)
+	{
+		return (this.blockFlags[block] & REMOVED) != 0;
+	}
+
+	int getColumn(int block)
+	{
+		return this.blockColumns[block];
+	}
+
+	int getX(int block)
+	{
+		return this.columnXs[this.blockColumns[block]];
+	}
+
+	short getY(int block)
+	{
+		return this.blockYs[block];
+	}
+
+	int getZ(int block)
+	{
+		return this.columnZs[this.blockColumns[block]];
+	}
+
+	boolean isGoingUp(int block)
+	{
+		return (this.blockFlags[block] & GOING_UP) != 0;
+	}
+
+	boolean isGoingDown(int block)
+	{
+		return (this.blockFlags[block] & GOING_DOWN) != 0;
+	}
+
+	boolean isPass2(int block)
+	{
+		return (this.blockFlags[block] & PASS_2) != 0;
+	}
+}
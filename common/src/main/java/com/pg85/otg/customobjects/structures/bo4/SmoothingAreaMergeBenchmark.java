@@ -0,0 +1,216 @@
+package com.pg85.otg.customobjects.structures.bo4;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Measures the time and memory allocated per chunk for merging the smoothing
+ * area blocks of a chunk with {@link SmoothingAreaLineBlocks}, compared to
+ * the list of objects per block that was used before.
+ *
+ * <p>Usage: {@code SmoothingAreaMergeBenchmark [chunks] [rounds]}. For each
+ * sample, the smoothing lines of the given amount of chunks are generated:
+ * straight lines along x or z sloping up or down, each merged in two
+ * passes, like SmoothingAreaGenerator does for the edges of a BO4. The
+ * blocks that remain are checked to be the same for both merges. Only the
+ * last round is printed, earlier rounds warm up the JIT. Allocation is
+ * measured with com.sun.management.ThreadMXBean, so this needs a HotSpot
+ * based JVM.</p>
+ */
+public class SmoothingAreaMergeBenchmark
+{
+	/** Smoothing lines per chunk and blocks per line of each sample. */
+	private static final int[][] SAMPLES = { { 16, 16 }, { 64, 16 }, { 128, 32 } };
+
+	public static void main(String[] args)
+	{
+		int chunks = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		for (int[] sample : SAMPLES)
+		{
+			int[][][] merges = new int[chunks][][];
+			for (int chunk = 0; chunk < chunks; chunk++)
+			{
+				merges[chunk] = createMerges(chunk, sample[0], sample[1]);
+				if (mergeWithList(merges[chunk]) != mergeWithLineBlocks(merges[chunk]))
+				{
+					throw new IllegalStateException("Merges differ for chunk " + chunk);
+				}
+			}
+
+			for (int round = 0; round < rounds; round++)
+			{
+				long checksum = 0;
+				long allocatedStart = threadBean.getThreadAllocatedBytes(threadId);
+				long timeStart = System.nanoTime();
+				for (int[][] chunkMerges : merges)
+				{
+					checksum += mergeWithList(chunkMerges);
+				}
+				long listTime = System.nanoTime() - timeStart;
+				long listAllocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedStart;
+
+				allocatedStart = threadBean.getThreadAllocatedBytes(threadId);
+				timeStart = System.nanoTime();
+				for (int[][] chunkMerges : merges)
+				{
+					checksum += mergeWithLineBlocks(chunkMerges);
+				}
+				long lineBlocksTime = System.nanoTime() - timeStart;
+				long lineBlocksAllocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedStart;
+
+				if (round == rounds - 1)
+				{
+					System.out.printf("%d lines x %d blocks x 2 passes (%d merges/chunk): list %.1f us %.1f KB/chunk, line blocks %.1f us %.1f KB/chunk (checksum %d)%n",
+						sample[0], sample[1], merges[0].length,
+						listTime / 1000.0 / chunks, listAllocated / 1024.0 / chunks,
+						lineBlocksTime / 1000.0 / chunks, lineBlocksAllocated / 1024.0 / chunks,
+						checksum);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the merges of the smoothing lines of one chunk, each as
+	 * { x, y, z, goingUp ? 1 : 0, isPass2 ? 1 : 0 }.
+	 */
+	private static int[][] createMerges(long seed, int lines, int lineLength)
+	{
+		Random random = new Random(seed);
+		ArrayList<int[]> merges = new ArrayList<int[]>();
+		for (int line = 0; line < lines; line++)
+		{
+			boolean alongX = random.nextBoolean();
+			int fixed = random.nextInt(16);
+			int baseY = 60 + random.nextInt(20);
+			for (int pass = 0; pass < 2; pass++)
+			{
+				boolean goingUp = random.nextBoolean();
+				for (int i = 0; i < lineLength; i++)
+				{
+					int x = alongX ? i % 16 : fixed;
+					int z = alongX ? fixed : i % 16;
+					int y = baseY + (goingUp ? i / 2 : -i / 2);
+					merges.add(new int[] { x, y, z, goingUp ? 1 : 0, pass });
+				}
+			}
+		}
+		return merges.toArray(new int[merges.size()][]);
+	}
+
+	private static int mergeWithLineBlocks(int[][] merges)
+	{
+		SmoothingAreaLineBlocks blocksToSpawn = new SmoothingAreaLineBlocks();
+		for (int[] merge : merges)
+		{
+			blocksToSpawn.merge(merge[0], (short) merge[1], merge[2], merge[3] == 1, merge[3] == 0, merge[4] == 1);
+		}
+		int remaining = 0;
+		for (int block = 0; block < blocksToSpawn.size(); block++)
+		{
+			if (!blocksToSpawn.isRemoved(block))
+			{
+				remaining++;
+			}
+		}
+		return remaining;
+	}
+
+	/**
+	 * The merge as SmoothingAreaGenerator did it before
+	 * {@link SmoothingAreaLineBlocks}: two objects per block in a list, which
+	 * is searched in full for every block.
+	 */
+	private static int mergeWithList(int[][] merges)
+	{
+		ArrayList<ListLineBlock> blocksToSpawn = new ArrayList<ListLineBlock>();
+		for (int[] merge : merges)
+		{
+			ListBlock filler = new ListBlock();
+			filler.x = merge[0];
+			filler.y = (short) merge[1];
+			filler.z = merge[2];
+			boolean goingUp = merge[3] == 1;
+			boolean goingDown = !goingUp;
+
+			ArrayList<ListLineBlock> blocksToRemove = new ArrayList<ListLineBlock>();
+			boolean dontAdd = false;
+			for (ListLineBlock existingBlockItem : blocksToSpawn)
+			{
+				ListBlock existingBlock = existingBlockItem.block;
+				if (existingBlock.x == filler.x && existingBlock.z == filler.z)
+				{
+					if (filler.y < existingBlock.y && goingUp && existingBlockItem.goingUp)
+					{
+						blocksToRemove.add(existingBlockItem);
+					}
+					else if (filler.y >= existingBlock.y && goingUp && existingBlockItem.goingUp)
+					{
+						dontAdd = true;
+						break;
+					}
+					else if (filler.y > existingBlock.y && !goingUp && existingBlockItem.goingUp)
+					{
+						blocksToRemove.add(existingBlockItem);
+					}
+
+					if (filler.y < existingBlock.y && goingUp && !existingBlockItem.goingUp)
+					{
+						dontAdd = true;
+						break;
+					}
+					else if (filler.y < existingBlock.y && !goingUp && !existingBlockItem.goingUp)
+					{
+						dontAdd = true;
+						break;
+					}
+					else if (filler.y >= existingBlock.y && !goingUp && !existingBlockItem.goingUp)
+					{
+						blocksToRemove.add(existingBlockItem);
+					}
+				}
+			}
+
+			if (!dontAdd)
+			{
+				for (ListLineBlock blockToRemove : blocksToRemove)
+				{
+					blocksToSpawn.remove(blockToRemove);
+				}
+				blocksToSpawn.add(new ListLineBlock(filler, goingUp, goingDown, merge[4] == 1));
+			}
+		}
+		return blocksToSpawn.size();
+	}
+
+	/** Same fields as SmoothingAreaGenerator.SmoothingAreaBlock. */
+	private static class ListBlock
+	{
+		Object material;
+		int x;
+		short y;
+		int z;
+	}
+
+	/** Same fields as the SmoothingAreaLineBlock that was replaced. */
+	private static class ListLineBlock
+	{
+		final ListBlock block;
+		final boolean goingUp;
+		final boolean goingDown;
+		final boolean isPass2;
+
+		ListLineBlock(ListBlock block, boolean goingUp, boolean goingDown, boolean isPass2)
+		{
+			this.block = block;
+			this.goingUp = goingUp;
+			this.goingDown = goingDown;
+			this.isPass2 = isPass2;
+		}
+	}
+}
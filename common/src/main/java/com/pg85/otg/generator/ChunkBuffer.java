@@ -41,4 +41,48 @@ public interface ChunkBuffer {
      * @return The block material.
      */
     LocalMaterialData getBlock(int blockX, int blockY, int blockZ);
+
+    /**
+     * Sets a run of blocks in a column to the same material. Does the same
+     * as calling {@link #setBlock(int, int, int, LocalMaterialData)} for
+     * each y, but the implementation only has to convert the material once.
+     *
+     * @param blockX   Block x, from 0 to ({@link ChunkCoordinate#CHUNK_X_SIZE}
+     *                 - 1), inclusive.
+     * @param blockZ   Block z, from 0 to ({@link ChunkCoordinate#CHUNK_Z_SIZE}
+     *                 - 1), inclusive.
+     * @param fromY    Lowest y, inclusive.
+     * @param toY      Highest y, exclusive. At most
+     *                 {@link ChunkCoordinate#CHUNK_Y_SIZE}.
+     * @param material The material to set the blocks to.
+     */
+    void setBlocks(int blockX, int blockZ, int fromY, int toY, LocalMaterialData material);
+
+    /**
+     * Sets a part of a column to the given blocks.
+     *
+     * @param blockX Block x, from 0 to ({@link ChunkCoordinate#CHUNK_X_SIZE}
+     *               - 1), inclusive.
+     * @param blockZ Block z, from 0 to ({@link ChunkCoordinate#CHUNK_Z_SIZE}
+     *               - 1), inclusive.
+     * @param fromY  Lowest y, inclusive.
+     * @param toY    Highest y, exclusive. At most
+     *               {@link ChunkCoordinate#CHUNK_Y_SIZE}.
+     * @param blocks The blocks, indexed by y. Only the blocks from fromY to
+     *               toY are used.
+     */
+    void setBlockColumn(int blockX, int blockZ, int fromY, int toY, LocalMaterialData[] blocks);
+
+    /**
+     * Gets the blocks of a column, from y = 0 up.
+     *
+     * @param blockX Block x, from 0 to ({@link ChunkCoordinate#CHUNK_X_SIZE}
+     *               - 1), inclusive.
+     * @param blockZ Block z, from 0 to ({@link ChunkCoordinate#CHUNK_Z_SIZE}
+     *               - 1), inclusive.
+     * @param blocks Array to place the blocks in, indexed by y. Its length,
+     *               at most {@link ChunkCoordinate#CHUNK_Y_SIZE}, is the
+     *               number of blocks that is read.
+     */
+    void getBlockColumn(int blockX, int blockZ, LocalMaterialData[] blocks);
 }
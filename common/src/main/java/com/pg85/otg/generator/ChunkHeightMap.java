@@ -0,0 +1,134 @@
+package com.pg85.otg.generator;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+import static com.pg85.otg.util.ChunkCoordinate.CHUNK_X_SIZE;
+import static com.pg85.otg.util.ChunkCoordinate.CHUNK_Z_SIZE;
+
+/**
+ * The heights of the highest solid and liquid blocks of each column of a
+ * generated chunk, for answering
+ * {@link com.pg85.otg.common.LocalWorld#getHighestBlockYAt(int, int, boolean, boolean, boolean, boolean)}
+ * for chunks that don't exist yet without keeping all their blocks around.
+ *
+ * <p>Every column is stored as four shorts: the highest solid or liquid
+ * block, with and without counting snow layers as solid, and the highest
+ * solid block, again with and without snow layers. Heights are stored as
+ * y + 1, so that 0 means there is no such block, and the highest solid or
+ * liquid block is marked when it is a liquid.</p>
+ */
+public final class ChunkHeightMap
+{
+    private static final int LIQUID_FLAG = 0x1000;
+    private static final int HEIGHT_MASK = 0x0FFF;
+
+    private final short[] highestBlocks = new short[CHUNK_X_SIZE * CHUNK_Z_SIZE];
+    private final short[] highestBlocksIgnoreSnow = new short[CHUNK_X_SIZE * CHUNK_Z_SIZE];
+    private final short[] highestSolidBlocks = new short[CHUNK_X_SIZE * CHUNK_Z_SIZE];
+    private final short[] highestSolidBlocksIgnoreSnow = new short[CHUNK_X_SIZE * CHUNK_Z_SIZE];
+
+    private ChunkHeightMap()
+    {
+    }
+
+    /**
+     * Reads the heights of all columns of the given chunk buffer.
+     * @param chunkBuffer The generated chunk.
+     * @param maxY        Highest y to look at, inclusive.
+     * @return The heights.
+     */
+    public static ChunkHeightMap of(ChunkBuffer chunkBuffer, int maxY)
+    {
+        ChunkHeightMap heightMap = new ChunkHeightMap();
+        for (int x = 0; x < CHUNK_X_SIZE; x++)
+        {
+            for (int z = 0; z < CHUNK_Z_SIZE; z++)
+            {
+                heightMap.readColumn(chunkBuffer, x, z, maxY);
+            }
+        }
+        return heightMap;
+    }
+
+    private void readColumn(ChunkBuffer chunkBuffer, int x, int z, int maxY)
+    {
+        int index = x * CHUNK_Z_SIZE + z;
+        for (int y = maxY; y >= 0; y--)
+        {
+            LocalMaterialData material = chunkBuffer.getBlock(x, y, z);
+            boolean isLiquid = material.isLiquid();
+            boolean isSolid = material.isSolid();
+            boolean isSnow = !isSolid && material.isMaterial(DefaultMaterial.SNOW);
+            if (isLiquid)
+            {
+                short liquid = (short) ((y + 1) | LIQUID_FLAG);
+                if (this.highestBlocks[index] == 0)
+                {
+                    this.highestBlocks[index] = liquid;
+                }
+                if (this.highestBlocksIgnoreSnow[index] == 0)
+                {
+                    this.highestBlocksIgnoreSnow[index] = liquid;
+                }
+            }
+            else if (isSolid || isSnow)
+            {
+                short solid = (short) (y + 1);
+                if (this.highestBlocks[index] == 0)
+                {
+                    this.highestBlocks[index] = solid;
+                }
+                if (this.highestSolidBlocks[index] == 0)
+                {
+                    this.highestSolidBlocks[index] = solid;
+                }
+                if (isSolid)
+                {
+                    if (this.highestBlocksIgnoreSnow[index] == 0)
+                    {
+                        this.highestBlocksIgnoreSnow[index] = solid;
+                    }
+                    this.highestSolidBlocksIgnoreSnow[index] = solid;
+                    // Nothing below is ever looked at
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the highest block of a column, in the same way as going down the
+     * column and returning the first block that was looked for, or -1 when
+     * first running into a block that wasn't.
+     * @param x            X of the column, only the lowest 4 bits are used.
+     * @param z            Z of the column, only the lowest 4 bits are used.
+     * @param findSolid    Whether solid blocks are looked for.
+     * @param findLiquid   Whether liquid blocks are looked for.
+     * @param ignoreLiquid Whether liquid blocks are skipped.
+     * @param ignoreSnow   Whether snow layers are skipped instead of
+     *                     counting as solid.
+     * @return The y of the block, or -1 if not found.
+     */
+    public int getHighestBlockY(int x, int z, boolean findSolid, boolean findLiquid, boolean ignoreLiquid, boolean ignoreSnow)
+    {
+        int index = (x & 0xF) * CHUNK_Z_SIZE + (z & 0xF);
+        if (ignoreLiquid)
+        {
+            int solid = ignoreSnow ? this.highestSolidBlocksIgnoreSnow[index] : this.highestSolidBlocks[index];
+            return findSolid && solid != 0 ? solid - 1 : -1;
+        }
+
+        int highest = ignoreSnow ? this.highestBlocksIgnoreSnow[index] : this.highestBlocks[index];
+        if (highest == 0)
+        {
+            return -1;
+        }
+        boolean isLiquid = (highest & LIQUID_FLAG) != 0;
+        if ((isLiquid && findLiquid) || (!isLiquid && findSolid))
+        {
+            return (highest & HEIGHT_MASK) - 1;
+        }
+        return -1;
+    }
+}
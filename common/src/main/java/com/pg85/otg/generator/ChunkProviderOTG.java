@@ -13,6 +13,7 @@ import com.pg85.otg.generator.noise.NoiseGeneratorPerlinOctaves;
 import com.pg85.otg.generator.terrain.CavesGen;
 import com.pg85.otg.generator.terrain.RavinesGen;
 import com.pg85.otg.generator.terrain.TerrainGenBase;
+import com.pg85.otg.logging.PerformanceStats;
 import com.pg85.otg.network.ConfigProvider;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MaterialHelper;
@@ -69,6 +70,9 @@ public class ChunkProviderOTG
     private final byte[] waterLevelRaw = new byte[25];
     // Water level for each column
     private final byte[] waterLevel = new byte[CHUNK_X_SIZE * CHUNK_Z_SIZE];
+    // Blocks of the 4x4 columns of one terrain noise cell, written to the
+    // chunk as runs once the cell is filled
+    private final LocalMaterialData[] terrainCellBlocks;
 
     private final int heightScale;
     private final int heightCap;
@@ -84,6 +88,7 @@ public class ChunkProviderOTG
         this.localWorld = world;
         this.heightCap = world.getHeightCap();
         this.heightScale = world.getHeightScale();
+        this.terrainCellBlocks = new LocalMaterialData[16 * (this.heightCap / 8) * 8];
 
         this.random = new Random(world.getSeed());
 
@@ -125,22 +130,34 @@ public class ChunkProviderOTG
         int z = chunkCoord.getChunkZ();
         this.random.setSeed(x * 341873128712L + z * 132897987541L);
 
+        long chunkStart = PerformanceStats.start();
+
         generateTerrain(chunkBuffer);
         
         boolean dry = false;
         if(OTG.fireReplaceBiomeBlocksEvent(x, z, chunkBuffer, localWorld))
 		{
+        	long surfaceStart = PerformanceStats.start();
         	dry = addBiomeBlocksAndCheckWater(chunkBuffer);
+        	PerformanceStats.stop(PerformanceStats.GENERATE_SURFACE, surfaceStart);
 		}
         
+        long cavesStart = PerformanceStats.start();
         this.caveGen.generate(chunkBuffer);
+        PerformanceStats.stop(PerformanceStats.GENERATE_CAVES, cavesStart);
+        long ravinesStart = PerformanceStats.start();
         this.canyonGen.generate(chunkBuffer);
+        PerformanceStats.stop(PerformanceStats.GENERATE_RAVINES, ravinesStart);
 
         WorldConfig worldConfig = configProvider.getWorldConfig();
         if (worldConfig.modeTerrain == WorldConfig.TerrainMode.Normal)// || worldConfig.modeTerrain == WorldConfig.TerrainMode.OldGenerator)
         {
+            long structuresStart = PerformanceStats.start();
             this.localWorld.prepareDefaultStructures(x, z, dry);
+            PerformanceStats.stop(PerformanceStats.GENERATE_STRUCTURES, structuresStart);
         }
+
+        PerformanceStats.stop(PerformanceStats.GENERATE_CHUNK, chunkStart);
     }
 
     private void generateTerrain(ChunkBuffer chunkBuffer)
@@ -157,6 +174,7 @@ public class ChunkProviderOTG
 
         WorldConfig worldConfig = configProvider.getWorldConfig();
         BiomeGenerator biomeGenerator = this.localWorld.getBiomeGenerator();
+        long biomesStart = PerformanceStats.start();
         if (worldConfig.improvedRivers)
         {
             this.riverArray = biomeGenerator.getBiomesUnZoomed(this.riverArray, chunkX * 4 - maxSmoothRadius, chunkZ * 4 - maxSmoothRadius, NOISE_MAX_X + maxSmoothDiameter, NOISE_MAX_Z + maxSmoothDiameter, OutputType.ONLY_RIVERS);
@@ -168,6 +186,7 @@ public class ChunkProviderOTG
         } else {
             this.biomeArray = biomeGenerator.getBiomes(this.biomeArray, chunkX * CHUNK_X_SIZE, chunkZ * CHUNK_Z_SIZE, CHUNK_X_SIZE, CHUNK_Z_SIZE, OutputType.DEFAULT_FOR_WORLD);
         }
+        long biomesNanos = biomesStart == 0 ? 0 : System.nanoTime() - biomesStart;
 
         generateTerrainNoise(chunkX * four, 0, chunkZ * four, maxYSections, usedYSections);
 
@@ -175,11 +194,20 @@ public class ChunkProviderOTG
         // fine-tuned one.
         if (biomeGenerator.canGenerateUnZoomed())
         {
+            biomesStart = PerformanceStats.start();
             this.biomeArray = biomeGenerator.getBiomes(this.biomeArray, chunkX * CHUNK_X_SIZE, chunkZ * CHUNK_Z_SIZE, CHUNK_X_SIZE, CHUNK_Z_SIZE, OutputType.DEFAULT_FOR_WORLD);
+            biomesNanos += biomesStart == 0 ? 0 : System.nanoTime() - biomesStart;
+        }
+        if (PerformanceStats.isEnabled())
+        {
+            PerformanceStats.record(PerformanceStats.GENERATE_BIOMES, biomesNanos);
         }
 
+        long fillStart = PerformanceStats.start();
+
         final double oneEight = 0.125D;
         final double oneFourth = 0.25D;
+        final int filledHeight = oneEightOfHeight * 8;
 
         for (int x = 0; x < four; x++)
         {
@@ -248,7 +276,7 @@ public class ChunkProviderOTG
                                     block = biomeConfig.stoneBlock;
                                 }
 
-                                chunkBuffer.setBlock(piece_x + x * 4, y * 8 + piece_y, z * 4 + piece_z, block);
+                                this.terrainCellBlocks[(piece_x * 4 + piece_z) * filledHeight + y * 8 + piece_y] = block;
                                 d16 += d17;
                             }
                             d11 += d13;
@@ -261,8 +289,29 @@ public class ChunkProviderOTG
                         x1z1 += x1z1y1;
                     }
                 }
+
+                // Write the columns of the cell, mostly long runs of stone,
+                // water and air
+                for (int piece_x = 0; piece_x < 4; piece_x++)
+                {
+                    for (int piece_z = 0; piece_z < 4; piece_z++)
+                    {
+                        int columnStart = (piece_x * 4 + piece_z) * filledHeight;
+                        int runStart = 0;
+                        for (int blockY = 1; blockY <= filledHeight; blockY++)
+                        {
+                            if (blockY == filledHeight || this.terrainCellBlocks[columnStart + blockY] != this.terrainCellBlocks[columnStart + runStart])
+                            {
+                                chunkBuffer.setBlocks(piece_x + x * 4, z * 4 + piece_z, runStart, blockY, this.terrainCellBlocks[columnStart + runStart]);
+                                runStart = blockY;
+                            }
+                        }
+                    }
+                }
             }
         }
+
+        PerformanceStats.stop(PerformanceStats.GENERATE_TERRAIN_FILL, fillStart);
     }
 
     /**
@@ -332,6 +381,10 @@ public class ChunkProviderOTG
         int i3D = 0;
         int i2D = 0;
 
+        // Blending is done per column, in between the noise calculations
+        long noiseStart = PerformanceStats.start();
+        long blendingNanos = 0;
+
         for (int x = 0; x < NOISE_MAX_X; x++)
         {
             for (int z = 0; z < NOISE_MAX_Z; z++)
@@ -366,6 +419,7 @@ public class ChunkProviderOTG
                     noiseHeight /= 8.0D;
                 }
 
+                long blendingStart = noiseStart == 0 ? 0 : System.nanoTime();
                 if (!worldConfig.oldTerrainGenerator)
                 {
                     if (worldConfig.improvedRivers)
@@ -377,6 +431,10 @@ public class ChunkProviderOTG
                 } else {
                     this.oldBiomeFactor(x, z, i2D, usedYSections, noiseHeight);
             	}
+                if (blendingStart != 0)
+                {
+                    blendingNanos += System.nanoTime() - blendingStart;
+                }
 
                 i2D++;
 
@@ -435,6 +493,12 @@ public class ChunkProviderOTG
                 }
             }
         }
+
+        if (noiseStart != 0)
+        {
+            PerformanceStats.record(PerformanceStats.GENERATE_BLENDING, blendingNanos);
+            PerformanceStats.record(PerformanceStats.GENERATE_NOISE, System.nanoTime() - noiseStart - blendingNanos);
+        }
     }
 
     private void oldBiomeFactor(int x, int z, int i4, int ySections, double noiseHeight)
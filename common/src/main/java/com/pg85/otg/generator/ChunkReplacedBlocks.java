@@ -0,0 +1,119 @@
+package com.pg85.otg.generator;
+
+import java.util.BitSet;
+
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.biome.settings.ReplacedBlocksMatrix;
+import com.pg85.otg.configuration.biome.settings.ReplacedBlocksMatrix.ReplacedBlocksInstruction;
+import com.pg85.otg.util.ChunkCoordinate;
+
+import static com.pg85.otg.util.ChunkCoordinate.CHUNK_X_SIZE;
+import static com.pg85.otg.util.ChunkCoordinate.CHUNK_Z_SIZE;
+
+/**
+ * The ReplacedBlocks settings of all columns of a chunk, looked up once so
+ * that replacing the blocks of a chunk doesn't have to look up the biome
+ * for every block or section.
+ *
+ * <p>Also holds the source blocks and the height range of all
+ * ReplacedBlocks instructions in the chunk, so that platforms can skip the
+ * parts of a chunk where nothing can be replaced.</p>
+ */
+public final class ChunkReplacedBlocks
+{
+    private final LocalMaterialData[][][] columns = new LocalMaterialData[CHUNK_X_SIZE * CHUNK_Z_SIZE][][];
+    private final BitSet sourceBlockIds = new BitSet();
+    private int minY = Integer.MAX_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+
+    private ChunkReplacedBlocks()
+    {
+    }
+
+    /**
+     * Looks up the ReplacedBlocks settings of all columns of the given
+     * chunk.
+     * @param world      The world.
+     * @param chunkCoord The chunk.
+     * @return The settings, or null if no column of the chunk replaces
+     *         blocks.
+     */
+    public static ChunkReplacedBlocks forChunk(LocalWorld world, ChunkCoordinate chunkCoord)
+    {
+        ChunkReplacedBlocks replacedBlocks = null;
+        ReplacedBlocksMatrix lastMatrix = null;
+        int worldStartX = chunkCoord.getBlockX();
+        int worldStartZ = chunkCoord.getBlockZ();
+        for (int x = 0; x < CHUNK_X_SIZE; x++)
+        {
+            for (int z = 0; z < CHUNK_Z_SIZE; z++)
+            {
+                LocalBiome biome = world.getBiome(worldStartX + x, worldStartZ + z);
+                if (biome == null || !biome.getBiomeConfig().replacedBlocks.hasReplaceSettings())
+                {
+                    continue;
+                }
+                ReplacedBlocksMatrix matrix = biome.getBiomeConfig().replacedBlocks;
+                if (replacedBlocks == null)
+                {
+                    replacedBlocks = new ChunkReplacedBlocks();
+                }
+                replacedBlocks.columns[x * CHUNK_Z_SIZE + z] = matrix.compiledInstructions;
+                if (matrix != lastMatrix)
+                {
+                    // Neighbouring columns mostly share their biome
+                    replacedBlocks.addInstructions(matrix);
+                    lastMatrix = matrix;
+                }
+            }
+        }
+        return replacedBlocks;
+    }
+
+    private void addInstructions(ReplacedBlocksMatrix matrix)
+    {
+        for (ReplacedBlocksInstruction instruction : matrix.getInstructions())
+        {
+            this.sourceBlockIds.set(instruction.getFrom().getBlockId());
+            this.minY = Math.min(this.minY, instruction.getMinHeight());
+            this.maxY = Math.max(this.maxY, instruction.getMaxHeight());
+        }
+    }
+
+    /**
+     * Gets the compiled ReplacedBlocks instructions of the given column.
+     * @param x X position in the chunk, 0 <= x < 16.
+     * @param z Z position in the chunk, 0 <= z < 16.
+     * @return The instructions, see
+     *         {@link ReplacedBlocksMatrix#compiledInstructions}, or null if
+     *         the column doesn't replace blocks.
+     */
+    public LocalMaterialData[][] getColumn(int x, int z)
+    {
+        return this.columns[x * CHUNK_Z_SIZE + z];
+    }
+
+    /**
+     * Gets whether any column of the chunk replaces the given block.
+     * @param blockId The block id.
+     * @return True if the block may be replaced, false if it never is.
+     */
+    public boolean isSourceBlock(int blockId)
+    {
+        return this.sourceBlockIds.get(blockId);
+    }
+
+    /**
+     * Gets whether anything can be replaced in the given height range.
+     * @param minY Lowest y, inclusive.
+     * @param maxY Highest y, inclusive.
+     * @return False if no instruction of the chunk replaces blocks in the
+     *         range.
+     */
+    public boolean replacesInRange(int minY, int maxY)
+    {
+        return minY <= this.maxY && maxY >= this.minY;
+    }
+}
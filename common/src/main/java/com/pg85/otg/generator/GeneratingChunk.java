@@ -1,9 +1,11 @@
 package com.pg85.otg.generator;
 
+import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.configuration.world.WorldConfig;
 import com.pg85.otg.util.ChunkCoordinate;
 
 import static com.pg85.otg.util.ChunkCoordinate.CHUNK_X_SIZE;
+import static com.pg85.otg.util.ChunkCoordinate.CHUNK_Y_SIZE;
 import static com.pg85.otg.util.ChunkCoordinate.CHUNK_Z_SIZE;
 
 import java.util.Random;
@@ -21,6 +23,9 @@ public final class GeneratingChunk
     public final Random random;
     private final byte[] waterLevel;
     private final double[] surfaceNoise;
+    // The column a surface generator works on, and its blocks before that
+    private final LocalMaterialData[] blockColumn = new LocalMaterialData[CHUNK_Y_SIZE];
+    private final LocalMaterialData[] originalBlockColumn = new LocalMaterialData[CHUNK_Y_SIZE];
 
     GeneratingChunk(Random random, byte[] waterLevel, double[] surfaceNoise, int heightCap)
     {
@@ -100,6 +105,53 @@ public final class GeneratingChunk
         return false;
     }
 
+    /**
+     * Reads all blocks of a column, so that a surface generator can change
+     * them in an array instead of through the chunk buffer block by block.
+     * The changes are written back by
+     * {@link #writeBlockColumn(ChunkBuffer, int, int)}.
+     * 
+     * @param chunkBuffer The chunk.
+     * @param x           X position, 0 <= x < {@value ChunkCoordinate#CHUNK_X_SIZE}.
+     * @param z           Z position, 0 <= z < {@value ChunkCoordinate#CHUNK_Z_SIZE}.
+     * @return The blocks, indexed by y. The array is reused for the next
+     *         column.
+     */
+    public LocalMaterialData[] readBlockColumn(ChunkBuffer chunkBuffer, int x, int z)
+    {
+        chunkBuffer.getBlockColumn(x, z, this.blockColumn);
+        System.arraycopy(this.blockColumn, 0, this.originalBlockColumn, 0, CHUNK_Y_SIZE);
+        return this.blockColumn;
+    }
+
+    /**
+     * Writes the blocks of the column returned by
+     * {@link #readBlockColumn(ChunkBuffer, int, int)} that were changed
+     * back to the chunk.
+     * 
+     * @param chunkBuffer The chunk.
+     * @param x           X position, 0 <= x < {@value ChunkCoordinate#CHUNK_X_SIZE}.
+     * @param z           Z position, 0 <= z < {@value ChunkCoordinate#CHUNK_Z_SIZE}.
+     */
+    public void writeBlockColumn(ChunkBuffer chunkBuffer, int x, int z)
+    {
+        int y = 0;
+        while (y < CHUNK_Y_SIZE)
+        {
+            if (this.blockColumn[y] == this.originalBlockColumn[y])
+            {
+                y++;
+                continue;
+            }
+            int fromY = y;
+            while (y < CHUNK_Y_SIZE && this.blockColumn[y] != this.originalBlockColumn[y])
+            {
+                y++;
+            }
+            chunkBuffer.setBlockColumn(x, z, fromY, y, this.blockColumn);
+        }
+    }
+
     public long getSeed()
     {
         // TODO Auto-generated method stub
@@ -31,10 +31,12 @@ import com.pg85.otg.generator.resource.TreeGen;
 import com.pg85.otg.generator.resource.UnderWaterOreGen;
 import com.pg85.otg.generator.resource.UndergroundLakeGen;
 import com.pg85.otg.generator.resource.VeinGen;
+import com.pg85.otg.generator.resource.VeinStartCache;
 import com.pg85.otg.generator.resource.VinesGen;
 import com.pg85.otg.generator.resource.WellGen;
 import com.pg85.otg.generator.surface.FrozenSurfaceHelper;
 import com.pg85.otg.logging.LogMarker;
+import com.pg85.otg.logging.PerformanceStats;
 import com.pg85.otg.network.ConfigProvider;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.bo3.Rotation;
@@ -55,6 +57,9 @@ public class ObjectSpawner
     private final ConfigProvider configProvider;
     private final Random rand;
     private final LocalWorld world;
+    private final VeinStartCache veinStartCache = new VeinStartCache();
+    private final PopulationWindow worldWindow;
+    private PopulationWindow populationWindow;
 	public Object lockingObject = new Object();
     
     public ObjectSpawner(ConfigProvider configProvider, LocalWorld localWorld)
@@ -62,6 +67,22 @@ public class ObjectSpawner
         this.configProvider = configProvider;
         this.rand = new Random();
         this.world = localWorld;
+        this.worldWindow = new PopulationWindow(localWorld);
+    }
+
+    public VeinStartCache getVeinStartCache()
+    {
+        return this.veinStartCache;
+    }
+
+    /**
+     * Gets the block access for resources. While a chunk is being
+     * populated, this is the window of the chunks being populated.
+     * @return The window, never null.
+     */
+    public PopulationWindow getPopulationWindow()
+    {
+        return this.populationWindow != null ? this.populationWindow : this.worldWindow;
     }
 
     public void populate(ChunkCoordinate chunkCoord)
@@ -87,6 +108,8 @@ public class ObjectSpawner
 			saveRequired = true;
 		}
 
+		long populateStart = PerformanceStats.start();
+
 		if(world.getConfigs().getWorldConfig().isOTGPlus)
 		{
 			if(!StructurePlottedAtSpawn)
@@ -99,13 +122,16 @@ public class ObjectSpawner
 		if (!processing)
 		{
 			processing = true;
+			this.populationWindow = world.createPopulationWindow(chunkCoord);
 
 			if(world.getConfigs().getWorldConfig().isOTGPlus)
 			{
+				long plotStart = PerformanceStats.start();
 				world.getStructureCache().plotStructures(rand, ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + 1, chunkCoord.getChunkZ()), false);
 				world.getStructureCache().plotStructures(rand, ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX(), chunkCoord.getChunkZ() + 1), false);
 				world.getStructureCache().plotStructures(rand, ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + 1, chunkCoord.getChunkZ() + 1), false);
 				world.getStructureCache().plotStructures(rand, chunkCoord, false);
+				PerformanceStats.stop(PerformanceStats.POPULATE_PLOT_STRUCTURES, plotStart);
 
 		        ChunkCoordinate spawnChunk = this.world.getSpawnChunk();
 
@@ -145,7 +171,9 @@ public class ObjectSpawner
 		        	}
 		        } else {
 			        // Generate structures
+			        long structuresStart = PerformanceStats.start();
 			        hasVillage = world.placeDefaultStructures(rand, chunkCoord);
+			        PerformanceStats.stop(PerformanceStats.POPULATE_DEFAULT_STRUCTURES, structuresStart);
 		        }
 
 				// Get the random generator
@@ -159,16 +187,22 @@ public class ObjectSpawner
 				// Mark population started
 				OTG.firePopulationStartEvent(world, rand, hasVillage, chunkCoord);
 
+				long phaseStart = PerformanceStats.start();
 				processResourcesPhase2(chunkCoord);
+				PerformanceStats.stop(PerformanceStats.POPULATE_RESOURCES_PHASE_2, phaseStart);
 
+				phaseStart = PerformanceStats.start();
 				spawnBO3s(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + 1, chunkCoord.getChunkZ()));
 				spawnBO3s(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX(), chunkCoord.getChunkZ() + 1));
 				spawnBO3s(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + 1, chunkCoord.getChunkZ() + 1));
 				spawnBO3s(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX(), chunkCoord.getChunkZ()));
+				PerformanceStats.stop(PerformanceStats.POPULATE_SPAWN_BO3S, phaseStart);
 
 				// Generate structures
 
+				phaseStart = PerformanceStats.start();
 				processResourcesPhase3(chunkCoord, hasVillage);
+				PerformanceStats.stop(PerformanceStats.POPULATE_RESOURCES_PHASE_3, phaseStart);
 
 				// Mark population ended
 				OTG.firePopulationEndEvent(world, rand, hasVillage, chunkCoord);
@@ -237,7 +271,9 @@ public class ObjectSpawner
 		        	}
 		        } else {
 			        // Generate structures
+			        long structuresStart = PerformanceStats.start();
 			        hasVillage = world.placeDefaultStructures(rand, chunkCoord);
+			        PerformanceStats.stop(PerformanceStats.POPULATE_DEFAULT_STRUCTURES, structuresStart);
 		        }
 
 		        // Mark population started
@@ -258,16 +294,21 @@ public class ObjectSpawner
 
 		        // Snow and ice
 				// TODO: Fire PopulateChunkEvent.Populate.EventType.ICE for Forge
+		        long freezeStart = PerformanceStats.start();
 		        new FrozenSurfaceHelper(world).freezeChunk(chunkCoord);
+		        PerformanceStats.stop(PerformanceStats.POPULATE_FREEZE, freezeStart);
 
 		        // Replace blocks
+		        long replaceStart = PerformanceStats.start();
 		        world.replaceBlocks(chunkCoord);
+		        PerformanceStats.stop(PerformanceStats.POPULATE_REPLACE_BLOCKS, replaceStart);
 
 		        // Mark population ended
 		        OTG.firePopulationEndEvent(world, rand, hasVillage, chunkCoord);
 		        world.endPopulation();
 			}
 
+			this.populationWindow = null;
 			processing = false;
 		} else {
 			if(world.getConfigs().getWorldConfig().isOTGPlus)
@@ -361,6 +402,8 @@ public class ObjectSpawner
 			}
 		}
 
+		PerformanceStats.stop(PerformanceStats.POPULATE_CHUNK, populateStart);
+
 		// Release the lock
 		synchronized(lockingObject)
 		{
@@ -505,10 +548,14 @@ public class ObjectSpawner
 
 		// Snow and ice
 		// TODO: Fire PopulateChunkEvent.Populate.EventType.ICE for Forge
+		long freezeStart = PerformanceStats.start();
 		new FrozenSurfaceHelper(world).freezeChunk(chunkCoord);
+		PerformanceStats.stop(PerformanceStats.POPULATE_FREEZE, freezeStart);
 
 		// Replace blocks
+		long replaceStart = PerformanceStats.start();
 		world.replaceBlocks(chunkCoord);
+		PerformanceStats.stop(PerformanceStats.POPULATE_REPLACE_BLOCKS, replaceStart);
 	}
 
 	private void spawnBO3s(ChunkCoordinate chunkCoord)
@@ -0,0 +1,104 @@
+package com.pg85.otg.generator;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.util.ChunkCoordinate;
+
+/**
+ * Block access for resources while a chunk is being populated.
+ *
+ * <p>Population of a chunk places blocks in the 2x2 chunks starting at the
+ * chunk being populated. Platforms can override the methods of this class
+ * to read those four chunks directly from their block arrays, instead of
+ * looking up the chunk for every block. Blocks outside the four chunks are
+ * handled like {@link LocalWorld} does with
+ * {@code allowOutsidePopulatingArea} set to false.</p>
+ *
+ * <p>This class itself simply passes all calls to the world, and is used
+ * when no chunk is being populated. Get the window for the current
+ * population step with {@link ObjectSpawner#getPopulationWindow()}.</p>
+ */
+public class PopulationWindow
+{
+    protected final LocalWorld world;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final boolean hasArea;
+
+    /**
+     * Creates a window that passes all calls to the world.
+     * @param world The world.
+     */
+    public PopulationWindow(LocalWorld world)
+    {
+        this.world = world;
+        this.minChunkX = 0;
+        this.minChunkZ = 0;
+        this.hasArea = false;
+    }
+
+    /**
+     * Creates a window for the given population step.
+     * @param world           The world.
+     * @param populatingChunk The chunk being populated.
+     */
+    protected PopulationWindow(LocalWorld world, ChunkCoordinate populatingChunk)
+    {
+        this.world = world;
+        this.minChunkX = populatingChunk.getChunkX();
+        this.minChunkZ = populatingChunk.getChunkZ();
+        this.hasArea = true;
+    }
+
+    /**
+     * Gets the index of the chunk the given block is in, within the 2x2
+     * chunks of this window.
+     * @param x X of the block.
+     * @param z Z of the block.
+     * @return 0 to 3 (x + z * 2), or -1 if the block is outside the window.
+     */
+    protected final int getChunkIndex(int x, int z)
+    {
+        int indexX = (x >> 4) - this.minChunkX;
+        int indexZ = (z >> 4) - this.minChunkZ;
+        if (!this.hasArea || (indexX & ~1) != 0 || (indexZ & ~1) != 0)
+        {
+            return -1;
+        }
+        return indexX + indexZ * 2;
+    }
+
+    /**
+     * Gets whether the given block is in one of the chunks being populated.
+     * @param x X of the block.
+     * @param z Z of the block.
+     * @return True if the block is in the window.
+     */
+    public boolean contains(int x, int z)
+    {
+        return getChunkIndex(x, z) != -1;
+    }
+
+    public LocalMaterialData getMaterial(int x, int y, int z)
+    {
+        return this.world.getMaterial(x, y, z, false);
+    }
+
+    public boolean isNullOrAir(int x, int y, int z)
+    {
+        return this.world.isNullOrAir(x, y, z, false);
+    }
+
+    /**
+     * @return The y location of the block above the highest block.
+     */
+    public int getHighestBlockYAt(int x, int z)
+    {
+        return this.world.getHighestBlockYAt(x, z);
+    }
+
+    public void setBlock(int x, int y, int z, LocalMaterialData material)
+    {
+        this.world.setBlock(x, y, z, material, null, false);
+    }
+}
@@ -26,7 +26,11 @@ public class ArraysCacheManager
             }
 
         }
-        return null; // Exception ??
+        // All caches are in use by other threads, use a new one. It will be
+        // thrown away when it is released.
+        ArraysCache arraysCache = new ArraysCache();
+        arraysCache.isFree = false;
+        return arraysCache;
     }
 
     static void releaseCache(ArraysCache cache)
@@ -0,0 +1,408 @@
+package com.pg85.otg.generator.biome;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.FifoMap;
+
+/**
+ * A coarse map of the biomes of a world, holding the set of biome ids in
+ * every cell of 16x16 unzoomed biome positions (64x64 blocks when the biome
+ * generator {@link BiomeGenerator#canGenerateUnZoomed() generates unzoomed
+ * biomes}). Cells are generated the first time they are needed.
+ *
+ * <p>Searches over large areas, like finding a spawn biome or checking
+ * whether a structure can be placed, use the map to skip the cells that
+ * don't contain any of the biomes they're looking for. Only the cells that
+ * do are generated in full, so repeated searches over the same area mostly
+ * don't have to run the biome generator at all. The biomes of the cells
+ * generated last are kept as well, so that a search looking into a cell it
+ * just summarized doesn't generate it again. Areas much smaller than the
+ * cells they touch are generated directly unless all their cells are
+ * cached, as generating whole cells for them would cost more than it saves.</p>
+ *
+ * <p>All coordinates are unzoomed biome positions, as used by
+ * {@link BiomeGenerator#getBiomesUnZoomed(int[], int, int, int, int, OutputType)},
+ * and biome ids are the {@link OutputType#DEFAULT_FOR_WORLD} ids of that
+ * method. Thread safe.</p>
+ */
+public class BiomeSummaryMap
+{
+    private static final int CELL_SIZE_BITS = 4;
+    private static final int CELL_SIZE = 1 << CELL_SIZE_BITS;
+    private static final int MAX_CACHED_CELLS = 16384;
+    private static final int MAX_CACHED_CELL_BIOMES = 64;
+
+    private final BiomeGenerator biomeGenerator;
+    private final FifoMap<ChunkCoordinate, BitSet> cells = new FifoMap<ChunkCoordinate, BitSet>(MAX_CACHED_CELLS);
+    /** Biomes of the cells generated last, guarded by {@link #cells}. */
+    private final FifoMap<ChunkCoordinate, int[]> cellBiomes = new FifoMap<ChunkCoordinate, int[]>(MAX_CACHED_CELL_BIOMES);
+
+    public BiomeSummaryMap(BiomeGenerator biomeGenerator)
+    {
+        this.biomeGenerator = biomeGenerator;
+    }
+
+    /**
+     * Gets the amount of blocks on each axis covered by one unzoomed biome
+     * position, as a shift: 2 (4 blocks) if the biome generator generates
+     * unzoomed biomes, 0 otherwise.
+     * @return The shift.
+     */
+    public int getBlockShift()
+    {
+        return this.biomeGenerator.canGenerateUnZoomed() ? 2 : 0;
+    }
+
+    /**
+     * Gets whether all biomes in the given area match the given predicate.
+     * @param minX    Lowest x, inclusive.
+     * @param minZ    Lowest z, inclusive.
+     * @param maxX    Highest x, inclusive.
+     * @param maxZ    Highest z, inclusive.
+     * @param allowed Predicate on biome ids.
+     * @return True if all biomes match.
+     */
+    public boolean allMatch(int minX, int minZ, int maxX, int maxZ, IntPredicate allowed)
+    {
+        CachedPredicate cachedAllowed = new CachedPredicate(allowed);
+        if (!isWorthUsingCells(minX, minZ, maxX, maxZ))
+        {
+            int[] biomes = this.biomeGenerator.getBiomesUnZoomed(null, minX, minZ, maxX - minX + 1, maxZ - minZ + 1, OutputType.DEFAULT_FOR_WORLD);
+            for (int i = 0; i < (maxX - minX + 1) * (maxZ - minZ + 1); i++)
+            {
+                if (!cachedAllowed.test(biomes[i]))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        for (int cellX = minX >> CELL_SIZE_BITS; cellX <= maxX >> CELL_SIZE_BITS; cellX++)
+        {
+            for (int cellZ = minZ >> CELL_SIZE_BITS; cellZ <= maxZ >> CELL_SIZE_BITS; cellZ++)
+            {
+                BitSet cell = getCell(cellX, cellZ);
+                if (cachedAllowed.matchesAll(cell))
+                {
+                    continue;
+                }
+
+                // Some biome of the cell isn't allowed, check whether it
+                // is in the part of the cell that was asked for
+                int startX = Math.max(minX, cellX << CELL_SIZE_BITS);
+                int startZ = Math.max(minZ, cellZ << CELL_SIZE_BITS);
+                int xSize = Math.min(maxX, (cellX << CELL_SIZE_BITS) + CELL_SIZE - 1) - startX + 1;
+                int zSize = Math.min(maxZ, (cellZ << CELL_SIZE_BITS) + CELL_SIZE - 1) - startZ + 1;
+                int[] biomes = this.biomeGenerator.getBiomesUnZoomed(null, startX, startZ, xSize, zSize, OutputType.DEFAULT_FOR_WORLD);
+                for (int i = 0; i < xSize * zSize; i++)
+                {
+                    if (!cachedAllowed.test(biomes[i]))
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Picks a random position in the given area with a biome matching the
+     * given predicate. Gives the same result as going over all positions of
+     * the area row by row and replacing the found position by each next
+     * matching position with a chance of 1 / (positions picked so far + 1),
+     * which is how Minecraft's biome providers pick a position.
+     * @param minX     Lowest x, inclusive.
+     * @param minZ     Lowest z, inclusive.
+     * @param maxX     Highest x, inclusive.
+     * @param maxZ     Highest z, inclusive.
+     * @param matching Predicate on biome ids.
+     * @param random   Random used for picking.
+     * @return The x and z of the position, or null if no biome matches.
+     */
+    public int[] findRandomPosition(int minX, int minZ, int maxX, int maxZ, IntPredicate matching, Random random)
+    {
+        CachedPredicate cachedMatching = new CachedPredicate(matching);
+        if (!isWorthUsingCells(minX, minZ, maxX, maxZ))
+        {
+            int xSize = maxX - minX + 1;
+            int[] biomes = this.biomeGenerator.getBiomesUnZoomed(null, minX, minZ, xSize, maxZ - minZ + 1, OutputType.DEFAULT_FOR_WORLD);
+            int[] position = null;
+            int picked = 0;
+            for (int z = minZ; z <= maxZ; z++)
+            {
+                for (int x = minX; x <= maxX; x++)
+                {
+                    if (
+                        cachedMatching.test(biomes[(z - minZ) * xSize + x - minX]) &&
+                        (position == null || random.nextInt(picked + 1) == 0)
+                    )
+                    {
+                        position = new int[] { x, z };
+                        picked++;
+                    }
+                }
+            }
+            return position;
+        }
+
+        int minCellX = minX >> CELL_SIZE_BITS;
+        int minCellZ = minZ >> CELL_SIZE_BITS;
+        int cellsX = (maxX >> CELL_SIZE_BITS) - minCellX + 1;
+        int cellsZ = (maxZ >> CELL_SIZE_BITS) - minCellZ + 1;
+
+        // Biomes of the cells containing a matching biome, null for the
+        // cells that don't
+        int[][] cellBiomes = new int[cellsX * cellsZ][];
+        boolean anyMatch = false;
+        for (int cellX = 0; cellX < cellsX; cellX++)
+        {
+            for (int cellZ = 0; cellZ < cellsZ; cellZ++)
+            {
+                if (cachedMatching.matchesAny(getCell(minCellX + cellX, minCellZ + cellZ)))
+                {
+                    cellBiomes[cellZ * cellsX + cellX] = getCellBiomes(minCellX + cellX, minCellZ + cellZ);
+                    anyMatch = true;
+                }
+            }
+        }
+        if (!anyMatch)
+        {
+            return null;
+        }
+
+        int[] position = null;
+        int picked = 0;
+        for (int z = minZ; z <= maxZ; z++)
+        {
+            int cellZ = (z >> CELL_SIZE_BITS) - minCellZ;
+            for (int x = minX; x <= maxX; x++)
+            {
+                int[] biomes = cellBiomes[cellZ * cellsX + (x >> CELL_SIZE_BITS) - minCellX];
+                if (biomes == null)
+                {
+                    // Skip to the next cell
+                    x = ((x >> CELL_SIZE_BITS) << CELL_SIZE_BITS) + CELL_SIZE - 1;
+                    continue;
+                }
+                if (
+                    cachedMatching.test(biomes[(z & (CELL_SIZE - 1)) * CELL_SIZE + (x & (CELL_SIZE - 1))]) &&
+                    (position == null || random.nextInt(picked + 1) == 0)
+                )
+                {
+                    position = new int[] { x, z };
+                    picked++;
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Finds the closest position with a biome matching the given predicate.
+     * @param x         X to search from.
+     * @param z         Z to search from.
+     * @param maxRadius Maximum distance on each axis to search.
+     * @param matching  Predicate on biome ids.
+     * @return The x and z of the position, or null if there's no matching
+     *         biome within the radius.
+     */
+    public int[] findClosestPosition(int x, int z, int maxRadius, IntPredicate matching)
+    {
+        CachedPredicate cachedMatching = new CachedPredicate(matching);
+        int centerCellX = x >> CELL_SIZE_BITS;
+        int centerCellZ = z >> CELL_SIZE_BITS;
+        int maxCellRadius = (maxRadius >> CELL_SIZE_BITS) + 1;
+        int[] closest = null;
+        long closestDistanceSq = Long.MAX_VALUE;
+
+        // Search in rings of cells around the start. A position in ring n
+        // is at least (n - 1) * CELL_SIZE away, so stop once that is further
+        // than the closest position found so far
+        for (int ring = 0; ring <= maxCellRadius; ring++)
+        {
+            long ringDistance = (long) Math.max(0, ring - 1) * CELL_SIZE;
+            if (ringDistance * ringDistance > closestDistanceSq)
+            {
+                break;
+            }
+            for (int cellX = centerCellX - ring; cellX <= centerCellX + ring; cellX++)
+            {
+                boolean edgeColumn = cellX == centerCellX - ring || cellX == centerCellX + ring;
+                for (int cellZ = centerCellZ - ring; cellZ <= centerCellZ + ring; cellZ += edgeColumn ? 1 : ring * 2)
+                {
+                    if (!cachedMatching.matchesAny(getCell(cellX, cellZ)))
+                    {
+                        continue;
+                    }
+                    int[] biomes = getCellBiomes(cellX, cellZ);
+                    for (int i = 0; i < CELL_SIZE * CELL_SIZE; i++)
+                    {
+                        int biomeX = (cellX << CELL_SIZE_BITS) + (i & (CELL_SIZE - 1));
+                        int biomeZ = (cellZ << CELL_SIZE_BITS) + (i >> CELL_SIZE_BITS);
+                        if (Math.abs(biomeX - x) > maxRadius || Math.abs(biomeZ - z) > maxRadius || !cachedMatching.test(biomes[i]))
+                        {
+                            continue;
+                        }
+                        long distanceSq = (long) (biomeX - x) * (biomeX - x) + (long) (biomeZ - z) * (biomeZ - z);
+                        if (distanceSq < closestDistanceSq)
+                        {
+                            closestDistanceSq = distanceSq;
+                            closest = new int[] { biomeX, biomeZ };
+                        }
+                    }
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Gets whether the given area should be searched using cells: when all
+     * cells it touches are cached, or when generating those cells in full
+     * isn't much more work than generating the area itself.
+     */
+    private boolean isWorthUsingCells(int minX, int minZ, int maxX, int maxZ)
+    {
+        int minCellX = minX >> CELL_SIZE_BITS;
+        int minCellZ = minZ >> CELL_SIZE_BITS;
+        int maxCellX = maxX >> CELL_SIZE_BITS;
+        int maxCellZ = maxZ >> CELL_SIZE_BITS;
+        long areaSize = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        long cellsSize = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) * CELL_SIZE * CELL_SIZE;
+        if (cellsSize <= areaSize * 4)
+        {
+            return true;
+        }
+        synchronized (this.cells)
+        {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++)
+            {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++)
+                {
+                    if (!this.cells.containsKey(ChunkCoordinate.fromChunkCoords(cellX, cellZ)))
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the ids of all biomes in the given cell, generating the cell if
+     * it isn't cached.
+     */
+    private BitSet getCell(int cellX, int cellZ)
+    {
+        ChunkCoordinate key = ChunkCoordinate.fromChunkCoords(cellX, cellZ);
+        synchronized (this.cells)
+        {
+            BitSet cell = this.cells.get(key);
+            if (cell != null)
+            {
+                return cell;
+            }
+        }
+
+        // Generate outside of the lock, at worst a cell is generated twice
+        int[] biomes = generateCellBiomes(cellX, cellZ);
+        BitSet cell = new BitSet();
+        for (int biome : biomes)
+        {
+            cell.set(biome);
+        }
+        synchronized (this.cells)
+        {
+            this.cells.put(key, cell);
+            this.cellBiomes.put(key, biomes);
+        }
+        return cell;
+    }
+
+    /**
+     * Gets the biomes of all positions in the given cell, indexed by
+     * z * CELL_SIZE + x. The returned array must not be modified.
+     */
+    private int[] getCellBiomes(int cellX, int cellZ)
+    {
+        ChunkCoordinate key = ChunkCoordinate.fromChunkCoords(cellX, cellZ);
+        synchronized (this.cells)
+        {
+            int[] biomes = this.cellBiomes.get(key);
+            if (biomes != null)
+            {
+                return biomes;
+            }
+        }
+
+        int[] biomes = generateCellBiomes(cellX, cellZ);
+        synchronized (this.cells)
+        {
+            this.cellBiomes.put(key, biomes);
+        }
+        return biomes;
+    }
+
+    private int[] generateCellBiomes(int cellX, int cellZ)
+    {
+        return this.biomeGenerator.getBiomesUnZoomed(null, cellX << CELL_SIZE_BITS, cellZ << CELL_SIZE_BITS, CELL_SIZE, CELL_SIZE, OutputType.DEFAULT_FOR_WORLD);
+    }
+
+    /**
+     * Remembers the result of a predicate for each biome id, as callers
+     * may look up Minecraft biomes for each test.
+     */
+    private static class CachedPredicate implements IntPredicate
+    {
+        private final IntPredicate predicate;
+        private final HashMap<Integer, Boolean> results = new HashMap<Integer, Boolean>();
+
+        CachedPredicate(IntPredicate predicate)
+        {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean test(int biomeId)
+        {
+            Boolean result = this.results.get(biomeId);
+            if (result == null)
+            {
+                result = this.predicate.test(biomeId);
+                this.results.put(biomeId, result);
+            }
+            return result.booleanValue();
+        }
+
+        boolean matchesAny(BitSet biomeIds)
+        {
+            for (int biomeId = biomeIds.nextSetBit(0); biomeId >= 0; biomeId = biomeIds.nextSetBit(biomeId + 1))
+            {
+                if (test(biomeId))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean matchesAll(BitSet biomeIds)
+        {
+            for (int biomeId = biomeIds.nextSetBit(0); biomeId >= 0; biomeId = biomeIds.nextSetBit(biomeId + 1))
+            {
+                if (!test(biomeId))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
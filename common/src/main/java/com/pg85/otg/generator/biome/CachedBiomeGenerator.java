@@ -96,12 +96,21 @@ class CachedBiomeGenerator extends BiomeGenerator
      */
     private CachedBiomeGenerator.Chunk getBiomeCacheChunk(ChunkCoordinate chunkCoord)
     {
-        CachedBiomeGenerator.Chunk chunk = this.cacheMap.get(chunkCoord);
+        CachedBiomeGenerator.Chunk chunk;
+        synchronized (this.cacheMap)
+        {
+            chunk = this.cacheMap.get(chunkCoord);
+        }
 
         if (chunk == null)
         {
+            // Generate outside of the lock, so that other threads can keep
+            // using the cache. The biomes are the same for every thread.
         	chunk = new CachedBiomeGenerator.Chunk(generator, chunkCoord);
-            this.cacheMap.put(chunkCoord, chunk);
+            synchronized (this.cacheMap)
+            {
+                this.cacheMap.put(chunkCoord, chunk);
+            }
         }
 
         return chunk;
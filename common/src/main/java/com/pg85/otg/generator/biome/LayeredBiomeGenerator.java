@@ -10,10 +10,24 @@ import com.pg85.otg.generator.biome.layers.Layer;
  */
 public abstract class LayeredBiomeGenerator extends BiomeGenerator
 {
+    private final Thread creatingThread;
     private Layer unZoomedLayer;
     private Layer biomeLayer;
     private OutputType defaultOutputType = OutputType.FULL;
 
+    /**
+     * Layers keep the seed of the position they are working on in a field,
+     * so other threads need their own layers.
+     */
+    private final ThreadLocal<Layer[]> threadLayers = new ThreadLocal<Layer[]>()
+    {
+        @Override
+        protected Layer[] initialValue()
+        {
+            return initLayers();
+        }
+    };
+
     public LayeredBiomeGenerator(LocalWorld world)
     {
         super(world);
@@ -25,6 +39,7 @@ public abstract class LayeredBiomeGenerator extends BiomeGenerator
             defaultOutputType = OutputType.WITHOUT_RIVERS;
         }
 
+        this.creatingThread = Thread.currentThread();
         this.unZoomedLayer = layers[0];
         this.biomeLayer = layers[1];
     }
@@ -32,12 +47,22 @@ public abstract class LayeredBiomeGenerator extends BiomeGenerator
     /**
      * Gets an array consisting of two elements. The first element (index 0)
      * is the unzoomed layer, the second element is the zoomed layer. This
-     * method is called once from the constructor. No other invocations are
-     * allowed.
+     * method is called once from the constructor, and once more for every
+     * other thread that generates biomes. The returned layers must generate
+     * the same biomes every time.
      * @return The two layers.
      */
     protected abstract Layer[] initLayers();
 
+    private Layer[] getLayers()
+    {
+        if (Thread.currentThread() == this.creatingThread)
+        {
+            return null;
+        }
+        return this.threadLayers.get();
+    }
+
     @Override
     public int[] getBiomesUnZoomed(int[] biomeArray, int x, int z, int x_size, int z_size, OutputType outputType)
     {
@@ -50,7 +75,9 @@ public abstract class LayeredBiomeGenerator extends BiomeGenerator
             cache.outputType = defaultOutputType;
         else
             cache.outputType = outputType;
-        int[] arrayOfInt = this.unZoomedLayer.getInts(world, cache, x, z, x_size, z_size);
+        Layer[] layers = getLayers();
+        Layer unZoomedLayer = layers == null ? this.unZoomedLayer : layers[0];
+        int[] arrayOfInt = unZoomedLayer.getInts(world, cache, x, z, x_size, z_size);
         ArraysCacheManager.releaseCache(cache);
 
         System.arraycopy(arrayOfInt, 0, biomeArray, 0, x_size * z_size);
@@ -71,7 +98,9 @@ public abstract class LayeredBiomeGenerator extends BiomeGenerator
             cache.outputType = defaultOutputType;
         else
             cache.outputType = outputType;
-        int[] arrayOfInt = this.biomeLayer.getInts(world, cache, x, z, x_size, z_size);
+        Layer[] layers = getLayers();
+        Layer biomeLayer = layers == null ? this.biomeLayer : layers[1];
+        int[] arrayOfInt = biomeLayer.getInts(world, cache, x, z, x_size, z_size);
         ArraysCacheManager.releaseCache(cache);
 
         System.arraycopy(arrayOfInt, 0, biomeArray, 0, x_size * z_size);
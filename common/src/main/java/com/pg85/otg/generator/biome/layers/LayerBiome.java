@@ -1,27 +1,23 @@
 package com.pg85.otg.generator.biome.layers;
 
-import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeGroup;
 import com.pg85.otg.configuration.biome.BiomeGroupManager;
 import com.pg85.otg.generator.biome.ArraysCache;
 
-import java.util.Map.Entry;
-import java.util.SortedMap;
-
 public class LayerBiome extends Layer
 {
-    private BiomeGroupManager manager;
-    private int depth;
-    private double freezeTemp;
+    /** Possible biomes of each group, indexed by group id. Null for empty groups. */
+    private final RarityTable[] possibleBiomesByGroup = new RarityTable[(BiomeGroupBits >> BiomeGroupShift) + 1];
 
     LayerBiome(long seed, Layer childLayer, BiomeGroupManager groupManager, int depth, double freezeTemp)
     {
         super(seed);
         this.child = childLayer;
-        this.manager = groupManager;
-        this.depth = depth;
-        this.freezeTemp = freezeTemp;
+        for (BiomeGroup group : groupManager.getGroups())
+        {
+            this.possibleBiomesByGroup[group.getGroupId()] = RarityTable.ofBiomes(group.getDepthMapOrHigher(depth), depth, freezeTemp);
+        }
     }
 
     @Override
@@ -30,8 +26,7 @@ public class LayerBiome extends Layer
         int[] childInts = this.child.getInts(world, cache, x, z, xSize, zSize);
         int[] thisInts = cache.getArray(xSize * zSize);
 
-        SortedMap<Integer, LocalBiome> possibleBiomes;
-        BiomeGroup group;
+        RarityTable possibleBiomes;
         int currentPiece;
         int newBiomeRarity;
         
@@ -44,29 +39,12 @@ public class LayerBiome extends Layer
 
                 if ((currentPiece & BiomeGroupBits) != 0 && (currentPiece & BiomeBitsAreSetBit) == 0)    // has biomegroup bits but not biome bits
                 {
-                    group = manager.getGroupById((currentPiece & BiomeGroupBits) >> BiomeGroupShift);
-                    possibleBiomes = group.getDepthMapOrHigher(depth);
-                    // Get Max Rarity
-                    if (!possibleBiomes.isEmpty())
+                    possibleBiomes = possibleBiomesByGroup[(currentPiece & BiomeGroupBits) >> BiomeGroupShift];
+                    if (possibleBiomes != null)
                     {
-                        newBiomeRarity = nextInt(BiomeGroupManager.getMaxRarityFromPossibles(possibleBiomes));
+                        newBiomeRarity = nextInt(possibleBiomes.getMaxRarity());
                         // Spawn the biome based on the rarity spectrum
-                        for (Entry<Integer, LocalBiome> biome : possibleBiomes.entrySet())
-                        {
-                            if (newBiomeRarity < biome.getKey())
-                            {
-                                if (biome.getValue() != null && biome.getValue().getBiomeConfig().biomeSize == this.depth)
-                                {
-                                    currentPiece |= biome.getValue().getIds().getOTGBiomeId() |
-                                        // Set IceBit based on Biome Temperature
-                                        (biome.getValue().getBiomeConfig().biomeTemperature <= freezeTemp ? IceBit : 0) |
-                                        // Set BiomeBitsAreSetBit
-                                        BiomeBitsAreSetBit
-                                        ;
-                                }
-                                break;
-                            }
-                        }
+                        currentPiece |= possibleBiomes.pick(newBiomeRarity);
                     }
                 }
                 thisInts[(j + i * xSize)] = currentPiece;
@@ -1,26 +1,18 @@
 package com.pg85.otg.generator.biome.layers;
 
 import com.pg85.otg.common.LocalWorld;
-import com.pg85.otg.configuration.biome.BiomeGroup;
 import com.pg85.otg.configuration.biome.BiomeGroupManager;
 import com.pg85.otg.generator.biome.ArraysCache;
 
-import java.util.Map.Entry;
-import java.util.SortedMap;
-
 public class LayerBiomeGroups extends Layer
 {
 
-    private BiomeGroupManager biomeGroupManager;
-    private int depth;
-    private boolean freezeGroups;
+    private final RarityTable possibleGroups;
 
     LayerBiomeGroups(Layer paramGenLayer, BiomeGroupManager biomeGroups, int depth, boolean freezeGroups)
     {
         this.child = paramGenLayer;
-        this.biomeGroupManager = biomeGroups;
-        this.depth = depth;
-        this.freezeGroups = freezeGroups;
+        this.possibleGroups = RarityTable.ofGroups(biomeGroups.getGroupDepthMap(depth), freezeGroups);
     }
 
     @Override
@@ -30,7 +22,6 @@ public class LayerBiomeGroups extends Layer
         int[] thisInts = arraysCache.getArray(x_size * z_size);
 
         int currentPiece;
-        SortedMap<Integer, BiomeGroup> possibleGroups;
         int newGroupRarity;
         for (int i = 0; i < z_size; i++)
         {
@@ -43,21 +34,9 @@ public class LayerBiomeGroups extends Layer
                 {
                 	// TODO: even with rarity 1 this always spawns the biome
 
-                    possibleGroups = biomeGroupManager.getGroupDepthMap(depth);
-                    newGroupRarity = nextGroupInt(BiomeGroupManager.getMaxRarityFromPossibles(possibleGroups)*Entropy);
-                        //>>	Spawn the biome based on the rarity spectrum
-                        for (Entry<Integer, BiomeGroup> group : possibleGroups.entrySet())
-                        {
-                            if (newGroupRarity/Entropy < group.getKey())
-                            {
-                                if (group.getValue() != null){
-                                    currentPiece |= (group.getValue().getGroupId() << BiomeGroupShift) |
-                                                    //>>	If the average temp of the group is cold
-                                                    ((group.getValue().isColdGroup() && freezeGroups) ? IceBit : 0);
-                                }
-                                break;
-                            }
-                        }
+                    newGroupRarity = nextGroupInt(possibleGroups.getMaxRarity()*Entropy);
+                    //>>	Spawn the biome based on the rarity spectrum
+                    currentPiece |= possibleGroups.pick(newGroupRarity/Entropy);
                 }
                 thisInts[(j + i * x_size)] = currentPiece;
             }
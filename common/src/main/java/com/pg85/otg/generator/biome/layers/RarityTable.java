@@ -0,0 +1,115 @@
+package com.pg85.otg.generator.biome.layers;
+
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.configuration.biome.BiomeGroup;
+
+/**
+ * A rarity map of biome groups or biomes, compiled to two arrays so that
+ * picking an entry for a random rarity is a binary search instead of
+ * walking a {@code SortedMap}.
+ *
+ * <p>For each entry the table holds its cumulative rarity and the bits the
+ * layer adds to a cell when the entry is picked. Immutable, so tables can be
+ * shared by all threads generating biomes.</p>
+ */
+final class RarityTable
+{
+    private final int[] cumulativeRarities;
+    private final int[] bits;
+
+    private RarityTable(int[] cumulativeRarities, int[] bits)
+    {
+        this.cumulativeRarities = cumulativeRarities;
+        this.bits = bits;
+    }
+
+    /**
+     * Compiles the group rarity map of a depth.
+     * @param possibleGroups The map, see
+     *                       {@link com.pg85.otg.configuration.biome.BiomeGroupManager#getGroupDepthMap(int)}.
+     * @param freezeGroups   Whether cold groups set the ice bit.
+     * @return The table.
+     */
+    static RarityTable ofGroups(SortedMap<Integer, BiomeGroup> possibleGroups, boolean freezeGroups)
+    {
+        int[] cumulativeRarities = new int[possibleGroups.size()];
+        int[] bits = new int[possibleGroups.size()];
+        int i = 0;
+        for (Entry<Integer, BiomeGroup> entry : possibleGroups.entrySet())
+        {
+            BiomeGroup group = entry.getValue();
+            cumulativeRarities[i] = entry.getKey();
+            if (group != null)
+            {
+                bits[i] = (group.getGroupId() << Layer.BiomeGroupShift) | ((group.isColdGroup() && freezeGroups) ? Layer.IceBit : 0);
+            }
+            i++;
+        }
+        return new RarityTable(cumulativeRarities, bits);
+    }
+
+    /**
+     * Compiles the biome rarity map of a group.
+     * @param possibleBiomes The map, see
+     *                       {@link BiomeGroup#getDepthMapOrHigher(int)}.
+     * @param depth          Only biomes of exactly this size are placed,
+     *                       picking a larger biome leaves the cell empty.
+     * @param freezeTemp     Biomes of this temperature or colder set the ice
+     *                       bit.
+     * @return The table, or null if the map is empty.
+     */
+    static RarityTable ofBiomes(SortedMap<Integer, LocalBiome> possibleBiomes, int depth, double freezeTemp)
+    {
+        if (possibleBiomes.isEmpty())
+        {
+            return null;
+        }
+        int[] cumulativeRarities = new int[possibleBiomes.size()];
+        int[] bits = new int[possibleBiomes.size()];
+        int i = 0;
+        for (Entry<Integer, LocalBiome> entry : possibleBiomes.entrySet())
+        {
+            LocalBiome biome = entry.getValue();
+            cumulativeRarities[i] = entry.getKey();
+            if (biome != null && biome.getBiomeConfig().biomeSize == depth)
+            {
+                bits[i] = biome.getIds().getOTGBiomeId() |
+                    (biome.getBiomeConfig().biomeTemperature <= freezeTemp ? Layer.IceBit : 0) |
+                    Layer.BiomeBitsAreSetBit;
+            }
+            i++;
+        }
+        return new RarityTable(cumulativeRarities, bits);
+    }
+
+    /**
+     * Gets the total rarity of all entries.
+     * @return The total rarity.
+     */
+    int getMaxRarity()
+    {
+        return this.cumulativeRarities[this.cumulativeRarities.length - 1];
+    }
+
+    /**
+     * Gets the bits of the first entry with a cumulative rarity higher than
+     * the given rarity.
+     * @param rarity The rarity, 0 <= rarity < {@link #getMaxRarity()}.
+     * @return The bits, or 0 if no entry was picked.
+     */
+    int pick(int rarity)
+    {
+        // Cumulative rarities are strictly increasing, as they are the
+        // keys of a sorted map
+        int index = Arrays.binarySearch(this.cumulativeRarities, rarity + 1);
+        if (index < 0)
+        {
+            index = -index - 1;
+        }
+        return index < this.bits.length ? this.bits[index] : 0;
+    }
+}
@@ -3,6 +3,7 @@ package com.pg85.otg.generator.resource;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 
 import java.util.List;
 import java.util.Random;
@@ -22,6 +23,8 @@ public class AboveWaterGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int y = world.getLiquidHeight(x, z);
         if (y == -1)
             return;
@@ -31,9 +34,9 @@ public class AboveWaterGen extends Resource
             int j = x + rand.nextInt(8) - rand.nextInt(8);
             int k = y + rand.nextInt(4) - rand.nextInt(4);
             int m = z + rand.nextInt(8) - rand.nextInt(8);
-            if (!world.isNullOrAir(j, k, m, false) || !world.getMaterial(j, k - 1, m, false).isLiquid())
+            if (!window.isNullOrAir(j, k, m) || !window.getMaterial(j, k - 1, m).isLiquid())
                 continue;
-            world.setBlock(j, k, m, material, null, false);
+            window.setBlock(j, k, m, material);
         }
     }
 
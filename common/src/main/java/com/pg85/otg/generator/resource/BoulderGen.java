@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.materials.MaterialSet;
 
 import java.util.List;
@@ -34,14 +35,16 @@ public class BoulderGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random random, boolean villageInChunk, int x, int z)
     {
-        int y = world.getHighestBlockYAt(x, z);
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
+        int y = window.getHighestBlockYAt(x, z);
         if (y < this.minAltitude || y > this.maxAltitude) {
             return;
         }
 
         while (y > 3)
         {
-            LocalMaterialData material = world.getMaterial(x, y - 1, z, false);
+            LocalMaterialData material = window.getMaterial(x, y - 1, z);
             if (sourceBlocks.contains(material)) {
                 break;
             }
@@ -71,7 +74,7 @@ public class BoulderGen extends Resource
                         float f4 = i3 - y;
                         if (f2 * f2 + f3 * f3 + f4 * f4 <= f1 * f1)
                         {
-                            world.setBlock(i1, i3, i2, this.material, null, false);
+                            window.setBlock(i1, i3, i2, this.material);
                         }
                     }
                 }
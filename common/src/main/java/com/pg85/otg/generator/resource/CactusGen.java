@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.materials.MaterialSet;
 
@@ -36,6 +37,8 @@ public class CactusGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int y = RandomHelper.numberInRange(rand, minAltitude, maxAltitude);
 
         for (int i = 0; i < 10; i++)
@@ -45,29 +48,29 @@ public class CactusGen extends Resource
             int cactusZ = z + rand.nextInt(8) - rand.nextInt(8);
 
             // Check position
-            if (!world.isNullOrAir(cactusX, cactusBaseY, cactusZ, false))
+            if (!window.isNullOrAir(cactusX, cactusBaseY, cactusZ))
                 continue;
 
             // Check foundation
-            LocalMaterialData foundationMaterial = world.getMaterial(cactusX, cactusBaseY - 1, cactusZ, false);
+            LocalMaterialData foundationMaterial = window.getMaterial(cactusX, cactusBaseY - 1, cactusZ);
             if (!sourceBlocks.contains(foundationMaterial))
                 continue;
 
             // Check neighbors
-            if (!world.isNullOrAir(cactusX - 1, cactusBaseY, cactusZ, false))
+            if (!window.isNullOrAir(cactusX - 1, cactusBaseY, cactusZ))
                 continue;
-            if (!world.isNullOrAir(cactusX + 1, cactusBaseY, cactusZ, false))
+            if (!window.isNullOrAir(cactusX + 1, cactusBaseY, cactusZ))
                 continue;
-            if (!world.isNullOrAir(cactusX, cactusBaseY, cactusZ + 1, false))
+            if (!window.isNullOrAir(cactusX, cactusBaseY, cactusZ + 1))
                 continue;
-            if (!world.isNullOrAir(cactusX, cactusBaseY, cactusZ + 1, false))
+            if (!window.isNullOrAir(cactusX, cactusBaseY, cactusZ + 1))
                 continue;
 
             // Spawn cactus
             int cactusHeight = 1 + rand.nextInt(rand.nextInt(3) + 1);
             for (int dY = 0; dY < cactusHeight; dY++)
             {
-                world.setBlock(cactusX, cactusBaseY + dY, cactusZ, material, null, false);
+                window.setBlock(cactusX, cactusBaseY + dY, cactusZ, material);
             }
         }
     }
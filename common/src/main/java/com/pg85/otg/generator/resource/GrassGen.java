@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.ConfigFunction;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.materials.MaterialSet;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
@@ -113,16 +114,18 @@ public class GrassGen extends Resource
 
     private void spawnGrouped(LocalWorld world, Random random, ChunkCoordinate chunkCoord)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         if (random.nextDouble() * 100.0 <= this.rarity)
         {
             // Passed Rarity test, place about Frequency grass in this chunk
             int centerX = chunkCoord.getBlockXCenter() + random.nextInt(ChunkCoordinate.CHUNK_X_SIZE);
             int centerZ = chunkCoord.getBlockZCenter() + random.nextInt(ChunkCoordinate.CHUNK_Z_SIZE);
-            int centerY = world.getHighestBlockYAt(centerX, centerZ);
+            int centerY = window.getHighestBlockYAt(centerX, centerZ);
             LocalMaterialData id;
 
             // Fix y position
-            while (((id = world.getMaterial(centerX, centerY, centerZ, false)).isAir() || id.isMaterial(DefaultMaterial.LEAVES) || id.isMaterial(DefaultMaterial.LEAVES_2)) && (centerY > 0))
+            while (((id = window.getMaterial(centerX, centerY, centerZ)).isAir() || id.isMaterial(DefaultMaterial.LEAVES) || id.isMaterial(DefaultMaterial.LEAVES_2)) && (centerY > 0))
             {
                 centerY--;
             }
@@ -136,7 +139,7 @@ public class GrassGen extends Resource
                 int x = centerX + random.nextInt(8) - random.nextInt(8);
                 int y = centerY + random.nextInt(4) - random.nextInt(4);
                 int z = centerZ + random.nextInt(8) - random.nextInt(8);
-                if (world.isNullOrAir(x, y, z, false) && this.sourceBlocks.contains(world.getMaterial(x, y - 1, z, false)))
+                if (window.isNullOrAir(x, y, z) && this.sourceBlocks.contains(window.getMaterial(x, y - 1, z)))
                 {
                     plant.spawn(world, x, y, z);
                 }
@@ -161,6 +164,8 @@ public class GrassGen extends Resource
 
     private void spawnNotGrouped(LocalWorld world, Random random, ChunkCoordinate chunkCoord)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         for (int t = 0; t < frequency; t++)
         {
             if (random.nextInt(100) >= rarity)
@@ -170,12 +175,12 @@ public class GrassGen extends Resource
             
             int x = chunkCoord.getBlockXCenter() + random.nextInt(ChunkCoordinate.CHUNK_X_SIZE);
             int z = chunkCoord.getBlockZCenter() + random.nextInt(ChunkCoordinate.CHUNK_Z_SIZE);
-            int y = world.getHighestBlockYAt(x, z);
+            int y = window.getHighestBlockYAt(x, z);
 
             LocalMaterialData material;
             while (
         		(
-    				((material = world.getMaterial(x, y, z, false)) == null ||
+    				((material = window.getMaterial(x, y, z)) == null ||
     				(
 	    				material.isAir()) || 
 						material.isMaterial(DefaultMaterial.LEAVES) || 
@@ -188,7 +193,7 @@ public class GrassGen extends Resource
                 y--;
             }
 
-            if ((!world.isNullOrAir(x, y + 1, z, false)) || (!sourceBlocks.contains(world.getMaterial(x, y, z, false))))
+            if ((!window.isNullOrAir(x, y + 1, z)) || (!sourceBlocks.contains(window.getMaterial(x, y, z))))
             {
                 continue;
             }
@@ -6,6 +6,7 @@ import com.pg85.otg.configuration.ConfigFunction;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.materials.MaterialSet;
@@ -93,13 +94,15 @@ public class IceSpikeGen extends Resource
 
     private void spawnBasement(LocalWorld world, Random random,int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int y = RandomHelper.numberInRange(random, this.minAltitude, this.maxAltitude);
 
-        while ((world.isNullOrAir(x, y, z, false)) && (y > 2))
+        while ((window.isNullOrAir(x, y, z)) && (y > 2))
         {
             y--;
         }
-        if (!this.sourceBlocks.contains(world.getMaterial(x, y, z, false)))
+        if (!this.sourceBlocks.contains(window.getMaterial(x, y, z)))
         {
             return;
         }
@@ -115,10 +118,10 @@ public class IceSpikeGen extends Resource
                 {
                     for (int deltaY = y - one; deltaY <= y + one; deltaY++)
                     {
-                        LocalMaterialData localBlock = world.getMaterial(actualX, deltaY, actualZ, false);
+                        LocalMaterialData localBlock = window.getMaterial(actualX, deltaY, actualZ);
                         if (this.sourceBlocks.contains(localBlock))
                         {
-                            world.setBlock(actualX, deltaY, actualZ, this.material, null, false);
+                            window.setBlock(actualX, deltaY, actualZ, this.material);
                         }
                     }
                 }
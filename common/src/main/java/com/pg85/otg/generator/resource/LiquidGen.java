@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.materials.MaterialSet;
 
@@ -76,42 +77,44 @@ public class LiquidGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int y = RandomHelper.numberInRange(rand, minAltitude, maxAltitude);
 
-        if (!sourceBlocks.contains(world.getMaterial(x, y + 1, z, false)))
+        if (!sourceBlocks.contains(window.getMaterial(x, y + 1, z)))
             return;
-        if (!sourceBlocks.contains(world.getMaterial(x, y - 1, z, false)))
+        if (!sourceBlocks.contains(window.getMaterial(x, y - 1, z)))
             return;
 
-        if (!world.isNullOrAir(x, y, z, false) && (!sourceBlocks.contains(world.getMaterial(x, y, z, false))))
+        if (!window.isNullOrAir(x, y, z) && (!sourceBlocks.contains(window.getMaterial(x, y, z))))
             return;
 
         int i = 0;
         int j = 0;
 
-        LocalMaterialData tempBlock = world.getMaterial(x - 1, y, z, false);
+        LocalMaterialData tempBlock = window.getMaterial(x - 1, y, z);
 
         i = (sourceBlocks.contains(tempBlock)) ? i + 1 : i;
         j = (tempBlock.isAir()) ? j + 1 : j;
 
-        tempBlock = world.getMaterial(x + 1, y, z, false);
+        tempBlock = window.getMaterial(x + 1, y, z);
 
         i = (sourceBlocks.contains(tempBlock)) ? i + 1 : i;
         j = (tempBlock.isAir()) ? j + 1 : j;
 
-        tempBlock = world.getMaterial(x, y, z - 1, false);
+        tempBlock = window.getMaterial(x, y, z - 1);
 
         i = (sourceBlocks.contains(tempBlock)) ? i + 1 : i;
         j = (tempBlock.isAir()) ? j + 1 : j;
 
-        tempBlock = world.getMaterial(x, y, z + 1, false);
+        tempBlock = window.getMaterial(x, y, z + 1);
 
         i = (sourceBlocks.contains(tempBlock)) ? i + 1 : i;
         j = (tempBlock.isAir()) ? j + 1 : j;
 
         if ((i == 3) && (j == 1))
         {
-            world.setBlock(x, y, z, material, null, false);
+            window.setBlock(x, y, z, material);
         }
     }
 
@@ -4,6 +4,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.materials.MaterialSet;
 
@@ -82,6 +83,8 @@ public class PlantGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int y = RandomHelper.numberInRange(rand, minAltitude, maxAltitude);
 
         for (int i = 0; i < 64; i++)
@@ -89,7 +92,7 @@ public class PlantGen extends Resource
             int j = x + rand.nextInt(8) - rand.nextInt(8);
             int k = y + rand.nextInt(4) - rand.nextInt(4);
             int m = z + rand.nextInt(8) - rand.nextInt(8);            
-            if ((!world.isNullOrAir(j, k, m, false)) || (!sourceBlocks.contains(world.getMaterial(j, k - 1, m, false))))
+            if ((!window.isNullOrAir(j, k, m)) || (!sourceBlocks.contains(window.getMaterial(j, k - 1, m))))
             {
                 continue;
             }
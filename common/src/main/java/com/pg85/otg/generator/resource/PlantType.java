@@ -3,6 +3,7 @@ package com.pg85.otg.generator.resource;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
@@ -150,10 +151,12 @@ public class PlantType
      */
     void spawn(LocalWorld world, int x, int y, int z)
     {
-        world.setBlock(x, y, z, bottomBlock, null, false);
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
+        window.setBlock(x, y, z, bottomBlock);
         if (topBlock != null)
         {
-            world.setBlock(x, y + 1, z, topBlock, null, false);
+            window.setBlock(x, y + 1, z, topBlock);
         }
     }
 
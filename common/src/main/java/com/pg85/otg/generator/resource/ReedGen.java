@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.materials.MaterialSet;
 
 import java.util.List;
@@ -75,11 +76,13 @@ public class ReedGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
-        int y = world.getHighestBlockYAt(x, z);
-        LocalMaterialData materialA = world.getMaterial(x - 1, y - 1, z, false);
-        LocalMaterialData materialB = world.getMaterial(x + 1, y - 1, z, false);
-        LocalMaterialData materialC = world.getMaterial(x, y - 1, z - 1, false);
-        LocalMaterialData materialD = world.getMaterial(x, y - 1, z + 1, false);
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
+        int y = window.getHighestBlockYAt(x, z);
+        LocalMaterialData materialA = window.getMaterial(x - 1, y - 1, z);
+        LocalMaterialData materialB = window.getMaterial(x + 1, y - 1, z);
+        LocalMaterialData materialC = window.getMaterial(x, y - 1, z - 1);
+        LocalMaterialData materialD = window.getMaterial(x, y - 1, z + 1);
         if (
     		y > this.maxAltitude || 
     		y < this.minAltitude || 
@@ -94,7 +97,7 @@ public class ReedGen extends Resource
             return;
         }
         
-        LocalMaterialData worldMaterial = world.getMaterial(x, y - 1, z, false);        
+        LocalMaterialData worldMaterial = window.getMaterial(x, y - 1, z);        
         if (worldMaterial == null || !this.sourceBlocks.contains(worldMaterial))
         {
             return;
@@ -103,7 +106,7 @@ public class ReedGen extends Resource
         int n = 1 + rand.nextInt(2);
         for (int i1 = 0; i1 < n; i1++)
         {
-            world.setBlock(x, y + i1, z, this.material, null, false);
+            window.setBlock(x, y + i1, z, this.material);
         }
     }
     
@@ -6,6 +6,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.ConfigFunction;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.logging.PerformanceStats;
 import com.pg85.otg.util.ChunkCoordinate;
 
 import java.util.ArrayList;
@@ -146,7 +147,9 @@ public abstract class Resource extends ConfigFunction<BiomeConfig> implements Co
         }
 
         // Spawn
+        long start = PerformanceStats.start();
         spawnInChunk(world, random, villageInChunk, chunkCoord);
+        PerformanceStats.stopResource(getClass(), start);
     }
 
     /**
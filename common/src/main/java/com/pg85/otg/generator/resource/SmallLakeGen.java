@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
@@ -76,6 +77,8 @@ public class SmallLakeGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         if (villageInChunk)
         {
             // Lakes and villages don't like each other.
@@ -88,7 +91,7 @@ public class SmallLakeGen extends Resource
         int y = RandomHelper.numberInRange(rand, minAltitude, maxAltitude);
 
         // Search any free space
-        while ((y > 5) && (world.isNullOrAir(x, y, z, false)))
+        while ((y > 5) && (window.isNullOrAir(x, y, z)))
         {
             y--;
         }
@@ -147,12 +150,12 @@ public class SmallLakeGen extends Resource
 
                         if (flag)
                         {
-                            LocalMaterialData localMaterialData = world.getMaterial(x + j, y + i2, z + i1, false);
+                            LocalMaterialData localMaterialData = window.getMaterial(x + j, y + i2, z + i1);
                             if ((i2 >= 4) && (localMaterialData.isLiquid()))
                             {
                                 return;
                             }
-                            if ((i2 < 4) && (!localMaterialData.isSolid()) && !world.getMaterial(x + j, y + i2, z + i1, false).equals(material))
+                            if ((i2 < 4) && (!localMaterialData.isSolid()) && !window.getMaterial(x + j, y + i2, z + i1).equals(material))
                             {
                                 return;
                             }
@@ -169,7 +172,7 @@ public class SmallLakeGen extends Resource
                     {
                         if (BooleanBuffer[((j * 16 + i1) * 8 + i2)])
                         {
-                            world.setBlock(x + j, y + i2, z + i1, material, null, false);
+                            window.setBlock(x + j, y + i2, z + i1, material);
                             BooleanBuffer[((j * 16 + i1) * 8 + i2)] = false;
                         }
                     }
@@ -177,7 +180,7 @@ public class SmallLakeGen extends Resource
                     {
                         if (BooleanBuffer[((j * 16 + i1) * 8 + i2)])
                         {
-                            world.setBlock(x + j, y + i2, z + i1, air, null, false);
+                            window.setBlock(x + j, y + i2, z + i1, air);
                             BooleanBuffer[((j * 16 + i1) * 8 + i2)] = false;
                         }
                     }
@@ -6,6 +6,7 @@ import com.pg85.otg.configuration.ConfigFunction;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.generator.noise.NoiseGeneratorSurfacePatchOctaves;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.materials.MaterialSet;
@@ -114,21 +115,23 @@ public class SurfacePatchGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
-        int y = world.getHighestBlockYAt(x, z) - 1;
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
+        int y = window.getHighestBlockYAt(x, z) - 1;
         if (y < minAltitude || y > maxAltitude)
             return;
 
         double yNoise = noiseGen.getYNoise(x * 0.25D, z * 0.25D);
         if (yNoise > 0.0D)
         {
-            LocalMaterialData materialAtLocation = world.getMaterial(x, y, z, false);
+            LocalMaterialData materialAtLocation = window.getMaterial(x, y, z);
             if (sourceBlocks.contains(materialAtLocation))
             {
-                world.setBlock(x, y, z, material, null, false);
+                window.setBlock(x, y, z, material);
 
                 if (yNoise < 0.12D)
                 {
-                    world.setBlock(x, y + 1, z, decorationAboveReplacements, null, false);
+                    window.setBlock(x, y + 1, z, decorationAboveReplacements);
                 }
             }
         }
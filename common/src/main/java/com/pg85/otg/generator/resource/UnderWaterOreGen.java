@@ -4,6 +4,7 @@ import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.materials.MaterialSet;
 
 import java.util.List;
@@ -67,6 +68,8 @@ public class UnderWaterOreGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int firstSolidBlock = world.getSolidHeight(x, z) - 1;
         if (world.getLiquidHeight(x, z) < firstSolidBlock || firstSolidBlock == -1)
         {
@@ -85,10 +88,10 @@ public class UnderWaterOreGen extends Resource
                 {
                     for (int y = firstSolidBlock - two; y <= firstSolidBlock + two; y++)
                     {
-                        LocalMaterialData sourceBlock = world.getMaterial(currentX, y, currentZ, false);
+                        LocalMaterialData sourceBlock = window.getMaterial(currentX, y, currentZ);
                         if (sourceBlocks.contains(sourceBlock))
                         {
-                            world.setBlock(currentX, y, currentZ, material, null, false);
+                            window.setBlock(currentX, y, currentZ, material);
                         }
                     }
                 }
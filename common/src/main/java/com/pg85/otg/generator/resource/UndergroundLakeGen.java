@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
@@ -83,9 +84,11 @@ public class UndergroundLakeGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int y = RandomHelper.numberInRange(rand, minAltitude, maxAltitude);
 
-        if (y >= world.getHighestBlockYAt(x, z))
+        if (y >= window.getHighestBlockYAt(x, z))
             return;
         int size = RandomHelper.numberInRange(rand, minSize, maxSize);
 
@@ -116,7 +119,7 @@ public class UndergroundLakeGen extends Resource
                 {
                     for (int zLake = (int) (zAdjusted - horizontalSize / 2.0D); zLake <= (int) (zAdjusted + horizontalSize / 2.0D); zLake++)
                     {
-                        LocalMaterialData material = world.getMaterial(xLake, yLake, zLake, false);
+                        LocalMaterialData material = window.getMaterial(xLake, yLake, zLake);
                         if (material == null || material.isAir() || material.isMaterial(DefaultMaterial.BEDROCK))
                         {
                             // Don't replace air or bedrock
@@ -130,14 +133,14 @@ public class UndergroundLakeGen extends Resource
                         {
                             continue;
                         }
-                        LocalMaterialData materialBelow = world.getMaterial(xLake, yLake - 1, zLake, false);
+                        LocalMaterialData materialBelow = window.getMaterial(xLake, yLake - 1, zLake);
                         if (materialBelow.isAir())
                         {
                             // Air block, also set position above to air
-                            world.setBlock(xLake, yLake, zLake, materialBelow, null, false);
+                            window.setBlock(xLake, yLake, zLake, materialBelow);
                         } else {
                             // Not air, set position above to water
-                            world.setBlock(xLake, yLake, zLake, material, null, false);
+                            window.setBlock(xLake, yLake, zLake, material);
                         }
                     }
                 }
@@ -2,6 +2,8 @@ package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
@@ -46,7 +48,11 @@ class Vein
         return true;
     }
 
-    public void spawn(LocalWorld world, Random random, ChunkCoordinate chunkCoord, VeinGen gen)
+    /**
+     * Spawns the ores of this vein in the given chunk. Ore blocks outside the
+     * given bounds are skipped without querying the world.
+     */
+    public void spawn(LocalWorld world, Random random, ChunkCoordinate chunkCoord, VeinGen gen, int minX, int maxX, int minZ, int maxZ)
     {
         int sizeSquared = size * size;
 
@@ -60,14 +66,16 @@ class Vein
 
                 if ((oreX - x) * (oreX - x) + (oreY - y) * (oreY - y) + (oreZ - z) * (oreZ - z) < sizeSquared)
                 {
-                    spawnOre(world, random, oreX, oreY, oreZ, gen);
+                    spawnOre(world, random, oreX, oreY, oreZ, gen, minX, maxX, minZ, maxZ);
                 }
             }
         }
     }
 
-    private void spawnOre(LocalWorld world, Random rand, int x, int y, int z, VeinGen gen)
+    private void spawnOre(LocalWorld world, Random rand, int x, int y, int z, VeinGen gen, int minX, int maxX, int minZ, int maxZ)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int maxSize = gen.oreSize;
         LocalMaterialData material = gen.material;
         MaterialSet sourceBlocks = gen.sourceBlocks;
@@ -101,6 +109,14 @@ class Vein
             int i1 = MathHelper.floor(d8 + d12 / 2.0D);
             int i2 = MathHelper.floor(d9 + d11 / 2.0D);
 
+            // Clip to the area that can be written to
+            j = Math.max(j, minX);
+            n = Math.min(n, maxX);
+            k = Math.max(k, PluginStandardValues.WORLD_DEPTH);
+            i1 = Math.min(i1, PluginStandardValues.WORLD_HEIGHT - 1);
+            m = Math.max(m, minZ);
+            i2 = Math.min(i2, maxZ);
+
             for (int i3 = j; i3 <= n; i3++)
             {
                 double d13 = (i3 + 0.5D - d7) / (d11 / 2.0D);
@@ -114,9 +130,9 @@ class Vein
                             for (int i5 = m; i5 <= i2; i5++)
                             {
                                 double d15 = (i5 + 0.5D - d9) / (d11 / 2.0D);
-                                if ((d13 * d13 + d14 * d14 + d15 * d15 < 1.0D) && sourceBlocks.contains(world.getMaterial(i3, i4, i5, false)))
+                                if ((d13 * d13 + d14 * d14 + d15 * d15 < 1.0D) && sourceBlocks.contains(window.getMaterial(i3, i4, i5)))
                                 {
-                                    world.setBlock(i3, i4, i5, material, null, false);
+                                    window.setBlock(i3, i4, i5, material);
                                 }
                             }
                         }
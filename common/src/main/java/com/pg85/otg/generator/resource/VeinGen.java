@@ -81,7 +81,7 @@ public class VeinGen extends Resource
      * @return The vein that starts in the chunk, or null if there is no
      *         starting vein.
      */
-    private Vein getVeinStartInChunk(LocalWorld world, int chunkX, int chunkZ)
+    Vein getVeinStartInChunk(LocalWorld world, int chunkX, int chunkZ)
     {
         // Create a random generator that is constant for this chunk and vein
         Random random = RandomHelper.getRandomForCoords(chunkX, chunkZ, material.hashCode() * (minRadius + maxRadius + 100) + world.getSeed());
@@ -136,14 +136,30 @@ public class VeinGen extends Resource
 
         int currentChunkX = chunkCoord.getChunkX();
         int currentChunkZ = chunkCoord.getChunkZ();
+
+        // Ores can only be placed inside the area being populated, unless
+        // the bounds check is disabled for this world.
+        int minX = Integer.MIN_VALUE;
+        int maxX = Integer.MAX_VALUE;
+        int minZ = Integer.MIN_VALUE;
+        int maxZ = Integer.MAX_VALUE;
+        if (world.getConfigs().getWorldConfig().populationBoundsCheck)
+        {
+            minX = chunkCoord.getBlockX();
+            maxX = minX + 2 * ChunkCoordinate.CHUNK_X_SIZE - 1;
+            minZ = chunkCoord.getBlockZ();
+            maxZ = minZ + 2 * ChunkCoordinate.CHUNK_Z_SIZE - 1;
+        }
+
+        VeinStartCache veinStartCache = world.getObjectSpawner().getVeinStartCache();
         for (int searchChunkX = currentChunkX - searchRadius; searchChunkX < currentChunkX + searchRadius; searchChunkX++)
         {
             for (int searchChunkZ = currentChunkZ - searchRadius; searchChunkZ < currentChunkZ + searchRadius; searchChunkZ++)
             {
-                Vein vein = getVeinStartInChunk(world, searchChunkX, searchChunkZ);
+                Vein vein = veinStartCache.getVeinStart(world, this, searchChunkX, searchChunkZ);
                 if (vein != null && vein.reachesChunk(currentChunkX, currentChunkZ))
                 {
-                    vein.spawn(world, random, chunkCoord, this);
+                    vein.spawn(world, random, chunkCoord, this, minX, maxX, minZ, maxZ);
                 }
             }
         }
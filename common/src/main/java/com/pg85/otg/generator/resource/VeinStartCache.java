@@ -0,0 +1,61 @@
+package com.pg85.otg.generator.resource;
+
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.FifoMap;
+
+import java.util.HashMap;
+
+/**
+ * Caches the vein starts of the {@link VeinGen} resources of a world.
+ *
+ * <p>A vein resource looks for vein starts in all chunks in range of the
+ * chunk being populated, so without this cache the start of each chunk is
+ * calculated again for every chunk within range. Vein starts only depend on
+ * the world seed and the settings of the resource, so equal resources in
+ * different biomes share their cached starts.
+ */
+public class VeinStartCache
+{
+    /**
+     * Amount of chunks of which the vein start is remembered, per resource.
+     */
+    private static final int MAX_CHUNKS_PER_RESOURCE = 4096;
+
+    /**
+     * Placeholder for chunks without a vein start, so that those don't have
+     * to be calculated again either.
+     */
+    private static final Vein NO_VEIN = new Vein(0, 0, 0, 0);
+
+    private final HashMap<VeinGen, FifoMap<ChunkCoordinate, Vein>> veinStarts = new HashMap<VeinGen, FifoMap<ChunkCoordinate, Vein>>();
+
+    /**
+     * Gets the vein of the given resource that starts in the given chunk.
+     * @param world    The world.
+     * @param resource The vein resource.
+     * @param chunkX   The x of the chunk.
+     * @param chunkZ   The z of the chunk.
+     * @return The vein that starts in the chunk, or null if there is no
+     *         starting vein.
+     */
+    synchronized Vein getVeinStart(LocalWorld world, VeinGen resource, int chunkX, int chunkZ)
+    {
+        FifoMap<ChunkCoordinate, Vein> veinStartsForResource = this.veinStarts.get(resource);
+        if (veinStartsForResource == null)
+        {
+            veinStartsForResource = new FifoMap<ChunkCoordinate, Vein>(MAX_CHUNKS_PER_RESOURCE);
+            this.veinStarts.put(resource, veinStartsForResource);
+        }
+
+        ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
+        Vein vein = veinStartsForResource.get(chunkCoord);
+        if (vein == null)
+        {
+            vein = resource.getVeinStartInChunk(world, chunkX, chunkZ);
+            veinStartsForResource.put(chunkCoord, vein == null ? NO_VEIN : vein);
+            return vein;
+        }
+        return vein == NO_VEIN ? null : vein;
+    }
+}
@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
@@ -40,25 +41,27 @@ public class VinesGen extends Resource
     
     private boolean canPlace(LocalWorld world, int x, int y, int z, int paramInt4)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         LocalMaterialData sourceBlock;
         switch (paramInt4)
         {
             default:
                 return false;
             case 1:
-                sourceBlock = world.getMaterial(x, y + 1, z, false);
+                sourceBlock = window.getMaterial(x, y + 1, z);
                 break;
             case 2:
-                sourceBlock = world.getMaterial(x, y, z + 1, false);
+                sourceBlock = window.getMaterial(x, y, z + 1);
                 break;
             case 3:
-                sourceBlock = world.getMaterial(x, y, z - 1, false);
+                sourceBlock = window.getMaterial(x, y, z - 1);
                 break;
             case 5:
-                sourceBlock = world.getMaterial(x - 1, y, z, false);
+                sourceBlock = window.getMaterial(x - 1, y, z);
                 break;
             case 4:
-                sourceBlock = world.getMaterial(x + 1, y, z, false);
+                sourceBlock = window.getMaterial(x + 1, y, z);
                 break;
         }
         return sourceBlock.isSolid();
@@ -105,18 +108,20 @@ public class VinesGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int _x = x;
         int _z = z;
         int y = minAltitude;
 
         while (y <= maxAltitude)
         {
-            if (world.isNullOrAir(_x, y, _z, false))
+            if (window.isNullOrAir(_x, y, _z))
             {
                 for (int direction = 2; direction <= 5; direction++)
                     if (canPlace(world, _x, y, _z, direction))
                     {
-                        world.setBlock(_x, y, _z, MaterialHelper.toLocalMaterialData(DefaultMaterial.VINE, 1 << D[OPPOSITE_FACING[direction]]), null, false);
+                        window.setBlock(_x, y, _z, MaterialHelper.toLocalMaterialData(DefaultMaterial.VINE, 1 << D[OPPOSITE_FACING[direction]]));
                         break;
                     }
             } else
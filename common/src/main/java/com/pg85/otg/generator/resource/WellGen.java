@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.materials.MaterialSet;
 
 import java.util.List;
@@ -82,14 +83,16 @@ public class WellGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random random, boolean villageInChunk, int x, int z)
     {
+        PopulationWindow window = world.getObjectSpawner().getPopulationWindow();
+
         int y = random.nextInt(maxAltitude - minAltitude) + minAltitude;
 
-        while (world.isNullOrAir(x, y, z, false) && y > minAltitude)
+        while (window.isNullOrAir(x, y, z) && y > minAltitude)
         {
             --y;
         }
 
-        LocalMaterialData sourceBlock = world.getMaterial(x, y, z, false);
+        LocalMaterialData sourceBlock = window.getMaterial(x, y, z);
 
         if (!sourceBlocks.contains(sourceBlock))
         {
@@ -102,7 +105,7 @@ public class WellGen extends Resource
         {
             for (j = -2; j <= 2; ++j)
             {
-                if (world.isNullOrAir(x + i, y - 1, z + j, false) && world.isNullOrAir(x + i, y - 2, z + j, false))
+                if (window.isNullOrAir(x + i, y - 1, z + j) && window.isNullOrAir(x + i, y - 2, z + j))
                 {
                     return;
                 }
@@ -115,16 +118,16 @@ public class WellGen extends Resource
             {
                 for (int var9 = -2; var9 <= 2; ++var9)
                 {
-                    world.setBlock(x + j, y + i, z + var9, material, null, false);
+                    window.setBlock(x + j, y + i, z + var9, material);
                 }
             }
         }
 
-        world.setBlock(x, y, z, water, null, false);
-        world.setBlock(x - 1, y, z, water, null, false);
-        world.setBlock(x + 1, y, z, water, null, false);
-        world.setBlock(x, y, z - 1, water, null, false);
-        world.setBlock(x, y, z + 1, water, null, false);
+        window.setBlock(x, y, z, water);
+        window.setBlock(x - 1, y, z, water);
+        window.setBlock(x + 1, y, z, water);
+        window.setBlock(x, y, z - 1, water);
+        window.setBlock(x, y, z + 1, water);
 
         for (i = -2; i <= 2; ++i)
         {
@@ -132,15 +135,15 @@ public class WellGen extends Resource
             {
                 if (i == -2 || i == 2 || j == -2 || j == 2)
                 {
-                    world.setBlock(x + i, y + 1, z + j, material, null, false);
+                    window.setBlock(x + i, y + 1, z + j, material);
                 }
             }
         }
 
-        world.setBlock(x + 2, y + 1, z, slab, null, false);
-        world.setBlock(x - 2, y + 1, z, slab, null, false);
-        world.setBlock(x, y + 1, z + 2, slab, null, false);
-        world.setBlock(x, y + 1, z - 2, slab, null, false);
+        window.setBlock(x + 2, y + 1, z, slab);
+        window.setBlock(x - 2, y + 1, z, slab);
+        window.setBlock(x, y + 1, z + 2, slab);
+        window.setBlock(x, y + 1, z - 2, slab);
 
         for (i = -1; i <= 1; ++i)
         {
@@ -148,20 +151,20 @@ public class WellGen extends Resource
             {
                 if (i == 0 && j == 0)
                 {
-                    world.setBlock(x + i, y + 4, z + j, material, null, false);
+                    window.setBlock(x + i, y + 4, z + j, material);
                 } else
                 {
-                    world.setBlock(x + i, y + 4, z + j, slab, null, false);
+                    window.setBlock(x + i, y + 4, z + j, slab);
                 }
             }
         }
 
         for (i = 1; i <= 3; ++i)
         {
-            world.setBlock(x - 1, y + i, z - 1, material, null, false);
-            world.setBlock(x - 1, y + i, z + 1, material, null, false);
-            world.setBlock(x + 1, y + i, z - 1, material, null, false);
-            world.setBlock(x + 1, y + i, z + 1, material, null, false);
+            window.setBlock(x - 1, y + i, z - 1, material);
+            window.setBlock(x - 1, y + i, z + 1, material);
+            window.setBlock(x + 1, y + i, z - 1, material);
+            window.setBlock(x + 1, y + i, z + 1, material);
         }
     }
 }
\ No newline at end of file
@@ -4,8 +4,10 @@ import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.configuration.standard.WorldStandardValues;
 import com.pg85.otg.configuration.world.WorldConfig;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.helpers.MathHelper;
@@ -13,18 +15,45 @@ import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
 public class FrozenSurfaceHelper
 {
+    /**
+     * The most the temperature of a biome can drop with height. Minecraft
+     * lowers the temperature by 0.05 / 30 per block above y=64, after adding
+     * noise of at most 4 blocks to the height.
+     */
+    private static final float MAX_TEMPERATURE_DROP = (PluginStandardValues.WORLD_HEIGHT - 64 + 4) * 0.05F / 30.0F;
+
+    private static final int[] NEIGHBOURS_X = { 1, 1, 0, -1, -1, -1, 0, 1 };
+    private static final int[] NEIGHBOURS_Z = { 0, 1, 1, 1, 0, -1, -1, -1 };
+
     private final LocalWorld world;
+    private final PopulationWindow window;
     private final WorldConfig worldConfig;
     private int decreaseFactor = 0;
     private final int maxPropagationSize = 15;
     private int currentPropagationSize = 0;
 
+    // Blocks that are spreading the freeze, and the next neighbour of each
+    private final int[] propagationStackX = new int[maxPropagationSize + 1];
+    private final int[] propagationStackZ = new int[maxPropagationSize + 1];
+    private final int[] propagationStackNeighbour = new int[maxPropagationSize + 1];
+
     public FrozenSurfaceHelper(LocalWorld world)
     {
         this.world = world;
+        this.window = world.getObjectSpawner().getPopulationWindow();
         this.worldConfig = world.getConfigs().getWorldConfig();
     }
 
+    /**
+     * Gets whether snow or ice can form anywhere in a biome, at any height.
+     * @param biomeConfig The biome.
+     * @return False if the biome is always too warm.
+     */
+    public static boolean canFreeze(BiomeConfig biomeConfig)
+    {
+        return biomeConfig.biomeTemperature - MAX_TEMPERATURE_DROP < WorldStandardValues.SNOW_AND_ICE_MAX_TEMP;
+    }
+
     /**
      * Freezes and Applied snow to an offset chunkCoordinate
      * @param chunkCoord The chunk to freeze and snow on
@@ -53,9 +82,10 @@ public class FrozenSurfaceHelper
     {
         // Using the calculated biome id so that ReplaceToBiomeName can't mess up the ids
         LocalBiome biome = world.getBiome(x, z);
-        if (biome != null)
+        // Warm biomes are skipped without looking at the column
+        if (biome != null && canFreeze(biome.getBiomeConfig()))
         {
-            int blockToFreezeY = world.getHighestBlockYAt(x, z);
+            int blockToFreezeY = this.window.getHighestBlockYAt(x, z);
             float tempAtBlockToFreeze = biome.getTemperatureAt(x, blockToFreezeY, z);
             if (blockToFreezeY > 0 && tempAtBlockToFreeze < WorldStandardValues.SNOW_AND_ICE_MAX_TEMP)
             {
@@ -82,13 +112,18 @@ public class FrozenSurfaceHelper
         LocalBiome biome = world.getBiome(x, z);
         if (biome != null)
         {
-            LocalMaterialData materialToFreeze = world.getMaterial(x, y, z, false);
+            LocalMaterialData materialToFreeze = this.window.getMaterial(x, y, z);
             if (materialToFreeze.isLiquid())
             {
                 // Water & Stationary Water => IceBlock
-                freezeType(x, y, z, materialToFreeze, biome.getBiomeConfig().iceBlock, DefaultMaterial.WATER, DefaultMaterial.STATIONARY_WATER);
                 // Lava & Stationary Lava => CooledLavaBlock
-                freezeType(x, y, z, materialToFreeze, biome.getBiomeConfig().cooledLavaBlock, DefaultMaterial.LAVA, DefaultMaterial.STATIONARY_LAVA);
+                if (
+                    freezeType(x, y, z, materialToFreeze, biome.getBiomeConfig().iceBlock, DefaultMaterial.WATER, DefaultMaterial.STATIONARY_WATER) ||
+                    freezeType(x, y, z, materialToFreeze, biome.getBiomeConfig().cooledLavaBlock, DefaultMaterial.LAVA, DefaultMaterial.STATIONARY_LAVA)
+                )
+                {
+                    propagateFreeze(x, y, z);
+                }
                 return true;
             }
         }
@@ -106,19 +141,16 @@ public class FrozenSurfaceHelper
      * @param frozenMaterial The material to freeze the thawed material to if checks pass
      * @param check1 The first material to check for
      * @param check2 The second meterial to check for
+     * @return If the material was frozen
      */
-    private void freezeType(int x, int y, int z, LocalMaterialData thawedMaterial, LocalMaterialData frozenMaterial, DefaultMaterial check1, DefaultMaterial check2)
+    private boolean freezeType(int x, int y, int z, LocalMaterialData thawedMaterial, LocalMaterialData frozenMaterial, DefaultMaterial check1, DefaultMaterial check2)
     {
         if ((thawedMaterial.isMaterial(check1) || thawedMaterial.isMaterial(check2)) && !frozenMaterial.isMaterial(check1) && !frozenMaterial.isMaterial(check2))
         {
-            world.setBlock(x, y, z, frozenMaterial, null, false);
-            if (worldConfig.fullyFreezeLakes && this.currentPropagationSize < this.maxPropagationSize)
-            {
-                this.currentPropagationSize++;
-                propagateFreeze(x, y, z);
-            }
+            this.window.setBlock(x, y, z, frozenMaterial);
+            return true;
         }
-
+        return false;
     }
 
     /**
@@ -137,8 +169,8 @@ public class FrozenSurfaceHelper
         float tempAtBlockToFreeze = biome.getTemperatureAt(x, y, z);
         int snowHeight = biomeConfig.getSnowHeight(tempAtBlockToFreeze);
         // Decreased snow amounts for leaves
-        LocalMaterialData materialToSnowAt = world.getMaterial(x, y, z, false);
-        LocalMaterialData materialToSnowOn = world.getMaterial(x, y - 1, z, false);
+        LocalMaterialData materialToSnowAt = this.window.getMaterial(x, y, z);
+        LocalMaterialData materialToSnowOn = this.window.getMaterial(x, y - 1, z);
         if (materialToSnowAt.isAir() && materialToSnowOn.canSnowFallOn())
         {
             this.setSnowFallAtLocation(x, y--, z, snowHeight, materialToSnowOn);
@@ -146,8 +178,8 @@ public class FrozenSurfaceHelper
         if (worldConfig.betterSnowFall) {
             do
             {
-                materialToSnowAt = world.getMaterial(x, --y, z, false);
-                materialToSnowOn = world.getMaterial(x, y - 1, z, false);
+                materialToSnowAt = this.window.getMaterial(x, --y, z);
+                materialToSnowOn = this.window.getMaterial(x, y - 1, z);
                 if (materialToSnowAt != null && materialToSnowOn != null && materialToSnowAt.isAir() && materialToSnowOn.canSnowFallOn())
                 {
                     this.setSnowFallAtLocation(x, y--, z, snowHeight, materialToSnowOn);
@@ -182,39 +214,63 @@ public class FrozenSurfaceHelper
             // Basic Snow Layer(s)
             snowMass = MaterialHelper.toLocalMaterialData(DefaultMaterial.SNOW, MathHelper.clamp(baseSnowHeight - decreaseFactor, 0, 8));
         }
-        world.setBlock(x, y, z, snowMass, null, false);
+        this.window.setBlock(x, y, z, snowMass);
     }
 
     /**
-     * Helps propagate the freezing of liquids.
+     * Spreads the freezing of a liquid to the liquids around it, depth
+     * first, until {@link #maxPropagationSize} blocks have spread it. Uses
+     * a stack instead of recursion, its depth is bounded by the same limit.
      * @param x Location X
      * @param y Location Y
      * @param z Location Z
      */
     private void propagateFreeze(int x, int y, int z)
     {
-        this.propagationHelper(x+1, y, z);
-        this.propagationHelper(x+1, y, z+1);
-        this.propagationHelper(x, y, z+1);
-        this.propagationHelper(x-1, y, z+1);
-        this.propagationHelper(x-1, y, z);
-        this.propagationHelper(x-1, y, z-1);
-        this.propagationHelper(x, y, z-1);
-        this.propagationHelper(x+1, y, z-1);
-    }
+        if (!worldConfig.fullyFreezeLakes || this.currentPropagationSize >= this.maxPropagationSize)
+        {
+            return;
+        }
+        this.currentPropagationSize++;
 
-    /**
-     * Called by propagateFreeze, does the actual checks and then called freezeLiquid
-     * @param x Location X
-     * @param y Location Y
-     * @param z Location Z
-     */
-    private void propagationHelper(int x, int y, int z)
-    {
-        if (world.getHighestBlockYAt(x, z)-1 > y && this.currentPropagationSize < this.maxPropagationSize)
+        int depth = 0;
+        this.propagationStackX[0] = x;
+        this.propagationStackZ[0] = z;
+        this.propagationStackNeighbour[0] = 0;
+        while (depth >= 0)
         {
-            this.freezeLiquid(x, y, z);
+            int neighbour = this.propagationStackNeighbour[depth]++;
+            if (neighbour == NEIGHBOURS_X.length)
+            {
+                depth--;
+                continue;
+            }
+            int neighbourX = this.propagationStackX[depth] + NEIGHBOURS_X[neighbour];
+            int neighbourZ = this.propagationStackZ[depth] + NEIGHBOURS_Z[neighbour];
+            if (this.currentPropagationSize < this.maxPropagationSize && this.window.getHighestBlockYAt(neighbourX, neighbourZ) - 1 > y)
+            {
+                LocalBiome biome = world.getBiome(neighbourX, neighbourZ);
+                if (biome == null)
+                {
+                    continue;
+                }
+                LocalMaterialData materialToFreeze = this.window.getMaterial(neighbourX, y, neighbourZ);
+                if (
+                    materialToFreeze.isLiquid() &&
+                    (
+                        freezeType(neighbourX, y, neighbourZ, materialToFreeze, biome.getBiomeConfig().iceBlock, DefaultMaterial.WATER, DefaultMaterial.STATIONARY_WATER) ||
+                        freezeType(neighbourX, y, neighbourZ, materialToFreeze, biome.getBiomeConfig().cooledLavaBlock, DefaultMaterial.LAVA, DefaultMaterial.STATIONARY_LAVA)
+                    ) &&
+                    this.currentPropagationSize < this.maxPropagationSize
+                )
+                {
+                    this.currentPropagationSize++;
+                    depth++;
+                    this.propagationStackX[depth] = neighbourX;
+                    this.propagationStackZ[depth] = neighbourZ;
+                    this.propagationStackNeighbour[depth] = 0;
+                }
+            }
         }
     }
-
 }
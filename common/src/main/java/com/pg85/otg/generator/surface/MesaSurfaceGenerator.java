@@ -18,13 +18,33 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
     public static final String NAME_FOREST = "MesaForest";
     public static final String NAME_BRYCE = "MesaBryce";
 
-    private LocalMaterialData[] clayBands;
-    private long worldSeed;
+    /**
+     * The clay bands and noise generators for a world seed. Surface
+     * generators are shared by all chunks of a biome, which may be generated
+     * on multiple threads, so this is built completely before it is
+     * published and never changed afterwards.
+     */
+    private static final class SeedState
+    {
+        private final long worldSeed;
+        private final LocalMaterialData[] clayBands;
+        private final NoiseGeneratorPerlinMesaBlocks clayBandsOffsetNoise;
+        private final NoiseGeneratorPerlinMesaBlocks pillarNoise;
+        private final NoiseGeneratorPerlinMesaBlocks pillarRoofNoise;
+
+        private SeedState(long worldSeed, LocalMaterialData[] clayBands, NoiseGeneratorPerlinMesaBlocks clayBandsOffsetNoise, NoiseGeneratorPerlinMesaBlocks pillarNoise, NoiseGeneratorPerlinMesaBlocks pillarRoofNoise)
+        {
+            this.worldSeed = worldSeed;
+            this.clayBands = clayBands;
+            this.clayBandsOffsetNoise = clayBandsOffsetNoise;
+            this.pillarNoise = pillarNoise;
+            this.pillarRoofNoise = pillarRoofNoise;
+        }
+    }
+
+    private volatile SeedState seedState;
     private boolean hasForest;
     private boolean brycePillars;
-    private NoiseGeneratorPerlinMesaBlocks pillarNoise;
-    private NoiseGeneratorPerlinMesaBlocks pillarRoofNoise;
-    private NoiseGeneratorPerlinMesaBlocks clayBandsOffsetNoise;
 
     private final LocalMaterialData hardenedClay;
     private final LocalMaterialData redSand;
@@ -77,20 +97,33 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
         return null;
     }    
     
-    private LocalMaterialData getBand(int i, int j, int k)
+    private LocalMaterialData getBand(SeedState seedState, int i, int j, int k)
     {
-    	int l = (int)Math.round(this.clayBandsOffsetNoise.getValue((double)i / 512.0D, (double)i / 512.0D) * 2.0D);
-        return this.clayBands[(j + l + 64) % 64];
+    	int l = (int)Math.round(seedState.clayBandsOffsetNoise.getValue((double)i / 512.0D, (double)i / 512.0D) * 2.0D);
+        return seedState.clayBands[(j + l + 64) % 64];
+    }
+
+    private SeedState getSeedState(long worldSeed)
+    {
+        SeedState seedState = this.seedState;
+        if (seedState == null || seedState.worldSeed != worldSeed)
+        {
+            // Threads that get here at the same time build equal states, so
+            // it doesn't matter which one is kept
+            seedState = generateBands(worldSeed);
+            this.seedState = seedState;
+        }
+        return seedState;
     }
 
     // net.minecraft.world.biome.BiomeMesa.generateBands
-    private void generateBands(long p_150619_1_)
+    private SeedState generateBands(long p_150619_1_)
     {
-        this.clayBands = new LocalMaterialData[64];
-        Arrays.fill(this.clayBands, this.hardenedClay);
+        LocalMaterialData[] clayBands = new LocalMaterialData[64];
+        Arrays.fill(clayBands, this.hardenedClay);
         Random random = new Random(p_150619_1_);
 
-        this.clayBandsOffsetNoise = new NoiseGeneratorPerlinMesaBlocks(random, 1);
+        NoiseGeneratorPerlinMesaBlocks clayBandsOffsetNoise = new NoiseGeneratorPerlinMesaBlocks(random, 1);
        
         for (int l1 = 0; l1 < 64; ++l1)
         {
@@ -98,7 +131,7 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
 
             if (l1 < 64)
             {
-                this.clayBands[l1] = this.orangeStainedClay;
+                clayBands[l1] = this.orangeStainedClay;
             }
         }
         
@@ -111,7 +144,7 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
 
             for (int l = 0; k + l < 64 && l < j; ++l)
             {
-                this.clayBands[k + l] = this.yellowStainedClay;
+                clayBands[k + l] = this.yellowStainedClay;
             }
         }
         
@@ -124,7 +157,7 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
 
             for (int i1 = 0; l3 + i1 < 64 && i1 < i3; ++i1)
             {
-                this.clayBands[l3 + i1] = this.brownStainedClay;
+                clayBands[l3 + i1] = this.brownStainedClay;
             }
         }
 
@@ -137,7 +170,7 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
 
             for (int j1 = 0; k4 + j1 < 64 && j1 < i4; ++j1)
             {
-                this.clayBands[k4 + j1] = this.redStainedClay;
+                clayBands[k4 + j1] = this.redStainedClay;
             }
         }
 
@@ -151,61 +184,58 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
 
             for (int k1 = 0; j4 + k1 < 64 && k1 < 1; ++k1)
             {
-                this.clayBands[j4 + k1] = this.whiteStainedClay;
+                clayBands[j4 + k1] = this.whiteStainedClay;
 
                 if (j4 + k1 > 1 && random.nextBoolean())
                 {
-                    this.clayBands[j4 + k1 - 1] = this.silverStainedClay;
+                    clayBands[j4 + k1 - 1] = this.silverStainedClay;
                 }
 
                 if (j4 + k1 < 63 && random.nextBoolean())
                 {
-                    this.clayBands[j4 + k1 + 1] = this.silverStainedClay;
+                    clayBands[j4 + k1 + 1] = this.silverStainedClay;
                 }
             }
         }
+
+        // Vanilla seeds the pillar noise before it stores the world seed, so
+        // for the first seed it is always seeded with 0. Keep doing that so
+        // existing worlds don't change.
+        Random pillarRandom = new Random(0L);
+        NoiseGeneratorPerlinMesaBlocks pillarNoise = new NoiseGeneratorPerlinMesaBlocks(pillarRandom, 4);
+        NoiseGeneratorPerlinMesaBlocks pillarRoofNoise = new NoiseGeneratorPerlinMesaBlocks(pillarRandom, 1);
+
+        return new SeedState(p_150619_1_, clayBands, clayBandsOffsetNoise, pillarNoise, pillarRoofNoise);
     }
    
 	@Override
     public LocalMaterialData getCustomBlockData(LocalWorld world, BiomeConfig biomeConfig, int xInWorld, int yInWorld, int zInWorld)
     {        
-    	int l = (int)Math.round(this.clayBandsOffsetNoise.getValue((double)xInWorld / 512.0D, (double)xInWorld / 512.0D) * 2.0D);
-        return this.clayBands[(yInWorld + l + 64) % 64];
+        return getBand(getSeedState(world.getSeed()), xInWorld, yInWorld, zInWorld);
     }   
 
     // net.minecraft.world.biome.BiomeMesa.genTerrainBlocks
     @Override
     public void spawn(long worldSeed, GeneratingChunk generatingChunk, ChunkBuffer chunkBuffer, BiomeConfig biomeConfig, int xInWorld, int zInWorld)
     {    	
-        if (this.clayBands == null || this.worldSeed != worldSeed)
-        {
-            this.generateBands(worldSeed);
-        }
-    	              
-        if (this.pillarNoise == null || this.pillarRoofNoise == null || this.worldSeed != worldSeed)
-        {
-            Random random = new Random(this.worldSeed);
-            this.pillarNoise = new NoiseGeneratorPerlinMesaBlocks(random, 4);
-            this.pillarRoofNoise = new NoiseGeneratorPerlinMesaBlocks(random, 1);
-        }
+        SeedState seedState = getSeedState(worldSeed);
         
         int x = xInWorld & 15;
         int z = zInWorld & 15;
         double noise = generatingChunk.getNoise(x, z);
         
-    	this.worldSeed = worldSeed;
         // Bryce spike calculations
         double bryceHeight = 0.0D;
         if (this.brycePillars)
         {
             int k = (xInWorld & -16) + (zInWorld & 15);
             int l = (zInWorld & -16) + (xInWorld & 15);
-            double bryceNoiseValue = Math.min(Math.abs(noise), this.pillarNoise.getValue((double)k * 0.25D, (double)l * 0.25D));
+            double bryceNoiseValue = Math.min(Math.abs(noise), seedState.pillarNoise.getValue((double)k * 0.25D, (double)l * 0.25D));
 
             if (bryceNoiseValue > 0.0D)
             {
                 double d3 = 0.001953125D;
-                double d4 = Math.abs(this.pillarRoofNoise.getValue((double)k * d3, (double)l * d3));
+                double d4 = Math.abs(seedState.pillarRoofNoise.getValue((double)k * d3, (double)l * d3));
                 bryceHeight = bryceNoiseValue * bryceNoiseValue * 2.5D;
                 double d5 = Math.ceil(d4 * 50.0D) + 14.0D;
 
@@ -232,23 +262,24 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
         int i1 = 0;
 
         int maxHeight = generatingChunk.heightCap - 1;
+        LocalMaterialData[] blocks = generatingChunk.readBlockColumn(chunkBuffer, x, z);
         
         int minHeight = 0;
 
         for (int y = maxHeight; y >= minHeight; y--)
         {
-            if (chunkBuffer.getBlock(x, y, z).isAir() && y < (int) bryceHeight)
+            if (blocks[y].isAir() && y < (int) bryceHeight)
             {
-                chunkBuffer.setBlock(x, y, z, biomeConfig.stoneBlock);
+                blocks[y] = biomeConfig.stoneBlock;
             }
 
             if (generatingChunk.mustCreateBedrockAt(biomeConfig.worldConfig, y))
             {
-                chunkBuffer.setBlock(x, y, z, biomeConfig.worldConfig.bedrockBlock);
+                blocks[y] = biomeConfig.worldConfig.bedrockBlock;
             }
             else if (i1 < 15 || this.brycePillars)
             {
-                LocalMaterialData blockAtPosition = chunkBuffer.getBlock(x, y, z);
+                LocalMaterialData blockAtPosition = blocks[y];
 
                 if (blockAtPosition.isAir())
                 {
@@ -284,9 +315,9 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
                             {
                                 if (cosNoiseIsLargerThanZero)
                                 {
-                                    chunkBuffer.setBlock(x, y, z, this.coarseDirt);
+                                    blocks[y] = this.coarseDirt;
                                 } else {
-                                    chunkBuffer.setBlock(x, y, z, biomeConfig.surfaceBlock);
+                                    blocks[y] = biomeConfig.surfaceBlock;
                                 }
                             }
                             else if (y > waterLevel + 3 + noisePlusRandomFactor)
@@ -297,22 +328,22 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
                                     {
                                         iblockdata3 = this.hardenedClay;
                                     } else {
-                                        iblockdata3 = this.getBand(xInWorld, y, zInWorld);
+                                        iblockdata3 = this.getBand(seedState, xInWorld, y, zInWorld);
                                     }
                                 } else {
                                     iblockdata3 = this.orangeStainedClay;
                                 }
 
-                                chunkBuffer.setBlock(x, y, z, iblockdata3);
+                                blocks[y] = iblockdata3;
                             } else {
-                                chunkBuffer.setBlock(x, y, z, redSand);
+                                blocks[y] = redSand;
                                 belowSand = true;
                             }
                         } else {
-                            chunkBuffer.setBlock(x, y, z, currentGroundBlock);
+                            blocks[y] = currentGroundBlock;
                             if (currentGroundBlock.isMaterial(DefaultMaterial.STAINED_CLAY))
                             {
-                                chunkBuffer.setBlock(x, y, z, this.orangeStainedClay);
+                                blocks[y] = this.orangeStainedClay;
                             }
                         }
                     }
@@ -321,10 +352,10 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
                         --k1;
                         if (belowSand)
                         {
-                            chunkBuffer.setBlock(x, y, z, this.orangeStainedClay);
+                            blocks[y] = this.orangeStainedClay;
                         } else {
-                            iblockdata3 = this.getBand(xInWorld, y, zInWorld);
-                            chunkBuffer.setBlock(x, y, z, iblockdata3);
+                            iblockdata3 = this.getBand(seedState, xInWorld, y, zInWorld);
+                            blocks[y] = iblockdata3;
                         }
                     }
                     
@@ -332,6 +363,7 @@ public class MesaSurfaceGenerator implements SurfaceGenerator
                 }
             }
         }
+        generatingChunk.writeBlockColumn(chunkBuffer, x, z);
     }
 
     @Override
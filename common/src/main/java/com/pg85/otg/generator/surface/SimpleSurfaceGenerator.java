@@ -40,12 +40,13 @@ public class SimpleSurfaceGenerator implements SurfaceGenerator
         WorldConfig worldConfig = biomeConfig.worldConfig;
         float currentTemperature = biomeConfig.biomeTemperature;
         int surfaceBlocksNoise = (int) (generatingChunk.getNoise(x, z) / 3.0D + 3.0D + generatingChunk.random.nextDouble() * 0.25D);
+        LocalMaterialData[] blocks = generatingChunk.readBlockColumn(chunkBuffer, x, z);
 
         // Bedrock on the ceiling
         if (worldConfig.ceilingBedrock)
         {
             // Moved one block lower to fix lighting issues
-            chunkBuffer.setBlock(x, generatingChunk.heightCap - 2, z, worldConfig.bedrockBlock);
+            blocks[generatingChunk.heightCap - 2] = worldConfig.bedrockBlock;
         }
 
         // Loop from map height to zero to place bedrock and surface
@@ -59,10 +60,10 @@ public class SimpleSurfaceGenerator implements SurfaceGenerator
             if (generatingChunk.mustCreateBedrockAt(worldConfig, y))
             {
                 // Place bedrock
-                chunkBuffer.setBlock(x, y, z, worldConfig.bedrockBlock);
+                blocks[y] = worldConfig.bedrockBlock;
             } else {
                 // Surface blocks logic (grass, dirt, sand, sandstone)
-                final LocalMaterialData blockOnCurrentPos = chunkBuffer.getBlock(x, y, z);
+                final LocalMaterialData blockOnCurrentPos = blocks[y];
 
                 if (blockOnCurrentPos.isAir())
                 {
@@ -101,16 +102,16 @@ public class SimpleSurfaceGenerator implements SurfaceGenerator
                         surfaceBlocksCount = surfaceBlocksNoise;                       
                         if (y >= currentWaterLevel - 1)
                         {
-                        	chunkBuffer.setBlock(x, y, z, currentSurfaceBlock);
+                        	blocks[y] = currentSurfaceBlock;
                         } else {
-                        	chunkBuffer.setBlock(x, y, z, currentGroundBlock);
+                        	blocks[y] = currentGroundBlock;
                         }
                     }
                     else if (surfaceBlocksCount > 0)
                     {
                         // Place ground block
                         surfaceBlocksCount--;
-                        chunkBuffer.setBlock(x, y, z, currentGroundBlock);
+                        blocks[y] = currentGroundBlock;
 
                         // Place sandstone under stand
                         if ((surfaceBlocksCount == 0) && (currentGroundBlock.isMaterial(DefaultMaterial.SAND)) && surfaceBlocksNoise > 1)
@@ -122,6 +123,7 @@ public class SimpleSurfaceGenerator implements SurfaceGenerator
                 }
             }
         }
+        generatingChunk.writeBlockColumn(chunkBuffer, x, z);
     }
 
     @Override
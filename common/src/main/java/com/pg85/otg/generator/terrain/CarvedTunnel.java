@@ -0,0 +1,106 @@
+package com.pg85.otg.generator.terrain;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A single cave branch or ravine as generated by the random walk of a
+ * {@link TerrainGenBase}, stored as plain arrays so it can be carved into
+ * any chunk in range without rerunning the walk.
+ *
+ * <p>Only the steps that would reach the distance check are stored, the
+ * steps skipped by the random walk itself are left out. Whether a step
+ * actually carves depends on the chunk being generated and is decided by
+ * {@link TerrainGenBase#carveTunnel(CarvedTunnel, com.pg85.otg.generator.ChunkBuffer)}.
+ *
+ * <p>Instances are never modified after {@link TerrainGenBase#getTunnelsForChunk(int, int)}
+ * has returned them, so they can be shared between threads.
+ */
+final class CarvedTunnel
+{
+    /**
+     * Large caves stop after carving their first step.
+     */
+    final boolean isLargeCave;
+    /**
+     * Maximum horizontal reach of the tunnel beyond its remaining steps,
+     * used to stop carving once the tunnel can no longer reach the chunk.
+     */
+    final double maxReach;
+    /**
+     * Ravine wall shape per y level, null for caves.
+     */
+    final float[] depthScale;
+
+    private int size;
+    double[] x = new double[16];
+    double[] y = new double[16];
+    double[] z = new double[16];
+    double[] horizontalRadius = new double[16];
+    double[] verticalRadius = new double[16];
+    int[] remainingSteps = new int[16];
+
+    /**
+     * Tunnels that branch off at the end of this tunnel, null if none. They
+     * are only carved if this tunnel was carved up to its last step.
+     */
+    List<CarvedTunnel> branches;
+
+    CarvedTunnel(boolean isLargeCave, double maxReach, float[] depthScale)
+    {
+        this.isLargeCave = isLargeCave;
+        this.maxReach = maxReach;
+        this.depthScale = depthScale;
+    }
+
+    void addStep(double x, double y, double z, double horizontalRadius, double verticalRadius, int remainingSteps)
+    {
+        if (this.size == this.x.length)
+        {
+            int newLength = this.size * 2;
+            this.x = Arrays.copyOf(this.x, newLength);
+            this.y = Arrays.copyOf(this.y, newLength);
+            this.z = Arrays.copyOf(this.z, newLength);
+            this.horizontalRadius = Arrays.copyOf(this.horizontalRadius, newLength);
+            this.verticalRadius = Arrays.copyOf(this.verticalRadius, newLength);
+            this.remainingSteps = Arrays.copyOf(this.remainingSteps, newLength);
+        }
+        this.x[this.size] = x;
+        this.y[this.size] = y;
+        this.z[this.size] = z;
+        this.horizontalRadius[this.size] = horizontalRadius;
+        this.verticalRadius[this.size] = verticalRadius;
+        this.remainingSteps[this.size] = remainingSteps;
+        this.size++;
+    }
+
+    int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Checks whether the given step can still reach the chunk with the
+     * given center. Once this returns false the tunnel and its branches
+     * cannot carve anything in that chunk anymore.
+     */
+    boolean canReach(int step, double chunkCenterX, double chunkCenterZ)
+    {
+        double distanceX = this.x[step] - chunkCenterX;
+        double distanceZ = this.z[step] - chunkCenterZ;
+        double remaining = this.remainingSteps[step];
+        return distanceX * distanceX + distanceZ * distanceZ - remaining * remaining <= this.maxReach * this.maxReach;
+    }
+
+    /**
+     * Checks whether the given step is close enough to the chunk with the
+     * given center to carve any blocks in it.
+     */
+    boolean isNear(int step, double chunkCenterX, double chunkCenterZ)
+    {
+        double x = this.x[step];
+        double z = this.z[step];
+        double radius = this.horizontalRadius[step];
+        return !((x < chunkCenterX - 16.0D - radius * 2.0D) || (z < chunkCenterZ - 16.0D - radius * 2.0D) || (x > chunkCenterX + 16.0D + radius * 2.0D) || (z > chunkCenterZ + 16.0D + radius * 2.0D));
+    }
+}
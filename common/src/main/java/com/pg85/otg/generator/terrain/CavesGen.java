@@ -11,6 +11,8 @@ import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 public class CavesGen extends TerrainGenBase
@@ -23,17 +25,17 @@ public class CavesGen extends TerrainGenBase
         this.worldSettings = wrk;
     }
 
-    private void generateLargeCaveNode(long seed, ChunkBuffer generatingChunkBuffer, double x, double y, double z)
+    private void generateLargeCaveNode(long seed, Random random, List<CarvedTunnel> tunnels, double x, double y, double z)
     {
-        generateCaveNode(seed, generatingChunkBuffer, x, y, z, 1.0F + this.random.nextFloat() * 6.0F, 0.0F, 0.0F, -1, -1, 0.5D);
+        generateCaveNode(seed, tunnels, x, y, z, 1.0F + random.nextFloat() * 6.0F, 0.0F, 0.0F, -1, -1, 0.5D);
     }
 
-    private void generateCaveNode(long seed, ChunkBuffer generatingChunkBuffer, double x, double y, double z, float paramFloat1, float paramFloat2, float paramFloat3, int angle, int maxAngle, double paramDouble4)
+    /**
+     * Runs the random walk of a cave node and adds the resulting tunnel,
+     * including its branches, to the given list. Does not carve anything.
+     */
+    private void generateCaveNode(long seed, List<CarvedTunnel> tunnels, double x, double y, double z, float paramFloat1, float paramFloat2, float paramFloat3, int angle, int maxAngle, double paramDouble4)
     {
-        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
-        double real_x = generatingChunk.getBlockXCenter();
-        double real_z = generatingChunk.getBlockZCenter();
-
         float f1 = 0.0F;
         float f2 = 0.0F;
 
@@ -55,38 +57,14 @@ public class CavesGen extends TerrainGenBase
         int j = localRandom.nextInt(maxAngle / 2) + maxAngle / 4;
         int k = localRandom.nextInt(6) == 0 ? 1 : 0;
 
+        CarvedTunnel tunnel = new CarvedTunnel(isLargeCave, paramFloat1 + 2.0F + 16.0F, null);
+        tunnels.add(tunnel);
+
         double d3;
         double d4;
         float f3;
         float f4;
-        double d5;
-        double d6;
-        double d7;
-        double d8;
-        
-        int m;
-        int n;
-        
-        int maxDepth;
-        int minDepth;
-        int i3;
-        int i4;
-        
-        boolean waterFound;
-        LocalMaterialData material;
-        
-        double d9;
-        //LocalBiome biome;
-        double d10;
 
-        boolean surfaceBlockFound;
-        double d11;
-        
-        LocalMaterialData materialAbove;
-        LocalMaterialData block;
-        
-    	int surfaceBlockDepth;
-        
         for (; angle < maxAngle; angle++)
         {
             d3 = 1.5D + MathHelper.sin(angle * 3.141593F / maxAngle) * paramFloat1 * 1.0F;
@@ -114,8 +92,9 @@ public class CavesGen extends TerrainGenBase
 
             if ((!isLargeCave) && (angle == j) && (paramFloat1 > 1.0F) && (maxAngle > 0))
             {
-                generateCaveNode(localRandom.nextLong(), generatingChunkBuffer, x, y, z, localRandom.nextFloat() * 0.5F + 0.5F, paramFloat2 - 1.570796F, paramFloat3 / 3.0F, angle, maxAngle, 1.0D);
-                generateCaveNode(localRandom.nextLong(), generatingChunkBuffer, x, y, z, localRandom.nextFloat() * 0.5F + 0.5F, paramFloat2 + 1.570796F, paramFloat3 / 3.0F, angle, maxAngle, 1.0D);
+                tunnel.branches = new ArrayList<CarvedTunnel>(2);
+                generateCaveNode(localRandom.nextLong(), tunnel.branches, x, y, z, localRandom.nextFloat() * 0.5F + 0.5F, paramFloat2 - 1.570796F, paramFloat3 / 3.0F, angle, maxAngle, 1.0D);
+                generateCaveNode(localRandom.nextLong(), tunnel.branches, x, y, z, localRandom.nextFloat() * 0.5F + 0.5F, paramFloat2 + 1.570796F, paramFloat3 / 3.0F, angle, maxAngle, 1.0D);
                 return;
             }
             if ((!isLargeCave) && (localRandom.nextInt(4) == 0))
@@ -123,22 +102,65 @@ public class CavesGen extends TerrainGenBase
                 continue;
             }
 
+            tunnel.addStep(x, y, z, d3, d4, maxAngle - angle);
+        }
+    }
+
+    @Override
+    void carveTunnel(CarvedTunnel tunnel, ChunkBuffer generatingChunkBuffer)
+    {
+        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
+        double real_x = generatingChunk.getBlockXCenter();
+        double real_z = generatingChunk.getBlockZCenter();
+
+        double x;
+        double y;
+        double z;
+        double d3;
+        double d4;
+
+        int m;
+        int n;
+
+        int maxDepth;
+        int minDepth;
+        int i3;
+        int i4;
+
+        boolean waterFound;
+        LocalMaterialData material;
+
+        double d9;
+        //LocalBiome biome;
+        double d10;
+
+        boolean surfaceBlockFound;
+        double d11;
+
+        LocalMaterialData materialAbove;
+        LocalMaterialData block;
+
+    	int surfaceBlockDepth;
+
+        for (int step = 0; step < tunnel.size(); step++)
+        {
             // Check if distance to working point (x and z) too larger than working radius (maybe ??)
-            d5 = x - real_x;
-            d6 = z - real_z;
-            d7 = maxAngle - angle;
-            d8 = paramFloat1 + 2.0F + 16.0F;
-            if (d5 * d5 + d6 * d6 - d7 * d7 > d8 * d8)
+            if (!tunnel.canReach(step, real_x, real_z))
             {
                 return;
             }
 
             //Boundaries check.
-            if ((x < real_x - 16.0D - d3 * 2.0D) || (z < real_z - 16.0D - d3 * 2.0D) || (x > real_x + 16.0D + d3 * 2.0D) || (z > real_z + 16.0D + d3 * 2.0D))
+            if (!tunnel.isNear(step, real_x, real_z))
             {
                 continue;
             }
 
+            x = tunnel.x[step];
+            y = tunnel.y[step];
+            z = tunnel.z[step];
+            d3 = tunnel.horizontalRadius[step];
+            d4 = tunnel.verticalRadius[step];
 
             m = MathHelper.floor(x - d3) - generatingChunk.getBlockX() - 1;
             n = MathHelper.floor(x + d3) - generatingChunk.getBlockX() + 1;
@@ -264,11 +286,19 @@ public class CavesGen extends TerrainGenBase
                     }
                 }
             }
-            if (isLargeCave)
+            if (tunnel.isLargeCave)
             {
                 break;
             }
         }
+
+        if (tunnel.branches != null)
+        {
+            for (CarvedTunnel branch : tunnel.branches)
+            {
+                carveTunnel(branch, generatingChunkBuffer);
+            }
+        }
     }
 
     private boolean isSuitableBlock(LocalMaterialData material, LocalMaterialData materialAbove)//, BiomeConfig biomeConfig)
@@ -326,17 +356,17 @@ public class CavesGen extends TerrainGenBase
     }
 
     @Override
-    protected void generateChunk(ChunkCoordinate chunkCoord, ChunkBuffer generatingChunkBuffer)
+    void generateTunnels(ChunkCoordinate chunkCoord, Random random, List<CarvedTunnel> tunnels)
     {
     	int i = 0;
     	if(this.worldSettings.caveRarity > 0 && this.worldSettings.caveFrequency > 0)
     	{
-	        i = this.random.nextInt(this.random.nextInt(this.random.nextInt(this.worldSettings.caveFrequency) + 1) + 1);
+	        i = random.nextInt(random.nextInt(random.nextInt(this.worldSettings.caveFrequency) + 1) + 1);
 	        if (this.worldSettings.evenCaveDistribution)
 	        {
 	            i = this.worldSettings.caveFrequency;
 	        }
-	        if (this.random.nextInt(100) >= this.worldSettings.caveRarity)
+	        if (random.nextInt(100) >= this.worldSettings.caveRarity)
 	        {
 	            i = 0;
 	        }
@@ -352,37 +382,37 @@ public class CavesGen extends TerrainGenBase
     	float f3;
         for (int j = 0; j < i; j++)
         {
-            x = chunkCoord.getBlockX() + this.random.nextInt(ChunkCoordinate.CHUNK_X_SIZE);
+            x = chunkCoord.getBlockX() + random.nextInt(ChunkCoordinate.CHUNK_X_SIZE);
 
             if (this.worldSettings.evenCaveDistribution)
             {
                 y = RandomHelper.numberInRange(random, this.worldSettings.caveMinAltitude, this.worldSettings.caveMaxAltitude);
             } else {
-                y = this.random.nextInt(this.random.nextInt(this.worldSettings.caveMaxAltitude - this.worldSettings.caveMinAltitude + 1) + 1) + this.worldSettings.caveMinAltitude;
+                y = random.nextInt(random.nextInt(this.worldSettings.caveMaxAltitude - this.worldSettings.caveMinAltitude + 1) + 1) + this.worldSettings.caveMinAltitude;
             }
 
-            z = chunkCoord.getBlockZ() + this.random.nextInt(ChunkCoordinate.CHUNK_Z_SIZE);
+            z = chunkCoord.getBlockZ() + random.nextInt(ChunkCoordinate.CHUNK_Z_SIZE);
 
             count = this.worldSettings.caveSystemFrequency;
             largeCaveSpawned = false;
-            if (this.random.nextInt(100) <= this.worldSettings.individualCaveRarity)
+            if (random.nextInt(100) <= this.worldSettings.individualCaveRarity)
             {
-                generateLargeCaveNode(this.random.nextLong(), generatingChunkBuffer, x, y, z);
+                generateLargeCaveNode(random.nextLong(), random, tunnels, x, y, z);
                 largeCaveSpawned = true;
             }
 
-            if ((largeCaveSpawned) || (this.random.nextInt(100) <= this.worldSettings.caveSystemPocketChance - 1))
+            if ((largeCaveSpawned) || (random.nextInt(100) <= this.worldSettings.caveSystemPocketChance - 1))
             {
                 count += RandomHelper.numberInRange(random, this.worldSettings.caveSystemPocketMinSize, this.worldSettings.caveSystemPocketMaxSize);
             }
             while (count > 0)
             {
                 count--;
-                f1 = this.random.nextFloat() * 3.141593F * 2.0F;
-                f2 = (this.random.nextFloat() - 0.5F) * 2.0F / 8.0F;
-                f3 = this.random.nextFloat() * 2.0F + this.random.nextFloat();
+                f1 = random.nextFloat() * 3.141593F * 2.0F;
+                f2 = (random.nextFloat() - 0.5F) * 2.0F / 8.0F;
+                f3 = random.nextFloat() * 2.0F + random.nextFloat();
 
-                generateCaveNode(this.random.nextLong(), generatingChunkBuffer, x, y, z, f3, f1, f2, 0, 0, 1.0D);
+                generateCaveNode(random.nextLong(), tunnels, x, y, z, f3, f1, f2, 0, 0, 1.0D);
             }
         }
     }
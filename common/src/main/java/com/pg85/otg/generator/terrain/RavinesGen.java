@@ -11,11 +11,11 @@ import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
+import java.util.List;
 import java.util.Random;
 
 public class RavinesGen extends TerrainGenBase
 {
-    private float[] a = new float[1024];
     private WorldConfig worldSettings;
 
     public RavinesGen(WorldConfig wrk, LocalWorld world)
@@ -24,19 +24,18 @@ public class RavinesGen extends TerrainGenBase
         this.worldSettings = wrk;
     }
 
-    private void placeBlocks(long paramLong, ChunkBuffer generatingChunkBuffer, double paramDouble1, double paramDouble2, double paramDouble3, float paramFloat1, float paramFloat2, float paramFloat3, int size, double paramDouble4)
+    /**
+     * Runs the random walk of a ravine and adds the resulting tunnel to the
+     * given list. Does not carve anything.
+     */
+    private void generateRavine(long paramLong, List<CarvedTunnel> tunnels, double paramDouble1, double paramDouble2, double paramDouble3, float paramFloat1, float paramFloat2, float paramFloat3, int size, double paramDouble4)
     {
         Random localRandom = new Random(paramLong);
 
-        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
-        double d1 = generatingChunk.getBlockXCenter();
-        double d2 = generatingChunk.getBlockZCenter();
-
         float f1 = 0.0F;
         float f2 = 0.0F;
 
-        int i = 0;
-
+        float[] a = new float[worldSettings.worldHeightCap];
         float f3 = 1.0F;
         for (int j = 0; ; j++)
         {
@@ -48,9 +47,12 @@ public class RavinesGen extends TerrainGenBase
             {
                 f3 = 1.0F + localRandom.nextFloat() * localRandom.nextFloat() * 1.0F;
             }
-            this.a[j] = (f3 * f3);
+            a[j] = (f3 * f3);
         }
 
+        CarvedTunnel tunnel = new CarvedTunnel(false, paramFloat1 + 2.0F + 16.0F, a);
+        tunnels.add(tunnel);
+
         for (int stepCount = 0; stepCount < size; stepCount++)
         {
             double d3 = 1.5D + MathHelper.sin(stepCount * 3.141593F / size) * paramFloat1 * 1.0F;
@@ -75,23 +77,40 @@ public class RavinesGen extends TerrainGenBase
             f2 += (localRandom.nextFloat() - localRandom.nextFloat()) * localRandom.nextFloat() * 2.0F;
             f1 += (localRandom.nextFloat() - localRandom.nextFloat()) * localRandom.nextFloat() * 4.0F;
 
-            if ((i == 0) && (localRandom.nextInt(4) == 0))
+            if (localRandom.nextInt(4) == 0)
             {
                 continue;
             }
-            double d5 = paramDouble1 - d1;
-            double d6 = paramDouble3 - d2;
-            double d7 = size - stepCount;
-            double d8 = paramFloat1 + 2.0F + 16.0F;
-            if (d5 * d5 + d6 * d6 - d7 * d7 > d8 * d8)
+
+            tunnel.addStep(paramDouble1, paramDouble2, paramDouble3, d3, d4, size - stepCount);
+        }
+    }
+
+    @Override
+    void carveTunnel(CarvedTunnel tunnel, ChunkBuffer generatingChunkBuffer)
+    {
+        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
+        double d1 = generatingChunk.getBlockXCenter();
+        double d2 = generatingChunk.getBlockZCenter();
+
+        for (int step = 0; step < tunnel.size(); step++)
+        {
+            if (!tunnel.canReach(step, d1, d2))
             {
                 return;
             }
 
-            if ((paramDouble1 < d1 - 16.0D - d3 * 2.0D) || (paramDouble3 < d2 - 16.0D - d3 * 2.0D) || (paramDouble1 > d1 + 16.0D + d3 * 2.0D) || (paramDouble3 > d2 + 16.0D + d3 * 2.0D))
+            if (!tunnel.isNear(step, d1, d2))
             {
                 continue;
             }
+
+            double paramDouble1 = tunnel.x[step];
+            double paramDouble2 = tunnel.y[step];
+            double paramDouble3 = tunnel.z[step];
+            double d3 = tunnel.horizontalRadius[step];
+            double d4 = tunnel.verticalRadius[step];
+
             int k = MathHelper.floor(paramDouble1 - d3) - generatingChunk.getBlockX() - 1;
             int m = MathHelper.floor(paramDouble1 + d3) - generatingChunk.getBlockX() + 1;
 
@@ -177,7 +196,7 @@ public class RavinesGen extends TerrainGenBase
                         for (int currentDepth = minDepth; currentDepth >= maxDepth; currentDepth--)
                         {
                             double d11 = ((currentDepth - 1) + 0.5D - paramDouble2) / d4;
-                            if ((d9 * d9 + d10 * d10) * this.a[currentDepth - 1] + d11 * d11 / 6.0D < 1.0D)
+                            if ((d9 * d9 + d10 * d10) * tunnel.depthScale[currentDepth - 1] + d11 * d11 / 6.0D < 1.0D)
                             {
                             	LocalMaterialData material = generatingChunkBuffer.getBlock(localX, currentDepth, localZ);
                                 DefaultMaterial defaultMaterial = material.toDefaultMaterial();
@@ -217,35 +236,31 @@ public class RavinesGen extends TerrainGenBase
                     }
                 }
             }
-            if (i != 0)
-            {
-                break;
-            }
         }
     }
 
     @Override
-    protected void generateChunk(ChunkCoordinate currentChunk, ChunkBuffer generatingChunkBuffer)
+    void generateTunnels(ChunkCoordinate currentChunk, Random random, List<CarvedTunnel> tunnels)
     {
-        if (this.random.nextInt(100) >= this.worldSettings.ravineRarity)
+        if (random.nextInt(100) >= this.worldSettings.ravineRarity)
         {
             return;
         }
-        double d1 = currentChunk.getBlockX() + this.random.nextInt(ChunkCoordinate.CHUNK_X_SIZE);
+        double d1 = currentChunk.getBlockX() + random.nextInt(ChunkCoordinate.CHUNK_X_SIZE);
         double d2 = RandomHelper.numberInRange(random, this.worldSettings.ravineMinAltitude, this.worldSettings.ravineMaxAltitude);
-        double d3 = currentChunk.getBlockZ() + this.random.nextInt(ChunkCoordinate.CHUNK_Z_SIZE);
+        double d3 = currentChunk.getBlockZ() + random.nextInt(ChunkCoordinate.CHUNK_Z_SIZE);
 
         int i = 1;
 
         for (int j = 0; j < i; j++)
         {
-            float f1 = this.random.nextFloat() * 3.141593F * 2.0F;
-            float f2 = (this.random.nextFloat() - 0.5F) * 2.0F / 8.0F;
-            float f3 = (this.random.nextFloat() * 2.0F + this.random.nextFloat()) * 2.0F;
+            float f1 = random.nextFloat() * 3.141593F * 2.0F;
+            float f2 = (random.nextFloat() - 0.5F) * 2.0F / 8.0F;
+            float f3 = (random.nextFloat() * 2.0F + random.nextFloat()) * 2.0F;
 
             int size = RandomHelper.numberInRange(random, this.worldSettings.ravineMinLength, this.worldSettings.ravineMaxLength);
 
-            placeBlocks(this.random.nextLong(), generatingChunkBuffer, d1, d2, d3, f3, f1, f2, size, this.worldSettings.ravineDepth);
+            generateRavine(random.nextLong(), tunnels, d1, d2, d3, f3, f1, f2, size, this.worldSettings.ravineDepth);
         }
     }
 }
\ No newline at end of file
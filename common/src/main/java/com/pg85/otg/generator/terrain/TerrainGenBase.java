@@ -4,29 +4,43 @@ import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.generator.ChunkBuffer;
 import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.FifoMap;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 public abstract class TerrainGenBase
 {
+    /**
+     * Amount of source chunks of which the tunnels are kept in memory. A
+     * chunk is checked by all chunks up to {@link #checkAreaSize} chunks
+     * away, so this should comfortably hold a few rows of those areas.
+     */
+    private static final int TUNNEL_CACHE_SIZE = 1024;
+
     // Hardcoded materials that cannot be changed for now
     protected final LocalMaterialData air = MaterialHelper.toLocalMaterialData(DefaultMaterial.AIR, 0);
     protected final LocalMaterialData lava = MaterialHelper.toLocalMaterialData(DefaultMaterial.STATIONARY_LAVA, 0);
 
     protected int checkAreaSize = 8;
-    protected Random random = new Random();
     protected LocalWorld world;
     private final long worldLong1;
     private final long worldLong2;
 
+    // Tunnels per source chunk, the random walk is the same for every
+    // chunk that checks the source chunk so it only needs to be done once.
+    private final FifoMap<ChunkCoordinate, List<CarvedTunnel>> tunnelCache = new FifoMap<ChunkCoordinate, List<CarvedTunnel>>(TUNNEL_CACHE_SIZE);
+
     TerrainGenBase(LocalWorld world)
     {
         this.world = world;
-        this.random.setSeed(this.world.getSeed());
-        worldLong1 = this.random.nextLong();
-        worldLong2 = this.random.nextLong();
+        Random random = new Random(this.world.getSeed());
+        worldLong1 = random.nextLong();
+        worldLong2 = random.nextLong();
     }
 
     public void generate(ChunkBuffer chunkBuffer)
@@ -39,21 +53,69 @@ public abstract class TerrainGenBase
         for (int x = chunkX - i; x <= chunkX + i; x++)
             for (int z = chunkZ - i; z <= chunkZ + i; z++)
             {
-                long l3 = x * worldLong1;
-                long l4 = z * worldLong2;
-                this.random.setSeed(l3 ^ l4 ^ this.world.getSeed());
-                generateChunk(ChunkCoordinate.fromChunkCoords(x, z), chunkBuffer);
+                for (CarvedTunnel tunnel : getTunnelsForChunk(x, z))
+                {
+                    carveTunnel(tunnel, chunkBuffer);
+                }
             }
     }
 
     /**
-     * Generates the structure for the given chunk. The terrain generator
-     * calls this method for all chunks not more than {@link #checkAreaSize}
-     * chunks away on either axis from the generatingChunk.
+     * Gets the tunnels starting in the given chunk, running the random walk
+     * for the chunk if it isn't cached yet. The result only depends on the
+     * world seed and the chunk position. Safe to call from multiple threads.
+     *
+     * @param chunkX Chunk x of the source chunk.
+     * @param chunkZ Chunk z of the source chunk.
+     * @return The tunnels, may be empty.
+     */
+    List<CarvedTunnel> getTunnelsForChunk(int chunkX, int chunkZ)
+    {
+        ChunkCoordinate sourceChunk = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
+        List<CarvedTunnel> tunnels;
+        synchronized (this.tunnelCache)
+        {
+            tunnels = this.tunnelCache.get(sourceChunk);
+        }
+        if (tunnels == null)
+        {
+            long l3 = chunkX * worldLong1;
+            long l4 = chunkZ * worldLong2;
+            Random random = new Random(l3 ^ l4 ^ this.world.getSeed());
+
+            tunnels = new ArrayList<CarvedTunnel>();
+            generateTunnels(sourceChunk, random, tunnels);
+            if (tunnels.isEmpty())
+            {
+                tunnels = Collections.emptyList();
+            }
+            synchronized (this.tunnelCache)
+            {
+                this.tunnelCache.put(sourceChunk, tunnels);
+            }
+        }
+        return tunnels;
+    }
+
+    /**
+     * Runs the random walk for all tunnels starting in the given chunk. The
+     * terrain generator calls this method once for each chunk not more than
+     * {@link #checkAreaSize} chunks away on either axis from a generating
+     * chunk, the results are then reused for other generating chunks.
+     *
+     * @param currentChunk The chunk we're searching.
+     * @param random       Random seeded for the chunk we're searching.
+     * @param tunnels      List to add the tunnels to.
+     */
+    abstract void generateTunnels(ChunkCoordinate currentChunk, Random random, List<CarvedTunnel> tunnels);
+
+    /**
+     * Carves the part of the given tunnel that lies inside the generating
+     * chunk.
      *
-     * @param currentChunk          The chunk we're searching.
+     * @param tunnel                The tunnel.
      * @param generatingChunkBuffer The chunk that is currently being
      *                              generated.
      */
-    protected abstract void generateChunk(ChunkCoordinate currentChunk, ChunkBuffer generatingChunkBuffer);
+    abstract void carveTunnel(CarvedTunnel tunnel, ChunkBuffer generatingChunkBuffer);
 }
@@ -0,0 +1,67 @@
+package com.pg85.otg.headless;
+
+import com.pg85.otg.common.BiomeIds;
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.configuration.biome.BiomeConfig;
+
+/**
+ * Biome of a {@link HeadlessWorld}. There is no Minecraft biome behind it,
+ * everything is read from the biome config.
+ */
+class HeadlessBiome implements LocalBiome
+{
+    private final BiomeConfig biomeConfig;
+    private final BiomeIds biomeIds;
+
+    HeadlessBiome(BiomeConfig biomeConfig, BiomeIds biomeIds)
+    {
+        this.biomeConfig = biomeConfig;
+        this.biomeIds = biomeIds;
+    }
+
+    @Override
+    public boolean isCustom()
+    {
+        return true;
+    }
+
+    @Override
+    public String getName()
+    {
+        return this.biomeConfig.getName();
+    }
+
+    @Override
+    public BiomeIds getIds()
+    {
+        return this.biomeIds;
+    }
+
+    /**
+     * Same as Minecraft's temperature calculation, but without the noise
+     * that Minecraft adds above y=64, so that results don't depend on the
+     * Minecraft version.
+     */
+    @Override
+    public float getTemperatureAt(int x, int y, int z)
+    {
+        float temperature = this.biomeConfig.biomeTemperature;
+        if (y > 64)
+        {
+            return temperature - (y - 64) * 0.05F / 30.0F;
+        }
+        return temperature;
+    }
+
+    @Override
+    public BiomeConfig getBiomeConfig()
+    {
+        return this.biomeConfig;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getName() + "[" + this.biomeIds + "]";
+    }
+}
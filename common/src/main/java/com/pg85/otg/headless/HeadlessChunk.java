@@ -0,0 +1,147 @@
+package com.pg85.otg.headless;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.generator.ChunkBuffer;
+import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.bo3.NamedBinaryTag;
+
+/**
+ * In-memory chunk of a {@link HeadlessWorld}. Blocks are stored as
+ * {@code blockId << 4 | blockData}, column by column, so that finding the
+ * highest block of a column only reads neighbouring array entries.
+ */
+public final class HeadlessChunk implements ChunkBuffer
+{
+    private static final int HEIGHT = PluginStandardValues.WORLD_HEIGHT;
+
+    private final ChunkCoordinate chunkCoord;
+    private final char[] blocks = new char[16 * 16 * HEIGHT];
+    private final Map<Integer, NamedBinaryTag> tileEntities = new HashMap<Integer, NamedBinaryTag>();
+
+    HeadlessChunk(ChunkCoordinate chunkCoord)
+    {
+        this.chunkCoord = chunkCoord;
+    }
+
+    private static int getIndex(int blockX, int blockY, int blockZ)
+    {
+        return ((blockX & 0xF) << 4 | (blockZ & 0xF)) * HEIGHT + blockY;
+    }
+
+    @Override
+    public ChunkCoordinate getChunkCoordinate()
+    {
+        return this.chunkCoord;
+    }
+
+    @Override
+    public void setBlock(int blockX, int blockY, int blockZ, LocalMaterialData material)
+    {
+        if (blockY < 0 || blockY >= HEIGHT)
+        {
+            return;
+        }
+        this.blocks[getIndex(blockX, blockY, blockZ)] = (char) (material.getBlockId() << 4 | material.getBlockData());
+    }
+
+    @Override
+    public LocalMaterialData getBlock(int blockX, int blockY, int blockZ)
+    {
+        if (blockY < 0 || blockY >= HEIGHT)
+        {
+            return HeadlessMaterialData.ofCombinedId(0);
+        }
+        return HeadlessMaterialData.ofCombinedId(this.blocks[getIndex(blockX, blockY, blockZ)]);
+    }
+
+    @Override
+    public void setBlocks(int blockX, int blockZ, int fromY, int toY, LocalMaterialData material)
+    {
+        int columnStart = getIndex(blockX, 0, blockZ);
+        Arrays.fill(this.blocks, columnStart + Math.max(fromY, 0), columnStart + Math.min(toY, HEIGHT), (char) (material.getBlockId() << 4 | material.getBlockData()));
+    }
+
+    @Override
+    public void setBlockColumn(int blockX, int blockZ, int fromY, int toY, LocalMaterialData[] blocks)
+    {
+        int columnStart = getIndex(blockX, 0, blockZ);
+        for (int y = Math.max(fromY, 0); y < toY && y < HEIGHT; y++)
+        {
+            this.blocks[columnStart + y] = (char) (blocks[y].getBlockId() << 4 | blocks[y].getBlockData());
+        }
+    }
+
+    @Override
+    public void getBlockColumn(int blockX, int blockZ, LocalMaterialData[] blocks)
+    {
+        int columnStart = getIndex(blockX, 0, blockZ);
+        for (int y = 0; y < blocks.length; y++)
+        {
+            blocks[y] = y < HEIGHT ? HeadlessMaterialData.ofCombinedId(this.blocks[columnStart + y]) : HeadlessMaterialData.ofCombinedId(0);
+        }
+    }
+
+    /**
+     * Gets the y of the highest non-air block in the given column.
+     * @param blockX X in the chunk or the world, only the lowest 4 bits are used.
+     * @param blockZ Z in the chunk or the world, only the lowest 4 bits are used.
+     * @return The y, or -1 if the column is empty.
+     */
+    int getHighestBlockY(int blockX, int blockZ)
+    {
+        int columnStart = getIndex(blockX, 0, blockZ);
+        for (int y = HEIGHT - 1; y >= 0; y--)
+        {
+            if (this.blocks[columnStart + y] != 0)
+            {
+                return y;
+            }
+        }
+        return -1;
+    }
+
+    void setMetadata(int blockX, int blockY, int blockZ, NamedBinaryTag tag)
+    {
+        if (blockY < 0 || blockY >= HEIGHT)
+        {
+            return;
+        }
+        this.tileEntities.put(getIndex(blockX, blockY, blockZ), tag);
+    }
+
+    NamedBinaryTag getMetadata(int blockX, int blockY, int blockZ)
+    {
+        if (blockY < 0 || blockY >= HEIGHT)
+        {
+            return null;
+        }
+        return this.tileEntities.get(getIndex(blockX, blockY, blockZ));
+    }
+
+    /**
+     * Gets a 64-bit FNV-1a hash of all blocks in this chunk and the
+     * positions of its tile entities. Two chunks with the same hash can be
+     * assumed to be generated identically.
+     * @return The hash.
+     */
+    public long getContentHash()
+    {
+        long hash = 0xcbf29ce484222325L;
+        for (char block : this.blocks)
+        {
+            hash = (hash ^ (block & 0xFF)) * 0x100000001b3L;
+            hash = (hash ^ (block >>> 8)) * 0x100000001b3L;
+        }
+        for (int position : new TreeSet<Integer>(this.tileEntities.keySet()))
+        {
+            hash = (hash ^ position) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
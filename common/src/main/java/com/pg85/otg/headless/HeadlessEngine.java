@@ -0,0 +1,213 @@
+package com.pg85.otg.headless;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.pg85.otg.OTGEngine;
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+/**
+ * Engine that runs without Minecraft, for generating terrain from the
+ * command line. See {@link HeadlessGenerator}.
+ */
+public class HeadlessEngine extends OTGEngine
+{
+    /**
+     * Minecraft 1.12 registry names that differ from the names in
+     * {@link DefaultMaterial}.
+     */
+    private static final Map<String, DefaultMaterial> MINECRAFT_NAMES = new HashMap<String, DefaultMaterial>();
+
+    static
+    {
+        MINECRAFT_NAMES.put("flowing_water", DefaultMaterial.WATER);
+        MINECRAFT_NAMES.put("water", DefaultMaterial.STATIONARY_WATER);
+        MINECRAFT_NAMES.put("flowing_lava", DefaultMaterial.LAVA);
+        MINECRAFT_NAMES.put("lava", DefaultMaterial.STATIONARY_LAVA);
+        MINECRAFT_NAMES.put("planks", DefaultMaterial.WOOD);
+        MINECRAFT_NAMES.put("golden_rail", DefaultMaterial.POWERED_RAIL);
+        MINECRAFT_NAMES.put("sticky_piston", DefaultMaterial.PISTON_STICKY_BASE);
+        MINECRAFT_NAMES.put("tallgrass", DefaultMaterial.LONG_GRASS);
+        MINECRAFT_NAMES.put("deadbush", DefaultMaterial.DEAD_BUSH);
+        MINECRAFT_NAMES.put("piston", DefaultMaterial.PISTON_BASE);
+        MINECRAFT_NAMES.put("piston_head", DefaultMaterial.PISTON_EXTENSION);
+        MINECRAFT_NAMES.put("red_flower", DefaultMaterial.RED_ROSE);
+        MINECRAFT_NAMES.put("double_stone_slab", DefaultMaterial.DOUBLE_STEP);
+        MINECRAFT_NAMES.put("stone_slab", DefaultMaterial.STEP);
+        MINECRAFT_NAMES.put("brick_block", DefaultMaterial.BRICK);
+        MINECRAFT_NAMES.put("oak_stairs", DefaultMaterial.WOOD_STAIRS);
+        MINECRAFT_NAMES.put("crafting_table", DefaultMaterial.WORKBENCH);
+        MINECRAFT_NAMES.put("wheat", DefaultMaterial.CROPS);
+        MINECRAFT_NAMES.put("farmland", DefaultMaterial.SOIL);
+        MINECRAFT_NAMES.put("lit_furnace", DefaultMaterial.BURNING_FURNACE);
+        MINECRAFT_NAMES.put("standing_sign", DefaultMaterial.SIGN_POST);
+        MINECRAFT_NAMES.put("rail", DefaultMaterial.RAILS);
+        MINECRAFT_NAMES.put("stone_stairs", DefaultMaterial.COBBLESTONE_STAIRS);
+        MINECRAFT_NAMES.put("stone_pressure_plate", DefaultMaterial.STONE_PLATE);
+        MINECRAFT_NAMES.put("iron_door", DefaultMaterial.IRON_DOOR_BLOCK);
+        MINECRAFT_NAMES.put("wooden_pressure_plate", DefaultMaterial.WOOD_PLATE);
+        MINECRAFT_NAMES.put("lit_redstone_ore", DefaultMaterial.GLOWING_REDSTONE_ORE);
+        MINECRAFT_NAMES.put("unlit_redstone_torch", DefaultMaterial.REDSTONE_TORCH_OFF);
+        MINECRAFT_NAMES.put("redstone_torch", DefaultMaterial.REDSTONE_TORCH_ON);
+        MINECRAFT_NAMES.put("snow_layer", DefaultMaterial.SNOW);
+        MINECRAFT_NAMES.put("snow", DefaultMaterial.SNOW_BLOCK);
+        MINECRAFT_NAMES.put("reeds", DefaultMaterial.SUGAR_CANE_BLOCK);
+        MINECRAFT_NAMES.put("lit_pumpkin", DefaultMaterial.JACK_O_LANTERN);
+        MINECRAFT_NAMES.put("cake", DefaultMaterial.CAKE_BLOCK);
+        MINECRAFT_NAMES.put("unpowered_repeater", DefaultMaterial.DIODE_BLOCK_OFF);
+        MINECRAFT_NAMES.put("powered_repeater", DefaultMaterial.DIODE_BLOCK_ON);
+        MINECRAFT_NAMES.put("trapdoor", DefaultMaterial.TRAP_DOOR);
+        MINECRAFT_NAMES.put("monster_egg", DefaultMaterial.MONSTER_EGGS);
+        MINECRAFT_NAMES.put("stonebrick", DefaultMaterial.SMOOTH_BRICK);
+        MINECRAFT_NAMES.put("brown_mushroom_block", DefaultMaterial.HUGE_MUSHROOM_1);
+        MINECRAFT_NAMES.put("red_mushroom_block", DefaultMaterial.HUGE_MUSHROOM_2);
+        MINECRAFT_NAMES.put("iron_bars", DefaultMaterial.IRON_FENCE);
+        MINECRAFT_NAMES.put("glass_pane", DefaultMaterial.THIN_GLASS);
+        MINECRAFT_NAMES.put("stone_brick_stairs", DefaultMaterial.SMOOTH_STAIRS);
+        MINECRAFT_NAMES.put("mycelium", DefaultMaterial.MYCEL);
+        MINECRAFT_NAMES.put("waterlily", DefaultMaterial.WATER_LILY);
+        MINECRAFT_NAMES.put("nether_brick_fence", DefaultMaterial.NETHER_FENCE);
+        MINECRAFT_NAMES.put("nether_wart", DefaultMaterial.NETHER_WARTS);
+        MINECRAFT_NAMES.put("enchanting_table", DefaultMaterial.ENCHANTMENT_TABLE);
+        MINECRAFT_NAMES.put("end_portal", DefaultMaterial.ENDER_PORTAL);
+        MINECRAFT_NAMES.put("end_portal_frame", DefaultMaterial.ENDER_PORTAL_FRAME);
+        MINECRAFT_NAMES.put("end_stone", DefaultMaterial.ENDER_STONE);
+        MINECRAFT_NAMES.put("redstone_lamp", DefaultMaterial.REDSTONE_LAMP_OFF);
+        MINECRAFT_NAMES.put("lit_redstone_lamp", DefaultMaterial.REDSTONE_LAMP_ON);
+        MINECRAFT_NAMES.put("double_wooden_slab", DefaultMaterial.WOOD_DOUBLE_STEP);
+        MINECRAFT_NAMES.put("wooden_slab", DefaultMaterial.WOOD_STEP);
+        MINECRAFT_NAMES.put("spruce_stairs", DefaultMaterial.SPRUCE_WOOD_STAIRS);
+        MINECRAFT_NAMES.put("birch_stairs", DefaultMaterial.BIRCH_WOOD_STAIRS);
+        MINECRAFT_NAMES.put("jungle_stairs", DefaultMaterial.JUNGLE_WOOD_STAIRS);
+        MINECRAFT_NAMES.put("command_block", DefaultMaterial.COMMAND);
+        MINECRAFT_NAMES.put("cobblestone_wall", DefaultMaterial.COBBLE_WALL);
+        MINECRAFT_NAMES.put("carrots", DefaultMaterial.CARROT);
+        MINECRAFT_NAMES.put("potatoes", DefaultMaterial.POTATO);
+        MINECRAFT_NAMES.put("wooden_button", DefaultMaterial.WOOD_BUTTON);
+        MINECRAFT_NAMES.put("light_weighted_pressure_plate", DefaultMaterial.GOLD_PLATE);
+        MINECRAFT_NAMES.put("heavy_weighted_pressure_plate", DefaultMaterial.IRON_PLATE);
+        MINECRAFT_NAMES.put("unpowered_comparator", DefaultMaterial.REDSTONE_COMPARATOR_OFF);
+        MINECRAFT_NAMES.put("powered_comparator", DefaultMaterial.REDSTONE_COMPARATOR_ON);
+        MINECRAFT_NAMES.put("stained_hardened_clay", DefaultMaterial.STAINED_CLAY);
+        MINECRAFT_NAMES.put("hardened_clay", DefaultMaterial.HARD_CLAY);
+        MINECRAFT_NAMES.put("leaves2", DefaultMaterial.LEAVES_2);
+        MINECRAFT_NAMES.put("log2", DefaultMaterial.LOG_2);
+        MINECRAFT_NAMES.put("beetroots", DefaultMaterial.BEETROOT_BLOCK);
+        MINECRAFT_NAMES.put("repeating_command_block", DefaultMaterial.COMMAND_REPEATING);
+        MINECRAFT_NAMES.put("chain_command_block", DefaultMaterial.COMMAND_CHAIN);
+    }
+
+    private final File otgRootFolder;
+    private final Map<String, LocalWorld> worlds = new LinkedHashMap<String, LocalWorld>();
+
+    public HeadlessEngine(File otgRootFolder)
+    {
+        super(new HeadlessLogger());
+        this.otgRootFolder = otgRootFolder;
+    }
+
+    @Override
+    public File getOTGRootFolder()
+    {
+        return this.otgRootFolder;
+    }
+
+    @Override
+    public File getGlobalObjectsDirectory()
+    {
+        return new File(this.otgRootFolder, PluginStandardValues.BO_DirectoryName);
+    }
+
+    @Override
+    public File getWorldsDirectory()
+    {
+        return new File(this.otgRootFolder, PluginStandardValues.PresetsDirectoryName);
+    }
+
+    /**
+     * Registers a world, so that it can be found by
+     * {@link #getWorld(String)}. Worlds must only be registered after
+     * their settings have been loaded.
+     * @param world The world.
+     */
+    public synchronized void registerWorld(LocalWorld world)
+    {
+        this.worlds.put(world.getName(), world);
+    }
+
+    @Override
+    public synchronized LocalWorld getWorld(String name)
+    {
+        return this.worlds.get(name);
+    }
+
+    @Override
+    public LocalWorld getUnloadedWorld(String name)
+    {
+        return null;
+    }
+
+    @Override
+    public synchronized ArrayList<LocalWorld> getAllWorlds()
+    {
+        return new ArrayList<LocalWorld>(this.worlds.values());
+    }
+
+    @Override
+    public LocalMaterialData readMaterial(String input) throws InvalidConfigException
+    {
+        String blockName = input.trim().toLowerCase(Locale.ROOT);
+        if (blockName.startsWith("minecraft:"))
+        {
+            blockName = blockName.substring("minecraft:".length());
+        }
+
+        // When there is a . or a : in the name, extract block data
+        int blockData = 0;
+        int splitIndex = blockName.lastIndexOf(':');
+        if (splitIndex == -1)
+        {
+            splitIndex = blockName.lastIndexOf('.');
+        }
+        if (splitIndex != -1)
+        {
+            try
+            {
+                blockData = Integer.parseInt(blockName.substring(splitIndex + 1));
+            } catch (NumberFormatException e)
+            {
+                throw new InvalidConfigException("Unknown material: " + input);
+            }
+            blockName = blockName.substring(0, splitIndex);
+        }
+        if (blockData < 0 || blockData > 15)
+        {
+            throw new InvalidConfigException("Illegal block data for material: " + input);
+        }
+
+        DefaultMaterial defaultMaterial = MINECRAFT_NAMES.get(blockName);
+        if (defaultMaterial == null)
+        {
+            defaultMaterial = DefaultMaterial.getMaterial(blockName);
+        }
+        if (defaultMaterial == DefaultMaterial.UNKNOWN_BLOCK)
+        {
+            throw new InvalidConfigException("Unknown material: " + input);
+        }
+        return HeadlessMaterialData.ofIds(defaultMaterial.id, blockData);
+    }
+
+    @Override
+    public LocalMaterialData toLocalMaterialData(DefaultMaterial defaultMaterial, int blockData)
+    {
+        return HeadlessMaterialData.ofIds(defaultMaterial.id, blockData);
+    }
+}
@@ -0,0 +1,192 @@
+package com.pg85.otg.headless;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.configuration.dimensions.DimensionConfig;
+import com.pg85.otg.configuration.dimensions.DimensionsConfig;
+import com.pg85.otg.logging.PerformanceStats;
+
+/**
+ * Generates and populates a square area of a preset without a Minecraft
+ * server, for measuring generation speed and for checking that changes to
+ * the generator don't change the generated terrain.
+ *
+ * <p>Usage: {@code HeadlessGenerator <otgRoot> <preset> <seed> <size> [threads] [hashFile]}.
+ * The base terrain of the chunks is generated on the given amount of
+ * threads, after which all chunks are populated on one thread. Prints the
+ * chunks per second of both phases and the used heap, and writes a content
+ * hash for each chunk to the hash file (or to the console if no file is
+ * given). Generating the same area with the same seed always results in
+ * the same hashes.</p>
+ */
+public class HeadlessGenerator
+{
+    public static void main(String[] args) throws Exception
+    {
+        if (args.length < 4)
+        {
+            System.err.println("Usage: HeadlessGenerator <otgRoot> <preset> <seed> <size> [threads] [hashFile]");
+            System.exit(1);
+            return;
+        }
+
+        File otgRoot = new File(args[0]);
+        String presetName = args[1];
+        long seed = Long.parseLong(args[2]);
+        int size = Integer.parseInt(args[3]);
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        File hashFile = args.length > 5 ? new File(args[5]) : null;
+
+        HeadlessEngine engine = new HeadlessEngine(otgRoot);
+        OTG.setEngine(engine);
+        PerformanceStats.setEnabled(true);
+        try
+        {
+            run(engine, presetName, seed, size, threads, hashFile);
+        } finally {
+            OTG.stopEngine();
+        }
+    }
+
+    private static void run(HeadlessEngine engine, String presetName, long seed, int size, int threads, File hashFile) throws Exception
+    {
+        File presetDir = new File(engine.getWorldsDirectory(), presetName);
+        if (!presetDir.isDirectory())
+        {
+            throw new IOException("Preset not found: " + presetDir);
+        }
+
+        // Use an empty save directory, so that no structure data of an
+        // earlier run is loaded
+        File saveDir = Files.createTempDirectory("otg-headless").toFile();
+
+        // Looking up custom objects, for example for Sapling resources,
+        // needs to know which preset the overworld uses
+        DimensionsConfig dimensionsConfig = new DimensionsConfig(saveDir);
+        dimensionsConfig.Overworld = new DimensionConfig(presetName);
+        OTG.setDimensionsConfig(dimensionsConfig);
+
+        long loadStart = System.nanoTime();
+        HeadlessWorld world = new HeadlessWorld(presetName, seed, presetDir, saveDir);
+        engine.registerWorld(world);
+        System.out.println("Loaded preset " + presetName + " in " + (System.nanoTime() - loadStart) / 1000000 + "ms");
+
+        // Population of a chunk touches the chunks at +1 x and +1 z, so
+        // generate one row and column more than is populated
+        final int generatedSize = size + 1;
+        long heapPeak = usedHeap();
+        long generateStart = System.nanoTime();
+        heapPeak = Math.max(heapPeak, generate(world, generatedSize, threads));
+        long generateNanos = System.nanoTime() - generateStart;
+        report("Generated", generatedSize * generatedSize, generateNanos, threads);
+
+        long populateStart = System.nanoTime();
+        for (int chunkX = 0; chunkX < size; chunkX++)
+        {
+            for (int chunkZ = 0; chunkZ < size; chunkZ++)
+            {
+                world.populateChunk(chunkX, chunkZ);
+            }
+            heapPeak = Math.max(heapPeak, usedHeap());
+        }
+        long populateNanos = System.nanoTime() - populateStart;
+        report("Populated", size * size, populateNanos, 1);
+
+        System.gc();
+        System.out.println("Heap: " + usedHeap() / (1024 * 1024) + "MB used after gc, " + heapPeak / (1024 * 1024) + "MB peak");
+
+        for (String line : PerformanceStats.getReport())
+        {
+            System.out.println(line);
+        }
+
+        writeHashes(world, size, hashFile);
+    }
+
+    /**
+     * Generates the base terrain of all chunks of the area.
+     * @return The highest used heap seen while generating.
+     */
+    private static long generate(final HeadlessWorld world, final int size, int threads) throws Exception
+    {
+        final AtomicInteger nextChunk = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> results = new ArrayList<Future<Long>>();
+        for (int i = 0; i < threads; i++)
+        {
+            results.add(executor.submit(() ->
+            {
+                long heapPeak = 0;
+                int chunk;
+                while ((chunk = nextChunk.getAndIncrement()) < size * size)
+                {
+                    world.generateChunk(chunk / size, chunk % size);
+                    if ((chunk & 63) == 0)
+                    {
+                        heapPeak = Math.max(heapPeak, usedHeap());
+                    }
+                }
+                return heapPeak;
+            }));
+        }
+        executor.shutdown();
+
+        long heapPeak = 0;
+        for (Future<Long> result : results)
+        {
+            // Rethrows any exception of the generation threads
+            heapPeak = Math.max(heapPeak, result.get());
+        }
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return heapPeak;
+    }
+
+    private static void writeHashes(HeadlessWorld world, int size, File hashFile) throws IOException
+    {
+        PrintWriter writer = hashFile == null ? new PrintWriter(System.out) : new PrintWriter(hashFile, "UTF-8");
+        try
+        {
+            long combinedHash = 0xcbf29ce484222325L;
+            for (int chunkX = 0; chunkX < size; chunkX++)
+            {
+                for (int chunkZ = 0; chunkZ < size; chunkZ++)
+                {
+                    long hash = world.getGeneratedChunk(chunkX, chunkZ).getContentHash();
+                    writer.println(chunkX + " " + chunkZ + " " + String.format("%016x", hash));
+                    combinedHash = (combinedHash ^ hash) * 0x100000001b3L;
+                }
+            }
+            writer.println("all " + String.format("%016x", combinedHash));
+        } finally {
+            writer.flush();
+            if (hashFile != null)
+            {
+                writer.close();
+            }
+        }
+    }
+
+    private static void report(String action, int chunks, long nanos, int threads)
+    {
+        double seconds = nanos / 1000000000.0;
+        System.out.println(action + " " + chunks + " chunks in " + String.format("%.2f", seconds) + "s on "
+                + threads + " thread(s), " + String.format("%.1f", chunks / seconds) + " chunks/s");
+    }
+
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
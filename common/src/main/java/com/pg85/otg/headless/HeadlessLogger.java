@@ -0,0 +1,43 @@
+package com.pg85.otg.headless;
+
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.logging.LogMarker;
+import com.pg85.otg.logging.Logger;
+
+/**
+ * Implementation of {@link Logger} that prints to the console, used when
+ * running without a server.
+ */
+final class HeadlessLogger extends Logger
+{
+    private final String logPrefix = "[" + PluginStandardValues.PLUGIN_NAME_SHORT + "] ";
+
+    @Override
+    public void log(LogMarker level, String message, Object... params)
+    {
+        if (minimumLevel.compareTo(level) < 0)
+        {
+            // Only log messages that we want to see...
+            return;
+        }
+
+        StringBuilder formatted = new StringBuilder(logPrefix);
+        int paramIndex = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = message.indexOf("{}", start)) != -1 && params != null && paramIndex < params.length)
+        {
+            formatted.append(message, start, placeholder);
+            formatted.append(params[paramIndex++]);
+            start = placeholder + 2;
+        }
+        formatted.append(message, start, message.length());
+
+        if (level == LogMarker.FATAL || level == LogMarker.ERROR || level == LogMarker.WARN)
+        {
+            System.err.println(level + " " + formatted);
+        } else {
+            System.out.println(level + " " + formatted);
+        }
+    }
+}
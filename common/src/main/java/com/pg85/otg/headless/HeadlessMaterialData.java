@@ -0,0 +1,216 @@
+package com.pg85.otg.headless;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.util.helpers.BlockHelper;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+/**
+ * Implementation of LocalMaterialData that only knows the block id and data.
+ * All block properties are taken from {@link DefaultMaterial}.
+ */
+public final class HeadlessMaterialData implements LocalMaterialData
+{
+    /**
+     * Block id and data, calculated as {@code blockId << 4 | blockData}.
+     */
+    private final int combinedBlockId;
+
+    /**
+     * Instances by combined block id, filled on first use. Threads may race
+     * to fill a slot, which only means an equal instance gets created twice.
+     */
+    private static final HeadlessMaterialData[] INSTANCES = new HeadlessMaterialData[4096 << 4];
+
+    /**
+     * Gets a {@code HeadlessMaterialData} of the given id and data.
+     * @param id   The block id.
+     * @param data The block data.
+     * @return The {@code HeadlessMaterialData} instance.
+     */
+    public static HeadlessMaterialData ofIds(int id, int data)
+    {
+        int combinedBlockId = id << 4 | data;
+        if (id < 0 || data < 0 || data > 15 || combinedBlockId >= INSTANCES.length)
+        {
+            return new HeadlessMaterialData(combinedBlockId);
+        }
+        return ofCombinedId(combinedBlockId);
+    }
+
+    /**
+     * Gets a {@code HeadlessMaterialData} of the given combined id, as
+     * stored in a {@link HeadlessChunk}.
+     * @param combinedBlockId {@code blockId << 4 | blockData}.
+     * @return The {@code HeadlessMaterialData} instance.
+     */
+    static HeadlessMaterialData ofCombinedId(int combinedBlockId)
+    {
+        HeadlessMaterialData material = INSTANCES[combinedBlockId];
+        if (material == null)
+        {
+            material = new HeadlessMaterialData(combinedBlockId);
+            INSTANCES[combinedBlockId] = material;
+        }
+        return material;
+    }
+
+    private HeadlessMaterialData(int combinedBlockId)
+    {
+        this.combinedBlockId = combinedBlockId;
+    }
+
+    int getCombinedId()
+    {
+        return this.combinedBlockId;
+    }
+
+    @Override
+    public boolean canSnowFallOn()
+    {
+        return toDefaultMaterial().canSnowFallOn();
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (!(obj instanceof HeadlessMaterialData))
+        {
+            return false;
+        }
+        return this.combinedBlockId == ((HeadlessMaterialData) obj).combinedBlockId;
+    }
+
+    @Override
+    public byte getBlockData()
+    {
+        return (byte) (this.combinedBlockId & 15);
+    }
+
+    @Override
+    public int getBlockId()
+    {
+        return this.combinedBlockId >> 4;
+    }
+
+    @Override
+    public String getName()
+    {
+        DefaultMaterial defaultMaterial = toDefaultMaterial();
+        String name = defaultMaterial == DefaultMaterial.UNKNOWN_BLOCK ? String.valueOf(getBlockId()) : defaultMaterial.name();
+        byte data = getBlockData();
+        if (data != 0)
+        {
+            return name + ":" + data;
+        }
+        return name;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        // From 4096 to 69632 when there are 4096 block ids
+        return PluginStandardValues.SUPPORTED_BLOCK_IDS + this.combinedBlockId;
+    }
+
+    @Override
+    public int hashCodeWithoutBlockData()
+    {
+        // From 0 to 4095 when there are 4096 block ids
+        return getBlockId();
+    }
+
+    @Override
+    public boolean isLiquid()
+    {
+        return toDefaultMaterial().isLiquid();
+    }
+
+    @Override
+    public boolean isMaterial(DefaultMaterial material)
+    {
+        return material.id == getBlockId();
+    }
+
+    @Override
+    public boolean isSolid()
+    {
+        return toDefaultMaterial().isSolid();
+    }
+
+    @Override
+    public DefaultMaterial toDefaultMaterial()
+    {
+        return DefaultMaterial.getMaterial(getBlockId());
+    }
+
+    @Override
+    public String toString()
+    {
+        return getName();
+    }
+
+    @Override
+    public LocalMaterialData withBlockData(int newData)
+    {
+        if (newData == getBlockData())
+        {
+            return this;
+        }
+        return ofIds(getBlockId(), newData);
+    }
+
+    @Override
+    public LocalMaterialData withDefaultBlockData()
+    {
+        return withBlockData(0);
+    }
+
+    @Override
+    public LocalMaterialData rotate()
+    {
+        return rotate(1);
+    }
+
+    @Override
+    public LocalMaterialData rotate(int rotateTimes)
+    {
+        DefaultMaterial defaultMaterial = toDefaultMaterial();
+        if (defaultMaterial == DefaultMaterial.UNKNOWN_BLOCK)
+        {
+            // We only know how to rotate vanilla blocks
+            return this;
+        }
+        int newData = getBlockData();
+        for (int i = 0; i < rotateTimes; i++)
+        {
+            newData = BlockHelper.rotateData(defaultMaterial, newData);
+        }
+        return withBlockData(newData);
+    }
+
+    @Override
+    public boolean isAir()
+    {
+        return this.combinedBlockId == 0;
+    }
+
+    @Override
+    public boolean canFall()
+    {
+        DefaultMaterial defaultMaterial = toDefaultMaterial();
+        return defaultMaterial == DefaultMaterial.SAND || defaultMaterial == DefaultMaterial.GRAVEL
+                || defaultMaterial == DefaultMaterial.ANVIL || defaultMaterial == DefaultMaterial.DRAGON_EGG
+                || defaultMaterial == DefaultMaterial.CONCRETE_POWDER;
+    }
+
+    @Override
+    public boolean isSmoothAreaAnchor(boolean allowWood, boolean ignoreWater)
+    {
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.pg85.otg.headless;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.generator.PopulationWindow;
+import com.pg85.otg.util.ChunkCoordinate;
+
+/**
+ * Population window of a {@link HeadlessWorld}, reading and writing the
+ * four chunks being populated without looking them up for every block.
+ */
+final class HeadlessPopulationWindow extends PopulationWindow
+{
+    private final HeadlessChunk[] chunks = new HeadlessChunk[4];
+
+    HeadlessPopulationWindow(HeadlessWorld world, ChunkCoordinate populatingChunk)
+    {
+        super(world, populatingChunk);
+        for (int i = 0; i < this.chunks.length; i++)
+        {
+            this.chunks[i] = world.generateChunk(populatingChunk.getChunkX() + (i & 1), populatingChunk.getChunkZ() + (i >> 1));
+        }
+    }
+
+    private HeadlessChunk getChunk(int x, int y, int z)
+    {
+        if (y < PluginStandardValues.WORLD_DEPTH || y >= PluginStandardValues.WORLD_HEIGHT)
+        {
+            return null;
+        }
+        int index = getChunkIndex(x, z);
+        return index == -1 ? null : this.chunks[index];
+    }
+
+    @Override
+    public LocalMaterialData getMaterial(int x, int y, int z)
+    {
+        HeadlessChunk chunk = getChunk(x, y, z);
+        if (chunk == null)
+        {
+            return super.getMaterial(x, y, z);
+        }
+        return chunk.getBlock(x, y, z);
+    }
+
+    @Override
+    public boolean isNullOrAir(int x, int y, int z)
+    {
+        return getMaterial(x, y, z).isAir();
+    }
+
+    @Override
+    public int getHighestBlockYAt(int x, int z)
+    {
+        int index = getChunkIndex(x, z);
+        if (index == -1)
+        {
+            return super.getHighestBlockYAt(x, z);
+        }
+        return this.chunks[index].getHighestBlockY(x, z) + 1;
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, LocalMaterialData material)
+    {
+        HeadlessChunk chunk = getChunk(x, y, z);
+        if (chunk == null)
+        {
+            super.setBlock(x, y, z, material);
+            return;
+        }
+        chunk.setBlock(x, y, z, material);
+        chunk.setMetadata(x, y, z, null);
+    }
+}
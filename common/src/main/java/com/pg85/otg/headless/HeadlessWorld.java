@@ -0,0 +1,721 @@
+package com.pg85.otg.headless;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.common.BiomeIds;
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.common.WorldSession;
+import com.pg85.otg.configuration.biome.BiomeConfig;
+import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
+import com.pg85.otg.configuration.biome.BiomeConfigFinder.BiomeConfigStub;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.customobjects.SpawnableObject;
+import com.pg85.otg.customobjects.bofunctions.EntityFunction;
+import com.pg85.otg.customobjects.structures.CustomStructureCache;
+import com.pg85.otg.exception.BiomeNotFoundException;
+import com.pg85.otg.generator.ChunkProviderOTG;
+import com.pg85.otg.generator.ChunkReplacedBlocks;
+import com.pg85.otg.generator.ObjectSpawner;
+import com.pg85.otg.generator.PopulationWindow;
+import com.pg85.otg.generator.biome.BiomeGenerator;
+import com.pg85.otg.network.ConfigProvider;
+import com.pg85.otg.network.ServerConfigProvider;
+import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.bo3.NamedBinaryTag;
+import com.pg85.otg.util.minecraft.defaults.BiomeRegistryNames;
+import com.pg85.otg.util.minecraft.defaults.DefaultBiome;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+import com.pg85.otg.util.minecraft.defaults.TreeType;
+
+/**
+ * World that keeps all chunks in memory and has no Minecraft server behind
+ * it, used to generate terrain from the command line.
+ *
+ * <p>Base terrain can be generated from any number of threads using
+ * {@link #generateChunk(int, int)}, each thread uses its own
+ * {@link ChunkProviderOTG}. Population must happen on a single thread, just
+ * like it does on a server.</p>
+ *
+ * <p>Everything that needs Minecraft itself is left out: vanilla trees,
+ * dungeons, fossils and structures are never placed, mobs are not spawned
+ * and light levels are estimated from the height of the columns. Default
+ * biomes are not available either, so presets must contain configs for all
+ * their biomes.</p>
+ */
+public class HeadlessWorld implements LocalWorld
+{
+    private static final int MAX_BIOMES_COUNT = 4096;
+    private static final int MAX_SAVED_BIOMES_COUNT = 256;
+
+    private final String name;
+    private final long seed;
+    private final File worldSaveDir;
+    private final HeadlessWorldSession worldSession;
+    private final Map<String, LocalBiome> biomeNames = new HashMap<String, LocalBiome>();
+    private final ConcurrentHashMap<ChunkCoordinate, HeadlessChunk> chunks = new ConcurrentHashMap<ChunkCoordinate, HeadlessChunk>();
+
+    private ServerConfigProvider settings;
+    private BiomeGenerator biomeGenerator;
+    private CustomStructureCache structureCache;
+    private ObjectSpawner objectSpawner;
+    private ThreadLocal<ChunkProviderOTG> chunkProviders;
+
+    /**
+     * Top left chunk of the chunks being populated, null when not
+     * populating.
+     */
+    private ChunkCoordinate populatingChunk;
+
+    /**
+     * Creates the world and loads its settings.
+     * @param name         Name of the world.
+     * @param seed         The world seed.
+     * @param settingsDir  Directory of the preset to use.
+     * @param worldSaveDir Directory to store structure data in.
+     */
+    public HeadlessWorld(String name, long seed, File settingsDir, File worldSaveDir)
+    {
+        this.name = name;
+        this.seed = seed;
+        this.worldSaveDir = worldSaveDir;
+        this.worldSession = new HeadlessWorldSession(this);
+
+        this.settings = new ServerConfigProvider(settingsDir, this, worldSaveDir);
+        this.biomeGenerator = OTG.getBiomeModeManager().createCached(this.settings.getWorldConfig().biomeMode, this);
+        this.structureCache = new CustomStructureCache(this);
+        this.objectSpawner = new ObjectSpawner(this.settings, this);
+        this.chunkProviders = new ThreadLocal<ChunkProviderOTG>()
+        {
+            @Override
+            protected ChunkProviderOTG initialValue()
+            {
+                return new ChunkProviderOTG(HeadlessWorld.this.settings, HeadlessWorld.this);
+            }
+        };
+    }
+
+    @Override
+    public String getName()
+    {
+        return this.name;
+    }
+
+    @Override
+    public String getWorldSettingsName()
+    {
+        return this.name;
+    }
+
+    @Override
+    public int getDimensionId()
+    {
+        return 0;
+    }
+
+    @Override
+    public long getSeed()
+    {
+        return this.seed;
+    }
+
+    @Override
+    public File getWorldSaveDir()
+    {
+        return this.worldSaveDir;
+    }
+
+    @Override
+    public ConfigProvider getConfigs()
+    {
+        return this.settings;
+    }
+
+    @Override
+    public ObjectSpawner getObjectSpawner()
+    {
+        return this.objectSpawner;
+    }
+
+    @Override
+    public CustomStructureCache getStructureCache()
+    {
+        return this.structureCache;
+    }
+
+    @Override
+    public WorldSession getWorldSession()
+    {
+        return this.worldSession;
+    }
+
+    @Override
+    public void deleteWorldSessionData()
+    {
+        // Nothing is saved
+    }
+
+    @Override
+    public int getHeightCap()
+    {
+        return this.settings.getWorldConfig().worldHeightCap;
+    }
+
+    @Override
+    public int getHeightScale()
+    {
+        return this.settings.getWorldConfig().worldHeightScale;
+    }
+
+    // Chunks
+
+    /**
+     * Generates the base terrain of a chunk, if it wasn't generated yet.
+     * Can be called from any thread.
+     * @param chunkX X of the chunk.
+     * @param chunkZ Z of the chunk.
+     * @return The chunk.
+     */
+    public HeadlessChunk generateChunk(int chunkX, int chunkZ)
+    {
+        ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
+        HeadlessChunk chunk = this.chunks.get(chunkCoord);
+        if (chunk != null)
+        {
+            return chunk;
+        }
+
+        chunk = new HeadlessChunk(chunkCoord);
+        this.chunkProviders.get().generate(chunk);
+        HeadlessChunk existing = this.chunks.putIfAbsent(chunkCoord, chunk);
+        return existing != null ? existing : chunk;
+    }
+
+    /**
+     * Populates the 2x2 chunks starting at the given chunk, generating any
+     * of them that are missing. Must always be called from the same thread.
+     * @param chunkX X of the top left chunk.
+     * @param chunkZ Z of the top left chunk.
+     */
+    public void populateChunk(int chunkX, int chunkZ)
+    {
+        for (int indexX = 0; indexX <= 1; indexX++)
+        {
+            for (int indexZ = 0; indexZ <= 1; indexZ++)
+            {
+                generateChunk(chunkX + indexX, chunkZ + indexZ);
+            }
+        }
+        this.objectSpawner.populate(ChunkCoordinate.fromChunkCoords(chunkX, chunkZ));
+    }
+
+    /**
+     * Gets a chunk that was generated before.
+     * @param chunkX X of the chunk.
+     * @param chunkZ Z of the chunk.
+     * @return The chunk, or null if it wasn't generated.
+     */
+    public HeadlessChunk getGeneratedChunk(int chunkX, int chunkZ)
+    {
+        return this.chunks.get(ChunkCoordinate.fromChunkCoords(chunkX, chunkZ));
+    }
+
+    private HeadlessChunk getChunk(int x, int z, boolean allowOutsidePopulatingArea)
+    {
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+
+        if (this.populatingChunk == null)
+        {
+            // Blocks requested outside population step
+            return generateChunk(chunkX, chunkZ);
+        }
+
+        // Restrict to chunks we are currently populating
+        int indexX = chunkX - this.populatingChunk.getChunkX();
+        int indexZ = chunkZ - this.populatingChunk.getChunkZ();
+        if ((indexX == 0 || indexX == 1) && (indexZ == 0 || indexZ == 1))
+        {
+            return generateChunk(chunkX, chunkZ);
+        }
+
+        // Outside area
+        if (allowOutsidePopulatingArea)
+        {
+            return generateChunk(chunkX, chunkZ);
+        }
+        if (this.settings.getWorldConfig().populationBoundsCheck)
+        {
+            return null;
+        }
+        return getGeneratedChunk(chunkX, chunkZ);
+    }
+
+    @Override
+    public boolean isInsidePregeneratedRegion(ChunkCoordinate chunk)
+    {
+        return false;
+    }
+
+    @Override
+    public ChunkCoordinate getSpawnChunk()
+    {
+        return ChunkCoordinate.fromChunkCoords(0, 0);
+    }
+
+    @Override
+    public void setAllowSpawningOutsideBounds(boolean allowSpawningOutsideBounds)
+    {
+        // Not used, the population bounds are always checked
+    }
+
+    // Population start and end
+
+    @Override
+    public void startPopulation(ChunkCoordinate chunkCoord)
+    {
+        if (this.populatingChunk != null && this.settings.getWorldConfig().populationBoundsCheck)
+        {
+            throw new IllegalStateException("Chunk is already being populated."
+                    + " This may be a bug in " + PluginStandardValues.PLUGIN_NAME + ".");
+        }
+        this.populatingChunk = chunkCoord;
+    }
+
+    @Override
+    public void endPopulation()
+    {
+        if (this.populatingChunk == null && this.settings.getWorldConfig().populationBoundsCheck)
+        {
+            throw new IllegalStateException("Chunk is not being populated."
+                    + " This may be a bug in " + PluginStandardValues.PLUGIN_NAME + ".");
+        }
+        this.populatingChunk = null;
+    }
+
+    @Override
+    public PopulationWindow createPopulationWindow(ChunkCoordinate populatingChunk)
+    {
+        return new HeadlessPopulationWindow(this, populatingChunk);
+    }
+
+    // Biomes
+
+    @Override
+    public BiomeGenerator getBiomeGenerator()
+    {
+        return this.biomeGenerator;
+    }
+
+    @Override
+    public LocalBiome createBiomeFor(BiomeConfig biomeConfig, BiomeIds biomeIds, ConfigProvider configProvider, boolean isReload)
+    {
+        HeadlessBiome biome = new HeadlessBiome(biomeConfig, biomeIds);
+        this.biomeNames.put(biome.getName(), biome);
+        return biome;
+    }
+
+    @Override
+    public int getMaxBiomesCount()
+    {
+        return MAX_BIOMES_COUNT;
+    }
+
+    @Override
+    public int getMaxSavedBiomesCount()
+    {
+        return MAX_SAVED_BIOMES_COUNT;
+    }
+
+    @Override
+    public ArrayList<LocalBiome> getAllBiomes()
+    {
+        ArrayList<LocalBiome> biomes = new ArrayList<LocalBiome>();
+        for (LocalBiome biome : this.settings.getBiomeArrayByOTGId())
+        {
+            biomes.add(biome);
+        }
+        return biomes;
+    }
+
+    @Override
+    public LocalBiome getBiomeByOTGIdOrNull(int id)
+    {
+        return this.settings.getBiomeByOTGIdOrNull(id);
+    }
+
+    @Override
+    public LocalBiome getFirstBiomeOrNull()
+    {
+        return this.biomeNames.size() > 0 ? this.biomeNames.values().iterator().next() : null;
+    }
+
+    @Override
+    public LocalBiome getBiomeByNameOrNull(String name)
+    {
+        return this.biomeNames.get(name);
+    }
+
+    @Override
+    public Collection<? extends BiomeLoadInstruction> getDefaultBiomes()
+    {
+        // Default biomes need Minecraft's biome settings
+        return Collections.emptyList();
+    }
+
+    @Override
+    public LocalBiome getBiome(int x, int z) throws BiomeNotFoundException
+    {
+        if (this.settings.getWorldConfig().populateUsingSavedBiomes)
+        {
+            return getSavedBiome(x, z);
+        }
+        return getCalculatedBiome(x, z);
+    }
+
+    @Override
+    public LocalBiome getSavedBiome(int x, int z) throws BiomeNotFoundException
+    {
+        // There is no saved biome array, so use the saved id of the
+        // calculated biome, which is what a server would have saved
+        LocalBiome calculatedBiome = getCalculatedBiome(x, z);
+        LocalBiome savedBiome = this.settings.getBiomeBySavedIdOrNull(calculatedBiome.getIds().getSavedId());
+        if (savedBiome == null)
+        {
+            throw new BiomeNotFoundException(calculatedBiome.getIds().getSavedId(), getAllBiomes());
+        }
+        return savedBiome;
+    }
+
+    @Override
+    public LocalBiome getCalculatedBiome(int x, int z)
+    {
+        return getBiomeByOTGIdOrNull(this.biomeGenerator.getBiome(x, z));
+    }
+
+    @Override
+    public int getRegisteredBiomeId(String resourceLocationString)
+    {
+        if (resourceLocationString == null || resourceLocationString.trim().isEmpty())
+        {
+            return -1;
+        }
+        String[] resourceLocationStringArr = resourceLocationString.split(":");
+        if (resourceLocationStringArr.length == 1)
+        {
+            // When querying for biome name without domain search the local world's biomes
+            LocalBiome biome = getBiomeByNameOrNull(resourceLocationString);
+            return biome != null ? biome.getIds().getSavedId() : -1;
+        }
+        if (resourceLocationStringArr.length == 2 && resourceLocationStringArr[0].equals("minecraft"))
+        {
+            for (DefaultBiome defaultBiome : DefaultBiome.values())
+            {
+                if (resourceLocationString.equals(BiomeRegistryNames.getRegistryNameForDefaultBiome(defaultBiome.Name)))
+                {
+                    return defaultBiome.Id;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Default generators
+
+    @Override
+    public void prepareDefaultStructures(int chunkX, int chunkZ, boolean dry)
+    {
+        // Vanilla structures need Minecraft
+    }
+
+    @Override
+    public boolean placeDungeon(Random rand, int x, int y, int z)
+    {
+        return false;
+    }
+
+    @Override
+    public boolean placeFossil(Random rand, ChunkCoordinate chunkCoord)
+    {
+        return false;
+    }
+
+    @Override
+    public boolean placeTree(TreeType type, Random rand, int x, int y, int z)
+    {
+        return false;
+    }
+
+    @Override
+    public boolean placeDefaultStructures(Random rand, ChunkCoordinate chunkCoord)
+    {
+        return false;
+    }
+
+    @Override
+    public SpawnableObject getMojangStructurePart(String name)
+    {
+        return null;
+    }
+
+    @Override
+    public boolean chunkHasDefaultStructure(Random rand, ChunkCoordinate chunk)
+    {
+        return false;
+    }
+
+    // Mobs / entities
+
+    @Override
+    public void placePopulationMobs(LocalBiome biome, Random random, ChunkCoordinate chunkCoord)
+    {
+        // No entities
+    }
+
+    @Override
+    public void mergeVanillaBiomeMobSpawnSettings(BiomeConfigStub biomeConfigStub, String biomeResourceLocation)
+    {
+        // No vanilla biomes
+    }
+
+    @Override
+    public void spawnEntity(EntityFunction<?> entityData)
+    {
+        // No entities
+    }
+
+    // Blocks
+
+    @Override
+    public LocalMaterialData getMaterial(int x, int y, int z, boolean allowOutsidePopulatingArea)
+    {
+        if (y < PluginStandardValues.WORLD_DEPTH || y >= PluginStandardValues.WORLD_HEIGHT)
+        {
+            return HeadlessMaterialData.ofIds(0, 0);
+        }
+        HeadlessChunk chunk = getChunk(x, z, allowOutsidePopulatingArea);
+        if (chunk == null)
+        {
+            return HeadlessMaterialData.ofIds(0, 0);
+        }
+        return chunk.getBlock(x, y, z);
+    }
+
+    @Override
+    public boolean isNullOrAir(int x, int y, int z, boolean allowOutsidePopulatingArea)
+    {
+        return getMaterial(x, y, z, allowOutsidePopulatingArea).isAir();
+    }
+
+    @Override
+    public NamedBinaryTag getMetadata(int x, int y, int z)
+    {
+        HeadlessChunk chunk = getChunk(x, z, false);
+        if (chunk == null)
+        {
+            return null;
+        }
+        return chunk.getMetadata(x, y, z);
+    }
+
+    @Override
+    public int getLiquidHeight(int x, int z)
+    {
+        for (int y = getHighestBlockYAt(x, z) - 1; y > 0; y--)
+        {
+            LocalMaterialData material = getMaterial(x, y, z, false);
+            if (material.isLiquid())
+            {
+                return y + 1;
+            } else if (material.isSolid())
+            {
+                // Failed to find a liquid
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getSolidHeight(int x, int z)
+    {
+        for (int y = getHighestBlockYAt(x, z) - 1; y > 0; y--)
+        {
+            LocalMaterialData material = getMaterial(x, y, z, false);
+            if (material.isSolid())
+            {
+                return y + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the y just above the highest non-air block, which is what
+     * Minecraft's height map holds for most blocks.
+     */
+    @Override
+    public int getHighestBlockYAt(int x, int z)
+    {
+        HeadlessChunk chunk = getChunk(x, z, false);
+        if (chunk == null)
+        {
+            return -1;
+        }
+        return chunk.getHighestBlockY(x, z) + 1;
+    }
+
+    @Override
+    public int getHighestBlockYAt(int x, int z, boolean findSolid, boolean findLiquid, boolean ignoreLiquid, boolean ignoreSnow)
+    {
+        HeadlessChunk chunk = getChunk(x, z, true);
+        if (chunk == null)
+        {
+            return -1;
+        }
+
+        for (int y = chunk.getHighestBlockY(x, z); y > -1; y--)
+        {
+            LocalMaterialData material = chunk.getBlock(x, y, z);
+            DefaultMaterial defaultMaterial = material.toDefaultMaterial();
+            boolean isLiquid = material.isLiquid();
+            boolean isSolid = (material.isSolid() && defaultMaterial != DefaultMaterial.LEAVES && defaultMaterial != DefaultMaterial.LEAVES_2) || (!ignoreSnow && defaultMaterial == DefaultMaterial.SNOW);
+            if (!(isLiquid && ignoreLiquid))
+            {
+                if ((findSolid && isSolid) || (findLiquid && isLiquid))
+                {
+                    return y;
+                }
+                if ((findSolid && isLiquid) || (findLiquid && isSolid))
+                {
+                    return -1;
+                }
+            }
+        }
+
+        // Can happen if this is a chunk filled with air
+        return -1;
+    }
+
+    /**
+     * There is no light calculation, so this returns full sky light above
+     * the highest block of the column and darkness below it.
+     */
+    @Override
+    public int getLightLevel(int x, int y, int z)
+    {
+        HeadlessChunk chunk = getChunk(x, z, false);
+        if (chunk == null)
+        {
+            return -1;
+        }
+        return y > chunk.getHighestBlockY(x, z) ? 15 : 0;
+    }
+
+    @Override
+    public boolean isLoaded(int x, int y, int z)
+    {
+        if (y < PluginStandardValues.WORLD_DEPTH || y >= PluginStandardValues.WORLD_HEIGHT)
+        {
+            return false;
+        }
+        return getChunk(x, z, false) != null;
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, LocalMaterialData material, NamedBinaryTag metaDataTag, boolean allowOutsidePopulatingArea)
+    {
+        if (y < PluginStandardValues.WORLD_DEPTH || y >= PluginStandardValues.WORLD_HEIGHT)
+        {
+            return;
+        }
+        HeadlessChunk chunk = getChunk(x, z, allowOutsidePopulatingArea);
+        if (chunk == null)
+        {
+            // Chunk is outside the populating area
+            return;
+        }
+        chunk.setBlock(x, y, z, material);
+        chunk.setMetadata(x, y, z, metaDataTag);
+    }
+
+    @Override
+    public LocalMaterialData[] getBlockColumn(int x, int z)
+    {
+        LocalMaterialData[] column = new LocalMaterialData[PluginStandardValues.WORLD_HEIGHT];
+        HeadlessChunk chunk = getChunk(x, z, true);
+        for (int y = 0; y < column.length; y++)
+        {
+            column[y] = chunk == null ? HeadlessMaterialData.ofIds(0, 0) : chunk.getBlock(x, y, z);
+        }
+        return column;
+    }
+
+    @Override
+    public void replaceBlocks(ChunkCoordinate chunkCoord)
+    {
+        if (!this.settings.getWorldConfig().biomeConfigsHaveReplacement)
+        {
+            // Don't waste time here, ReplacedBlocks is empty everywhere
+            return;
+        }
+
+        for (int indexX = 0; indexX <= 1; indexX++)
+        {
+            for (int indexZ = 0; indexZ <= 1; indexZ++)
+            {
+                replaceBlocks(generateChunk(chunkCoord.getChunkX() + indexX, chunkCoord.getChunkZ() + indexZ));
+            }
+        }
+    }
+
+    private void replaceBlocks(HeadlessChunk chunk)
+    {
+        ChunkReplacedBlocks replacedBlocks = ChunkReplacedBlocks.forChunk(this, chunk.getChunkCoordinate());
+        if (replacedBlocks == null)
+        {
+            return;
+        }
+
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                LocalMaterialData[][] replaceArray = replacedBlocks.getColumn(x, z);
+                if (replaceArray == null)
+                {
+                    continue;
+                }
+                int highestY = chunk.getHighestBlockY(x, z);
+                for (int y = 0; y <= highestY; y++)
+                {
+                    LocalMaterialData block = chunk.getBlock(x, y, z);
+                    int blockId = block.getBlockId();
+                    if (replaceArray[blockId] == null)
+                    {
+                        continue;
+                    }
+                    if (y >= replaceArray[blockId].length)
+                    {
+                        continue;
+                    }
+                    LocalMaterialData replaceTo = replaceArray[blockId][y];
+                    if (replaceTo == null || replaceTo.getBlockId() == blockId)
+                    {
+                        continue;
+                    }
+                    chunk.setBlock(x, y, z, replaceTo);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.pg85.otg.logging;
+
+import com.pg85.otg.OTG;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps timing histograms for the stages of chunk generation, population,
+ * resources and saving/loading, and counters for cache hits and misses.
+ *
+ * <p>Usage: {@code long start = PerformanceStats.start();} before a stage
+ * and {@code PerformanceStats.stop("Stage name", start);} after it. When
+ * stats are disabled {@link #start()} returns 0 and {@link #stop(String, long)}
+ * returns immediately, so the only cost is reading a boolean.</p>
+ *
+ * <p>Stats are enabled with the PerformanceStats setting in OTG.ini or with
+ * the /otg stats command. Safe to use from multiple threads.</p>
+ */
+public final class PerformanceStats
+{
+    // Generation stages
+    public static final String GENERATE_CHUNK = "Generate chunk";
+    public static final String GENERATE_BIOMES = "Generate: biome layers";
+    public static final String GENERATE_NOISE = "Generate: noise";
+    public static final String GENERATE_BLENDING = "Generate: blending";
+    public static final String GENERATE_TERRAIN_FILL = "Generate: terrain fill";
+    public static final String GENERATE_SURFACE = "Generate: surface";
+    public static final String GENERATE_CAVES = "Generate: caves";
+    public static final String GENERATE_RAVINES = "Generate: ravines";
+    public static final String GENERATE_STRUCTURES = "Generate: vanilla structures";
+
+    // Population stages
+    public static final String POPULATE_CHUNK = "Populate chunk";
+    public static final String POPULATE_PLOT_STRUCTURES = "Populate: plot structures";
+    public static final String POPULATE_DEFAULT_STRUCTURES = "Populate: vanilla structures";
+    public static final String POPULATE_RESOURCES_PHASE_2 = "Populate: resources phase 2";
+    public static final String POPULATE_SPAWN_BO3S = "Populate: spawn BO3s";
+    public static final String POPULATE_RESOURCES_PHASE_3 = "Populate: resources phase 3";
+    public static final String POPULATE_FREEZE = "Populate: snow and ice";
+    public static final String POPULATE_REPLACE_BLOCKS = "Populate: replace blocks";
+
+    // Saving and loading
+    public static final String SAVE_STRUCTURES = "Save structure data";
+    public static final String LOAD_STRUCTURES = "Load structure data";
+
+    // Counters
+    public static final String TERRAIN_REUSED = "Terrain: reused from height queries";
+    public static final String TERRAIN_GENERATED = "Terrain: generated";
+
+    private static final String RESOURCE_PREFIX = "Resource: ";
+
+    /**
+     * Amount of histogram buckets. Bucket 0 holds everything below 1
+     * microsecond, bucket n holds durations from 2^(n-1) up to 2^n
+     * microseconds. The last bucket holds everything longer.
+     */
+    private static final int BUCKETS = 26;
+
+    private static volatile boolean enabled = false;
+    private static volatile long logIntervalNanos = 0;
+    private static final AtomicLong lastLogTime = new AtomicLong(System.nanoTime());
+
+    private static final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<String, Timer>();
+    private static final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+    private static final ConcurrentHashMap<Class<?>, String> resourceNames = new ConcurrentHashMap<Class<?>, String>();
+
+    private PerformanceStats()
+    {
+        // No instances
+    }
+
+    /**
+     * Applies the settings from the plugin config.
+     * @param statsEnabled       Whether stats should be recorded.
+     * @param logIntervalSeconds Seconds between logging the stats, 0 to
+     *                           never log them.
+     */
+    public static void configure(boolean statsEnabled, int logIntervalSeconds)
+    {
+        logIntervalNanos = logIntervalSeconds * 1000000000L;
+        lastLogTime.set(System.nanoTime());
+        enabled = statsEnabled;
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean statsEnabled)
+    {
+        enabled = statsEnabled;
+    }
+
+    /**
+     * Removes all recorded stats.
+     */
+    public static void reset()
+    {
+        timers.clear();
+        counters.clear();
+    }
+
+    /**
+     * Gets the start time for a stage.
+     * @return The start time, or 0 if stats are disabled.
+     */
+    public static long start()
+    {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the duration of a stage.
+     * @param stage     Name of the stage, use one of the constants of this
+     *                  class.
+     * @param startTime The value returned by {@link #start()}.
+     */
+    public static void stop(String stage, long startTime)
+    {
+        if (startTime == 0)
+        {
+            return;
+        }
+        long now = System.nanoTime();
+        record(stage, now - startTime);
+        logIfDue(now);
+    }
+
+    /**
+     * Records the duration of a single resource.
+     * @param resourceType Class of the resource.
+     * @param startTime    The value returned by {@link #start()}.
+     */
+    public static void stopResource(Class<?> resourceType, long startTime)
+    {
+        if (startTime == 0)
+        {
+            return;
+        }
+        long now = System.nanoTime();
+        String name = resourceNames.get(resourceType);
+        if (name == null)
+        {
+            name = RESOURCE_PREFIX + resourceType.getSimpleName();
+            resourceNames.put(resourceType, name);
+        }
+        record(name, now - startTime);
+        logIfDue(now);
+    }
+
+    /**
+     * Records a duration that was measured by the caller, for stages that
+     * are measured in pieces.
+     * @param stage         Name of the stage.
+     * @param durationNanos The duration in nanoseconds.
+     */
+    public static void record(String stage, long durationNanos)
+    {
+        Timer timer = timers.get(stage);
+        if (timer == null)
+        {
+            timer = new Timer(stage);
+            Timer existing = timers.putIfAbsent(stage, timer);
+            if (existing != null)
+            {
+                timer = existing;
+            }
+        }
+        timer.add(durationNanos);
+    }
+
+    /**
+     * Counts an event, like a cache hit or miss.
+     * @param counter Name of the counter, use one of the constants of this
+     *                class.
+     */
+    public static void count(String counter)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        AtomicLong count = counters.get(counter);
+        if (count == null)
+        {
+            count = new AtomicLong();
+            AtomicLong existing = counters.putIfAbsent(counter, count);
+            if (existing != null)
+            {
+                count = existing;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private static void logIfDue(long now)
+    {
+        long interval = logIntervalNanos;
+        if (interval <= 0)
+        {
+            return;
+        }
+        long last = lastLogTime.get();
+        if (now - last >= interval && lastLogTime.compareAndSet(last, now))
+        {
+            OTG.log(LogMarker.INFO, "{}", (Object) "Performance stats:");
+            for (String line : getReport())
+            {
+                OTG.log(LogMarker.INFO, "{}", (Object) line);
+            }
+        }
+    }
+
+    /**
+     * Gets the stats as human readable lines, one line per stage, sorted by
+     * stage name, followed by one line per counter.
+     * @return The lines.
+     */
+    public static List<String> getReport()
+    {
+        List<Timer> sortedTimers = new ArrayList<Timer>(timers.values());
+        Collections.sort(sortedTimers, (a, b) -> a.name.compareTo(b.name));
+        List<String> sortedCounters = new ArrayList<String>(counters.keySet());
+        Collections.sort(sortedCounters);
+
+        List<String> lines = new ArrayList<String>(sortedTimers.size() + sortedCounters.size());
+        for (Timer timer : sortedTimers)
+        {
+            lines.add(timer.toString());
+        }
+        for (String counter : sortedCounters)
+        {
+            lines.add(counter + ": count " + counters.get(counter).get());
+        }
+        return lines;
+    }
+
+    /**
+     * Histogram of the durations of a single stage.
+     */
+    private static final class Timer
+    {
+        private final String name;
+        private final long[] buckets = new long[BUCKETS];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Timer(String name)
+        {
+            this.name = name;
+        }
+
+        synchronized void add(long durationNanos)
+        {
+            long micros = durationNanos / 1000;
+            int bucket = micros <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+            this.buckets[Math.min(bucket, BUCKETS - 1)]++;
+            this.count++;
+            this.totalNanos += durationNanos;
+            if (durationNanos > this.maxNanos)
+            {
+                this.maxNanos = durationNanos;
+            }
+        }
+
+        /**
+         * Gets the upper bound of the bucket that holds the given
+         * percentile, in microseconds.
+         */
+        private long getPercentileMicros(double percentile)
+        {
+            long target = (long) Math.ceil(this.count * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++)
+            {
+                seen += this.buckets[i];
+                if (seen >= target)
+                {
+                    return i == BUCKETS - 1 ? this.maxNanos / 1000 : 1L << i;
+                }
+            }
+            return this.maxNanos / 1000;
+        }
+
+        @Override
+        public synchronized String toString()
+        {
+            return this.name + ": count " + this.count
+                    + ", total " + (this.totalNanos / 1000000) + "ms"
+                    + ", avg " + (this.count == 0 ? 0 : this.totalNanos / this.count / 1000) + "us"
+                    + ", p50 <" + getPercentileMicros(0.5) + "us"
+                    + ", p90 <" + getPercentileMicros(0.9) + "us"
+                    + ", p99 <" + getPercentileMicros(0.99) + "us"
+                    + ", max " + (this.maxNanos / 1000) + "us";
+        }
+    }
+}
@@ -12,12 +12,17 @@ import com.pg85.otg.configuration.standard.BiomeStandardValues;
 import com.pg85.otg.configuration.standard.StandardBiomeTemplate;
 import com.pg85.otg.configuration.standard.WorldStandardValues;
 import com.pg85.otg.configuration.world.WorldConfig;
+import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.util.helpers.StreamHelper;
 import com.pg85.otg.util.minecraft.defaults.BiomeRegistryNames;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 /**
  * Holds the WorldConfig and all BiomeConfigs.
@@ -38,6 +43,120 @@ public final class ClientConfigProvider implements ConfigProvider
     private LocalBiome[] biomesByOTGId; // For the server, OTGBiomeIds are used, for the client only non-virtual biomes are known and saved Id's are used
     private LocalBiome[] biomesBySavedId; // For the server, OTGBiomeIds are used, for the client only non-virtual biomes are known and saved Id's are used    
 
+    /**
+     * Reads the settings written by
+     * {@link ConfigToNetworkSender#writeCompressedConfigsToStream(ConfigProvider, java.io.DataOutput, boolean)}.
+     * @param stream The stream, positioned after the world name.
+     * @return A stream with the uncompressed settings, to be passed to the
+     *         constructor of this class.
+     * @throws IOException If an IO error occurs or the settings are damaged.
+     */
+    public static DataInputStream readCompressedConfigs(DataInputStream stream) throws IOException
+    {
+        return readCompressedConfigs(stream, null);
+    }
+
+    /**
+     * Reads the settings written by
+     * {@link ConfigToNetworkSender#writeCompressedConfigsToStream(ConfigProvider, java.io.DataOutput, boolean, java.util.Set)}.
+     * Settings that were sent are saved to the cache directory, settings that
+     * were not sent because the client has them cached are read from it.
+     * @param stream         The stream, positioned after the world name.
+     * @param cacheDirectory The client cache directory, or null if the
+     *                       settings are not cached.
+     * @return A stream with the uncompressed settings, to be passed to the
+     *         constructor of this class.
+     * @throws IOException If an IO error occurs, or the settings are damaged
+     *                     or missing from the cache.
+     */
+    public static DataInputStream readCompressedConfigs(DataInputStream stream, File cacheDirectory) throws IOException
+    {
+        long hash = stream.readLong();
+        if (!stream.readBoolean())
+        {
+            return new DataInputStream(new ByteArrayInputStream(readCachedConfigs(cacheDirectory, hash)));
+        }
+
+        int length = stream.readInt();
+        byte[] compressed = new byte[stream.readInt()];
+        stream.readFully(compressed);
+
+        byte[] settings = new byte[length];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < length && !inflater.finished())
+            {
+                int inflated = inflater.inflate(settings, read, length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != length || ConfigToNetworkSender.getHash(settings) != hash)
+            {
+                throw new IOException("Received damaged world settings");
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new IOException("Received damaged world settings", e);
+        } finally {
+            inflater.end();
+        }
+
+        if (cacheDirectory != null)
+        {
+            try
+            {
+                cacheDirectory.mkdirs();
+                Files.write(getCacheFile(cacheDirectory, hash).toPath(), settings);
+            }
+            catch (IOException e)
+            {
+                // The settings are sent again next time
+                OTG.log(LogMarker.WARN, "Could not cache world settings: {}", e.getMessage());
+            }
+        }
+        return new DataInputStream(new ByteArrayInputStream(settings));
+    }
+
+    /**
+     * Gets whether the settings with the given hash are in the client cache.
+     * @param cacheDirectory The client cache directory.
+     * @param hash           The hash sent by the server, see
+     *                       {@link ConfigToNetworkSender#getConfigsHash(ConfigProvider, boolean)}.
+     * @return True if the settings are cached, false otherwise.
+     */
+    public static boolean isConfigsCached(File cacheDirectory, long hash)
+    {
+        return getCacheFile(cacheDirectory, hash).isFile();
+    }
+
+    private static byte[] readCachedConfigs(File cacheDirectory, long hash) throws IOException
+    {
+        if (cacheDirectory == null || !isConfigsCached(cacheDirectory, hash))
+        {
+            throw new IOException("World settings " + Long.toHexString(hash) + " are not in the client cache");
+        }
+        File cacheFile = getCacheFile(cacheDirectory, hash);
+        byte[] settings = Files.readAllBytes(cacheFile.toPath());
+        if (ConfigToNetworkSender.getHash(settings) != hash)
+        {
+            cacheFile.delete();
+            throw new IOException("Cached world settings " + Long.toHexString(hash) + " are damaged");
+        }
+        return settings;
+    }
+
+    private static File getCacheFile(File cacheDirectory, long hash)
+    {
+        return new File(cacheDirectory, Long.toHexString(hash) + ".bin");
+    }
+
     public ClientConfigProvider(DataInputStream stream, LocalWorld world, boolean isSinglePlayer) throws IOException
     {
         // Create WorldConfig
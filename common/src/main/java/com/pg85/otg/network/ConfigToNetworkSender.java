@@ -2,12 +2,19 @@ package com.pg85.otg.network;
 
 import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.configuration.world.WorldConfig;
+import com.pg85.otg.util.FifoMap;
 import com.pg85.otg.util.helpers.StreamHelper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 /**
  * Writes the relevant settings of a configuration file to a network stream.
@@ -19,21 +26,118 @@ import java.util.Collection;
  */
 public final class ConfigToNetworkSender
 {
+    /**
+     * Compressed settings by the hash of the uncompressed settings, so that
+     * the settings of a world are only compressed again when they change.
+     */
+    private static final FifoMap<Long, byte[]> CompressedConfigs = new FifoMap<Long, byte[]>(32);
 
     /**
      * Sends the relevant settings in the {@link ConfigProvider} to the given
-     * network stream.
+     * network stream, deflate-compressed. Read them using
+     * {@link ClientConfigProvider#readCompressedConfigs(java.io.DataInputStream)}
+     * after reading the world name.
      * @param configProvider All the settings of a world.
      * @param stream         Stream to write to.
      * @throws IOException If an IO error occurs.
      */
-    public static void writeConfigsToStream(ConfigProvider configProvider, DataOutput stream, boolean isSinglePlayer) throws IOException
+    public static void writeCompressedConfigsToStream(ConfigProvider configProvider, DataOutput stream, boolean isSinglePlayer) throws IOException
+    {
+        writeCompressedConfigsToStream(configProvider, stream, isSinglePlayer, Collections.<Long>emptySet());
+    }
+
+    /**
+     * Same as {@link #writeCompressedConfigsToStream(ConfigProvider, DataOutput, boolean)},
+     * but only sends the hash of the settings if the client already has them
+     * cached. Read them using
+     * {@link ClientConfigProvider#readCompressedConfigs(java.io.DataInputStream, java.io.File)}.
+     * @param configProvider All the settings of a world.
+     * @param stream         Stream to write to.
+     * @param cachedOnClient Hashes of the settings the client has cached,
+     *                       see {@link #getConfigsHash(ConfigProvider, boolean)}.
+     * @throws IOException If an IO error occurs.
+     */
+    public static void writeCompressedConfigsToStream(ConfigProvider configProvider, DataOutput stream, boolean isSinglePlayer, Set<Long> cachedOnClient) throws IOException
+    {
+        StreamHelper.writeStringToStream(stream, configProvider.getWorldConfig().getName());
+
+        byte[] settings = getSettings(configProvider, isSinglePlayer);
+        long hash = getHash(settings);
+
+        // The hash lets the client check that it got the settings intact,
+        // or look them up in its cache
+        stream.writeLong(hash);
+        if (cachedOnClient.contains(hash))
+        {
+            stream.writeBoolean(false);
+            return;
+        }
+        stream.writeBoolean(true);
+
+        byte[] compressed;
+        synchronized (CompressedConfigs)
+        {
+            compressed = CompressedConfigs.get(hash);
+        }
+        if (compressed == null)
+        {
+            ByteArrayOutputStream compressedBytes = new ByteArrayOutputStream(settings.length / 4);
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            DeflaterOutputStream deflaterStream = new DeflaterOutputStream(compressedBytes, deflater);
+            deflaterStream.write(settings);
+            deflaterStream.close();
+            deflater.end();
+            compressed = compressedBytes.toByteArray();
+            synchronized (CompressedConfigs)
+            {
+                CompressedConfigs.put(hash, compressed);
+            }
+        }
+
+        stream.writeInt(settings.length);
+        stream.writeInt(compressed.length);
+        stream.write(compressed);
+    }
+
+    /**
+     * Gets the hash of the settings that would be sent for the given world.
+     * Sent to the client before the settings themselves, so that it can tell
+     * which settings it already has cached.
+     * @param configProvider All the settings of a world.
+     * @return The hash.
+     * @throws IOException If an IO error occurs.
+     */
+    public static long getConfigsHash(ConfigProvider configProvider, boolean isSinglePlayer) throws IOException
+    {
+        return getHash(getSettings(configProvider, isSinglePlayer));
+    }
+
+    private static byte[] getSettings(ConfigProvider configProvider, boolean isSinglePlayer) throws IOException
+    {
+        ByteArrayOutputStream settingsBytes = new ByteArrayOutputStream();
+        DataOutputStream settingsStream = new DataOutputStream(settingsBytes);
+        writeSettingsToStream(configProvider, settingsStream, isSinglePlayer);
+        settingsStream.flush();
+        return settingsBytes.toByteArray();
+    }
+
+    /**
+     * Gets the 64 bit FNV-1a hash of the given settings.
+     */
+    static long getHash(byte[] settings)
+    {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : settings)
+        {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static void writeSettingsToStream(ConfigProvider configProvider, DataOutput stream, boolean isSinglePlayer) throws IOException
     {
         WorldConfig worldConfig = configProvider.getWorldConfig();
         LocalBiome[] biomes = configProvider.getBiomeArrayByOTGId();
-       
-        // General information
-        StreamHelper.writeStringToStream(stream, worldConfig.getName());
 
         stream.writeInt(worldConfig.worldFog);
         stream.writeInt(worldConfig.worldNightFog);
@@ -22,6 +22,10 @@ import com.pg85.otg.util.minecraft.defaults.BiomeRegistryNames;
 import java.io.File;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Holds the WorldConfig and all BiomeConfigs.
@@ -212,32 +216,115 @@ public final class ServerConfigProvider implements ConfigProvider
 
     private Map<String, BiomeConfig> readAndWriteSettings(SettingsMap worldConfigSettings, Map<String, BiomeConfigStub> biomeConfigStubs)
     {
-        Map<String, BiomeConfig> loadedBiomes = new HashMap<String, BiomeConfig>();
-
+        // Allow to let world settings influence biome settings
+        //biomeConfigStub.getSettings().setFallback(worldConfigSettings); // TODO: Make sure this can be removed safely
+
+        // Inheritance, for all biomes before any settings are read. Reading
+        // the settings of a biome also reads the settings of the biomes it
+        // extends, so the biomes are grouped by how deep they are in the
+        // inheritance tree and read group by group, parents first.
+        TreeMap<Integer, List<BiomeConfigStub>> biomeConfigStubsByDepth = new TreeMap<Integer, List<BiomeConfigStub>>();
         for (BiomeConfigStub biomeConfigStub : biomeConfigStubs.values())
         {
-            // Allow to let world settings influence biome settings
-            //biomeConfigStub.getSettings().setFallback(worldConfigSettings); // TODO: Make sure this can be removed safely
-
-            // Inheritance
             processInheritance(biomeConfigStubs, biomeConfigStub, 0);
             processMobInheritance(biomeConfigStubs, biomeConfigStub, 0);
 
-            // Settings reading
-            BiomeConfig biomeConfig = new BiomeConfig(biomeConfigStub.getLoadInstructions(), biomeConfigStub, biomeConfigStub.getSettings(), worldConfig);
-            loadedBiomes.put(biomeConfigStub.getBiomeName(), biomeConfig);
+            int depth = getInheritanceDepth(biomeConfigStubs, biomeConfigStub);
+            List<BiomeConfigStub> biomeConfigStubsAtDepth = biomeConfigStubsByDepth.get(depth);
+            if (biomeConfigStubsAtDepth == null)
+            {
+                biomeConfigStubsAtDepth = new ArrayList<BiomeConfigStub>();
+                biomeConfigStubsByDepth.put(depth, biomeConfigStubsAtDepth);
+            }
+            biomeConfigStubsAtDepth.add(biomeConfigStub);
+        }
 
-            // Settings writing
-            File writeFile = biomeConfigStub.getFile();
-            if (!biomeConfig.biomeExtends.isEmpty())
+        // Settings reading and writing, spread over multiple threads
+        Map<String, BiomeConfig> loadedBiomes = new HashMap<String, BiomeConfig>();
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), biomeConfigStubs.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            for (List<BiomeConfigStub> biomeConfigStubsAtDepth : biomeConfigStubsByDepth.values())
             {
-                writeFile = new File(writeFile.getAbsolutePath() + ".inherited");
+                List<Future<BiomeConfig>> biomeConfigs = new ArrayList<Future<BiomeConfig>>(biomeConfigStubsAtDepth.size());
+                for (final BiomeConfigStub biomeConfigStub : biomeConfigStubsAtDepth)
+                {
+                    biomeConfigs.add(executor.submit(() -> readAndWriteBiomeConfig(biomeConfigStub)));
+                }
+                for (int i = 0; i < biomeConfigStubsAtDepth.size(); i++)
+                {
+                    loadedBiomes.put(biomeConfigStubsAtDepth.get(i).getBiomeName(), getLoadedBiomeConfig(biomeConfigs.get(i)));
+                }
             }
-            FileSettingsWriter.writeToFile(biomeConfig.getSettingsAsMap(), writeFile, worldConfig.settingsMode);
+        } finally {
+            executor.shutdown();
         }
 
         return loadedBiomes;
     }
+
+    private BiomeConfig readAndWriteBiomeConfig(BiomeConfigStub biomeConfigStub)
+    {
+        // Settings reading
+        BiomeConfig biomeConfig = new BiomeConfig(biomeConfigStub.getLoadInstructions(), biomeConfigStub, biomeConfigStub.getSettings(), worldConfig);
+
+        // Settings writing, skipped by the writer when the file is up to date
+        File writeFile = biomeConfigStub.getFile();
+        if (!biomeConfig.biomeExtends.isEmpty())
+        {
+            writeFile = new File(writeFile.getAbsolutePath() + ".inherited");
+        }
+        FileSettingsWriter.writeToFile(biomeConfig.getSettingsAsMap(), writeFile, worldConfig.settingsMode);
+
+        return biomeConfig;
+    }
+
+    private BiomeConfig getLoadedBiomeConfig(Future<BiomeConfig> biomeConfig)
+    {
+        try
+        {
+            return biomeConfig.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e)
+        {
+            // Throw the exception of the loading thread as if it happened here
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error)
+            {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Gets the amount of biomes the given biome (indirectly) extends.
+     */
+    private int getInheritanceDepth(Map<String, BiomeConfigStub> biomeConfigStubs, BiomeConfigStub biomeConfigStub)
+    {
+        int depth = 0;
+        String extendedBiomeName = biomeConfigStub.getSettings().getSetting(BiomeStandardValues.BIOME_EXTENDS);
+        while (!extendedBiomeName.isEmpty() && depth <= MAX_INHERITANCE_DEPTH)
+        {
+            BiomeConfigStub extendedBiomeConfig = biomeConfigStubs.get(extendedBiomeName);
+            if (extendedBiomeConfig == null)
+            {
+                break;
+            }
+            depth++;
+            extendedBiomeName = extendedBiomeConfig.getSettings().getSetting(BiomeStandardValues.BIOME_EXTENDS);
+        }
+        return depth;
+    }
     
     private String indexSettings(Map<String, Integer> worldBiomes, boolean isNewWorldConfig, Map<String, BiomeConfig> loadedBiomes, File worldSaveFolder, boolean isReload)
     {
@@ -1,15 +1,25 @@
 package com.pg85.otg.util.helpers;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import com.pg85.otg.OTG;
 import com.pg85.otg.OTGEngine;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.exception.InvalidConfigException;
-import com.pg85.otg.util.FifoMap;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
 public class MaterialHelper
 {
-    private static FifoMap<String, LocalMaterialData> CachedMaterials = new FifoMap<String, LocalMaterialData>(4096);
+	// Materials are read on multiple threads (biome configs, population of
+	// several worlds), and only a limited number of names is ever used, so
+	// nothing is ever evicted.
+    private static final ConcurrentHashMap<String, LocalMaterialData> CachedMaterials = new ConcurrentHashMap<String, LocalMaterialData>();
+    private static final Set<String> InvalidMaterials = ConcurrentHashMap.newKeySet();
+    // Default materials with block data 0 to 15, indexed by ordinal * 16 + data
+    private static final AtomicReferenceArray<LocalMaterialData> DefaultMaterials = new AtomicReferenceArray<LocalMaterialData>(DefaultMaterial.values().length * 16);
+
     /**
      * @see OTGEngine#readMaterial(String)
      */
@@ -25,49 +35,84 @@ public class MaterialHelper
     	{
     		return material;
     	}
-    	else if(CachedMaterials.containsKey(name))
+    	if(InvalidMaterials.contains(name))
     	{
     		throw new InvalidConfigException("Cannot read block: " + name);
     	}
 
-    	String originalName = name;
-    	
-    	// Spigot interprets snow as SNOW_LAYER and that's how TC has always seen it too so keep it that way (even though minecraft:snow is actually a snow block).
-    	if(name.toLowerCase().equals("snow"))
-    	{
-    		name = "SNOW_LAYER";
-    	}
-    	// Spigot interprets water as FLOWING_WATER and that's how TC has always seen it too so keep it that way (even though minecraft:water is actually stationary water).
-    	if(name.toLowerCase().equals("water"))
-    	{
-    		name = "FLOWING_WATER";
-    	}
-    	// Spigot interprets lava as FLOWING_LAVA and that's how TC has always seen it too so keep it that way (even though minecraft:lava is actually stationary lava).
-    	if(name.toLowerCase().equals("lava"))
+    	String normalizedName = normalizeName(name);
+    	if(normalizedName != name)
     	{
-    		name = "FLOWING_LAVA";
+    		material = CachedMaterials.get(normalizedName);
+    		if(material != null)
+    		{
+    			CachedMaterials.putIfAbsent(name, material);
+    			return material;
+    		}
     	}
 
     	try
     	{
-    		material = OTG.getEngine().readMaterial(name);
+    		material = OTG.getEngine().readMaterial(normalizedName);
     	}
     	catch(InvalidConfigException ex)
     	{
-    		CachedMaterials.put(originalName, null);
+    		InvalidMaterials.add(name);
     		throw ex;
     	}
 
-    	CachedMaterials.put(originalName, material);
-
+    	// When two threads read the same name, both get the first material
+    	LocalMaterialData existing = CachedMaterials.putIfAbsent(normalizedName, material);
+    	if(existing != null)
+    	{
+    		material = existing;
+    	}
+    	if(normalizedName != name)
+    	{
+    		CachedMaterials.putIfAbsent(name, material);
+    	}
         return material;
     }
-    
+
+    private static String normalizeName(String name)
+    {
+    	// Spigot interprets snow as SNOW_LAYER and that's how TC has always seen it too so keep it that way (even though minecraft:snow is actually a snow block).
+    	if(name.equalsIgnoreCase("snow"))
+    	{
+    		return "SNOW_LAYER";
+    	}
+    	// Spigot interprets water as FLOWING_WATER and that's how TC has always seen it too so keep it that way (even though minecraft:water is actually stationary water).
+    	if(name.equalsIgnoreCase("water"))
+    	{
+    		return "FLOWING_WATER";
+    	}
+    	// Spigot interprets lava as FLOWING_LAVA and that's how TC has always seen it too so keep it that way (even though minecraft:lava is actually stationary lava).
+    	if(name.equalsIgnoreCase("lava"))
+    	{
+    		return "FLOWING_LAVA";
+    	}
+    	return name;
+    }
+
     /**
      * @see OTGEngine#toLocalMaterialData(DefaultMaterial, int)
      */
     public static LocalMaterialData toLocalMaterialData(DefaultMaterial defaultMaterial, int blockData)
     {
-        return OTG.getEngine().toLocalMaterialData(defaultMaterial, blockData);
+    	if(blockData < 0 || blockData > 15)
+    	{
+    		return OTG.getEngine().toLocalMaterialData(defaultMaterial, blockData);
+    	}
+    	int index = defaultMaterial.ordinal() * 16 + blockData;
+    	LocalMaterialData material = DefaultMaterials.get(index);
+    	if(material == null)
+    	{
+    		material = OTG.getEngine().toLocalMaterialData(defaultMaterial, blockData);
+    		if(!DefaultMaterials.compareAndSet(index, null, material))
+    		{
+    			material = DefaultMaterials.get(index);
+    		}
+    	}
+        return material;
     }
 }
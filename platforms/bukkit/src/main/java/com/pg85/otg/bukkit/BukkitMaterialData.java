@@ -24,7 +24,16 @@ public final class BukkitMaterialData implements LocalMaterialData
      * format as this field.
      */
 	private final int combinedBlockId;	
-	
+
+    /**
+     * Instances by combined block id, filled on first use. The instances are
+     * immutable, so the same instance can be handed out to every caller and
+     * reading blocks (for example from a chunk that is being generated) does
+     * not allocate. Threads may race to fill a slot, which only means an
+     * equal instance gets created twice.
+     */
+    private static final BukkitMaterialData[] INSTANCES = new BukkitMaterialData[4096 << 4];
+
     /**
      * Gets a {@code BukkitMaterialData} of the given id and data.
      * @param id   The block id.
@@ -33,7 +42,18 @@ public final class BukkitMaterialData implements LocalMaterialData
      */
     public static BukkitMaterialData ofIds(int id, int data)
     {
-        return new BukkitMaterialData(id, data);
+        int combinedBlockId = id << 4 | data;
+        if (id < 0 || data < 0 || data > 15 || combinedBlockId >= INSTANCES.length)
+        {
+            return new BukkitMaterialData(id, data);
+        }
+        BukkitMaterialData material = INSTANCES[combinedBlockId];
+        if (material == null)
+        {
+            material = new BukkitMaterialData(id, data);
+            INSTANCES[combinedBlockId] = material;
+        }
+        return material;
     }
 
     /**
@@ -66,7 +86,7 @@ public final class BukkitMaterialData implements LocalMaterialData
     static BukkitMaterialData ofMinecraftBlockData(IBlockData blockData)
     {
         Block block = blockData.getBlock();
-        return new BukkitMaterialData(Block.getId(block), block.toLegacyData(blockData));
+        return ofIds(Block.getId(block), block.toLegacyData(blockData));
     }
 
     private BukkitMaterialData(int blockId, int blockData)
@@ -23,7 +23,9 @@ import com.pg85.otg.customobjects.SpawnableObject;
 import com.pg85.otg.customobjects.bofunctions.EntityFunction;
 import com.pg85.otg.customobjects.structures.CustomStructureCache;
 import com.pg85.otg.exception.BiomeNotFoundException;
+import com.pg85.otg.generator.ChunkReplacedBlocks;
 import com.pg85.otg.generator.ObjectSpawner;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.generator.biome.BiomeGenerator;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.network.ConfigProvider;
@@ -134,6 +136,12 @@ public class BukkitWorld implements LocalWorld
     private String name;
     private BiomeGenerator biomeGenerator;
     private DataConverter dataConverter;
+    /**
+     * Tile entity data of each loaded NBT file, converted to a Minecraft tag
+     * and updated to the current Minecraft format. NBT files are loaded once
+     * and shared by all blocks using them, so they're looked up by instance.
+     */
+    private final Map<NamedBinaryTag, NBTTagCompound> metadataTemplates = new WeakHashMap<NamedBinaryTag, NBTTagCompound>();
 
     private final Map<String, LocalBiome> biomeNames = new HashMap<String, LocalBiome>();
 
@@ -465,6 +473,13 @@ public class BukkitWorld implements LocalWorld
         }
         this.chunkCache = null;
     }
+
+    @Override
+    public PopulationWindow createPopulationWindow(ChunkCoordinate populatingChunk)
+    {
+        // The chunks being populated are already cached by startPopulation
+        return new PopulationWindow(this);
+    }
     
     // Biomes
     
@@ -589,7 +604,7 @@ public class BukkitWorld implements LocalWorld
     // Structures / trees
     
     @Override
-    public void prepareDefaultStructures(int chunkX, int chunkZ, boolean dry)
+    public synchronized void prepareDefaultStructures(int chunkX, int chunkZ, boolean dry)
     {
         WorldConfig worldConfig = this.settings.getWorldConfig();
 
@@ -747,49 +762,48 @@ public class BukkitWorld implements LocalWorld
 
         // Replace the blocks
         for(int i = 0; i < 4; i++) {
-            replaceBlocks(cache[i], 0, 0, 16);
+            replaceBlocks(cache[i]);
         }
     }
 
-    private void replaceBlocks(Chunk rawChunk, int startXInChunk, int startZInChunk, int size)
+    private void replaceBlocks(Chunk rawChunk)
     {
-        int endXInChunk = startXInChunk + size;
-        int endZInChunk = startZInChunk + size;
-        int worldStartX = rawChunk.locX * 16;
-        int worldStartZ = rawChunk.locZ * 16;
+        // Look up the biomes once for the whole chunk instead of once per section
+        ChunkReplacedBlocks replacedBlocks = ChunkReplacedBlocks.forChunk(this, ChunkCoordinate.fromChunkCoords(rawChunk.locX, rawChunk.locZ));
+        if (replacedBlocks == null)
+            return;
 
         ChunkSection[] sectionsArray = rawChunk.getSections();
 
         for (ChunkSection section : sectionsArray)
         {
-            if (section == null)
+            if (section == null || !replacedBlocks.replacesInRange(section.getYPosition(), section.getYPosition() + 15))
                 continue;
 
-            for (int sectionX = startXInChunk; sectionX < endXInChunk; sectionX++)
+            for (int sectionX = 0; sectionX < 16; sectionX++)
             {
-                for (int sectionZ = startZInChunk; sectionZ < endZInChunk; sectionZ++)
+                for (int sectionZ = 0; sectionZ < 16; sectionZ++)
                 {
-                    LocalBiome biome = this.getBiome(worldStartX + sectionX, worldStartZ + sectionZ);
-                    if (biome != null && biome.getBiomeConfig().replacedBlocks.hasReplaceSettings())
+                    LocalMaterialData[][] replaceArray = replacedBlocks.getColumn(sectionX, sectionZ);
+                    if (replaceArray == null)
+                        continue;
+
+                    for (int sectionY = 0; sectionY < 16; sectionY++)
                     {
-                        LocalMaterialData[][] replaceArray = biome.getBiomeConfig().replacedBlocks.compiledInstructions;
-                        for (int sectionY = 0; sectionY < 16; sectionY++)
-                        {
-                            IBlockData block = section.getType(sectionX, sectionY, sectionZ);
-                            int blockId = Block.getId(block.getBlock());
-                            if (replaceArray[blockId] == null)
-                                continue;
-
-                            int y = section.getYPosition() + sectionY;
-                            if (y >= replaceArray[blockId].length)
-                                break;
-
-                            BukkitMaterialData replaceTo = (BukkitMaterialData) replaceArray[blockId][y];
-                            if (replaceTo == null || replaceTo.getBlockId() == blockId)
-                                continue;
-
-                            section.setType(sectionX, sectionY, sectionZ, replaceTo.internalBlock());
-                        }
+                        IBlockData block = section.getType(sectionX, sectionY, sectionZ);
+                        int blockId = Block.getId(block.getBlock());
+                        if (!replacedBlocks.isSourceBlock(blockId) || replaceArray[blockId] == null)
+                            continue;
+
+                        int y = section.getYPosition() + sectionY;
+                        if (y >= replaceArray[blockId].length)
+                            break;
+
+                        BukkitMaterialData replaceTo = (BukkitMaterialData) replaceArray[blockId][y];
+                        if (replaceTo == null || replaceTo.getBlockId() == blockId)
+                            continue;
+
+                        section.setType(sectionX, sectionY, sectionZ, replaceTo.internalBlock());
                     }
                 }
             }
@@ -1774,15 +1788,12 @@ public class BukkitWorld implements LocalWorld
     
     private void attachMetadata(int x, int y, int z, NamedBinaryTag tag)
     {
-        // Convert NamedBinaryTag to a native nms tag
-        NBTTagCompound nmsTag = NBTHelper.getNMSFromNBTTagCompound(tag);
-        // Add the x, y and z position to it
+        // Copy the native nms tag of the NBT file (g() is copy) and add
+        // the x, y and z position to it
+        NBTTagCompound nmsTag = getMetadataTemplate(tag).g();
         nmsTag.setInt("x", x);
         nmsTag.setInt("y", y);
         nmsTag.setInt("z", z);
-        // Update to current Minecraft format (maybe we want to do this at
-        // server startup instead, and then save the result?)
-        nmsTag = this.dataConverter.a(DataConverterTypes.BLOCK_ENTITY, nmsTag, -1);
         // Add that data to the current tile entity in the world
         TileEntity tileEntity = world.getTileEntity(new BlockPosition(x, y, z));
         if (tileEntity != null)
@@ -1796,6 +1807,21 @@ public class BukkitWorld implements LocalWorld
         }
     }
 
+    private NBTTagCompound getMetadataTemplate(NamedBinaryTag tag)
+    {
+        NBTTagCompound template = this.metadataTemplates.get(tag);
+        if (template == null)
+        {
+            // Convert NamedBinaryTag to a native nms tag
+            template = NBTHelper.getNMSFromNBTTagCompound(tag);
+            // Update to current Minecraft format, the fixes for tile
+            // entities don't depend on the position of the tile entity
+            template = this.dataConverter.a(DataConverterTypes.BLOCK_ENTITY, template, -1);
+            this.metadataTemplates.put(tag, template);
+        }
+        return template;
+    }
+
     @Override
     public NamedBinaryTag getMetadata(int x, int y, int z)
     {
@@ -7,9 +7,11 @@ public enum OTGPerm
     CMD_CHECK("cmd.check"),
     CMD_HELP("cmd.help"),
     CMD_LIST("cmd.list"),
+    CMD_LOCATEBIOME("cmd.locatebiome"),
     CMD_MAP("cmd.map"),
     CMD_RELOAD("cmd.reload"),
-    CMD_SPAWN("cmd.spawn");
+    CMD_SPAWN("cmd.spawn"),
+    CMD_STATS("cmd.stats");
 
     public final String node;
 
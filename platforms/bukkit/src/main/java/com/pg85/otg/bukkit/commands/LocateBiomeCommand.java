@@ -0,0 +1,106 @@
+package com.pg85.otg.bukkit.commands;
+
+import com.pg85.otg.bukkit.BukkitWorld;
+import com.pg85.otg.bukkit.OTGPerm;
+import com.pg85.otg.bukkit.OTGPlugin;
+import com.pg85.otg.bukkit.generator.OTGWorldChunkManager;
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.generator.biome.BiomeSummaryMap;
+
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+public class LocateBiomeCommand extends BaseCommand
+{
+    private static final int DEFAULT_RADIUS = 4000;
+    private static final int MAX_RADIUS = 16000;
+
+    LocateBiomeCommand(OTGPlugin _plugin)
+    {
+        super(_plugin);
+        name = "locatebiome";
+        perm = OTGPerm.CMD_LOCATEBIOME.node;
+        usage = "locatebiome <name or id> [radius]";
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, List<String> args)
+    {
+        Location location = this.getLocation(sender);
+        LocalWorld world = this.getWorld(sender, "");
+        if (location == null || world == null || !(((BukkitWorld) world).getWorld().getWorldChunkManager() instanceof OTGWorldChunkManager))
+        {
+            sender.sendMessage(ERROR_COLOR + "Plugin is not enabled for this world.");
+            return true;
+        }
+        if (args.isEmpty())
+        {
+            sender.sendMessage(ERROR_COLOR + "Usage: /otg " + usage);
+            return true;
+        }
+
+        int radius = DEFAULT_RADIUS;
+        int nameArgs = args.size();
+        if (args.size() > 1)
+        {
+            try
+            {
+                radius = Math.min(Integer.parseInt(args.get(args.size() - 1)), MAX_RADIUS);
+                nameArgs--;
+            } catch (NumberFormatException e)
+            {
+                // Last argument is part of the biome name
+            }
+        }
+        StringBuilder biomeNameBuilder = new StringBuilder();
+        for (int i = 0; i < nameArgs; i++)
+        {
+            biomeNameBuilder.append(args.get(i)).append(' ');
+        }
+        String biomeName = biomeNameBuilder.toString().trim();
+
+        int biomeId = -1;
+        try
+        {
+            biomeId = Integer.parseInt(biomeName);
+        } catch (NumberFormatException e)
+        {
+            LocalBiome biome = world.getBiomeByNameOrNull(biomeName);
+            if (biome != null)
+            {
+                biomeId = biome.getIds().getOTGBiomeId();
+            }
+        }
+        if (biomeId < 0)
+        {
+            sender.sendMessage(ERROR_COLOR + "Could not find biome \"" + biomeName + "\".");
+            return true;
+        }
+
+        // The biome summary only generates the biomes of the parts of the
+        // area that contain the biome
+        final int targetBiomeId = biomeId;
+        int playerX = location.getBlockX();
+        int playerZ = location.getBlockZ();
+        long startTime = System.currentTimeMillis();
+        BiomeSummaryMap biomeSummary = ((OTGWorldChunkManager) ((BukkitWorld) world).getWorld().getWorldChunkManager()).getBiomeSummary();
+        int shift = biomeSummary.getBlockShift();
+        int[] position = biomeSummary.findClosestPosition(playerX >> shift, playerZ >> shift, radius >> shift, id -> id == targetBiomeId);
+        long searchTime = System.currentTimeMillis() - startTime;
+        if (position == null)
+        {
+            sender.sendMessage(ERROR_COLOR + "Could not find biome \"" + biomeName + "\" within " + radius + " blocks (" + searchTime + "ms).");
+            return true;
+        }
+
+        int foundX = (position[0] << shift) + (1 << shift >> 1);
+        int foundZ = (position[1] << shift) + (1 << shift >> 1);
+        int distance = (int) Math.sqrt((double) (foundX - playerX) * (foundX - playerX) + (double) (foundZ - playerZ) * (foundZ - playerZ));
+        sender.sendMessage(MESSAGE_COLOR + "Found biome \"" + VALUE_COLOR + biomeName + MESSAGE_COLOR + "\" at " + VALUE_COLOR + foundX + ", " + foundZ
+                + MESSAGE_COLOR + " (" + distance + " blocks away, " + searchTime + "ms).");
+        return true;
+    }
+}
@@ -50,8 +50,10 @@ public class OTGCommandExecutor implements CommandExecutor
         this.addCommand(new CheckCommand(plugin));
         this.addCommand(new TPCommand(plugin));
         this.addCommand(new BiomeCommand(plugin));
+        this.addCommand(new LocateBiomeCommand(plugin));
         this.addCommand(new SpawnCommand(plugin));
         this.addCommand(new MapCommand(plugin));
+        this.addCommand(new StatsCommand(plugin));
         this.addCommand(this.helpCommand);
     }
 
@@ -0,0 +1,55 @@
+package com.pg85.otg.bukkit.commands;
+
+import com.pg85.otg.bukkit.OTGPerm;
+import com.pg85.otg.bukkit.OTGPlugin;
+import com.pg85.otg.logging.PerformanceStats;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+public class StatsCommand extends BaseCommand
+{
+    StatsCommand(OTGPlugin _plugin)
+    {
+        super(_plugin);
+        name = "stats";
+        perm = OTGPerm.CMD_STATS.node;
+        usage = "stats [on|off|reset]";
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, List<String> args)
+    {
+        String action = args.isEmpty() ? "" : args.get(0).toLowerCase();
+        if (action.equals("on"))
+        {
+            PerformanceStats.setEnabled(true);
+            sender.sendMessage(MESSAGE_COLOR + "Performance stats enabled.");
+            return true;
+        }
+        if (action.equals("off"))
+        {
+            PerformanceStats.setEnabled(false);
+            sender.sendMessage(MESSAGE_COLOR + "Performance stats disabled.");
+            return true;
+        }
+        if (action.equals("reset"))
+        {
+            PerformanceStats.reset();
+            sender.sendMessage(MESSAGE_COLOR + "Performance stats cleared.");
+            return true;
+        }
+
+        sender.sendMessage(MESSAGE_COLOR + "-- Performance stats --");
+        if (!PerformanceStats.isEnabled())
+        {
+            sender.sendMessage(MESSAGE_COLOR + "Stats are not being recorded, use " + VALUE_COLOR + "/otg stats on"
+                    + MESSAGE_COLOR + " to start recording.");
+        }
+        for (String line : PerformanceStats.getReport())
+        {
+            sender.sendMessage(VALUE_COLOR + line);
+        }
+        return true;
+    }
+}
@@ -40,7 +40,7 @@ public class OTGSender
             try
             {
                 stream.writeInt(PluginStandardValues.ProtocolVersion);
-                ConfigToNetworkSender.writeConfigsToStream(configs, stream, false);
+                ConfigToNetworkSender.writeCompressedConfigsToStream(configs, stream, false);
                 stream.flush();
             } catch (IOException e)
             {
@@ -47,4 +47,45 @@ final class BukkitChunkBuffer implements ChunkBuffer
         chunkData.setBlock(blockX, blockY, blockZ, material.getBlockId(), material.getBlockData());
     }
 
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setBlocks(int blockX, int blockZ, int fromY, int toY, LocalMaterialData material)
+    {
+        // ChunkData only fills whole sections for regions spanning the full
+        // chunk width, a single column is still set block by block. This
+        // saves the repeated calls and material conversions.
+        chunkData.setRegion(blockX, fromY, blockZ, blockX + 1, toY, blockZ + 1, material.getBlockId(), material.getBlockData());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setBlockColumn(int blockX, int blockZ, int fromY, int toY, LocalMaterialData[] blocks)
+    {
+        for (int y = fromY; y < toY; y++)
+        {
+            chunkData.setBlock(blockX, y, blockZ, blocks[y].getBlockId(), blocks[y].getBlockData());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void getBlockColumn(int blockX, int blockZ, LocalMaterialData[] blocks)
+    {
+        int lastBlockId = -1;
+        byte lastBlockData = 0;
+        LocalMaterialData lastMaterial = null;
+        for (int y = 0; y < blocks.length; y++)
+        {
+            int blockId = chunkData.getTypeId(blockX, y, blockZ);
+            byte blockData = chunkData.getData(blockX, y, blockZ);
+            if (blockId != lastBlockId || blockData != lastBlockData)
+            {
+                lastBlockId = blockId;
+                lastBlockData = blockData;
+                lastMaterial = BukkitMaterialData.ofIds(blockId, blockData);
+            }
+            blocks[y] = lastMaterial;
+        }
+    }
+
 }
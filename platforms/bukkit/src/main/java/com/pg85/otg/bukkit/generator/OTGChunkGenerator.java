@@ -1,5 +1,6 @@
 package com.pg85.otg.bukkit.generator;
 
+import com.pg85.otg.OTG;
 import com.pg85.otg.bukkit.BukkitWorld;
 import com.pg85.otg.bukkit.OTGPlugin;
 import com.pg85.otg.configuration.world.WorldConfig;
@@ -18,7 +19,12 @@ import java.util.Random;
 
 public class OTGChunkGenerator extends ChunkGenerator
 {	
-    private ChunkProviderOTG chunkProviderTC;
+    private volatile ChunkProviderOTG chunkProviderTC;
+    // Terrain generators for threads other than the one that initialized the
+    // world, the generators keep their noise arrays in fields.
+    private ThreadLocal<ChunkProviderOTG> threadChunkProviders;
+    private Thread initializingThread;
+    private final boolean parallelCapable;
     // Why does the chunk generator require multiple block populators, each with their own ObjectSpawner instance? For multiple dims?
     private ArrayList<BlockPopulator> BlockPopulator = new ArrayList<BlockPopulator>();
     private boolean NotGenerate = false;
@@ -27,6 +33,7 @@ public class OTGChunkGenerator extends ChunkGenerator
     public OTGChunkGenerator(OTGPlugin _plugin)
     {
         this.plugin = _plugin;
+        this.parallelCapable = OTG.getPluginConfig().parallelChunkGeneration;
     }
 
     /**
@@ -39,8 +46,15 @@ public class OTGChunkGenerator extends ChunkGenerator
     {
         if (this.chunkProviderTC == null)
         {
-            // Not yet initialized, do it now
-            this.plugin.onWorldInit(world);
+            // With parallel chunk generation multiple threads can get here
+            synchronized (this)
+            {
+                if (this.chunkProviderTC == null)
+                {
+                    // Not yet initialized, do it now
+                    this.plugin.onWorldInit(world);
+                }
+            }
         }
     }
 
@@ -50,9 +64,17 @@ public class OTGChunkGenerator extends ChunkGenerator
      * @param _world
      *            The BukkitWorld instance.
      */
-    public void onInitialize(BukkitWorld _world)
+    public void onInitialize(final BukkitWorld _world)
     {
-        this.chunkProviderTC = new ChunkProviderOTG(_world.getConfigs(), _world);
+        this.initializingThread = Thread.currentThread();
+        this.threadChunkProviders = new ThreadLocal<ChunkProviderOTG>()
+        {
+            @Override
+            protected ChunkProviderOTG initialValue()
+            {
+                return new ChunkProviderOTG(_world.getConfigs(), _world);
+            }
+        };
 
         WorldConfig.TerrainMode mode = _world.getConfigs().getWorldConfig().modeTerrain;
 
@@ -61,6 +83,10 @@ public class OTGChunkGenerator extends ChunkGenerator
 
         if (mode == WorldConfig.TerrainMode.NotGenerate)
             this.NotGenerate = true;
+
+        // Set last, other threads use this to check whether the world is
+        // initialized
+        this.chunkProviderTC = new ChunkProviderOTG(_world.getConfigs(), _world);
     }
 
     public ObjectSpawner getObjectSpawner()
@@ -79,6 +105,25 @@ public class OTGChunkGenerator extends ChunkGenerator
         return this.BlockPopulator;
     }
 
+    /**
+     * Gets the terrain generator for the current thread.
+     * @return The terrain generator.
+     */
+    private ChunkProviderOTG getChunkProvider()
+    {
+        if (!this.parallelCapable || Thread.currentThread() == this.initializingThread)
+        {
+            return this.chunkProviderTC;
+        }
+        return this.threadChunkProviders.get();
+    }
+
+    @Override
+    public boolean isParallelCapable()
+    {
+        return this.parallelCapable;
+    }
+
     @Override
     public boolean canSpawn(World world, int x, int z)
     {
@@ -100,7 +145,7 @@ public class OTGChunkGenerator extends ChunkGenerator
 
         ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
         BukkitChunkBuffer chunkBuffer = new BukkitChunkBuffer(chunkCoord, chunkData);
-        this.chunkProviderTC.generate(chunkBuffer);
+        getChunkProvider().generate(chunkBuffer);
 
         return chunkData;
     }
@@ -3,6 +3,7 @@ package com.pg85.otg.bukkit.generator;
 import com.pg85.otg.bukkit.BukkitBiome;
 import com.pg85.otg.bukkit.BukkitWorld;
 import com.pg85.otg.generator.biome.BiomeGenerator;
+import com.pg85.otg.generator.biome.BiomeSummaryMap;
 import com.pg85.otg.generator.biome.OutputType;
 import com.pg85.otg.util.minecraft.defaults.DefaultBiome;
 
@@ -23,11 +24,22 @@ public class OTGWorldChunkManager extends WorldChunkManager
 {
     private BukkitWorld localWorld;
     private BiomeGenerator biomeGenerator;
+    private BiomeSummaryMap biomeSummary;
 
     public OTGWorldChunkManager(BukkitWorld world, BiomeGenerator biomeGenerator)
     {
         this.localWorld = world;
         this.biomeGenerator = biomeGenerator;
+        this.biomeSummary = new BiomeSummaryMap(biomeGenerator);
+    }
+
+    /**
+     * Gets the biome summary of the world, used for searching biomes over
+     * large areas.
+     */
+    public BiomeSummaryMap getBiomeSummary()
+    {
+        return this.biomeSummary;
     }
 
     @Override
@@ -81,57 +93,35 @@ public class OTGWorldChunkManager extends WorldChunkManager
         // Hack for villages in other biomes
         // (The alternative would be to completely override the village spawn
         // code)
-        if (paramList == WorldGenVillage.a && localWorld.villageGen != null)
-        {
-            paramList = localWorld.villageGen.villageSpawnBiomes;
-        }
+        final List<BiomeBase> allowedBiomes = paramList == WorldGenVillage.a && localWorld.villageGen != null ?
+                localWorld.villageGen.villageSpawnBiomes : paramList;
 
         int i = paramInt1 - paramInt3 >> 2;
         int j = paramInt2 - paramInt3 >> 2;
         int k = paramInt1 + paramInt3 >> 2;
         int m = paramInt2 + paramInt3 >> 2;
 
-        int n = k - i + 1;
-        int i1 = m - j + 1;
-        BiomeBase[] arrayOfInt = this.getBiomes(null, i, j, n, i1);
-        for (int i2 = 0; i2 < n * i1; i2++)
-        {
-            BiomeBase localBiomeBase = arrayOfInt[i2];
-            if (!paramList.contains(localBiomeBase))
-                return false;
-        }
-
-        return true;
+        // Only the parts of the area with biomes that aren't allowed are
+        // generated in full, see BiomeSummaryMap
+        return this.biomeSummary.allMatch(i, j, k, m, biomeId -> allowedBiomes.contains(((BukkitBiome)localWorld.getBiomeByOTGIdOrNull(biomeId)).getHandle()));
     }
 
     @Override
     @SuppressWarnings("rawtypes")
-    public BlockPosition a(int paramInt1, int paramInt2, int paramInt3, List paramList, Random paramRandom)
+    public BlockPosition a(int paramInt1, int paramInt2, int paramInt3, final List paramList, Random paramRandom)
     {
         int i = paramInt1 - paramInt3 >> 2;
         int j = paramInt2 - paramInt3 >> 2;
         int k = paramInt1 + paramInt3 >> 2;
         int m = paramInt2 + paramInt3 >> 2;
 
-        int n = k - i + 1;
-        int i1 = m - j + 1;
-        int[] arrayOfInt = this.biomeGenerator.getBiomesUnZoomed(null, i, j, n, i1, OutputType.DEFAULT_FOR_WORLD);
-        BlockPosition localBlockPosition = null;
-        int i2 = 0;
-        for (int i3 = 0; i3 < arrayOfInt.length; i3++)
-        {
-            if (arrayOfInt[i3] >= DefaultBiome.values().length)
-                continue;
-            int i4 = i + i3 % n << 2;
-            int i5 = j + i3 / n << 2;
-            BiomeBase localBiomeBase = BiomeBase.getBiome(arrayOfInt[i3]);
-            if ((!paramList.contains(localBiomeBase)) || ((localBlockPosition != null) && (paramRandom.nextInt(i2 + 1) != 0)))
-                continue;
-            localBlockPosition = new BlockPosition(i4, 0, i5);
-            i2++;
-        }
+        // Picks the same position as checking the whole area would, but
+        // skips the parts of the area without any of the biomes
+        int[] position = this.biomeSummary.findRandomPosition(i, j, k, m, biomeId ->
+                biomeId < DefaultBiome.values().length && paramList.contains(BiomeBase.getBiome(biomeId)),
+                paramRandom);
 
-        return localBlockPosition;
+        return position == null ? null : new BlockPosition(position[0] << 2, 0, position[1] << 2);
     }
 
     @Override
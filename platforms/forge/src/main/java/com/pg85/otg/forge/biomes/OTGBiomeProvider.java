@@ -7,6 +7,7 @@ import com.google.common.collect.Lists;
 import com.pg85.otg.forge.generator.structure.OTGVillageGen;
 import com.pg85.otg.forge.world.ForgeWorld;
 import com.pg85.otg.generator.biome.BiomeGenerator;
+import com.pg85.otg.generator.biome.BiomeSummaryMap;
 import com.pg85.otg.generator.biome.OutputType;
 import com.pg85.otg.util.minecraft.defaults.DefaultBiome;
 
@@ -27,11 +28,22 @@ public class OTGBiomeProvider extends BiomeProvider
     
     private final BiomeGenerator biomeGenerator;
     private final ForgeWorld localWorld;
+    private final BiomeSummaryMap biomeSummary;
     
     public OTGBiomeProvider(ForgeWorld world, BiomeGenerator biomeGenerator)
     {
         this.localWorld = world;
         this.biomeGenerator = biomeGenerator;
+        this.biomeSummary = new BiomeSummaryMap(biomeGenerator);
+    }
+
+    /**
+     * Gets the biome summary of the world, used for searching biomes over
+     * large areas.
+     */
+    public BiomeSummaryMap getBiomeSummary()
+    {
+        return this.biomeSummary;
     }
     
     @Override
@@ -95,27 +107,17 @@ public class OTGBiomeProvider extends BiomeProvider
     {
         // Hack for villages in other biomes
         // (The alternative would be to completely override the village spawn code)
-        if (allowed == MapGenVillage.VILLAGE_SPAWN_BIOMES && this.localWorld.villageGen instanceof OTGVillageGen && this.localWorld.villageGen != null)
-        {
-            allowed = ((OTGVillageGen)this.localWorld.villageGen).villageSpawnBiomes;
-        }
+        final List<Biome> allowedBiomes = allowed == MapGenVillage.VILLAGE_SPAWN_BIOMES && this.localWorld.villageGen instanceof OTGVillageGen && this.localWorld.villageGen != null ?
+    		((OTGVillageGen)this.localWorld.villageGen).villageSpawnBiomes : allowed;
 
         int i = x - radius >> 2;
         int j = z - radius >> 2;
         int k = x + radius >> 2;
         int m = z + radius >> 2;
 
-        int n = k - i + 1;
-        int i1 = m - j + 1;
-        Biome[] arrayOfInt = this.getBiomesForGeneration(null, i, j, n, i1);
-        for (int i2 = 0; i2 < n * i1; i2++)
-        {
-            Biome localBiomeBase = arrayOfInt[i2];
-            if (!allowed.contains(localBiomeBase))
-                return false;
-        }
-
-        return true;
+        // Only the parts of the area with biomes that aren't allowed are
+        // generated in full, see BiomeSummaryMap
+        return this.biomeSummary.allMatch(i, j, k, m, biomeId -> allowedBiomes.contains(this.localWorld.getBiomeByOTGIdOrNull(biomeId).getHandle()));
     }
     
     @Override
@@ -126,32 +128,15 @@ public class OTGBiomeProvider extends BiomeProvider
         int k = x + range >> 2;
         int m = z + range >> 2;
 
-        int n = k - i + 1;
-        int i1 = m - j + 1;
-        int[] arrayOfInt = this.biomeGenerator.getBiomesUnZoomed(null, i, j, n, i1, OutputType.DEFAULT_FOR_WORLD);
-        BlockPos blockPos = null;
-        int i2 = 0;       
-        
-        for (int i3 = 0; i3 < arrayOfInt.length; i3++)
-        {
-            if (arrayOfInt[i3] >= DefaultBiome.values().length)
-            {
-                continue;
-            }
-            
-            int i4 = i + i3 % n << 2;
-            int i5 = j + i3 / n << 2;
-            Biome localBiomeBase = Biome.getBiome(arrayOfInt[i3]);            
-            if (
-        		!ForbiddenBiomes.contains(localBiomeBase) && 
-        		!(blockPos != null && random.nextInt(i2 + 1) != 0))
-            {
-                blockPos = new BlockPos(i4, 0, i5);
-                i2++;
-            }
-        }
+        // Picks the same position as checking the whole area would, but
+        // skips the parts of the area without any suitable biome
+        int[] position = this.biomeSummary.findRandomPosition(i, j, k, m, biomeId ->
+    		biomeId < DefaultBiome.values().length &&
+    		!ForbiddenBiomes.contains(Biome.getBiome(biomeId)),
+    		random
+		);
 
-        return blockPos;
+        return position == null ? null : new BlockPos(position[0] << 2, 0, position[1] << 2);
     }
 
     @Override
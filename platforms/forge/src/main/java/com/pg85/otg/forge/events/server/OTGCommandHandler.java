@@ -24,13 +24,16 @@ import com.pg85.otg.exception.BiomeNotFoundException;
 import com.pg85.otg.forge.ForgeEngine;
 import com.pg85.otg.forge.OTGPlugin;
 import com.pg85.otg.forge.biomes.ForgeBiome;
+import com.pg85.otg.forge.biomes.OTGBiomeProvider;
 import com.pg85.otg.forge.dimensions.OTGDimensionManager;
 import com.pg85.otg.forge.dimensions.OTGTeleporter;
 import com.pg85.otg.forge.network.server.ServerPacketManager;
 import com.pg85.otg.forge.pregenerator.Pregenerator;
 import com.pg85.otg.forge.world.ForgeWorld;
 import com.pg85.otg.forge.world.ForgeWorldSession;
+import com.pg85.otg.generator.biome.BiomeSummaryMap;
 import com.pg85.otg.logging.LogMarker;
+import com.pg85.otg.logging.PerformanceStats;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.minecraft.defaults.MobNames;
 
@@ -122,6 +125,7 @@ public final class OTGCommandHandler implements ICommand
 
                 if(isOp)
                 {
+                	sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg locatebiome <biome name or id> [radius] " + VALUE_COLOR + "Show the coordinates of the nearest biome with the given name or id (default radius 4000 blocks, max 16000 blocks)."));
                     sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg tp <biome name or id / dimension name> " + VALUE_COLOR + "Teleport to the given dimension or the nearest biome with the given name or id (max distance 16000 blocks)."));
                 }
 
@@ -139,6 +143,7 @@ public final class OTGCommandHandler implements ICommand
 					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg GetModData <ModName> <Radius> " + VALUE_COLOR + "Sends any ModData() tags in BO3's within the specified <Radius> in chunks to the specified <ModName>. Some OTG mob spawning commands can be used this way. Be sure to set up ModData() tags in your BO3 to make this work."));
 					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg summon <Radius> " + VALUE_COLOR + "Shorthand for /mcw GetModData OTG <Radius>. Used to summon mobs and entities that are configured to spawn inside BO3's."));
 					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg exportBO4Data " + VALUE_COLOR + "Exports all BO4 files and BO3 files that have isOTGPlus:true as BO4Data files (if none exist already). BO4Data files can significantly reduce filesize and loading times, and should be used by OTG content creators when packaging presets for players."));
+					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg stats <on, off, reset> " + VALUE_COLOR + "Shows how long each stage of chunk generation and population takes. Stats are only recorded when turned on with /otg stats on or PerformanceStats in OTG.ini."));
 				}
 
                 sender.sendMessage(new TextComponentString(""));
@@ -159,6 +164,36 @@ public final class OTGCommandHandler implements ICommand
         		}
         		sender.sendMessage(new TextComponentString(MESSAGE_COLOR + ".BO4Data export complete."));
         	}
+        	else if(argString[0].toLowerCase().trim().equals("stats") && isOp)
+        	{
+        		if(argString.length > 1 && argString[1].toLowerCase().trim().equals("on"))
+        		{
+        			PerformanceStats.setEnabled(true);
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Performance stats enabled."));
+        		}
+        		else if(argString.length > 1 && argString[1].toLowerCase().trim().equals("off"))
+        		{
+        			PerformanceStats.setEnabled(false);
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Performance stats disabled."));
+        		}
+        		else if(argString.length > 1 && argString[1].toLowerCase().trim().equals("reset"))
+        		{
+        			PerformanceStats.reset();
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Performance stats cleared."));
+        		} else {
+	        		sender.sendMessage(new TextComponentString(""));
+	        		sender.sendMessage(new TextComponentString("-- Performance stats --"));
+	        		sender.sendMessage(new TextComponentString(""));
+	        		if(!PerformanceStats.isEnabled())
+	        		{
+	        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Stats are not being recorded, use " + VALUE_COLOR + "/otg stats on" + MESSAGE_COLOR + " to start recording."));
+	        		}
+	        		for(String line : PerformanceStats.getReport())
+	        		{
+	        			sender.sendMessage(new TextComponentString(VALUE_COLOR + line));
+	        		}
+        		}
+        	}
         	else if(argString[0].toLowerCase().trim().equals("blocks") && isOp)
         	{
 	    		OTG.log(LogMarker.INFO, "-- Blocks List --");
@@ -184,6 +219,65 @@ public final class OTGCommandHandler implements ICommand
 	    		world.getChunkGenerator().clearChunkCache(false);
 	    		OTG.log(LogMarker.INFO, "Caches cleared");
         	}
+            else if (argString[0].toLowerCase().trim().equals("locatebiome") && argString.length > 1 && isOp)
+            {
+            	if(world == null || !(mcWorld.getBiomeProvider() instanceof OTGBiomeProvider))
+            	{
+                    sender.sendMessage(new TextComponentTranslation(ERROR_COLOR + "This command is only available for OpenTerrainGenerator worlds."));
+                    return;
+            	}
+
+            	int radius = 4000;
+            	int nameArgs = argString.length;
+            	if(argString.length > 2)
+            	{
+            		try
+            		{
+            			radius = Math.min(Integer.parseInt(argString[argString.length - 1]), 16000);
+            			nameArgs--;
+            		}
+            		catch(NumberFormatException ex) { }
+            	}
+            	String biomeName = StringUtils.join(argString, " ", 1, nameArgs).trim();
+
+            	int biomeId = -1;
+        		try
+        		{
+        			biomeId = Integer.parseInt(biomeName);
+        		}
+        		catch(NumberFormatException ex)
+        		{
+            		LocalBiome targetBiome = world.getBiomeByNameOrNull(biomeName);
+            		if(targetBiome != null)
+            		{
+            			biomeId = targetBiome.getIds().getOTGBiomeId();
+            		}
+        		}
+        		if(biomeId < 0)
+        		{
+            		sender.sendMessage(new TextComponentTranslation(ERROR_COLOR + "Could not find biome \"" + biomeName + "\"."));
+            	    return;
+        		}
+
+            	// The biome summary only generates the biomes of the parts
+            	// of the area that contain the biome
+        		final int targetBiomeId = biomeId;
+            	long startTime = System.currentTimeMillis();
+            	BiomeSummaryMap biomeSummary = ((OTGBiomeProvider)mcWorld.getBiomeProvider()).getBiomeSummary();
+            	int shift = biomeSummary.getBlockShift();
+            	int[] position = biomeSummary.findClosestPosition(playerX >> shift, playerZ >> shift, radius >> shift, id -> id == targetBiomeId);
+            	long searchTime = System.currentTimeMillis() - startTime;
+            	if(position == null)
+            	{
+            		sender.sendMessage(new TextComponentTranslation(ERROR_COLOR + "Could not find biome \"" + biomeName + "\" within " + radius + " blocks (" + searchTime + "ms)."));
+            	} else {
+            		int foundX = (position[0] << shift) + (1 << shift >> 1);
+            		int foundZ = (position[1] << shift) + (1 << shift >> 1);
+            		int distance = (int)Math.sqrt((double)(foundX - playerX) * (foundX - playerX) + (double)(foundZ - playerZ) * (foundZ - playerZ));
+            		sender.sendMessage(new TextComponentTranslation(MESSAGE_COLOR + "Found biome \"" + VALUE_COLOR + biomeName + MESSAGE_COLOR + "\" at " + VALUE_COLOR + foundX + ", " + foundZ + MESSAGE_COLOR + " (" + distance + " blocks away, " + searchTime + "ms)."));
+            	}
+            	return;
+            }
             else if (isOp && argString[0].toLowerCase().trim().equals("tp") && argString.length > 1)
             {
             	String biomeOrDimensionName = "";
@@ -696,6 +790,7 @@ public final class OTGCommandHandler implements ICommand
 		listComplet.add("biome");
 		listComplet.add("bo3");
 		listComplet.add("bo4");
+		listComplet.add("locatebiome");
 		listComplet.add("tp");
 
 		listComplet.add("dimension");
@@ -706,6 +801,7 @@ public final class OTGCommandHandler implements ICommand
 		listComplet.add("flushcache");
 		listComplet.add("getmoddata");
 		listComplet.add("exportbo4data");
+		listComplet.add("stats");
 
 		return listComplet;
 	}
@@ -0,0 +1,212 @@
+package com.pg85.otg.forge.events.server;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.WorldServer;
+
+/**
+ * Keeps track of the entities of a world that were spawned by OTG spawners
+ * (tagged with "OTG") and of the positions of the players in the world.
+ *
+ * <p>Entities are added when they join the world, either when spawned by a
+ * spawner or when loaded from disk, and are removed when they are found to
+ * be dead or no longer part of the world. This way the despawn timers and
+ * the mob count of the spawners only have to look at OTG's own entities,
+ * instead of all loaded entities of the world.</p>
+ *
+ * <p>Player positions are stored in a grid of 64x64 cells, so that
+ * distance checks only look at the players in the cells around a
+ * position. The grid is rebuilt by {@link #updatePlayers(List)} once per
+ * spawn cycle. Not thread safe, only use on the server thread.</p>
+ */
+class OTGEntityTracker
+{
+    private static final int CELL_SIZE_BITS = 6;
+
+    private final WorldServer world;
+    private final HashSet<Entity> entities = new HashSet<Entity>();
+    /** Per grid cell: x, y, z of each player in the cell */
+    private final HashMap<Long, double[]> playersByCell = new HashMap<Long, double[]>();
+    private final HashMap<Long, Integer> playerCountByCell = new HashMap<Long, Integer>();
+
+    OTGEntityTracker(WorldServer world)
+    {
+        this.world = world;
+    }
+
+    /**
+     * Starts tracking the given entity, if it was spawned by OTG.
+     */
+    void onEntityJoinWorld(Entity entity)
+    {
+        if (entity.getEntityData().hasKey("OTG"))
+        {
+            this.entities.add(entity);
+        }
+    }
+
+    /**
+     * Whether the entity is still alive and part of the world. Entities
+     * are removed from the world when their chunk unloads, without
+     * being marked as dead.
+     */
+    private boolean isInWorld(Entity entity)
+    {
+        return !entity.isDead && this.world.getEntityFromUuid(entity.getUniqueID()) == entity;
+    }
+
+    /**
+     * Puts the given players in the player grid, replacing the players of
+     * the previous call.
+     */
+    void updatePlayers(List<EntityPlayer> players)
+    {
+        this.playersByCell.clear();
+        this.playerCountByCell.clear();
+        for (EntityPlayer player : players)
+        {
+            Long cell = getCell(MathHelper.floor(player.posX) >> CELL_SIZE_BITS, MathHelper.floor(player.posZ) >> CELL_SIZE_BITS);
+            Integer count = this.playerCountByCell.get(cell);
+            int index = count == null ? 0 : count.intValue();
+            double[] positions = this.playersByCell.get(cell);
+            if (positions == null)
+            {
+                positions = new double[3];
+            }
+            else if (positions.length < (index + 1) * 3)
+            {
+                double[] newPositions = new double[positions.length * 2];
+                System.arraycopy(positions, 0, newPositions, 0, positions.length);
+                positions = newPositions;
+            }
+            positions[index * 3] = player.posX;
+            positions[index * 3 + 1] = player.posY;
+            positions[index * 3 + 2] = player.posZ;
+            this.playersByCell.put(cell, positions);
+            this.playerCountByCell.put(cell, index + 1);
+        }
+    }
+
+    /**
+     * Gets the squared distance from the given position to the closest
+     * player.
+     * @param maxDistanceSq Players at this squared distance or further
+     *                      away are ignored.
+     * @return The squared distance, or maxDistanceSq if no player is
+     *         closer than that.
+     */
+    double getDistanceSqToClosestPlayer(double x, double y, double z, double maxDistanceSq)
+    {
+        double closest = maxDistanceSq;
+        if (this.playersByCell.isEmpty())
+        {
+            return closest;
+        }
+
+        double maxDistance = Math.sqrt(maxDistanceSq);
+        int minCellX = MathHelper.floor(x - maxDistance) >> CELL_SIZE_BITS;
+        int maxCellX = MathHelper.floor(x + maxDistance) >> CELL_SIZE_BITS;
+        int minCellZ = MathHelper.floor(z - maxDistance) >> CELL_SIZE_BITS;
+        int maxCellZ = MathHelper.floor(z + maxDistance) >> CELL_SIZE_BITS;
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++)
+        {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++)
+            {
+                Long cell = getCell(cellX, cellZ);
+                double[] positions = this.playersByCell.get(cell);
+                if (positions == null)
+                {
+                    continue;
+                }
+                int count = this.playerCountByCell.get(cell).intValue();
+                for (int i = 0; i < count * 3; i += 3)
+                {
+                    // Same precision as the distance checks this replaced
+                    float f = (float) (positions[i] - x);
+                    float f1 = (float) (positions[i + 1] - y);
+                    float f2 = (float) (positions[i + 2] - z);
+                    double distance = f * f + f1 * f1 + f2 * f2;
+                    if (distance < closest)
+                    {
+                        closest = distance;
+                    }
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Counts down the despawn timers of all tracked entities that are not
+     * near a player, and despawns the entities whose time is up.
+     * @param maxDistanceSq Squared distance to a player within which an
+     *                      entity doesn't despawn.
+     */
+    void tickDespawnTimers(double maxDistanceSq)
+    {
+        for (Iterator<Entity> iterator = this.entities.iterator(); iterator.hasNext();)
+        {
+            Entity entity = iterator.next();
+            if (!isInWorld(entity))
+            {
+                iterator.remove();
+                continue;
+            }
+
+            // Don't de-spawn if there is a player near the entity
+            if (getDistanceSqToClosestPlayer(entity.posX, entity.posY, entity.posZ, maxDistanceSq) < maxDistanceSq)
+            {
+                continue;
+            }
+
+            NBTTagCompound entityData = entity.getEntityData();
+            int despawnTimer = entityData.getInteger("OTGDT"); // OTG Despawn Timer
+            if (despawnTimer <= 1)
+            {
+                // Time's up, despawn
+                entity.setDead();
+                iterator.remove();
+            } else {
+                entityData.setInteger("OTGDT", despawnTimer - 1); // OTG Despawn Timer
+            }
+        }
+    }
+
+    /**
+     * Counts the tracked entities of the given class within the given
+     * radius (on each axis) of the given position.
+     */
+    int countEntities(Class<? extends Entity> entityClass, int x, int y, int z, int radius)
+    {
+        int count = 0;
+        for (Entity entity : this.entities)
+        {
+            if (
+                entity.getClass() == entityClass &&
+                entity.posX >= x - radius &&
+                entity.posX <= x + radius &&
+                entity.posY >= y - radius &&
+                entity.posY <= y + radius &&
+                entity.posZ >= z - radius &&
+                entity.posZ <= z + radius &&
+                isInWorld(entity)
+            )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Long getCell(int cellX, int cellZ)
+    {
+        return Long.valueOf(((long) cellX << 32) | (cellZ & 0xffffffffL));
+    }
+}
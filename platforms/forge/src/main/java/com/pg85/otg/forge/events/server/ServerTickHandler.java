@@ -3,8 +3,8 @@ package com.pg85.otg.forge.events.server;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Random;
-import java.util.Stack;
 import java.util.Map.Entry;
 
 import com.pg85.otg.OTG;
@@ -49,6 +49,8 @@ import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.storage.DerivedWorldInfo;
 import net.minecraftforge.event.ForgeEventFactory;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.event.FMLInterModComms;
 import net.minecraftforge.fml.common.event.FMLInterModComms.IMCMessage;
@@ -64,7 +66,39 @@ public class ServerTickHandler
 	
     /** The 17x17 area around the player where mobs and particles can spawn */
     private HashMap<ChunkCoordinate, Boolean> eligibleChunksForSpawning = new HashMap<ChunkCoordinate, Boolean>();
-    
+
+    /** The most spawners that are processed per world per spawn cycle, closest to a player first */
+    private static final int MAX_SPAWNERS_PER_CYCLE = 256;
+
+    /** The entities spawned by OTG and the players, per OTG world */
+    private HashMap<World, OTGEntityTracker> entityTrackers = new HashMap<World, OTGEntityTracker>();
+
+    @SubscribeEvent
+    public void onEntityJoinWorld(EntityJoinWorldEvent event)
+    {
+    	if(!event.getWorld().isRemote && ((ForgeEngine)OTG.getEngine()).getWorld(event.getWorld()) != null)
+    	{
+    		getEntityTracker((WorldServer)event.getWorld()).onEntityJoinWorld(event.getEntity());
+    	}
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event)
+    {
+    	this.entityTrackers.remove(event.getWorld());
+    }
+
+    private OTGEntityTracker getEntityTracker(WorldServer worldServer)
+    {
+    	OTGEntityTracker entityTracker = this.entityTrackers.get(worldServer);
+    	if(entityTracker == null)
+    	{
+    		entityTracker = new OTGEntityTracker(worldServer);
+    		this.entityTrackers.put(worldServer, entityTracker);
+    	}
+    	return entityTracker;
+    }
+
 	@SubscribeEvent
 	public void onServerTick(ServerTickEvent event)
 	{
@@ -290,115 +324,53 @@ public class ServerTickHandler
                 }
             }
 
-    		Stack<Object[]> playerCoords = new Stack<Object[]>();
-    		for (int a = 0; a < worldServer.playerEntities.size(); ++a)
-    		{
-    			EntityPlayer player = (EntityPlayer)worldServer.playerEntities.get(a);
-    			playerCoords.add(new Object[] { player.posX, player.posY, player.posZ, player });
-    		}
+			OTGEntityTracker entityTracker = getEntityTracker(worldServer);
+			entityTracker.updatePlayers(worldServer.playerEntities);
 
 			double maxDistToClosestPlayer = 33.0d;
 			double maxDistToClosestPlayerSq = maxDistToClosestPlayer * maxDistToClosestPlayer;
 
-	        for (int x = 0; x < worldServer.loadedEntityList.size(); x++)
-	        {
-	        	Entity entity = ((Entity)worldServer.loadedEntityList.get(x));
-	            NBTTagCompound entityData = entity.getEntityData();
-
-	            if(entityData.hasKey("OTG"))
-	            {
-	            	// Don't de-spawn if there is a player near the entity
-        			boolean playerInRange = false;
-        			for (int a = 0; a < playerCoords.size(); ++a)
-                    {
-        		        float f = (float)((Double)playerCoords.get(a)[0] - entity.posX);
-        		        float f1 = (float)((Double)playerCoords.get(a)[1] - entity.posY);
-        		        float f2 = (float)((Double)playerCoords.get(a)[2] - entity.posZ);
-        		        double distance = f * f + f1 * f1 + f2 * f2;
-
-                    	if(distance < maxDistToClosestPlayerSq)
-                    	{
-                    		playerInRange = true;
-                    		break;
-                    	}
-                    }
-        			if(playerInRange)
-        			{
-        				continue;
-        			}
-
-	            	int despawnTimer = entityData.getInteger("OTGDT"); // OTG Despawn Timer
-	            	if(despawnTimer <= 1)
-	            	{
-	            		// Time's up, despawn
-	            		entity.setDead();
-
-	            	} else {
-	            		entityData.setInteger("OTGDT", despawnTimer - 1); // OTG Despawn Timer
-	            	}
-	            }
-	        }
+			entityTracker.tickDespawnTimers(maxDistToClosestPlayerSq);
 
             Random random = new Random();
 
             // OTG mob spawning
-    		Stack<SpawnerFunction<?>> spawnerDataSortedByDistance = new Stack<SpawnerFunction<?>>();
-    		Stack<Object[]> spawnerDatasWithDistance = new Stack<Object[]>();
+            // Keep the spawners closest to a player, the head of the queue is the furthest one
+    		PriorityQueue<SpawnerWithDistance> closestSpawners = new PriorityQueue<SpawnerWithDistance>();
 
             for (ChunkCoordinate chunkcoordintpair1 : this.eligibleChunksForSpawning.keySet())
             {
                 if (!this.eligibleChunksForSpawning.get(chunkcoordintpair1))
                 {
-                	ArrayList<SpawnerFunction<?>> spawnerDataForOTG = world.getWorldSession().getSpawnersForChunk(ChunkCoordinate.fromChunkCoords(chunkcoordintpair1.getChunkX(), chunkcoordintpair1.getChunkZ()));
+                	List<SpawnerFunction<?>> spawnerDataForOTG = world.getWorldSession().getSpawnersForChunk(ChunkCoordinate.fromChunkCoords(chunkcoordintpair1.getChunkX(), chunkcoordintpair1.getChunkZ()));
 
                 	if(spawnerDataForOTG != null && spawnerDataForOTG.size() > 0)
                 	{
                 		for(SpawnerFunction<?> spawnerData : spawnerDataForOTG)
                 		{
-                			double distToClosestPlayer = maxDistToClosestPlayerSq;
+                			double distToClosestPlayer = entityTracker.getDistanceSqToClosestPlayer(spawnerData.x, spawnerData.y, spawnerData.z, maxDistToClosestPlayerSq);
 
-                			for (int a = 0; a < playerCoords.size(); ++a)
+                            if(distToClosestPlayer > 0 && distToClosestPlayer < maxDistToClosestPlayerSq)
                             {
-                		        float f = (float)((Double)playerCoords.get(a)[0] - spawnerData.x);
-                		        float f1 = (float)((Double)playerCoords.get(a)[1] - spawnerData.y);
-                		        float f2 = (float)((Double)playerCoords.get(a)[2] - spawnerData.z);
-                		        double distance = f * f + f1 * f1 + f2 * f2;
-
-                            	if(distance < distToClosestPlayer)
+                            	if(closestSpawners.size() < MAX_SPAWNERS_PER_CYCLE)
                             	{
-                            		distToClosestPlayer = distance;
+                            		closestSpawners.add(new SpawnerWithDistance(spawnerData, distToClosestPlayer));
+                            	}
+                            	else if(distToClosestPlayer < closestSpawners.peek().distance)
+                            	{
+                            		closestSpawners.poll();
+                            		closestSpawners.add(new SpawnerWithDistance(spawnerData, distToClosestPlayer));
                             	}
-                            }
-
-                            if(distToClosestPlayer > 0 && distToClosestPlayer < maxDistToClosestPlayerSq)
-                            {
-		                    	if(spawnerDatasWithDistance.size() == 0)
-		                    	{
-		                    		spawnerDatasWithDistance.add(new Object[] { distToClosestPlayer, spawnerData });
-		                    	} else {
-    		                    	for(int r = 0; r < spawnerDatasWithDistance.size(); r++)
-    		                    	{
-    		                    		if(distToClosestPlayer < (Double)spawnerDatasWithDistance.get(r)[0])
-    		                    		{
-    		                    			spawnerDatasWithDistance.add(r, new Object[] { distToClosestPlayer, spawnerData });
-    		                    			break;
-    		                    		}
-    		                    		else if(r == spawnerDatasWithDistance.size() - 1)
-    		                    		{
-    		                    			spawnerDatasWithDistance.add(new Object[] { distToClosestPlayer, spawnerData });
-    		                    			break;
-    		                    		}
-    		                    	}
-		                    	}
                             }
                 		}
                 	}
                 }
             }
 
-            for(Object[] spawnerDataWithDistance : spawnerDatasWithDistance)
+            SpawnerFunction<?>[] spawnerDataSortedByDistance = new SpawnerFunction<?>[closestSpawners.size()];
+            for(int i = spawnerDataSortedByDistance.length - 1; i >= 0; i--)
             {
-            	spawnerDataSortedByDistance.add((SpawnerFunction<?>)spawnerDataWithDistance[1]);
+            	spawnerDataSortedByDistance[i] = closestSpawners.poll().spawner;
             }
 
     		for(SpawnerFunction<?> spawnerData : spawnerDataSortedByDistance)
@@ -478,26 +450,8 @@ public class ServerTickHandler
                     	throw new RuntimeException();
                     }
 
-			        int worldMobCount = 0;
 			        int mobCountRadius = 32;
-			        for (int x = 0; x < worldServer.loadedEntityList.size(); x++)
-			        {
-			        	Entity entity1 = ((Entity)worldServer.loadedEntityList.get(x));
-			            if (entity1.getClass() == entityClass && entity1.getEntityData().hasKey("OTG"))
-			            {
-			            	if(
-		            			entity1.posX >= spawnerData.x - mobCountRadius &&
-		            			entity1.posX <= spawnerData.x + mobCountRadius &&
-            					entity1.posY >= spawnerData.y - mobCountRadius &&
-								entity1.posY <= spawnerData.y + mobCountRadius &&
-		            			entity1.posZ >= spawnerData.z - mobCountRadius &&
-		            			entity1.posZ <= spawnerData.z + mobCountRadius
-	            			)
-			            	{
-				            	worldMobCount++;
-			            	}
-			            }
-			        }
+			        int worldMobCount = entityTracker.countEntities(entityClass, spawnerData.x, spawnerData.y, spawnerData.z, mobCountRadius);
 
 			        if(worldMobCount >= max)
 					{
@@ -697,9 +651,9 @@ public class ServerTickHandler
                 }
             }
 
-			for (int a = 0; a < playerCoords.size(); ++a)
+			for (int a = 0; a < worldServer.playerEntities.size(); ++a)
             {
-				EntityPlayer player = (EntityPlayer)playerCoords.get(a)[3];
+				EntityPlayer player = (EntityPlayer)worldServer.playerEntities.get(a);
 				ArrayList<ParticleFunction<?>> particleDataForOTGPerPlayer = new ArrayList<ParticleFunction<?>>();
 
                 for (ChunkCoordinate chunkcoordintpair1 : this.eligibleChunksForSpawning.keySet())
@@ -707,15 +661,15 @@ public class ServerTickHandler
                     if (!this.eligibleChunksForSpawning.get(chunkcoordintpair1))
                     {
                     	ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkcoordintpair1.getChunkX(), chunkcoordintpair1.getChunkZ());
-                    	ArrayList<ParticleFunction<?>> particleDataForOTG = world.getWorldSession().getParticlesForChunk(chunkCoord);
+                    	List<ParticleFunction<?>> particleDataForOTG = world.getWorldSession().getParticlesForChunk(chunkCoord);
 
                     	if(particleDataForOTG != null && particleDataForOTG.size() > 0)
                     	{
                     		for(ParticleFunction<?> particleData : particleDataForOTG)
                     		{
-                		        float f = (float)((Double)playerCoords.get(a)[0] - particleData.x);
-                		        float f1 = (float)((Double)playerCoords.get(a)[1] - particleData.y);
-                		        float f2 = (float)((Double)playerCoords.get(a)[2] - particleData.z);
+                		        float f = (float)(player.posX - particleData.x);
+                		        float f1 = (float)(player.posY - particleData.y);
+                		        float f2 = (float)(player.posZ - particleData.z);
                 		        double distance = f * f + f1 * f1 + f2 * f2;
 
                                 if(distance > 0 && distance < maxDistToClosestPlayerSq)
@@ -847,4 +801,27 @@ public class ServerTickHandler
 			OTGTeleporter.changeDimension(newDimension, (EntityPlayerMP)e, false, false);
 		}
     }
+
+    /**
+     * A spawner and the squared distance to the closest player. Ordered
+     * furthest first, so that the head of a queue of these is the spawner
+     * to drop when the queue is full.
+     */
+    private static class SpawnerWithDistance implements Comparable<SpawnerWithDistance>
+    {
+    	private final SpawnerFunction<?> spawner;
+    	private final double distance;
+
+    	SpawnerWithDistance(SpawnerFunction<?> spawner, double distance)
+    	{
+    		this.spawner = spawner;
+    		this.distance = distance;
+    	}
+
+		@Override
+		public int compareTo(SpawnerWithDistance other)
+		{
+			return Double.compare(other.distance, this.distance);
+		}
+    }
 }
@@ -1,10 +1,13 @@
 package com.pg85.otg.forge.generator;
 
+import java.util.Arrays;
+
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.forge.util.ForgeMaterialData;
 import com.pg85.otg.generator.ChunkBuffer;
 import com.pg85.otg.util.ChunkCoordinate;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
@@ -15,6 +18,9 @@ import net.minecraft.world.chunk.ChunkPrimer;
  * data, as well as extended ids. It uses a {@code Block[]} array to store
  * blocks internally, just like Minecraft does for chunk generation.
  *
+ * <p>Runs and columns of blocks are written to the block state ids of the
+ * {@link ChunkPrimer} directly, so that the id of a block state is looked up
+ * once per run instead of once per block.</p>
  */
 public class ForgeChunkBuffer implements ChunkBuffer
 {
@@ -51,6 +57,60 @@ public class ForgeChunkBuffer implements ChunkBuffer
         return ForgeMaterialData.ofMinecraftBlockState(blockState);
     }
 
+    // ChunkPrimer stores blocks as x << 12 | z << 8 | y
+    private static int getColumnStart(int blockX, int blockZ)
+    {
+        return blockX << 12 | blockZ << 8;
+    }
+
+    private static char getStateId(LocalMaterialData material)
+    {
+        // The same as ChunkPrimer.setBlockState
+        return (char) Block.BLOCK_STATE_IDS.get(((ForgeMaterialData) material).internalBlock());
+    }
+
+    @Override
+    public void setBlocks(int blockX, int blockZ, int fromY, int toY, LocalMaterialData material)
+    {
+        int columnStart = getColumnStart(blockX, blockZ);
+        Arrays.fill(this.chunkPrimer.data, columnStart + fromY, columnStart + toY, getStateId(material));
+    }
+
+    @Override
+    public void setBlockColumn(int blockX, int blockZ, int fromY, int toY, LocalMaterialData[] blocks)
+    {
+        char[] data = this.chunkPrimer.data;
+        int columnStart = getColumnStart(blockX, blockZ);
+        LocalMaterialData lastMaterial = null;
+        char lastStateId = 0;
+        for (int y = fromY; y < toY; y++)
+        {
+            if (blocks[y] != lastMaterial)
+            {
+                lastMaterial = blocks[y];
+                lastStateId = getStateId(lastMaterial);
+            }
+            data[columnStart + y] = lastStateId;
+        }
+    }
+
+    @Override
+    public void getBlockColumn(int blockX, int blockZ, LocalMaterialData[] blocks)
+    {
+        IBlockState lastBlockState = null;
+        LocalMaterialData lastMaterial = null;
+        for (int y = 0; y < blocks.length; y++)
+        {
+            IBlockState blockState = this.chunkPrimer.getBlockState(blockX, y, blockZ);
+            if (blockState != lastBlockState)
+            {
+                lastBlockState = blockState;
+                lastMaterial = ForgeMaterialData.ofMinecraftBlockState(blockState);
+            }
+            blocks[y] = lastMaterial;
+        }
+    }
+
     /**
      * Creates a Minecraft chunk of the data of this chunk buffer.
      *
@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.WeakHashMap;
 
 import com.pg85.otg.OTG;
 import com.pg85.otg.common.LocalBiome;
@@ -20,10 +21,12 @@ import com.pg85.otg.forge.OTGPlugin;
 import com.pg85.otg.forge.util.ForgeMaterialData;
 import com.pg85.otg.forge.util.NBTHelper;
 import com.pg85.otg.forge.world.ForgeWorld;
+import com.pg85.otg.generator.ChunkHeightMap;
 import com.pg85.otg.generator.ChunkProviderOTG;
 import com.pg85.otg.generator.ObjectSpawner;
 import com.pg85.otg.generator.biome.OutputType;
 import com.pg85.otg.logging.LogMarker;
+import com.pg85.otg.logging.PerformanceStats;
 import com.pg85.otg.network.ConfigProvider;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.FifoMap;
@@ -104,11 +107,17 @@ public class OTGChunkGenerator implements IChunkGenerator
     // Caches
 	private ArrayList<ChunkCoordinate> populatedChunks;
     private FifoMap<ChunkCoordinate, ChunkColumns> unloadedChunkCache = new FifoMap<ChunkCoordinate, ChunkColumns>(128);
+    // Heights take up much less memory than chunks, so many more are kept. Must be larger
+    // than unloadedChunkCache, so that every chunk in there also has its heights cached.
+    private FifoMap<ChunkCoordinate, ChunkHeightMap> unloadedHeightMapCache = new FifoMap<ChunkCoordinate, ChunkHeightMap>(2048);
+    // Terrain of the chunks generated for unloadedChunkCache, kept for when the chunks are really generated.
+    private final SpeculativeTerrainStore speculativeTerrain = new SpeculativeTerrainStore();
     private Map<ChunkCoordinate,Chunk> loadedChunkCache = new HashMap<ChunkCoordinate, Chunk>();
     private Chunk lastUsedChunk;
     private int lastUsedChunkX;
     private int lastUsedChunkZ;
     private ForgeChunkBuffer chunkBuffer;    
+    private final PopulationWriteBuffer writeBuffer;
     //   
     
     // The first run is used by MC to check for suitable locations for the spawn location. For some reason the spawn location must be on grass.
@@ -125,6 +134,12 @@ public class OTGChunkGenerator implements IChunkGenerator
      */
     private int[] biomeShortArray;
     private	DataFixer dataFixer = DataFixesManager.createFixer();
+    /**
+     * Tile entity data of each loaded NBT file, converted to a Minecraft tag
+     * and updated to the current Minecraft format. NBT files are loaded once
+     * and shared by all blocks using them, so they're looked up by instance.
+     */
+    private final Map<NamedBinaryTag, NBTTagCompound> metadataTemplates = new WeakHashMap<NamedBinaryTag, NBTTagCompound>();
     
     public OTGChunkGenerator(ForgeWorld _world)
     {
@@ -135,6 +150,7 @@ public class OTGChunkGenerator implements IChunkGenerator
         this.generator = new ChunkProviderOTG(this.world.getConfigs(), this.world);
         this.spawner = new ObjectSpawner(this.world.getConfigs(), this.world);
         this.populatedChunks = new ArrayList<ChunkCoordinate>();
+        this.writeBuffer = new PopulationWriteBuffer(_world);
     }
     
 	public void setAllowSpawningOutsideBounds(boolean allowSpawningOutsideBounds)
@@ -153,6 +169,8 @@ public class OTGChunkGenerator implements IChunkGenerator
     	if(!onlyLoadedChunks)
     	{
     		unloadedChunkCache.clear();
+    		unloadedHeightMapCache.clear();
+    		speculativeTerrain.clear();
     	}
     }
 
@@ -245,16 +263,31 @@ public class OTGChunkGenerator implements IChunkGenerator
         	//throw new RuntimeException();
         }
 
-        fixSpawnChunk();
-
-        DimensionConfig dimConfig = OTG.getDimensionsConfig().getDimensionConfig(world.getName());
-        if(dimConfig.Settings.SpawnPointSet)
+        // Lighting and client updates for the blocks placed are done once
+        // per chunk when the outermost populate call is done
+        boolean flushWrites = this.writeBuffer.begin();
+        try
         {
-    		world.getWorld().provider.setSpawnPoint(new BlockPos(dimConfig.Settings.SpawnPointX, dimConfig.Settings.SpawnPointY, dimConfig.Settings.SpawnPointZ));
-    		dimConfig.Settings.SpawnPointSet = false; // This will reset when the world is reloaded, so if users manually reconfigure the spawn point it will be reverted. They will have to set spawnPointSet: false to prevent this.
+	        fixSpawnChunk();
+	
+	        DimensionConfig dimConfig = OTG.getDimensionsConfig().getDimensionConfig(world.getName());
+	        if(dimConfig.Settings.SpawnPointSet)
+	        {
+	    		world.getWorld().provider.setSpawnPoint(new BlockPos(dimConfig.Settings.SpawnPointX, dimConfig.Settings.SpawnPointY, dimConfig.Settings.SpawnPointZ));
+	    		dimConfig.Settings.SpawnPointSet = false; // This will reset when the world is reloaded, so if users manually reconfigure the spawn point it will be reverted. They will have to set spawnPointSet: false to prevent this.
+	        }
+	
+	        this.spawner.populate(chunkCoord);
+        }
+        finally
+        {
+        	// Also when populating failed, or the writes of all later
+        	// populate calls would stay deferred for good
+	        if(flushWrites)
+	        {
+	        	this.writeBuffer.flush();
+	        }
         }
-
-        this.spawner.populate(chunkCoord);
 
         BlockSand.fallInstantly = false;
         BlockGravel.fallInstantly = false;
@@ -485,8 +518,16 @@ public class OTGChunkGenerator implements IChunkGenerator
     		chunk = new Chunk(this.world.getWorld(), chunkX, chunkZ);
 
     		ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
-    		chunkBuffer = new ForgeChunkBuffer(chunkCoord);
-    		this.generator.generate(chunkBuffer);
+    		// Reuse the terrain if it was generated before for OTG+ height queries
+    		chunkBuffer = speculativeTerrain.take(chunkCoord);
+    		if(chunkBuffer != null)
+    		{
+    			PerformanceStats.count(PerformanceStats.TERRAIN_REUSED);
+    		} else {
+    			PerformanceStats.count(PerformanceStats.TERRAIN_GENERATED);
+	    		chunkBuffer = new ForgeChunkBuffer(chunkCoord);
+	    		this.generator.generate(chunkBuffer);
+    		}
 
     		// Before starting terrain generation MC tries to find a suitable spawn point. For some reason it looks for a grass block with an air block above it.
     		// To prevent MC from looking in many chunks (if there is no grass block nearby) and causing them to be populated place grass in the first requested chunk
@@ -523,7 +564,9 @@ public class OTGChunkGenerator implements IChunkGenerator
 	        {
 	        	chunk.generateSkylightMap(); // Normally chunks are lit in the ObjectSpawner after finishing their population step, TerrainTest skips the population step though so light blocks here.
 	        }
+	        PerformanceStats.count(PerformanceStats.TERRAIN_REUSED);
         	unloadedChunkCache.remove(ChunkCoordinate.fromChunkCoords(chunkX,chunkZ));
+        	speculativeTerrain.remove(ChunkCoordinate.fromChunkCoords(chunkX,chunkZ));
     	}
 
     	return chunk;
@@ -553,8 +596,6 @@ public class OTGChunkGenerator implements IChunkGenerator
     public LocalMaterialData[] getBlockColumnInUnloadedChunk(int x, int z)
     {
     	ChunkCoordinate chunkCoord = ChunkCoordinate.fromBlockCoords(x, z);    	
-    	int chunkX = chunkCoord.getChunkX();
-    	int chunkZ = chunkCoord.getChunkZ();
     	
 		// Get internal coordinates for block in chunk
     	byte blockX = (byte)(x &= 0xF);
@@ -579,13 +620,9 @@ public class OTGChunkGenerator implements IChunkGenerator
 
     	if(chunk == null)
     	{
-        	chunk = new Chunk(this.world.getWorld(), chunkX, chunkZ);
-
-    		ForgeChunkBuffer chunkBuffer = new ForgeChunkBuffer(chunkCoord);
-    		this.generator.generate(chunkBuffer);
-    		chunk = chunkBuffer.toChunk(this.world.getWorld());
-        	blockColumnCache = new HashMap<LocalCoords2D, LocalMaterialData[]>(256);
-        	unloadedChunkCache.put(chunkCoord, new ChunkColumns(chunk, blockColumnCache));
+    		chunkCacheEntry = generateUnloadedChunk(chunkCoord);
+    		chunk = chunkCacheEntry.chunk;
+    		blockColumnCache = chunkCacheEntry.blockColumns;
     	}
 
     	LocalMaterialData[] blocksInColumn = new LocalMaterialData[256];
@@ -604,6 +641,21 @@ public class OTGChunkGenerator implements IChunkGenerator
         return blocksInColumn;
     }
     
+    /**
+     * Generates a chunk that doesn't exist yet, and caches it together with
+     * the heights of its columns.
+     */
+    private ChunkColumns generateUnloadedChunk(ChunkCoordinate chunkCoord)
+    {
+		ForgeChunkBuffer chunkBuffer = new ForgeChunkBuffer(chunkCoord);
+		this.generator.generate(chunkBuffer);
+		unloadedHeightMapCache.put(chunkCoord, ChunkHeightMap.of(chunkBuffer, PluginStandardValues.WORLD_HEIGHT - 1));
+		speculativeTerrain.put(chunkCoord, chunkBuffer.getChunkPrimer());
+		ChunkColumns chunkCacheEntry = new ChunkColumns(chunkBuffer.toChunk(this.world.getWorld()), new HashMap<LocalCoords2D, LocalMaterialData[]>(256));
+    	unloadedChunkCache.put(chunkCoord, chunkCacheEntry);
+    	return chunkCacheEntry;
+    }
+
     public LocalMaterialData getMaterialInUnloadedChunk(int x, int y, int z)
     {
     	LocalMaterialData[] blockColumn = getBlockColumnInUnloadedChunk(x,z);
@@ -612,28 +664,15 @@ public class OTGChunkGenerator implements IChunkGenerator
 
     public int getHighestBlockYInUnloadedChunk(int x, int z, boolean findSolid, boolean findLiquid, boolean ignoreLiquid, boolean ignoreSnow)
     {
-    	int height = -1;
-
-    	LocalMaterialData[] blockColumn = getBlockColumnInUnloadedChunk(x,z);
-
-        for(int y = 255; y > -1; y--)
-        {
-        	ForgeMaterialData material = (ForgeMaterialData) blockColumn[y];
-        	boolean isLiquid = material.isLiquid();
-        	boolean isSolid = material.isSolid() || (!ignoreSnow && material.toDefaultMaterial().equals(DefaultMaterial.SNOW));
-        	if(!(isLiquid && ignoreLiquid))
-        	{
-            	if((findSolid && isSolid) || (findLiquid && isLiquid))
-        		{
-            		return y;
-        		}
-            	if((findSolid && isLiquid) || (findLiquid && isSolid))
-            	{
-            		return -1;
-            	}
-        	}
-        }
-    	return height;
+    	// Only the heights of the chunk are needed, which are kept much longer than the chunk itself
+    	ChunkCoordinate chunkCoord = ChunkCoordinate.fromBlockCoords(x, z);
+    	ChunkHeightMap heightMap = unloadedHeightMapCache.get(chunkCoord);
+    	if(heightMap == null)
+    	{
+    		generateUnloadedChunk(chunkCoord);
+    		heightMap = unloadedHeightMapCache.get(chunkCoord);
+    	}
+    	return heightMap.getHighestBlockY(x, z, findSolid, findLiquid, ignoreLiquid, ignoreSnow);
     }
     
     public void setBlock(int x, int y, int z, LocalMaterialData material, NamedBinaryTag metaDataTag, boolean allowOutsidePopulatingArea)
@@ -685,7 +724,7 @@ public class OTGChunkGenerator implements IChunkGenerator
 	    	attachMetadata(x, y, z, metaDataTag, allowOutsidePopulatingArea);
 	    }
 
-    	this.world.getWorld().markAndNotifyBlock(pos, chunk, iblockstate, newState, 2 | 16);
+    	this.writeBuffer.blockChanged(chunk, pos, iblockstate, newState);
     }
 
     private IBlockState setBlockState(Chunk _this, BlockPos pos, IBlockState state)
@@ -748,7 +787,7 @@ public class OTGChunkGenerator implements IChunkGenerator
             {
                 return null;
             } else {
-                if (flag)
+                if (flag && !this.writeBuffer.deferSkylightMap(_this))
                 {
                     _this.generateSkylightMap();
                 }
@@ -805,17 +844,12 @@ public class OTGChunkGenerator implements IChunkGenerator
     
     private void attachMetadata(int x, int y, int z, NamedBinaryTag tag, boolean allowOutsidePopulatingArea)
     {
-        // Convert Tag to a native nms tag
-        NBTTagCompound nmsTag = NBTHelper.getNMSFromNBTTagCompound(tag);
-        // Add the x, y and z position to it
+        // Copy the native nms tag of the NBT file and add the x, y and z
+        // position to it
+        NBTTagCompound nmsTag = getMetadataTemplate(tag).copy();
         nmsTag.setInteger("x", x);
         nmsTag.setInteger("y", y);
         nmsTag.setInteger("z", z);
-        // Update to current Minecraft format (maybe we want to do this at
-        // server startup instead, and then save the result?)
-        // TODO: Use datawalker instead
-        //nmsTag = this.dataFixer.process(FixTypes.BLOCK_ENTITY, nmsTag, -1);
-        nmsTag = this.dataFixer.process(FixTypes.BLOCK_ENTITY, nmsTag);
 
         // Add that data to the current tile entity in the world
         TileEntity tileEntity = this.world.getWorld().getTileEntity(new BlockPos(x, y, z));
@@ -830,6 +864,23 @@ public class OTGChunkGenerator implements IChunkGenerator
         }
     }    
     
+    private NBTTagCompound getMetadataTemplate(NamedBinaryTag tag)
+    {
+        NBTTagCompound template = this.metadataTemplates.get(tag);
+        if (template == null)
+        {
+            // Convert Tag to a native nms tag
+            template = NBTHelper.getNMSFromNBTTagCompound(tag);
+            // Update to current Minecraft format, the fixes for tile
+            // entities don't depend on the position of the tile entity
+            // TODO: Use datawalker instead
+            //template = this.dataFixer.process(FixTypes.BLOCK_ENTITY, template, -1);
+            template = this.dataFixer.process(FixTypes.BLOCK_ENTITY, template);
+            this.metadataTemplates.put(tag, template);
+        }
+        return template;
+    }
+
     // Structures
 
     @Override
@@ -0,0 +1,160 @@
+package com.pg85.otg.forge.generator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+import com.pg85.otg.forge.world.ForgeWorld;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Collects the work that {@link OTGChunkGenerator#setBlock} would otherwise
+ * do for every single block placed while populating, and does it once per
+ * chunk when population of the area is done.
+ *
+ * <p>Blocks are still written to the chunks right away, as resources and
+ * objects check the blocks placed before them. Two things are deferred:</p>
+ * <ul>
+ * <li>Recalculating the sky light of a whole chunk whenever a block is
+ * placed in an empty chunk section. This is only deferred for chunks that
+ * haven't been lit yet, which Minecraft lights in full once they're
+ * populated anyway. The height map of the changed column is still updated
+ * right away.</li>
+ * <li>Notifying the world's listeners of block changes, which sends them to
+ * clients and updates the paths of mobs. This only happens for chunks that
+ * are already fully populated, like World.markAndNotifyBlock does. Each
+ * changed block is notified once, no matter how often it was written. The
+ * player chunk map still sends more than 64 changes in a chunk as one packet
+ * with the changed sections.</li>
+ * </ul>
+ * <p>Only used on the server thread.</p>
+ */
+class PopulationWriteBuffer
+{
+    private final ForgeWorld world;
+    private final HashMap<Long, ChunkWrites> chunkWrites = new HashMap<Long, ChunkWrites>();
+    private final ArrayList<ChunkWrites> chunkWritesInOrder = new ArrayList<ChunkWrites>();
+    private boolean active = false;
+
+    PopulationWriteBuffer(ForgeWorld world)
+    {
+        this.world = world;
+    }
+
+    /**
+     * Starts collecting writes, unless already collecting, which happens
+     * when a chunk is populated while another chunk is being populated.
+     * @return True if collecting was started, in which case the caller
+     *         must call {@link #flush()} when done, also if populating
+     *         failed.
+     */
+    boolean begin()
+    {
+        if (this.active)
+        {
+            return false;
+        }
+        this.active = true;
+        return true;
+    }
+
+    /**
+     * Marks the sky light of the given chunk to be recalculated when the
+     * writes are flushed, if the chunk hasn't been lit yet.
+     * @return True if recalculating was deferred, false if the caller must
+     *         recalculate the sky light itself.
+     */
+    boolean deferSkylightMap(Chunk chunk)
+    {
+        if (!this.active || chunk.isLightPopulated())
+        {
+            return false;
+        }
+        getChunkWrites(chunk).regenerateSkylightMap = true;
+        return true;
+    }
+
+    /**
+     * Notifies the world's listeners of the change of the given block, right
+     * away or when the writes are flushed.
+     */
+    void blockChanged(Chunk chunk, BlockPos pos, IBlockState oldState, IBlockState newState)
+    {
+        if (!this.active)
+        {
+            this.world.getWorld().markAndNotifyBlock(pos, chunk, oldState, newState, 2 | 16);
+            return;
+        }
+        if (!chunk.isPopulated())
+        {
+            // Changes in chunks that aren't populated aren't sent to
+            // clients, see World.markAndNotifyBlock
+            return;
+        }
+
+        getChunkWrites(chunk).changedBlocks.set((pos.getX() & 15) << 12 | (pos.getZ() & 15) << 8 | pos.getY());
+    }
+
+    /**
+     * Recalculates the sky light and notifies the block changes of all
+     * chunks written to since {@link #begin()}, and stops collecting writes.
+     */
+    void flush()
+    {
+        this.active = false;
+        World mcWorld = this.world.getWorld();
+        try
+        {
+            for (ChunkWrites writes : this.chunkWritesInOrder)
+            {
+                Chunk chunk = writes.chunk;
+                if (writes.regenerateSkylightMap)
+                {
+                    chunk.generateSkylightMap();
+                }
+                // Notifies all listeners, not only the player chunk map, so
+                // that mobs recalculate paths through the changed blocks
+                for (int packedPos = writes.changedBlocks.nextSetBit(0); packedPos >= 0; packedPos = writes.changedBlocks.nextSetBit(packedPos + 1))
+                {
+                    BlockPos pos = new BlockPos(chunk.x * 16 + (packedPos >> 12), packedPos & 255, chunk.z * 16 + (packedPos >> 8 & 15));
+                    IBlockState state = chunk.getBlockState(pos);
+                    mcWorld.notifyBlockUpdate(pos, state, state, 2 | 16);
+                }
+            }
+        } finally {
+            this.chunkWrites.clear();
+            this.chunkWritesInOrder.clear();
+        }
+    }
+
+    private ChunkWrites getChunkWrites(Chunk chunk)
+    {
+        Long key = Long.valueOf(ChunkPos.asLong(chunk.x, chunk.z));
+        ChunkWrites writes = this.chunkWrites.get(key);
+        if (writes == null)
+        {
+            writes = new ChunkWrites(chunk);
+            this.chunkWrites.put(key, writes);
+            this.chunkWritesInOrder.add(writes);
+        }
+        return writes;
+    }
+
+    private static class ChunkWrites
+    {
+        private final Chunk chunk;
+        private boolean regenerateSkylightMap = false;
+        /** Positions in the chunk of the changed blocks, as x << 12 | z << 8 | y */
+        private final BitSet changedBlocks = new BitSet();
+
+        private ChunkWrites(Chunk chunk)
+        {
+            this.chunk = chunk;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.pg85.otg.forge.generator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.logging.LogMarker;
+import com.pg85.otg.util.ChunkCoordinate;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.world.chunk.ChunkPrimer;
+
+/**
+ * Keeps the terrain of chunks that were generated before Minecraft asked
+ * for them, which OTG+ does to find the height of the terrain where it plots
+ * structures. When Minecraft later asks for one of those chunks, its terrain
+ * is taken from here instead of being generated again.
+ *
+ * <p>The blocks of each chunk are stored deflate-compressed, which mostly
+ * takes a few kilobytes per chunk. The store is limited to
+ * {@link #MAX_STORED_BYTES}; when full, the chunks that were stored first
+ * are dropped. Only used on the server thread.</p>
+ */
+class SpeculativeTerrainStore
+{
+    private static final int MAX_STORED_BYTES = 64 * 1024 * 1024;
+    private static final int BLOCKS_PER_CHUNK = 16 * 16 * 256;
+
+    private final LinkedHashMap<ChunkCoordinate, byte[]> storedChunks = new LinkedHashMap<ChunkCoordinate, byte[]>();
+    private final byte[] blockBytes = new byte[BLOCKS_PER_CHUNK * 2];
+    private final byte[] compressBuffer = new byte[BLOCKS_PER_CHUNK * 2 + 1024];
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Inflater inflater = new Inflater();
+    private long storedBytes = 0;
+
+    /**
+     * Stores the terrain of a chunk, replacing any terrain stored for it
+     * before.
+     * @param chunkCoord The chunk.
+     * @param primer     The blocks of the chunk.
+     */
+    void put(ChunkCoordinate chunkCoord, ChunkPrimer primer)
+    {
+        for (int i = 0; i < BLOCKS_PER_CHUNK; i++)
+        {
+            // ChunkPrimer indexes blocks as x << 12 | z << 8 | y
+            int stateId = Block.BLOCK_STATE_IDS.get(primer.getBlockState(i >> 12, i & 255, (i >> 8) & 15));
+            this.blockBytes[i * 2] = (byte) (stateId >> 8);
+            this.blockBytes[i * 2 + 1] = (byte) stateId;
+        }
+        this.deflater.reset();
+        this.deflater.setInput(this.blockBytes);
+        this.deflater.finish();
+        int length = this.deflater.deflate(this.compressBuffer);
+        if (!this.deflater.finished())
+        {
+            // Can't happen, the buffer is larger than the input
+            return;
+        }
+        byte[] compressed = new byte[length];
+        System.arraycopy(this.compressBuffer, 0, compressed, 0, length);
+
+        remove(chunkCoord);
+        this.storedChunks.put(chunkCoord, compressed);
+        this.storedBytes += compressed.length;
+
+        Iterator<byte[]> oldest = this.storedChunks.values().iterator();
+        while (this.storedBytes > MAX_STORED_BYTES && oldest.hasNext())
+        {
+            this.storedBytes -= oldest.next().length;
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Takes the stored terrain of a chunk out of the store.
+     * @param chunkCoord The chunk.
+     * @return The terrain, or null if none is stored.
+     */
+    ForgeChunkBuffer take(ChunkCoordinate chunkCoord)
+    {
+        byte[] compressed = this.storedChunks.remove(chunkCoord);
+        if (compressed == null)
+        {
+            return null;
+        }
+        this.storedBytes -= compressed.length;
+
+        this.inflater.reset();
+        this.inflater.setInput(compressed);
+        try
+        {
+            if (this.inflater.inflate(this.blockBytes) != this.blockBytes.length)
+            {
+                throw new DataFormatException("Stored chunk is too short");
+            }
+        } catch (DataFormatException e)
+        {
+            OTG.log(LogMarker.WARN, "Could not read the stored terrain of chunk X{} Z{}, generating it again.", chunkCoord.getChunkX(), chunkCoord.getChunkZ());
+            return null;
+        }
+
+        ForgeChunkBuffer chunkBuffer = new ForgeChunkBuffer(chunkCoord);
+        ChunkPrimer primer = chunkBuffer.getChunkPrimer();
+        for (int i = 0; i < BLOCKS_PER_CHUNK; i++)
+        {
+            // A new primer is filled with air, which has id 0
+            int stateId = (this.blockBytes[i * 2] & 0xFF) << 8 | (this.blockBytes[i * 2 + 1] & 0xFF);
+            if (stateId != 0)
+            {
+                IBlockState state = Block.BLOCK_STATE_IDS.getByValue(stateId);
+                if (state != null)
+                {
+                    primer.setBlockState(i >> 12, i & 255, (i >> 8) & 15, state);
+                }
+            }
+        }
+        return chunkBuffer;
+    }
+
+    /**
+     * Drops the stored terrain of a chunk, if any.
+     * @param chunkCoord The chunk.
+     */
+    void remove(ChunkCoordinate chunkCoord)
+    {
+        byte[] compressed = this.storedChunks.remove(chunkCoord);
+        if (compressed != null)
+        {
+            this.storedBytes -= compressed.length;
+        }
+    }
+
+    void clear()
+    {
+        this.storedChunks.clear();
+        this.storedBytes = 0;
+    }
+}
@@ -7,6 +7,8 @@ import com.pg85.otg.forge.world.ForgeWorld;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.util.ChunkCoordinate;
 
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkPrimer;
 import net.minecraft.world.gen.structure.MapGenStructure;
@@ -15,6 +17,7 @@ public abstract class OTGMapGenStructure extends MapGenStructure
 {	
 	ForgeWorld forgeWorld;
 	int doubleBiome;
+	private final StructureStartCache structureStarts = new StructureStartCache();
 	//ArrayList<ChunkCoordinate> usedCoords2 = new ArrayList<ChunkCoordinate>();
 	
 	public OTGMapGenStructure(ForgeWorld world)
@@ -44,10 +47,17 @@ public abstract class OTGMapGenStructure extends MapGenStructure
             	// Checking for insidepregeneratedregion disallows structurestarts in populated areas.
                 //if(!this.forgeWorld.isInsidePregeneratedRegion(ChunkCoordinate.fromChunkCoords(l, i1)))
                 {
+                	// Chunks already known to have no structure start are
+                	// skipped, the rest are looked at once
+                	if(this.structureStarts.hasNoStart(l, i1))
+                	{
+                		continue;
+                	}
                     long j1 = (long)l * j;
                     long k1 = (long)i1 * k;
                     this.rand.setSeed(j1 ^ k1 ^ worldIn.getSeed());
 	                this.recursiveGenerate(worldIn, l, i1, x, z, primer);
+	                this.structureStarts.set(l, i1, this.structureMap.containsKey(ChunkPos.asLong(l, i1)));
                 }
             }
         }
@@ -55,5 +65,20 @@ public abstract class OTGMapGenStructure extends MapGenStructure
         {
         	//OTG.log(LogMarker.INFO, "DOUBLEBIOME: " + doubleBiome);
         }
-    }    	
+    }
+
+	/**
+	 * Same as {@link #isInsideStructure(BlockPos)}, but returns false
+	 * without going through all structures when no structure starts within
+	 * range of the position. Structures never reach further than range, as
+	 * Minecraft only looks for structure starts within range of a chunk.
+	 */
+	public boolean isInsideStructureCached(BlockPos pos)
+	{
+		if(this.structureStarts.hasNoStartWithin(pos.getX() >> 4, pos.getZ() >> 4, this.range))
+		{
+			return false;
+		}
+		return isInsideStructure(pos);
+	}    	
 }
@@ -0,0 +1,113 @@
+package com.pg85.otg.forge.generator.structure;
+
+import java.util.HashMap;
+
+import com.pg85.otg.util.ChunkCoordinate;
+
+/**
+ * Remembers for which chunks a structure generator has already decided
+ * whether a structure starts there, per region of 32x32 chunks.
+ *
+ * <p>Whether a structure starts in a chunk only depends on the seed and the
+ * biomes, so the answer never changes. Minecraft asks again for every chunk
+ * within range of every generated chunk, which is 289 times per chunk for a
+ * range of 8.</p>
+ */
+final class StructureStartCache
+{
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+    private static final int LONGS_PER_REGION = (1 << (REGION_SHIFT * 2)) / 64;
+
+    /**
+     * Per region, the bits of the chunks that were looked at, followed by
+     * the bits of the chunks that have a structure start.
+     */
+    private final HashMap<ChunkCoordinate, long[]> regions = new HashMap<ChunkCoordinate, long[]>();
+    private int lastRegionX = Integer.MIN_VALUE;
+    private int lastRegionZ = Integer.MIN_VALUE;
+    private long[] lastRegion;
+
+    private long[] getRegion(int chunkX, int chunkZ, boolean create)
+    {
+        int regionX = chunkX >> REGION_SHIFT;
+        int regionZ = chunkZ >> REGION_SHIFT;
+        if (regionX == this.lastRegionX && regionZ == this.lastRegionZ && this.lastRegion != null)
+        {
+            return this.lastRegion;
+        }
+        ChunkCoordinate regionCoord = ChunkCoordinate.fromChunkCoords(regionX, regionZ);
+        long[] region = this.regions.get(regionCoord);
+        if (region == null)
+        {
+            if (!create)
+            {
+                return null;
+            }
+            region = new long[LONGS_PER_REGION * 2];
+            this.regions.put(regionCoord, region);
+        }
+        this.lastRegionX = regionX;
+        this.lastRegionZ = regionZ;
+        this.lastRegion = region;
+        return region;
+    }
+
+    private static int getBitIndex(int chunkX, int chunkZ)
+    {
+        return (chunkX & REGION_MASK) << REGION_SHIFT | (chunkZ & REGION_MASK);
+    }
+
+    /**
+     * Records whether a structure starts in the given chunk.
+     */
+    synchronized void set(int chunkX, int chunkZ, boolean hasStart)
+    {
+        long[] region = getRegion(chunkX, chunkZ, true);
+        int index = getBitIndex(chunkX, chunkZ);
+        region[index >> 6] |= 1L << index;
+        if (hasStart)
+        {
+            region[LONGS_PER_REGION + (index >> 6)] |= 1L << index;
+        } else {
+            region[LONGS_PER_REGION + (index >> 6)] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Gets whether it is known that no structure starts in the given chunk.
+     * @return False if a structure starts there, or if it isn't known yet.
+     */
+    synchronized boolean hasNoStart(int chunkX, int chunkZ)
+    {
+        long[] region = getRegion(chunkX, chunkZ, false);
+        if (region == null)
+        {
+            return false;
+        }
+        int index = getBitIndex(chunkX, chunkZ);
+        return (region[index >> 6] & (1L << index)) != 0 && (region[LONGS_PER_REGION + (index >> 6)] & (1L << index)) == 0;
+    }
+
+    /**
+     * Gets whether it is known that no structure starts in any chunk within
+     * the given range of a chunk.
+     * @param range Distance in chunks.
+     * @return False if a structure starts within range, or if that isn't
+     *         known yet for any of the chunks.
+     */
+    synchronized boolean hasNoStartWithin(int chunkX, int chunkZ, int range)
+    {
+        for (int x = chunkX - range; x <= chunkX + range; x++)
+        {
+            for (int z = chunkZ - range; z <= chunkZ + range; z++)
+            {
+                if (!hasNoStart(x, z))
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
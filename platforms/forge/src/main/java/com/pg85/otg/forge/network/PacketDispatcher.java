@@ -4,6 +4,7 @@ import java.lang.reflect.Field;
 import java.util.EnumMap;
 
 import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.forge.network.client.packets.CachedConfigsPacket;
 import com.pg85.otg.forge.network.client.packets.CreateDeleteDimensionPacket;
 import com.pg85.otg.forge.network.client.packets.UpdateDimensionSettingsPacket;
 import com.pg85.otg.forge.network.client.packets.TeleportPlayerPacket;
@@ -45,6 +46,7 @@ public class PacketDispatcher
 		PacketDispatcher.registerMessage(CreateDeleteDimensionPacket.Handler.class, CreateDeleteDimensionPacket.class, Side.SERVER);
 		PacketDispatcher.registerMessage(UpdateDimensionSettingsPacket.Handler.class, UpdateDimensionSettingsPacket.class, Side.SERVER);
 		PacketDispatcher.registerMessage(TeleportPlayerPacket.Handler.class, TeleportPlayerPacket.class, Side.SERVER);
+		PacketDispatcher.registerMessage(CachedConfigsPacket.Handler.class, CachedConfigsPacket.class, Side.SERVER);
 	}
 	
 	private static final void registerMessage(Class handlerClass, Class messageClass, Side side)
@@ -1,6 +1,7 @@
 package com.pg85.otg.forge.network.client;
 
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -10,12 +11,14 @@ import com.pg85.otg.OTG;
 import com.pg85.otg.configuration.dimensions.DimensionConfig;
 import com.pg85.otg.configuration.dimensions.DimensionConfigGui;
 import com.pg85.otg.configuration.dimensions.DimensionsConfig;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.forge.ForgeEngine;
 import com.pg85.otg.forge.dimensions.OTGDimensionManager;
 import com.pg85.otg.forge.dimensions.OTGWorldProvider;
 import com.pg85.otg.forge.gui.dimensions.OTGGuiDimensionList;
 import com.pg85.otg.forge.gui.presets.OTGGuiPresetList;
 import com.pg85.otg.forge.network.PacketDispatcher;
+import com.pg85.otg.forge.network.client.packets.CachedConfigsPacket;
 import com.pg85.otg.forge.network.client.packets.CreateDeleteDimensionPacket;
 import com.pg85.otg.forge.network.client.packets.UpdateDimensionSettingsPacket;
 import com.pg85.otg.forge.world.ForgeWorld;
@@ -139,6 +142,50 @@ public class ClientPacketManager
 		}
 	}
 	
+	// Reply to the hashes in a DimensionSyncPacket with the ones that are in the client cache
+	public static void sendCachedConfigsPacket(DataInputStream wrappedStream) throws IOException
+	{
+		File cacheDirectory = getClientCacheDirectory();
+		ArrayList<Long> cachedHashes = new ArrayList<Long>();
+		int hashCount = wrappedStream.readInt();
+		for(int i = 0; i < hashCount; i++)
+		{
+			long hash = wrappedStream.readLong();
+			if(ClientConfigProvider.isConfigsCached(cacheDirectory, hash))
+			{
+				cachedHashes.add(hash);
+			}
+		}
+
+        ByteBuf nettyBuffer = Unpooled.buffer();
+        ByteBufOutputStream stream = new ByteBufOutputStream(nettyBuffer);
+
+        try
+        {
+        	CachedConfigsPacket.writeToStream(cachedHashes, stream);
+		}
+        catch (IOException e1)
+        {
+			e1.printStackTrace();
+		} finally {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		if(nettyBuffer != null)
+		{
+        	PacketDispatcher.sendToServer(new CachedConfigsPacket(nettyBuffer));
+		}
+	}
+
+	private static File getClientCacheDirectory()
+	{
+		return new File(OTG.getEngine().getOTGRootFolder(), PluginStandardValues.ClientCacheDirectoryName);
+	}
+	
 	public static void registerClientWorlds(DataInputStream wrappedStream, WorldLoader worldLoader) throws IOException
 	{		
 		DimensionsConfig dimsConfig = DimensionsConfig.fromYamlString(StreamHelper.readStringFromStream(wrappedStream)); 
@@ -156,6 +203,7 @@ public class ClientPacketManager
 		
 		HashMap<Integer, String> dimsToRemove = OTGDimensionManager.getAllOTGDimensions(); // TODO: use String[] instead?
 		boolean isSinglePlayer = Minecraft.getMinecraft().isSingleplayer();
+		File cacheDirectory = getClientCacheDirectory();
 		
 		for(int i = 0; i < worldCount; i++)
 		{
@@ -178,6 +226,7 @@ public class ClientPacketManager
 			}
 	
 			String worldName = StreamHelper.readStringFromStream(wrappedStream);
+			DataInputStream configStream = ClientConfigProvider.readCompressedConfigs(wrappedStream, cacheDirectory);
 			
 			// Overworld can be null for MP clients
 			if(!DimensionManager.isDimensionRegistered(dimensionId) || (dimensionId == 0 && ((ForgeEngine)OTG.getEngine()).getOverWorld() == null))
@@ -190,14 +239,14 @@ public class ClientPacketManager
 				ForgeWorld world = new ForgeWorld(worldName);
 				world.isLoadedOnServer = worldIsLoaded;
 				world.clientDimensionId = dimensionId;
-	            ClientConfigProvider configs = new ClientConfigProvider(wrappedStream, world, isSinglePlayer);
+	            ClientConfigProvider configs = new ClientConfigProvider(configStream, world, isSinglePlayer);
 	            
 	            world.provideClientConfigs(configs);
 	            worldLoader.LoadClientWorldFromPacket(world);
 			} else {
 	
 				// World already exists, read the data from the stream but don't create a world.
-				new ClientConfigProvider(wrappedStream, new ForgeWorld(worldName), isSinglePlayer);
+				new ClientConfigProvider(configStream, new ForgeWorld(worldName), isSinglePlayer);
 			}
 		}
 	
@@ -0,0 +1,78 @@
+package com.pg85.otg.forge.network.client.packets;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.forge.network.AbstractServerMessageHandler;
+import com.pg85.otg.forge.network.OTGPacket;
+import com.pg85.otg.forge.network.server.ServerPacketManager;
+import com.pg85.otg.logging.LogMarker;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+// Reply to the hashes sent in a DimensionSyncPacket, listing the world settings
+// the client has cached so the server only sends the missing ones.
+public class CachedConfigsPacket extends OTGPacket
+{
+	public CachedConfigsPacket()
+	{
+		super();
+	}
+	
+	public CachedConfigsPacket(ByteBuf nettyBuffer)
+	{
+		super(nettyBuffer);
+	}
+	
+	public static void writeToStream(Collection<Long> cachedHashes, DataOutput stream) throws IOException
+	{
+    	stream.writeInt(PluginStandardValues.ProtocolVersion);
+    	stream.writeInt(0); // 0 == Normal packet
+    	
+    	stream.writeInt(cachedHashes.size());
+    	for(long hash : cachedHashes)
+    	{
+    		stream.writeLong(hash);
+    	}
+	}
+	
+	public static class Handler extends AbstractServerMessageHandler<CachedConfigsPacket>
+	{
+		@Override
+		public IMessage handleServerMessage(EntityPlayer player, CachedConfigsPacket message, MessageContext ctx)
+		{			
+			try
+			{
+				int packetType = message.getStream().readInt();
+				if(packetType == 0) // Normal packet
+				{
+					HashSet<Long> cachedHashes = new HashSet<Long>();
+					int hashCount = message.getStream().readInt();
+					for(int i = 0; i < hashCount; i++)
+					{
+						cachedHashes.add(message.getStream().readLong());
+					}
+					ServerPacketManager.sendDimensionSyncPacket(cachedHashes, ctx.getServerHandler().netManager);
+				} else {
+					throw new RuntimeException();
+				}
+	        }
+	        catch (Exception e)
+	        {
+	            OTG.log(LogMarker.FATAL, "Failed to receive packet");
+	            OTG.printStackTrace(LogMarker.FATAL, e);
+	        } finally {
+	        	// Finally is executed even if we return inside try
+				message.getData().release();
+			}
+			return null;
+		}
+	}		
+}
@@ -2,6 +2,7 @@ package com.pg85.otg.forge.network.server;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Set;
 
 import com.pg85.otg.customobjects.bofunctions.ParticleFunction;
 import com.pg85.otg.forge.network.PacketDispatcher;
@@ -14,6 +15,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.NetworkManager;
 import net.minecraft.server.MinecraftServer;
 import net.minecraftforge.fml.common.network.FMLNetworkEvent.ServerConnectionFromClientEvent;
 
@@ -29,7 +31,7 @@ public class ServerPacketManager
     	
         try
         {
-    		DimensionSyncPacket.writeToStream(stream);
+    		DimensionSyncPacket.writeHashesToStream(stream);
 		}
         catch (IOException e1)
         {
@@ -58,7 +60,7 @@ public class ServerPacketManager
 		
         try
         {
-    		DimensionSyncPacket.writeToStream(stream);
+    		DimensionSyncPacket.writeHashesToStream(stream);
 		}
         catch (IOException e1)
         {
@@ -79,6 +81,33 @@ public class ServerPacketManager
 		}
 	}	
 	
+	// Sent in reply to the CachedConfigsPacket, with the settings of the worlds the client doesn't have cached
+	public static void sendDimensionSyncPacket(Set<Long> cachedOnClient, NetworkManager manager)
+	{
+        ByteBuf nettyBuffer = Unpooled.buffer();
+        ByteBufOutputStream stream = new ByteBufOutputStream(nettyBuffer);
+		
+        try
+        {
+    		DimensionSyncPacket.writeToStream(stream, cachedOnClient);
+		}
+        catch (IOException e1)
+        {
+			e1.printStackTrace();
+		} finally {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		
+		if(nettyBuffer != null)
+		{
+			PacketDispatcher.sendTo(new DimensionSyncPacket(nettyBuffer), manager);
+		}
+	}
+	
 	public static void sendParticlesPacket(ArrayList<ParticleFunction<?>> particleDataForOTGPerPlayer, EntityPlayerMP player)
 	{
         ByteBuf nettyBuffer = Unpooled.buffer();
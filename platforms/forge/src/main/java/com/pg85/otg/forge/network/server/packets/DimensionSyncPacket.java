@@ -4,6 +4,7 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Set;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.WorldClient;
 import net.minecraft.entity.player.EntityPlayer;
@@ -41,7 +42,32 @@ public class DimensionSyncPacket extends OTGPacket
 		super(nettyBuffer);
 	}
 
-	public static void writeToStream(DataOutput stream) throws IOException
+	// Sent first, the client replies with a CachedConfigsPacket listing the
+	// hashes it has cached, after which the server sends the normal packet.
+	public static void writeHashesToStream(DataOutput stream) throws IOException
+	{
+		OTGDimensionInfo otgDimData = OTGDimensionManager.LoadOrderedDimensionData();
+
+		stream.writeInt(PluginStandardValues.ProtocolVersion);
+		stream.writeInt(1); // 1 == Hashes packet
+
+		stream.writeInt(otgDimData.orderedDimensions.size());
+		for(int i = 0; i <= otgDimData.highestOrder; i++)
+		{
+			if(otgDimData.orderedDimensions.containsKey(i))
+			{
+				DimensionData dimData = otgDimData.orderedDimensions.get(i);
+				LocalWorld localWorld = OTG.getWorld(dimData.dimensionName);
+				if(localWorld == null)
+				{
+					localWorld = OTG.getUnloadedWorld(dimData.dimensionName);
+				}
+				stream.writeLong(ConfigToNetworkSender.getConfigsHash(localWorld.getConfigs(), false));
+			}
+		}
+	}
+
+	public static void writeToStream(DataOutput stream, Set<Long> cachedOnClient) throws IOException
 	{
 	    // Make sure worlds are sent in the correct order.
 		OTGDimensionInfo otgDimData = OTGDimensionManager.LoadOrderedDimensionData();
@@ -80,7 +106,7 @@ public class DimensionSyncPacket extends OTGPacket
 		        try
 		        {
 		        	stream.writeInt(dimData.dimensionId);
-		            ConfigToNetworkSender.writeConfigsToStream(localWorld.getConfigs(), stream, false); // TODO: localWorld is null after /otg dim -c
+		            ConfigToNetworkSender.writeCompressedConfigsToStream(localWorld.getConfigs(), stream, false, cachedOnClient); // TODO: localWorld is null after /otg dim -c
 		        }
 		        catch (IOException e)
 		        {
@@ -95,7 +121,7 @@ public class DimensionSyncPacket extends OTGPacket
 		// TODO: Test this and fix this if necessary.
 		//((ForgeEngine)OTG.getEngine()).UnloadAndUnregisterAllWorlds(); // TODO: Is this necessary for Bukkit?
 	    ForgeWorld world = new ForgeWorld(StreamHelper.readStringFromStream(wrappedStream));
-	    ClientConfigProvider configs = new ClientConfigProvider(wrappedStream, world, Minecraft.getMinecraft().isSingleplayer());
+	    ClientConfigProvider configs = new ClientConfigProvider(ClientConfigProvider.readCompressedConfigs(wrappedStream), world, Minecraft.getMinecraft().isSingleplayer());
 	    world.provideClientConfigsBukkit(mcWorld, configs);
 	    return world;
 	}
@@ -117,6 +143,10 @@ public class DimensionSyncPacket extends OTGPacket
 				if(packetType == 0)
 				{
 					ClientPacketManager.registerClientWorlds(message.getStream(), ((ForgeEngine)OTG.getEngine()).getWorldLoader());
+				}
+				else if(packetType == 1)
+				{
+					ClientPacketManager.sendCachedConfigsPacket(message.getStream());
 				} else {
 					throw new RuntimeException();
 				}
@@ -0,0 +1,103 @@
+package com.pg85.otg.forge.world;
+
+import java.util.IdentityHashMap;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.forge.util.ForgeMaterialData;
+import com.pg85.otg.generator.PopulationWindow;
+import com.pg85.otg.util.ChunkCoordinate;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * Population window of a {@link ForgeWorld}. Blocks in the four chunks
+ * being populated are read straight from the sections of the chunks, and
+ * the {@link ForgeMaterialData} of each block state is only created once.
+ *
+ * <p>Blocks are still placed through the world, which takes care of light,
+ * height maps and tile entities.</p>
+ */
+final class ForgePopulationWindow extends PopulationWindow
+{
+    private final ForgeWorld forgeWorld;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final Chunk[] chunks = new Chunk[4];
+    private final IdentityHashMap<IBlockState, ForgeMaterialData> materials = new IdentityHashMap<IBlockState, ForgeMaterialData>();
+
+    ForgePopulationWindow(ForgeWorld world, ChunkCoordinate populatingChunk)
+    {
+        super(world, populatingChunk);
+        this.forgeWorld = world;
+        this.minChunkX = populatingChunk.getChunkX();
+        this.minChunkZ = populatingChunk.getChunkZ();
+    }
+
+    /**
+     * Gets the block state at the given position.
+     * @return The block state, or null if the block isn't in the window.
+     */
+    private IBlockState getBlockState(int x, int y, int z)
+    {
+        if (y < PluginStandardValues.WORLD_DEPTH || y >= PluginStandardValues.WORLD_HEIGHT)
+        {
+            return null;
+        }
+        int index = getChunkIndex(x, z);
+        if (index == -1)
+        {
+            return null;
+        }
+        Chunk chunk = this.chunks[index];
+        if (chunk == null)
+        {
+            // Chunks are looked up the first time they're used, as
+            // population may not touch all four of them
+            chunk = this.forgeWorld.getChunk((this.minChunkX + (index & 1)) * 16, (this.minChunkZ + (index >> 1)) * 16, false);
+            if (chunk == null)
+            {
+                return null;
+            }
+            this.chunks[index] = chunk;
+        }
+        ExtendedBlockStorage section = chunk.getBlockStorageArray()[y >> 4];
+        if (section == Chunk.NULL_BLOCK_STORAGE)
+        {
+            return Blocks.AIR.getDefaultState();
+        }
+        return section.get(x & 0xF, y & 0xF, z & 0xF);
+    }
+
+    @Override
+    public LocalMaterialData getMaterial(int x, int y, int z)
+    {
+        IBlockState blockState = getBlockState(x, y, z);
+        if (blockState == null)
+        {
+            return super.getMaterial(x, y, z);
+        }
+        ForgeMaterialData material = this.materials.get(blockState);
+        if (material == null)
+        {
+            material = ForgeMaterialData.ofMinecraftBlockState(blockState);
+            this.materials.put(blockState, material);
+        }
+        return material;
+    }
+
+    @Override
+    public boolean isNullOrAir(int x, int y, int z)
+    {
+        IBlockState blockState = getBlockState(x, y, z);
+        if (blockState == null)
+        {
+            return super.isNullOrAir(x, y, z);
+        }
+        return blockState.getMaterial() == Material.AIR;
+    }
+}
@@ -27,7 +27,9 @@ import com.pg85.otg.forge.util.IOHelper;
 import com.pg85.otg.forge.util.MobSpawnGroupHelper;
 import com.pg85.otg.forge.util.NBTHelper;
 import com.pg85.otg.forge.util.WorldHelper;
+import com.pg85.otg.generator.ChunkReplacedBlocks;
 import com.pg85.otg.generator.ObjectSpawner;
+import com.pg85.otg.generator.PopulationWindow;
 import com.pg85.otg.generator.biome.BiomeGenerator;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.network.ClientConfigProvider;
@@ -325,6 +327,12 @@ public class ForgeWorld implements LocalWorld
     {
     	// TODO: Only used for Spigot, remove?
     }
+
+    @Override
+    public PopulationWindow createPopulationWindow(ChunkCoordinate populatingChunk)
+    {
+        return new ForgePopulationWindow(this, populatingChunk);
+    }
     
     // World session
     
@@ -827,14 +835,14 @@ public class ForgeWorld implements LocalWorld
         // Allow OTG structures to spawn on top of strongholds
         // Allow OTG structures to spawn on top of mine shafts
         return 
-		(worldConfig.villagesEnabled && this.villageGen instanceof OTGVillageGen && ((OTGVillageGen)this.villageGen).isInsideStructure(blockPos)) ||
+		(worldConfig.villagesEnabled && this.villageGen instanceof OTGVillageGen && ((OTGVillageGen)this.villageGen).isInsideStructureCached(blockPos)) ||
 		(worldConfig.villagesEnabled && !(this.villageGen instanceof OTGVillageGen) && this.villageGen.isInsideStructure(blockPos)) ||
-        (worldConfig.rareBuildingsEnabled && this.rareBuildingGen instanceof OTGRareBuildingGen && ((OTGRareBuildingGen)this.rareBuildingGen).isInsideStructure(blockPos)) ||
+        (worldConfig.rareBuildingsEnabled && this.rareBuildingGen instanceof OTGRareBuildingGen && ((OTGRareBuildingGen)this.rareBuildingGen).isInsideStructureCached(blockPos)) ||
         (worldConfig.rareBuildingsEnabled && !(this.rareBuildingGen instanceof OTGRareBuildingGen) && this.rareBuildingGen.isInsideStructure(blockPos)) ||
-        (worldConfig.netherFortressesEnabled && this.netherFortressGen.isInsideStructure(blockPos)) ||
-        (worldConfig.oceanMonumentsEnabled && this.oceanMonumentGen instanceof OTGOceanMonumentGen && ((OTGOceanMonumentGen)this.oceanMonumentGen).isInsideStructure(blockPos)) ||
+        (worldConfig.netherFortressesEnabled && this.netherFortressGen.isInsideStructureCached(blockPos)) ||
+        (worldConfig.oceanMonumentsEnabled && this.oceanMonumentGen instanceof OTGOceanMonumentGen && ((OTGOceanMonumentGen)this.oceanMonumentGen).isInsideStructureCached(blockPos)) ||
         (worldConfig.oceanMonumentsEnabled && !(this.oceanMonumentGen instanceof OTGOceanMonumentGen) && this.oceanMonumentGen.isInsideStructure(blockPos)) ||
-        (worldConfig.woodLandMansionsEnabled && this.woodLandMansionGen instanceof OTGWoodLandMansionGen && ((OTGWoodLandMansionGen)this.woodLandMansionGen).isInsideStructure(blockPos)) ||
+        (worldConfig.woodLandMansionsEnabled && this.woodLandMansionGen instanceof OTGWoodLandMansionGen && ((OTGWoodLandMansionGen)this.woodLandMansionGen).isInsideStructureCached(blockPos)) ||
         (worldConfig.woodLandMansionsEnabled && !(this.woodLandMansionGen instanceof OTGWoodLandMansionGen) && this.woodLandMansionGen.isInsideStructure(blockPos))
         ;
 	}
@@ -925,18 +933,20 @@ public class ForgeWorld implements LocalWorld
             return;
         }
 
-    	replaceBlocks(this.getChunk(chunkCoord.getBlockX() + 16, chunkCoord.getBlockZ() + 16, false), 0, 0, 16);
-    	replaceBlocks(this.getChunk(chunkCoord.getBlockX(), chunkCoord.getBlockZ() + 16, false), 0, 0, 16);
-    	replaceBlocks(this.getChunk(chunkCoord.getBlockX() + 16, chunkCoord.getBlockZ(), false), 0, 0, 16);
-    	replaceBlocks(this.getChunk(chunkCoord.getBlockX(), chunkCoord.getBlockZ(), false), 0, 0, 16);
+    	replaceBlocks(this.getChunk(chunkCoord.getBlockX() + 16, chunkCoord.getBlockZ() + 16, false));
+    	replaceBlocks(this.getChunk(chunkCoord.getBlockX(), chunkCoord.getBlockZ() + 16, false));
+    	replaceBlocks(this.getChunk(chunkCoord.getBlockX() + 16, chunkCoord.getBlockZ(), false));
+    	replaceBlocks(this.getChunk(chunkCoord.getBlockX(), chunkCoord.getBlockZ(), false));
     }
 
-    private void replaceBlocks(Chunk rawChunk, int startXInChunk, int startZInChunk, int size)
+    private void replaceBlocks(Chunk rawChunk)
     {
-        int endXInChunk = startXInChunk + size;
-        int endZInChunk = startZInChunk + size;
-        int worldStartX = rawChunk.x * 16;
-        int worldStartZ = rawChunk.z * 16;
+        // Look up the biomes once for the whole chunk instead of once per section
+        ChunkReplacedBlocks replacedBlocks = ChunkReplacedBlocks.forChunk(this, ChunkCoordinate.fromChunkCoords(rawChunk.x, rawChunk.z));
+        if (replacedBlocks == null)
+        {
+            return;
+        }
 
         ExtendedBlockStorage[] sectionsArray = rawChunk.getBlockStorageArray();
 
@@ -944,47 +954,51 @@ public class ForgeWorld implements LocalWorld
         int blockId;
         int y;
         ForgeMaterialData replaceTo;
-        LocalBiome biome;
         LocalMaterialData[][] replaceArray;
         
         for (ExtendedBlockStorage section : sectionsArray)
         {
-            if (section == null)
+            if (section == null || !replacedBlocks.replacesInRange(section.getYLocation(), section.getYLocation() + 15))
+            {
+                continue;
+            }
+            if (section.isEmpty() && !replacedBlocks.isSourceBlock(0))
             {
+                // Only air in this section, and air is never replaced
                 continue;
             }
 
-            for (int sectionX = startXInChunk; sectionX < endXInChunk; sectionX++)
+            for (int sectionX = 0; sectionX < 16; sectionX++)
             {
-                for (int sectionZ = startZInChunk; sectionZ < endZInChunk; sectionZ++)
+                for (int sectionZ = 0; sectionZ < 16; sectionZ++)
                 {
-                    biome = this.getBiome(worldStartX + sectionX, worldStartZ + sectionZ);
-                    if (biome != null && biome.getBiomeConfig().replacedBlocks.hasReplaceSettings())
+                    replaceArray = replacedBlocks.getColumn(sectionX, sectionZ);
+                    if (replaceArray == null)
                     {
-                        replaceArray = biome.getBiomeConfig().replacedBlocks.compiledInstructions;
-                        for (int sectionY = 0; sectionY < 16; sectionY++)
+                        continue;
+                    }
+                    for (int sectionY = 0; sectionY < 16; sectionY++)
+                    {
+                        block = section.getData().get(sectionX, sectionY, sectionZ);
+                        blockId = Block.getIdFromBlock(block.getBlock());
+                        if (!replacedBlocks.isSourceBlock(blockId) || replaceArray[blockId] == null)
+                        {
+                            continue;
+                        }
+
+                        y = section.getYLocation() + sectionY;
+                        if (y >= replaceArray[blockId].length)
                         {
-                            block = section.getData().get(sectionX, sectionY, sectionZ);
-                            blockId = Block.getIdFromBlock(block.getBlock());
-                            if (replaceArray[blockId] == null)
-                            {
-                                continue;
-                            }
-
-                            y = section.getYLocation() + sectionY;
-                            if (y >= replaceArray[blockId].length)
-                            {
-                                break;
-                            }
-
-                            replaceTo = (ForgeMaterialData) replaceArray[blockId][y];
-                            if (replaceTo == null || replaceTo.getBlockId() == blockId)
-                            {
-                                continue;
-                            }
-
-                            section.set(sectionX, sectionY, sectionZ, replaceTo.internalBlock());
+                            break;
                         }
+
+                        replaceTo = (ForgeMaterialData) replaceArray[blockId][y];
+                        if (replaceTo == null || replaceTo.getBlockId() == blockId)
+                        {
+                            continue;
+                        }
+
+                        section.set(sectionX, sectionY, sectionZ, replaceTo.internalBlock());
                     }
                 }
             }